@@ -8,7 +8,6 @@
 package org.eclipse.cdt.cmake.core.internal;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -34,8 +33,6 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.osgi.service.prefs.BackingStoreException;
 import org.osgi.service.prefs.Preferences;
 
-import com.google.gson.Gson;
-
 public class CMakeBuildConfiguration extends CBuildConfiguration {
 
 	public static final String CMAKE_GENERATOR = "cmake.generator"; //$NON-NLS-1$
@@ -164,7 +161,7 @@ public class CMakeBuildConfiguration extends CBuildConfiguration {
 			project.refreshLocal(IResource.DEPTH_INFINITE, monitor);
 
 			// Load compile_commands.json file
-			processCompileCommandsFile(monitor);
+			processCompileCommandsFile(buildDir.resolve("compile_commands.json"), monitor); //$NON-NLS-1$
 
 			return new IProject[] { project };
 		} catch (IOException e) {
@@ -216,23 +213,4 @@ public class CMakeBuildConfiguration extends CBuildConfiguration {
 		}
 	}
 
-	private void processCompileCommandsFile(IProgressMonitor monitor) throws CoreException {
-		IProject project = getProject();
-		Path commandsFile = getBuildDirectory().resolve("compile_commands.json"); //$NON-NLS-1$
-		if (Files.exists(commandsFile)) {
-			monitor.setTaskName(Messages.CMakeBuildConfiguration_ProcCompJson);
-			try (FileReader reader = new FileReader(commandsFile.toFile())) {
-				Gson gson = new Gson();
-				CompileCommand[] commands = gson.fromJson(reader, CompileCommand[].class);
-				for (CompileCommand command : commands) {
-					processLine(command.getCommand());
-				}
-				shutdown();
-			} catch (IOException e) {
-				throw new CoreException(
-						Activator.errorStatus(String.format(Messages.CMakeBuildConfiguration_ProcCompCmds, project.getName()), e));
-			}
-		}
-	}
-
 }
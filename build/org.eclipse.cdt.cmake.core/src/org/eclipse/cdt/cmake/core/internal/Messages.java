@@ -15,8 +15,6 @@ public class Messages extends NLS {
 	public static String CMakeBuildConfiguration_BuildingIn;
 	public static String CMakeBuildConfiguration_Cleaning;
 	public static String CMakeBuildConfiguration_NotFound;
-	public static String CMakeBuildConfiguration_ProcCompCmds;
-	public static String CMakeBuildConfiguration_ProcCompJson;
 	static {
 		// initialize resource bundle
 		NLS.initializeMessages(BUNDLE_NAME, Messages.class);
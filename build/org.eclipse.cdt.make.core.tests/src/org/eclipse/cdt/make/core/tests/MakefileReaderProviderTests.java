@@ -21,6 +21,7 @@ import java.io.StringReader;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
 
 import junit.framework.Test;
 import junit.framework.TestCase;
@@ -155,6 +156,68 @@ public class MakefileReaderProviderTests extends TestCase {
 		assertTrue("Stream is not closed", streamIsClosed[0]);
 	}
 
+	public void testEditedIncludedMakefile() throws Exception {
+		File dir = File.createTempFile("makefile", "test");
+		dir.delete();
+		dir.mkdirs();
+		try {
+			File main = new File(dir, "Makefile.main");
+			File incl = new File(dir, "Makefile.incl");
+			Files.write(main.toPath(), "include Makefile.incl\n".getBytes());
+			Files.write(incl.toPath(), "INCLVAR = bar\n".getBytes());
+			IMakefile makefile = MakeCorePlugin.createMakefile(URIUtil.toURI(main.getAbsolutePath()), true,
+					new String[] { dir.getAbsolutePath() });
+			assertEquals(1, makefile.getMacroDefinitions("INCLVAR").length);
+
+			// The lookups see the edit of the included makefile
+			long stamp = incl.lastModified();
+			Files.write(incl.toPath(), "OTHERVAR = baz\n".getBytes());
+			incl.setLastModified(stamp + 10000);
+			assertEquals(0, makefile.getMacroDefinitions("INCLVAR").length);
+			assertEquals(1, makefile.getMacroDefinitions("OTHERVAR").length);
+		} finally {
+			for (File file : dir.listFiles()) {
+				file.delete();
+			}
+			dir.delete();
+		}
+	}
+
+	public void testChangedInMemoryIncludedMakefile() throws Exception {
+		final String[] inclContent = { "INCLVAR = bar\r\n" };
+		final Thread thread = Thread.currentThread();
+		final boolean[] otherThread = { false };
+		IMakefile makefile = MakeCorePlugin.createMakefile(
+				URIUtil.toURI("/memory/Makefile.main"), true, inclDirs,
+				new IMakefileReaderProvider() {
+
+					@Override
+					public Reader getReader(URI fileURI) throws IOException {
+						otherThread[0] |= Thread.currentThread() != thread;
+						String name = new File(fileURI).getName();
+						if (name.equals("Makefile.main"))
+							return new StringReader("include Makefile.incl Makefile.other\r\n");
+						if (name.equals("Makefile.incl"))
+							return new StringReader(inclContent[0]);
+						if (name.equals("Makefile.other"))
+							return new StringReader("OTHERVAR = baz\r\n");
+
+						throw new FileNotFoundException(fileURI.getPath());
+					}
+
+				});
+		assertEquals(1, makefile.getMacroDefinitions("INCLVAR").length);
+		assertEquals(1, makefile.getMacroDefinitions("OTHERVAR").length);
+
+		// Without a time stamp the included makefile is read again
+		inclContent[0] = "NEWVAR = bar\r\n";
+		assertEquals(0, makefile.getMacroDefinitions("INCLVAR").length);
+		assertEquals(1, makefile.getMacroDefinitions("NEWVAR").length);
+
+		// A reader provider is never called concurrently
+		assertFalse(otherThread[0]);
+	}
+
 	/**
 	 * @param makefile
 	 */
@@ -170,6 +233,13 @@ public class MakefileReaderProviderTests extends TestCase {
 		assertEquals(2, rules.length);
 		assertEquals("foo.o", rules[0].getTarget().toString());
 		assertEquals("main", rules[1].getTarget().toString());
+
+		// Lookups by name go through the index and see the included makefile as well
+		assertEquals(1, makefile.getMacroDefinitions("INCLVAR").length);
+		assertEquals(0, makefile.getMacroDefinitions("NOVAR").length);
+		assertEquals(1, makefile.getRules("foo.o").length);
+		assertEquals(1, makefile.getTargetRules("main").length);
+		assertSame(makefile.getRules("main")[0], makefile.getRules("main")[0]);
 	}
 
 	/**
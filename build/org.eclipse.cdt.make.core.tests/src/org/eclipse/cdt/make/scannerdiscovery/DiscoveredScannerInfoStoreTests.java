@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.make.scannerdiscovery;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.make.core.MakeCorePlugin;
+import org.eclipse.cdt.make.core.scannerconfig.IDiscoveredPathManager.IDiscoveredScannerInfoSerializable;
+import org.eclipse.cdt.make.core.tests.StandardBuildTestHelper;
+import org.eclipse.cdt.make.internal.core.scannerconfig.DiscoveredScannerInfoStore;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.w3c.dom.Element;
+
+/**
+ * Tests reading and writing the discovered scanner info store.
+ */
+public class DiscoveredScannerInfoStoreTests extends BaseTestCase {
+	private static final String PROJECT_NAME = "DiscoveredScannerInfoStoreTests";
+	private static final String COLLECTOR_ID = "org.eclipse.cdt.make.core.tests.storeTestCollector";
+	private static final String VALUE_ATTR = "value";
+
+	private static class TestSerializable implements IDiscoveredScannerInfoSerializable {
+		String value;
+
+		TestSerializable(String value) {
+			this.value = value;
+		}
+
+		@Override
+		public void serialize(Element root) {
+			Element elem = root.getOwnerDocument().createElement("entry");
+			elem.setAttribute(VALUE_ATTR, value);
+			root.appendChild(elem);
+		}
+
+		@Override
+		public void deserialize(Element root) {
+			Element elem = (Element) root.getElementsByTagName("entry").item(0);
+			value = elem.getAttribute(VALUE_ATTR);
+		}
+
+		@Override
+		public String getCollectorId() {
+			return COLLECTOR_ID;
+		}
+	}
+
+	private IProject fProject1;
+	private IProject fProject2;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fProject1 = StandardBuildTestHelper.createProject(PROJECT_NAME, (IPath) null, MakeCorePlugin.MAKE_PROJECT_ID);
+		// The store keeps the documents of loaded projects, use a fresh project for loading.
+		fProject2 = StandardBuildTestHelper.createProject(PROJECT_NAME + getName(), (IPath) null, MakeCorePlugin.MAKE_PROJECT_ID);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		StandardBuildTestHelper.removeProject(PROJECT_NAME);
+		StandardBuildTestHelper.removeProject(PROJECT_NAME + getName());
+		super.tearDown();
+	}
+
+	public void testCompressedRoundTrip() throws Exception {
+		DiscoveredScannerInfoStore store = DiscoveredScannerInfoStore.getInstance();
+		String value = "/usr/include/some/path";
+		store.saveDiscoveredScannerInfoToState(fProject1, new TestSerializable(value));
+
+		File file1 = store.getDiscoveredScannerConfigStore(fProject1).toFile();
+		byte[] bytes = Files.readAllBytes(file1.toPath());
+		assertEquals(GZIPInputStream.GZIP_MAGIC & 0xff, bytes[0] & 0xff);
+		assertEquals((GZIPInputStream.GZIP_MAGIC >> 8) & 0xff, bytes[1] & 0xff);
+
+		File file2 = store.getDiscoveredScannerConfigStore(fProject2).toFile();
+		Files.write(file2.toPath(), bytes);
+		TestSerializable loaded = new TestSerializable(null);
+		store.loadDiscoveredScannerInfoFromState(fProject2, loaded);
+		assertEquals(value, loaded.value);
+	}
+
+	public void testLoadUncompressedStore() throws Exception {
+		DiscoveredScannerInfoStore store = DiscoveredScannerInfoStore.getInstance();
+		String value = "/usr/local/include";
+		store.saveDiscoveredScannerInfoToState(fProject1, new TestSerializable(value));
+
+		// Write the store the way older versions did.
+		File file1 = store.getDiscoveredScannerConfigStore(fProject1).toFile();
+		File file2 = store.getDiscoveredScannerConfigStore(fProject2).toFile();
+		try (InputStream in = new GZIPInputStream(new FileInputStream(file1));
+				OutputStream out = new FileOutputStream(file2)) {
+			byte[] buffer = new byte[4096];
+			for (int n; (n = in.read(buffer)) > 0;) {
+				out.write(buffer, 0, n);
+			}
+		}
+		TestSerializable loaded = new TestSerializable(null);
+		store.loadDiscoveredScannerInfoFromState(fProject2, loaded);
+		assertEquals(value, loaded.value);
+	}
+}
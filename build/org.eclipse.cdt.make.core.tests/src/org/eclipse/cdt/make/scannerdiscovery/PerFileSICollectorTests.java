@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.make.scannerdiscovery;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.make.core.MakeCorePlugin;
+import org.eclipse.cdt.make.core.scannerconfig.PathInfo;
+import org.eclipse.cdt.make.core.scannerconfig.ScannerInfoTypes;
+import org.eclipse.cdt.make.core.tests.StandardBuildTestHelper;
+import org.eclipse.cdt.make.internal.core.scannerconfig.util.CCommandDSC;
+import org.eclipse.cdt.make.internal.core.scannerconfig.util.KVStringPair;
+import org.eclipse.cdt.make.internal.core.scannerconfig.util.SCDOptionsEnum;
+import org.eclipse.cdt.make.internal.core.scannerconfig2.PerFileSICollector;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Tests the sharing of compiler commands between files in the per file collector.
+ */
+public class PerFileSICollectorTests extends BaseTestCase {
+	private static final String PROJECT_NAME = "PerFileSICollectorTests";
+
+	private static class TestCollector extends PerFileSICollector {
+		CCommandDSC getCommandForFile(IFile file) {
+			synchronized (fLock) {
+				applyFileDeltas();
+				return getCommand(file);
+			}
+		}
+
+		Map<IResource, PathInfo> getPathInfoMap() {
+			synchronized (fLock) {
+				return calculatePathInfoMap();
+			}
+		}
+	}
+
+	private IProject fProject;
+	private TestCollector fCollector;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fProject = StandardBuildTestHelper.createProject(PROJECT_NAME, (IPath) null, MakeCorePlugin.MAKE_PROJECT_ID);
+		fCollector = new TestCollector();
+		fCollector.setProject(fProject);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		StandardBuildTestHelper.removeProject(PROJECT_NAME);
+		super.tearDown();
+	}
+
+	private static CCommandDSC createCommand(String... defines) {
+		CCommandDSC cmd = new CCommandDSC(false);
+		cmd.addSCOption(new KVStringPair(SCDOptionsEnum.COMMAND.toString(), "gcc"));
+		for (String define : defines) {
+			cmd.addSCOption(new KVStringPair(SCDOptionsEnum.DEFINE.toString(), define));
+		}
+		return cmd;
+	}
+
+	private void contribute(IFile file, CCommandDSC cmd) {
+		fCollector.contributeToScannerConfig(file,
+				Collections.singletonMap(ScannerInfoTypes.COMPILER_COMMAND, Arrays.asList(cmd)));
+	}
+
+	public void testEqualCommandsAreShared() throws Exception {
+		IFile file1 = fProject.getFile("a.c");
+		IFile file2 = fProject.getFile("b.c");
+		IFile file3 = fProject.getFile("c.c");
+		CCommandDSC cmd1 = createCommand("A=1", "B");
+		CCommandDSC cmd2 = createCommand("A=1", "B");
+		CCommandDSC cmd3 = createCommand("A=2");
+		contribute(file1, cmd1);
+		contribute(file2, cmd2);
+		contribute(file3, cmd3);
+
+		CCommandDSC shared = fCollector.getCommandForFile(file1);
+		assertSame(shared, fCollector.getCommandForFile(file2));
+		assertEquals(cmd1, shared);
+		assertEquals(cmd2, shared);
+		assertEquals(cmd1.getSymbols(), shared.getSymbols());
+
+		CCommandDSC other = fCollector.getCommandForFile(file3);
+		assertNotSame(shared, other);
+		assertEquals(cmd3, other);
+		assertFalse(shared.getCommandId() == other.getCommandId());
+
+		Map<IResource, PathInfo> pathInfos = fCollector.getPathInfoMap();
+		assertSame(pathInfos.get(file1), pathInfos.get(file2));
+		assertEquals("1", pathInfos.get(file1).getSymbols().get("A"));
+		assertEquals("2", pathInfos.get(file3).getSymbols().get("A"));
+	}
+
+	public void testReplacedCommandIsNoLongerShared() throws Exception {
+		IFile file1 = fProject.getFile("a.c");
+		IFile file2 = fProject.getFile("b.c");
+		contribute(file1, createCommand("A"));
+		contribute(file2, createCommand("A"));
+		CCommandDSC shared = fCollector.getCommandForFile(file1);
+
+		contribute(file2, createCommand("B"));
+		CCommandDSC changed = fCollector.getCommandForFile(file2);
+		assertNotSame(shared, changed);
+		assertEquals(createCommand("B"), changed);
+		assertSame(shared, fCollector.getCommandForFile(file1));
+	}
+}
@@ -13,8 +13,11 @@ package org.eclipse.cdt.make.internal.core.makefile;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 
 import org.eclipse.cdt.make.core.makefile.IBuiltinFunction;
 import org.eclipse.cdt.make.core.makefile.IDirective;
@@ -43,10 +46,90 @@ import org.eclipse.cdt.make.core.makefile.ITargetRule;
 public abstract class AbstractMakefile extends Parent implements IMakefile {
 	private URI filename;
 
+	/**
+	 * Rules and macro definitions of the expanded directives hashed by target and name,
+	 * so that lookups don't scan all the directives.
+	 */
+	private static class Index {
+		final IRule[] rules;
+		final IMacroDefinition[] macros;
+		final Map<String, List<IRule>> rulesByTarget = new HashMap<String, List<IRule>>();
+		final Map<String, List<IMacroDefinition>> macrosByName = new HashMap<String, List<IMacroDefinition>>();
+		/** Directives that may have to be read again, e.g. includes. */
+		final List<Parent> parents = new ArrayList<Parent>();
+
+		Index(IDirective[] stmts) {
+			List<IRule> ruleList = new ArrayList<IRule>();
+			List<IMacroDefinition> macroList = new ArrayList<IMacroDefinition>();
+			for (IDirective stmt : stmts) {
+				if (stmt instanceof Parent) {
+					parents.add((Parent) stmt);
+				}
+				if (stmt instanceof IRule) {
+					IRule rule = (IRule) stmt;
+					ruleList.add(rule);
+					add(rulesByTarget, rule.getTarget().toString(), rule);
+				}
+				if (stmt instanceof IMacroDefinition) {
+					IMacroDefinition macro = (IMacroDefinition) stmt;
+					macroList.add(macro);
+					add(macrosByName, macro.getName(), macro);
+				}
+			}
+			rules = ruleList.toArray(new IRule[ruleList.size()]);
+			macros = macroList.toArray(new IMacroDefinition[macroList.size()]);
+		}
+
+		private static <T> void add(Map<String, List<T>> map, String key, T value) {
+			List<T> list = map.get(key);
+			if (list == null) {
+				list = new ArrayList<T>(1);
+				map.put(key, list);
+			}
+			list.add(value);
+		}
+
+		<T> List<T> get(Map<String, List<T>> map, String key) {
+			List<T> list = map.get(key);
+			return list != null ? list : Collections.<T>emptyList();
+		}
+
+		/**
+		 * Check whether the index still reflects the files the directives were read from,
+		 * an included makefile may have been edited since the index was built.
+		 */
+		boolean isUpToDate() {
+			for (Parent parent : parents) {
+				if (parent.isOutdated()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private volatile Index fIndex;
+
 	public AbstractMakefile(Directive parent) {
 		super(parent);
 	}
 
+	/**
+	 * Discard the lookup index, it is rebuilt on the next query.
+	 */
+	public void invalidateIndex() {
+		fIndex = null;
+	}
+
+	private Index getIndex() {
+		Index index = fIndex;
+		if (index == null || !index.isUpToDate()) {
+			index = new Index(getDirectives(true));
+			fIndex = index;
+		}
+		return index;
+	}
+
 	@Override
 	public abstract IDirective[] getBuiltins();
 
@@ -57,26 +140,14 @@ public abstract class AbstractMakefile extends Parent implements IMakefile {
 
 	@Override
 	public IRule[] getRules() {
-		IDirective[] stmts = getDirectives(true);
-		List<IDirective> array = new ArrayList<IDirective>(stmts.length);
-		for (IDirective stmt : stmts) {
-			if (stmt instanceof IRule) {
-				array.add(stmt);
-			}
-		}
-		return array.toArray(new IRule[0]);
+		return getIndex().rules.clone();
 	}
 
 	@Override
 	public IRule[] getRules(String target) {
-		IRule[] rules = getRules();
-		List<IRule> array = new ArrayList<IRule>(rules.length);
-		for (IRule rule : rules) {
-			if (rule.getTarget().equals(target)) {
-				array.add(rule);
-			}
-		}
-		return array.toArray(new IRule[0]);
+		Index index = getIndex();
+		List<IRule> rules = index.get(index.rulesByTarget, target);
+		return rules.toArray(new IRule[rules.size()]);
 	}
 
 	@Override
@@ -93,11 +164,11 @@ public abstract class AbstractMakefile extends Parent implements IMakefile {
 
 	@Override
 	public IInferenceRule[] getInferenceRules(String target) {
-		IInferenceRule[] irules = getInferenceRules();
-		List<IInferenceRule> array = new ArrayList<IInferenceRule>(irules.length);
-		for (IInferenceRule irule : irules) {
-			if (irule.getTarget().equals(target)) {
-				array.add(irule);
+		IRule[] rules = getRules(target);
+		List<IInferenceRule> array = new ArrayList<IInferenceRule>(rules.length);
+		for (IRule rule : rules) {
+			if (rule instanceof IInferenceRule) {
+				array.add((IInferenceRule) rule);
 			}
 		}
 		return array.toArray(new IInferenceRule[0]);
@@ -117,11 +188,11 @@ public abstract class AbstractMakefile extends Parent implements IMakefile {
 
 	@Override
 	public ITargetRule[] getTargetRules(String target) {
-		ITargetRule[] trules = getTargetRules();
-		List<ITargetRule> array = new ArrayList<ITargetRule>(trules.length);
-		for (ITargetRule trule : trules) {
-			if (trule.getTarget().equals(target)) {
-				array.add(trule);
+		IRule[] rules = getRules(target);
+		List<ITargetRule> array = new ArrayList<ITargetRule>(rules.length);
+		for (IRule rule : rules) {
+			if (rule instanceof ITargetRule) {
+				array.add((ITargetRule) rule);
 			}
 		}
 		return array.toArray(new ITargetRule[0]);
@@ -129,26 +200,14 @@ public abstract class AbstractMakefile extends Parent implements IMakefile {
 
 	@Override
 	public IMacroDefinition[] getMacroDefinitions() {
-		IDirective[] stmts = getDirectives(true);
-		List<IDirective> array = new ArrayList<IDirective>(stmts.length);
-		for (IDirective stmt : stmts) {
-			if (stmt instanceof IMacroDefinition) {
-				array.add(stmt);
-			}
-		}
-		return array.toArray(new IMacroDefinition[0]);
+		return getIndex().macros.clone();
 	}
 
 	@Override
 	public IMacroDefinition[] getMacroDefinitions(String name) {
-		IMacroDefinition[] variables = getMacroDefinitions();
-		List<IMacroDefinition> array = new ArrayList<IMacroDefinition>(variables.length);
-		for (IMacroDefinition variable : variables) {
-			if (variable.getName().equals(name)) {
-				array.add(variable);
-			}
-		}
-		return array.toArray(new IMacroDefinition[0]);
+		Index index = getIndex();
+		List<IMacroDefinition> macros = index.get(index.macrosByName, name);
+		return macros.toArray(new IMacroDefinition[macros.size()]);
 	}
 
 	@Override
@@ -54,6 +54,7 @@ public abstract class Parent extends Directive implements IParent {
 		children.add(directive);
 		// reparent
 		directive.setParent(this);
+		directivesChanged();
 	}
 
 	public void addDirectives(Directive[] directives) {
@@ -62,10 +63,31 @@ public abstract class Parent extends Directive implements IParent {
 		for (int i = 0; i < directives.length; i++) {
 			directives[i].setParent(this);
 		}
+		directivesChanged();
 	}
 
 	public void clearDirectives() {
 		children.clear();
+		directivesChanged();
+	}
+
+	/**
+	 * Check whether the directives need to be computed again because a file they were read
+	 * from has changed. Only the directives themselves are checked, not their children.
+	 */
+	protected boolean isOutdated() {
+		return false;
+	}
+
+	/**
+	 * Invalidate the lookup index of all the makefiles this directive is part of.
+	 */
+	protected void directivesChanged() {
+		for (IDirective directive = this; directive != null; directive = directive.getParent()) {
+			if (directive instanceof AbstractMakefile) {
+				((AbstractMakefile) directive).invalidateIndex();
+			}
+		}
 	}
 
 	public Directive[] getStatements() {
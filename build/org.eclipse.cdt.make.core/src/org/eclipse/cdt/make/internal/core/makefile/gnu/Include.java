@@ -13,21 +13,48 @@ package org.eclipse.cdt.make.internal.core.makefile.gnu;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
+import org.eclipse.cdt.make.core.MakeCorePlugin;
 import org.eclipse.cdt.make.core.makefile.IDirective;
 import org.eclipse.cdt.make.core.makefile.IMakefile;
 import org.eclipse.cdt.make.core.makefile.IMakefileReaderProvider;
 import org.eclipse.cdt.make.core.makefile.gnu.IInclude;
 import org.eclipse.cdt.make.internal.core.makefile.Directive;
 import org.eclipse.cdt.make.internal.core.makefile.Parent;
+import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.URIUtil;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 
 public class Include extends Parent implements IInclude {
 
+	/**
+	 * An included makefile together with the time stamp of the file it was parsed from.
+	 */
+	private static class IncludedMakefile {
+		final URI uri;
+		final long stamp;
+		final GNUMakefile makefile;
+
+		IncludedMakefile(URI uri, long stamp, GNUMakefile makefile) {
+			this.uri = uri;
+			this.stamp = stamp;
+			this.makefile = makefile;
+		}
+	}
+
+	private static final long UNKNOWN_STAMP = -1;
+
 	String[] filenames;
 	String[] dirs;
+	private volatile IncludedMakefile[] includedMakefiles;
 
 	public Include(Directive parent, String[] files, String[] directories) {
 		super(parent);
@@ -65,53 +92,151 @@ public class Include extends Parent implements IInclude {
 
 	@Override
 	public IDirective[] getDirectives() {
-		clearDirectives();
-		URI uri = getMakefile().getFileURI();
-		IMakefileReaderProvider makefileReaderProvider = getCurrentMakefileReaderProvider();
+		IncludedMakefile[] previous = includedMakefiles;
+		IncludedMakefile[] included = new IncludedMakefile[filenames.length];
+		List<Integer> toParse = new ArrayList<Integer>(filenames.length);
 		for (int i = 0; i < filenames.length; i++) {
-			IPath includeFilePath = new Path(filenames[i]);
-			if (includeFilePath.isAbsolute()) {
-				// Try to set the device to that of the parent makefile.
-				final IPath path = URIUtil.toPath(uri);
-				if (path != null) {
-					String device = path.getDevice();
-					if (device != null && includeFilePath.getDevice() == null) {
-						includeFilePath = includeFilePath.setDevice(device);
-					}
-					try {
-						URI includeURI = URIUtil.toURI(includeFilePath);
-						if (!isAlreadyIncluded(includeURI)) {
-							GNUMakefile gnu = new GNUMakefile();
-							gnu.parse(includeURI, makefileReaderProvider);
-							addDirective(gnu);
-						}
-						continue;
-					} catch (IOException e) {
+			// Reuse the makefiles parsed before unless their files changed, missing files and files
+			// without a time stamp are read again
+			if (previous != null && isUpToDate(previous[i])) {
+				included[i] = previous[i];
+			} else {
+				toParse.add(i);
+			}
+		}
+		if (previous != null && toParse.isEmpty()) {
+			return super.getDirectives();
+		}
+
+		URI uri = getMakefile().getFileURI();
+		final IMakefileReaderProvider makefileReaderProvider = getCurrentMakefileReaderProvider();
+		if (toParse.size() > 1 && makefileReaderProvider == null) {
+			// The included files are independent of each other, parse them in parallel. A reader provider
+			// supplied by a client is called from the current thread only.
+			List<Future<IncludedMakefile>> futures = new ArrayList<Future<IncludedMakefile>>(toParse.size());
+			for (int i : toParse) {
+				final URI[] candidates = getCandidateURIs(uri, filenames[i]);
+				futures.add(ForkJoinPool.commonPool().submit(new Callable<IncludedMakefile>() {
+					@Override
+					public IncludedMakefile call() {
+						return parseFirst(candidates, makefileReaderProvider);
 					}
+				}));
+			}
+			for (int j = 0; j < futures.size(); j++) {
+				try {
+					included[toParse.get(j)] = futures.get(j).get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return super.getDirectives();
+				} catch (ExecutionException e) {
+					MakeCorePlugin.log(e.getCause());
 				}
-			} else if (dirs != null) {
-				for (int j = 0; j < dirs.length; j++) {
-					try {
-						IPath testIncludeFilePath= new Path(dirs[j]).append(includeFilePath);
-						String uriPath = testIncludeFilePath.toString();
-						if (testIncludeFilePath.getDevice() != null) {
-							// special case: device prefix is seen as relative path by URI
-							uriPath = '/' + uriPath;
-						}
-						URI includeURI = new URI(uri.getScheme(), uri.getUserInfo(), uri.getHost(), uri.getPort(), uriPath, null, null);
-						if (!isAlreadyIncluded(includeURI)) {
-							GNUMakefile gnu = new GNUMakefile();
-							gnu.parse(includeURI, makefileReaderProvider);
-							addDirective(gnu);
-						}
-						break;
-					} catch (IOException e) {
-					} catch (URISyntaxException exc) {
+			}
+		} else {
+			for (int i : toParse) {
+				included[i] = parseFirst(getCandidateURIs(uri, filenames[i]), makefileReaderProvider);
+			}
+		}
+
+		clearDirectives();
+		for (IncludedMakefile inc : included) {
+			if (inc != null && inc.makefile != null) {
+				addDirective(inc.makefile);
+			}
+		}
+		includedMakefiles = included;
+		return super.getDirectives();
+	}
+
+	/**
+	 * Check whether an included makefile was found and its file hasn't changed since it was parsed.
+	 */
+	private static boolean isUpToDate(IncludedMakefile inc) {
+		return inc != null && inc.stamp != UNKNOWN_STAMP && inc.stamp == getStamp(inc.uri);
+	}
+
+	/**
+	 * Check whether any of the included files is missing, has changed since it was parsed
+	 * or is nested in an include that needs to be read again.
+	 */
+	@Override
+	protected boolean isOutdated() {
+		IncludedMakefile[] included = includedMakefiles;
+		if (included == null) {
+			return true;
+		}
+		for (IncludedMakefile inc : included) {
+			if (!isUpToDate(inc)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the locations to try for an included file, in order.
+	 */
+	private URI[] getCandidateURIs(URI uri, String filename) {
+		IPath includeFilePath = new Path(filename);
+		if (includeFilePath.isAbsolute()) {
+			// Try to set the device to that of the parent makefile.
+			final IPath path = URIUtil.toPath(uri);
+			if (path != null) {
+				String device = path.getDevice();
+				if (device != null && includeFilePath.getDevice() == null) {
+					includeFilePath = includeFilePath.setDevice(device);
+				}
+				return new URI[] { URIUtil.toURI(includeFilePath) };
+			}
+		} else if (dirs != null) {
+			List<URI> uris = new ArrayList<URI>(dirs.length);
+			for (int j = 0; j < dirs.length; j++) {
+				try {
+					IPath testIncludeFilePath= new Path(dirs[j]).append(includeFilePath);
+					String uriPath = testIncludeFilePath.toString();
+					if (testIncludeFilePath.getDevice() != null) {
+						// special case: device prefix is seen as relative path by URI
+						uriPath = '/' + uriPath;
 					}
+					uris.add(new URI(uri.getScheme(), uri.getUserInfo(), uri.getHost(), uri.getPort(), uriPath, null, null));
+				} catch (URISyntaxException exc) {
 				}
 			}
+			return uris.toArray(new URI[uris.size()]);
+		}
+		return new URI[0];
+	}
+
+	/**
+	 * Parse the first of the candidate locations that can be read.
+	 *
+	 * @return the parsed makefile, or <code>null</code> if none of the candidates could be read
+	 */
+	private IncludedMakefile parseFirst(URI[] candidates, IMakefileReaderProvider makefileReaderProvider) {
+		for (URI includeURI : candidates) {
+			try {
+				long stamp = getStamp(includeURI);
+				GNUMakefile gnu = null;
+				if (!isAlreadyIncluded(includeURI)) {
+					gnu = new GNUMakefile();
+					gnu.parse(includeURI, makefileReaderProvider);
+				}
+				return new IncludedMakefile(includeURI, stamp, gnu);
+			} catch (IOException e) {
+			}
+		}
+		return null;
+	}
+
+	private static long getStamp(URI uri) {
+		try {
+			// A file that doesn't exist in the file system (e.g. an in-memory makefile) has no time stamp
+			long stamp = EFS.getStore(uri).fetchInfo().getLastModified();
+			return stamp != EFS.NONE ? stamp : UNKNOWN_STAMP;
+		} catch (CoreException e) {
+			return UNKNOWN_STAMP;
 		}
-		return super.getDirectives();
 	}
 
 	private boolean isAlreadyIncluded(URI includeURI) {
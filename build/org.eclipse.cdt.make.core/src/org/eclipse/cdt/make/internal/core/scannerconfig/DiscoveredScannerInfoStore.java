@@ -11,15 +11,19 @@
  *******************************************************************************/
 package org.eclipse.cdt.make.internal.core.scannerconfig;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.ref.Reference;
 import java.lang.ref.SoftReference;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -157,9 +161,16 @@ public final class DiscoveredScannerInfoStore {
 		        DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
 		        IPath path = getDiscoveredScannerConfigStore(project);
 		        if (path.toFile().exists()) {
-		            // read form file
-		            FileInputStream file = new FileInputStream(path.toFile());
-		            document = builder.parse(file);
+		            // read form file, which may be compressed
+		            InputStream file = new BufferedInputStream(new FileInputStream(path.toFile()));
+		            try {
+		            	if (isCompressed(file)) {
+		            		file = new GZIPInputStream(file);
+		            	}
+		            	document = builder.parse(file);
+		            } finally {
+		            	file.close();
+		            }
 		            Node rootElem = document.getFirstChild();
 		            if (rootElem.getNodeType() != Node.PROCESSING_INSTRUCTION_NODE) {
 		                // no version info; upgrade
@@ -286,15 +297,18 @@ public final class DiscoveredScannerInfoStore {
 		try {
 			saveDiscoveredScannerInfo(context, serializable, document);
 
-			// Transform the document to something we can save in a file
+			// Transform the document to something we can save in a file.
+			// The per file discovery results repeat the same paths over and over, so the
+			// file is compressed; it is not indented as nobody is expected to read it.
 			ByteArrayOutputStream stream = new ByteArrayOutputStream();
 			Transformer transformer = TransformerFactory.newInstance().newTransformer();
 			transformer.setOutputProperty(OutputKeys.METHOD, "xml"); //$NON-NLS-1$
 			transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8"); //$NON-NLS-1$
-			transformer.setOutputProperty(OutputKeys.INDENT, "yes"); //$NON-NLS-1$
 			DOMSource source = new DOMSource(document);
-			StreamResult result = new StreamResult(stream);
+			GZIPOutputStream zipStream = new GZIPOutputStream(stream);
+			StreamResult result = new StreamResult(zipStream);
 			transformer.transform(source, result);
+			zipStream.close();
 
 			// Save the document
 			try {
@@ -320,6 +334,17 @@ public final class DiscoveredScannerInfoStore {
 		}
 	}
 
+	/**
+	 * Check for the gzip header, files written by older versions are plain Xml.
+	 */
+	private static boolean isCompressed(InputStream stream) throws IOException {
+		stream.mark(2);
+		int b1 = stream.read();
+		int b2 = stream.read();
+		stream.reset();
+		return b1 == (GZIPInputStream.GZIP_MAGIC & 0xff) && b2 == ((GZIPInputStream.GZIP_MAGIC >> 8) & 0xff);
+	}
+
     public IPath getDiscoveredScannerConfigStore(IProject project) {
         String fileName = project.getName() + ".sc"; //$NON-NLS-1$
         String storedFileName = null;
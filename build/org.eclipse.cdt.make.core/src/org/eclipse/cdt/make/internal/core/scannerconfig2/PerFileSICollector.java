@@ -14,10 +14,12 @@ package org.eclipse.cdt.make.internal.core.scannerconfig2;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -70,9 +72,11 @@ public class PerFileSICollector implements IScannerInfoCollector3, IScannerInfoC
         protected final Map<Integer, Set<IFile>> commandIdToFilesMap; // command id and set of files it applies to
         protected final Map<IFile, Integer> fileToCommandIdMap;  // maps each file to the corresponding command id
         protected final Map<Integer, CCommandDSC> commandIdCommandMap; // map of all commands
+        protected final Map<CCommandDSC, CCommandDSC> commandInternMap; // canonical instance of each command
 
         public ScannerInfoData() {
             commandIdCommandMap = new LinkedHashMap<Integer, CCommandDSC>();  // [commandId, command]
+            commandInternMap = new HashMap<CCommandDSC, CCommandDSC>();        // [command, command]
             fileToCommandIdMap = new HashMap<IFile, Integer>();         // [file, commandId]
             commandIdToFilesMap = new HashMap<Integer, Set<IFile>>();        // [commandId, set of files]
         }
@@ -305,10 +309,10 @@ public class PerFileSICollector implements IScannerInfoCollector3, IScannerInfoC
 
     protected void addCompilerCommand(IFile file, CCommandDSC cmd) {
 		assert Thread.holdsLock(fLock);
-        List<CCommandDSC> existingCommands = new ArrayList<CCommandDSC>(sid.commandIdCommandMap.values());
-        int index = existingCommands.indexOf(cmd);
-        if (index != -1) {
-            cmd = existingCommands.get(index);
+        // Files compiled with the same command share a single command object
+        CCommandDSC existing = sid.commandInternMap.get(cmd);
+        if (existing != null) {
+            cmd = existing;
         }
         else {
             int commandId = -1;
@@ -322,6 +326,7 @@ public class PerFileSICollector implements IScannerInfoCollector3, IScannerInfoC
             }
             cmd.setCommandId(commandId);
             sid.commandIdCommandMap.put(cmd.getCommandIdAsInteger(), cmd);
+            sid.commandInternMap.put(cmd, cmd);
         }
 
 		generateFileDelta(file, cmd);
@@ -411,7 +416,10 @@ public class PerFileSICollector implements IScannerInfoCollector3, IScannerInfoC
         }
         for (Integer cmdId : freeCommandIdPool) {
             // the command does not have any files associated; remove
-            sid.commandIdCommandMap.remove(cmdId);
+            CCommandDSC cmd = sid.commandIdCommandMap.remove(cmdId);
+            if (cmd != null) {
+            	sid.commandInternMap.remove(cmd);
+            }
             sid.commandIdToFilesMap.remove(cmdId);
         }
         while (!freeCommandIdPool.isEmpty()) {
@@ -802,15 +810,23 @@ public class PerFileSICollector implements IScannerInfoCollector3, IScannerInfoC
 		assert Thread.holdsLock(fLock);
 
     	Map<IResource, PathInfo> map = new HashMap<IResource, PathInfo>(sid.fileToCommandIdMap.size() + 1);
+    	// files compiled with the same command share the same path info
+    	Map<Integer, PathInfo> commandIdToPathInfo = new HashMap<Integer, PathInfo>(sid.commandIdCommandMap.size());
     	Set<Entry<IFile, Integer>> entrySet = sid.fileToCommandIdMap.entrySet();
     	for (Entry<IFile, Integer> entry : entrySet) {
     		IFile file = entry.getKey();
     		if(file != null){
-    			CCommandDSC cmd = sid.commandIdCommandMap.get(entry.getValue());
-	    		if(cmd != null){
-	    			PathInfo fpi = createFilePathInfo(cmd);
-	    			map.put(file, fpi);
-	    		}
+    			PathInfo fpi = commandIdToPathInfo.get(entry.getValue());
+    			if (fpi == null) {
+	    			CCommandDSC cmd = sid.commandIdCommandMap.get(entry.getValue());
+		    		if(cmd != null){
+		    			fpi = createFilePathInfo(cmd);
+		    			commandIdToPathInfo.put(entry.getValue(), fpi);
+		    		}
+    			}
+    			if (fpi != null) {
+    				map.put(file, fpi);
+    			}
     		}
     	}
 
@@ -874,7 +890,7 @@ public class PerFileSICollector implements IScannerInfoCollector3, IScannerInfoC
      * @return list of IPath(s).
      */
     protected IPath[] getAllIncludePaths(int type) {
-    	List<String> allIncludes = new ArrayList<String>();
+    	Set<String> allIncludes = new LinkedHashSet<String>();
         Set<Integer> cmdIds = sid.commandIdCommandMap.keySet();
         for (Integer cmdId : cmdIds) {
             CCommandDSC cmd = sid.commandIdCommandMap.get(cmdId);
@@ -901,21 +917,18 @@ public class PerFileSICollector implements IScannerInfoCollector3, IScannerInfoC
     			    // see https://bugs.eclipse.org/bugs/show_bug.cgi?id=189127
     			    // it is not necessary for renaming projects anyway
     			    // include = CCommandDSC.makeRelative(project, new Path(include)).toPortableString();
-    			    if (!allIncludes.contains(include)) {
-    			        allIncludes.add(include);
-    			    }
+    			    allIncludes.add(include);
     			}
             }
         }
         return stringListToPathArray(allIncludes);
     }
 
-	protected static IPath[] stringListToPathArray(List<String> discovered) {
-		List<Path> allIncludes = new ArrayList<Path>(discovered.size());
-		for (String include : discovered) {
-		    if (!allIncludes.contains(include)) {
-		        allIncludes.add(new Path(include));
-		    }
+	protected static IPath[] stringListToPathArray(Collection<String> discovered) {
+		Set<String> includes = new LinkedHashSet<String>(discovered);
+		List<IPath> allIncludes = new ArrayList<IPath>(includes.size());
+		for (String include : includes) {
+		    allIncludes.add(new Path(include));
 		}
 		return allIncludes.toArray(new IPath[allIncludes.size()]);
 	}
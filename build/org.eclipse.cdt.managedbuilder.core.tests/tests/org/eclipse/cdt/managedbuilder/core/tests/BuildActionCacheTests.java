@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.core.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildDescription;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildResource;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildStep;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildActionCache;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildCommand;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Tests the content hash database of the internal builder
+ */
+public class BuildActionCacheTests extends TestCase {
+	private File fDir;
+	private File fTool;
+	private File fInput;
+	private File fOutput;
+	private IBuildStep fStep;
+
+	public static Test suite() {
+		return new TestSuite(BuildActionCacheTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fDir = File.createTempFile("buildCache", "test");
+		fDir.delete();
+		fDir.mkdirs();
+		fTool = write("cc", "compiler");
+		fInput = write("main.c", "int main() { return 0; }");
+		fOutput = write("main.o", "object");
+
+		IBuildDescription des = stub(IBuildDescription.class, new HashMap<String, Object>());
+		Map<String, Object> stepValues = new HashMap<String, Object>();
+		stepValues.put("getBuildDescription", des);
+		stepValues.put("getInputResources", new IBuildResource[] { resource(fInput) });
+		stepValues.put("getOutputResources", new IBuildResource[] { resource(fOutput) });
+		fStep = stub(IBuildStep.class, stepValues);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		for (File file : fDir.listFiles()) {
+			file.delete();
+		}
+		fDir.delete();
+		super.tearDown();
+	}
+
+	private File write(String name, String content) throws IOException {
+		File file = new File(fDir, name);
+		Files.write(file.toPath(), content.getBytes());
+		return file;
+	}
+
+	private static <T> T stub(Class<T> type, final Map<String, Object> values) {
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						return values.get(method.getName());
+					}
+				}));
+	}
+
+	private static IBuildResource resource(File file) {
+		Map<String, Object> values = new HashMap<String, Object>();
+		values.put("getLocation", new Path(file.getAbsolutePath()));
+		return stub(IBuildResource.class, values);
+	}
+
+	private IBuildCommand[] commands(String... args) {
+		IPath cwd = new Path(fDir.getAbsolutePath());
+		return new IBuildCommand[] { new BuildCommand(new Path(fTool.getAbsolutePath()), args, null, cwd, null) };
+	}
+
+	private BuildActionCache createCache() {
+		return new BuildActionCache(new File(fDir, "cfg.hashes"));
+	}
+
+	/**
+	 * Records a successful build of the step in a saved database.
+	 */
+	private void recordBuild(IBuildCommand[] cmds) {
+		BuildActionCache cache = createCache();
+		String key = cache.getKey(fStep);
+		assertNotNull(key);
+		byte[] digest = cache.computeDigest(fStep, cmds);
+		assertNotNull(digest);
+		cache.put(key, digest);
+		cache.save();
+	}
+
+	private boolean isUpToDate(BuildActionCache cache, IBuildCommand[] cmds) {
+		return cache.isUpToDate(fStep, cache.getKey(fStep), cache.computeDigest(fStep, cmds));
+	}
+
+	public void testHit() throws Exception {
+		recordBuild(commands("-c", "main.c"));
+		BuildActionCache cache = createCache();
+		assertTrue(isUpToDate(cache, commands("-c", "main.c")));
+		assertEquals(1, cache.getHits());
+		assertEquals(0, cache.getMisses());
+	}
+
+	public void testMissAfterInputEdit() throws Exception {
+		recordBuild(commands("-c", "main.c"));
+		write("main.c", "int main() { return 1; }");
+		BuildActionCache cache = createCache();
+		assertFalse(isUpToDate(cache, commands("-c", "main.c")));
+		assertEquals(0, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	public void testMissAfterCommandLineChange() throws Exception {
+		recordBuild(commands("-c", "main.c"));
+		assertFalse(isUpToDate(createCache(), commands("-O2", "-c", "main.c")));
+	}
+
+	public void testMissAfterToolChange() throws Exception {
+		recordBuild(commands("-c", "main.c"));
+		fTool.setLastModified(fTool.lastModified() + 10000);
+		assertFalse(isUpToDate(createCache(), commands("-c", "main.c")));
+	}
+
+	public void testMissAfterOutputRemoved() throws Exception {
+		recordBuild(commands("-c", "main.c"));
+		fOutput.delete();
+		assertFalse(isUpToDate(createCache(), commands("-c", "main.c")));
+	}
+
+	public void testMissAfterExecution() throws Exception {
+		recordBuild(commands("-c", "main.c"));
+		// The parallel builder removes the entry of every step it executes
+		BuildActionCache cache = createCache();
+		cache.remove(cache.getKey(fStep));
+		cache.save();
+		assertFalse(isUpToDate(createCache(), commands("-c", "main.c")));
+	}
+}
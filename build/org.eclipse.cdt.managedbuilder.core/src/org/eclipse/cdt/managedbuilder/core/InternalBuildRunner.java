@@ -27,6 +27,7 @@ import org.eclipse.cdt.core.settings.model.ICConfigurationDescription;
 import org.eclipse.cdt.internal.core.BuildRunnerHelper;
 import org.eclipse.cdt.managedbuilder.buildmodel.BuildDescriptionManager;
 import org.eclipse.cdt.managedbuilder.buildmodel.IBuildDescription;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildActionCache;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildStateManager;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.DescriptionBuilder;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.IConfigurationBuildState;
@@ -102,9 +103,11 @@ public class InternalBuildRunner extends AbstractBuildRunner {
 			buildRunnerHelper.prepareStreams(epm, parsers, console, new SubProgressMonitor(monitor, TICKS_STREAM_PROGRESS_MONITOR));
 
 			IBuildDescription des = BuildDescriptionManager.createBuildDescription(configuration, cBS, delta, flags);
+			BuildActionCache actionCache = bsMngr.getActionCache(project, configuration.getId());
 			DescriptionBuilder dBuilder = null;
 			if (!isParallel) {
 				dBuilder = new DescriptionBuilder(des, buildIncrementaly, resumeOnErr, cBS);
+				dBuilder.setActionCache(actionCache);
 				if (dBuilder.getNumCommands() <= 0) {
 					buildRunnerHelper.printLine(ManagedMakeMessages.getFormattedString("ManagedMakeBuilder.message.no.build", project.getName())); //$NON-NLS-1$
 					return false;
@@ -127,7 +130,7 @@ public class InternalBuildRunner extends AbstractBuildRunner {
 			if (dBuilder != null) {
 				status = dBuilder.build(stdout, stderr, new SubProgressMonitor(monitor, TICKS_EXECUTE_COMMAND, SubProgressMonitor.PREPEND_MAIN_LABEL_TO_SUBTASK));
 			} else {
-				status = ParallelBuilder.build(des, null, null, stdout, stderr, new SubProgressMonitor(monitor, TICKS_EXECUTE_COMMAND, SubProgressMonitor.PREPEND_MAIN_LABEL_TO_SUBTASK), resumeOnErr, buildIncrementaly);
+				status = ParallelBuilder.build(des, null, null, stdout, stderr, new SubProgressMonitor(monitor, TICKS_EXECUTE_COMMAND, SubProgressMonitor.PREPEND_MAIN_LABEL_TO_SUBTASK), resumeOnErr, buildIncrementaly, actionCache);
 				// Bug 403670:
 				// Make sure the build configuration's rebuild status is updated with the result of
 				// this successful build.  In the non-parallel case this happens within dBuilder.build
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.buildmodel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildResource;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildStep;
+import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.utils.PathUtil;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Content hash database of the internal builder.
+ *
+ * For every step that was built successfully the cache records a digest of the
+ * contents of all step inputs (including the discovered dependencies), of the
+ * commands used to build the step and of the location, time stamp and size of the
+ * tools they run. A step that is considered out of date by the
+ * time stamp based checks of the build description, but whose inputs and
+ * commands are byte-identical to the last successful run, does not need to be
+ * executed again.
+ *
+ * The cache is disabled unless the system property
+ * <code>org.eclipse.cdt.managedbuilder.buildCache</code> is set to true.
+ *
+ * NOTE: This class is subject to change and discuss,
+ * and is currently available in experimental mode only
+ */
+public class BuildActionCache {
+	private static final int MAGIC = 0x43444241; // 'CDBA'
+	private static final int FORMAT_VERSION = 2;
+	private static final String DIGEST_ALGORITHM = "SHA-1"; //$NON-NLS-1$
+	private static final byte SEPARATOR = 0;
+	private static final String ENV_PATH = "PATH"; //$NON-NLS-1$
+
+	/** Set to true to skip steps whose inputs and commands did not change */
+	public static final boolean ENABLED = Boolean.getBoolean("org.eclipse.cdt.managedbuilder.buildCache"); //$NON-NLS-1$
+
+	private final File fFile;
+	private Map<String, byte[]> fDigests;
+	private boolean fIsDirty;
+	private int fHits;
+	private int fMisses;
+
+	public BuildActionCache(File file){
+		fFile = file;
+	}
+
+	/**
+	 * @return the key of the given step, or <code>null</code> if the step
+	 * can not be cached. The key is made of the locations of the step outputs.
+	 */
+	public String getKey(IBuildStep step){
+		if(step == step.getBuildDescription().getInputStep()
+				|| step == step.getBuildDescription().getOutputStep())
+			return null;
+
+		IBuildResource[] outputs = step.getOutputResources();
+		if(outputs.length == 0)
+			return null;
+
+		String[] locations = new String[outputs.length];
+		for(int i = 0; i < outputs.length; i++){
+			IPath location = outputs[i].getLocation();
+			if(location == null)
+				return null;
+			locations[i] = location.toString();
+		}
+		Arrays.sort(locations);
+
+		StringBuilder buf = new StringBuilder();
+		for(int i = 0; i < locations.length; i++){
+			if(i != 0)
+				buf.append(File.pathSeparatorChar);
+			buf.append(locations[i]);
+		}
+		return buf.toString();
+	}
+
+	/**
+	 * Calculates the digest of the step inputs and the given step commands.
+	 *
+	 * @return the digest, or <code>null</code> if one of the inputs can not be read
+	 */
+	public byte[] computeDigest(IBuildStep step, IBuildCommand[] cmds){
+		if(cmds.length == 0)
+			return null;
+
+		MessageDigest md;
+		try {
+			md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			return null;
+		}
+
+		for(int i = 0; i < cmds.length; i++){
+			IBuildCommand cmd = cmds[i];
+			update(md, String.valueOf(cmd.getCommand()));
+			updateTool(md, cmd);
+			String[] args = cmd.getArgs();
+			if(args != null){
+				for(int j = 0; j < args.length; j++){
+					update(md, args[j]);
+				}
+			}
+			update(md, String.valueOf(cmd.getCWD()));
+			Map<String, String> env = cmd.getEnvironment();
+			if(env != null){
+				for(Entry<String, String> entry : new TreeMap<String, String>(env).entrySet()){
+					update(md, entry.getKey());
+					update(md, entry.getValue());
+				}
+			}
+		}
+
+		IBuildResource[] inputs = step.getInputResources();
+		Map<String, File> files = new TreeMap<String, File>();
+		for(int i = 0; i < inputs.length; i++){
+			IPath location = inputs[i].getLocation();
+			if(location == null)
+				return null;
+			File file = location.toFile();
+			if(!file.isFile())
+				return null;
+			files.put(location.toString(), file);
+		}
+
+		byte[] buffer = new byte[8192];
+		for(Entry<String, File> entry : files.entrySet()){
+			update(md, entry.getKey());
+			try (InputStream in = new FileInputStream(entry.getValue())) {
+				for(int n = in.read(buffer); n >= 0; n = in.read(buffer)){
+					md.update(buffer, 0, n);
+				}
+			} catch (IOException e) {
+				return null;
+			}
+			md.update(SEPARATOR);
+		}
+		return md.digest();
+	}
+
+	/**
+	 * Adds the tool run by the command, a compiler that was updated in place
+	 * has a different time stamp or size.
+	 */
+	private static void updateTool(MessageDigest md, IBuildCommand cmd){
+		IPath command = cmd.getCommand();
+		IPath location = null;
+		if(command != null){
+			if(command.isAbsolute()){
+				location = command;
+			} else {
+				Map<String, String> env = cmd.getEnvironment();
+				location = PathUtil.findProgramLocation(command.toString(), env != null ? env.get(ENV_PATH) : null);
+			}
+		}
+		File file = location != null ? location.toFile() : null;
+		if(file == null || !file.isFile()){
+			update(md, null);
+			return;
+		}
+		try {
+			// Follow symbolic links such as /usr/bin/cc
+			file = file.getCanonicalFile();
+		} catch (IOException e) {
+		}
+		update(md, file.getPath());
+		update(md, Long.toString(file.lastModified()));
+		update(md, Long.toString(file.length()));
+	}
+
+	private static void update(MessageDigest md, String str){
+		if(str != null)
+			md.update(str.getBytes(StandardCharsets.UTF_8));
+		md.update(SEPARATOR);
+	}
+
+	/**
+	 * Checks whether the step with the given key was last built successfully
+	 * from inputs and commands with the given digest and its outputs still exist.
+	 * Every call is counted as a cache hit or miss.
+	 */
+	public boolean isUpToDate(IBuildStep step, String key, byte[] digest){
+		boolean upToDate = Arrays.equals(getDigests().get(key), digest)
+				&& outputsExist(step);
+		if(upToDate)
+			fHits++;
+		else
+			fMisses++;
+		return upToDate;
+	}
+
+	private boolean outputsExist(IBuildStep step){
+		IBuildResource[] outputs = step.getOutputResources();
+		for(int i = 0; i < outputs.length; i++){
+			IPath location = outputs[i].getLocation();
+			if(location == null || !location.toFile().exists())
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Records the digest of a step that was built successfully.
+	 */
+	public void put(String key, byte[] digest){
+		byte[] old = getDigests().put(key, digest);
+		if(!Arrays.equals(old, digest))
+			fIsDirty = true;
+	}
+
+	/**
+	 * Forgets the step with the given key, e.g. because its build failed.
+	 */
+	public void remove(String key){
+		if(getDigests().remove(key) != null)
+			fIsDirty = true;
+	}
+
+	public int getHits(){
+		return fHits;
+	}
+
+	public int getMisses(){
+		return fMisses;
+	}
+
+	private Map<String, byte[]> getDigests(){
+		if(fDigests == null){
+			fDigests = new HashMap<String, byte[]>();
+			if(fFile.isFile())
+				load();
+		}
+		return fDigests;
+	}
+
+	private void load(){
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(fFile)))) {
+			if(in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+				return;
+			int count = in.readInt();
+			for(int i = 0; i < count; i++){
+				String key = in.readUTF();
+				byte[] digest = new byte[in.readUnsignedByte()];
+				in.readFully(digest);
+				fDigests.put(key, digest);
+			}
+		} catch (IOException e) {
+			// Corrupt database, start from scratch
+			fDigests.clear();
+			fFile.delete();
+		}
+	}
+
+	/**
+	 * Writes the database if it was modified.
+	 */
+	public void save(){
+		if(!fIsDirty)
+			return;
+
+		File dir = fFile.getParentFile();
+		if(!dir.isDirectory() && !dir.mkdirs())
+			return;
+
+		File tmpFile = new File(dir, fFile.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeInt(fDigests.size());
+				for(Entry<String, byte[]> entry : fDigests.entrySet()){
+					out.writeUTF(entry.getKey());
+					out.writeByte(entry.getValue().length);
+					out.write(entry.getValue());
+				}
+			}
+			Files.move(tmpFile.toPath(), fFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			fIsDirty = false;
+		} catch (IOException e) {
+			tmpFile.delete();
+			ManagedBuilderCorePlugin.log(e);
+		}
+	}
+}
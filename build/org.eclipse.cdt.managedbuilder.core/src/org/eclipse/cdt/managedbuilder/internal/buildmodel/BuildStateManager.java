@@ -27,6 +27,7 @@ import org.eclipse.core.runtime.IPath;
 
 public class BuildStateManager {
 	private static final String PREFS_LOCATION = "buildState"; //$NON-NLS-1$
+	private static final String ACTION_CACHE_EXT = ".hashes"; //$NON-NLS-1$
 
 	private static BuildStateManager fInstance;
 
@@ -173,6 +174,17 @@ public class BuildStateManager {
 		((ProjectBuildState)state).serialize();
 	}
 
+	/**
+	 * @return the content hash database of the given configuration,
+	 * or <code>null</code> if the build cache is disabled
+	 */
+	public BuildActionCache getActionCache(IProject project, String cfgId){
+		if(!BuildActionCache.ENABLED)
+			return null;
+		IPath path = getPrefsDirPath(project).append(cfgId + ACTION_CACHE_EXT);
+		return new BuildActionCache(path.toFile());
+	}
+
 	private IPath getPrefsDirPath(){
 		IPath path = ManagedBuilderCorePlugin.getDefault().getStateLocation();
 		path = path.append(PREFS_LOCATION);
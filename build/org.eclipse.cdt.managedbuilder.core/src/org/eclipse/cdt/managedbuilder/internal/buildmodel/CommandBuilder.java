@@ -180,6 +180,10 @@ public class CommandBuilder implements IBuildModelBuilder {
 		return 1;
 	}
 
+	public IBuildCommand getBuildCommand() {
+		return fCmd;
+	}
+
 	protected String getCommandLine() {
 		StringBuilder buf = new StringBuilder();
 		if (fCmd != null) {
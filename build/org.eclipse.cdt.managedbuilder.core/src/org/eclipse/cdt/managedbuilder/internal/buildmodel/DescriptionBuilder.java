@@ -41,6 +41,7 @@ import org.eclipse.core.runtime.SubProgressMonitor;
 public class DescriptionBuilder implements IBuildModelBuilder {
 	private static final String BUILDER_MSG_HEADER = "InternalBuilder.msg.header"; //$NON-NLS-1$
 	private static final String BUILDER_NOTHING_TODO = "InternalBuilder.nothing.todo"; //$NON-NLS-1$
+	private static final String BUILDER_CACHE_SUMMARY = "InternalBuilder.cache.summary"; //$NON-NLS-1$
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator", "\n"); //$NON-NLS-1$ //$NON-NLS-2$
 
 
@@ -52,6 +53,7 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 	private int fNumCommands = -1;
 	private GenDirInfo fDir;
 	private IResourceRebuildStateContainer fRebuildStateContainer;
+	private BuildActionCache fActionCache;
 
 	private class BuildStepVisitor implements IStepVisitor{
 		private OutputStream fOut;
@@ -89,7 +91,30 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 				StepBuilder builder = getStepBuilder(action);//new StepBuilder(action, fCWD, fResumeOnErrs, fDir);
 
 				if(fBuild){
-					switch(builder.build(fOut, fErr, new SubProgressMonitor(fMonitor, builder.getNumCommands()))){
+					String key = null;
+					byte[] digest = null;
+					if(fActionCache != null){
+						key = fActionCache.getKey(action);
+						if(key != null)
+							digest = fActionCache.computeDigest(action, builder.getCommands());
+						if(digest != null && fActionCache.isUpToDate(action, key, digest)){
+							if(DbgUtil.DEBUG)
+								DbgUtil.trace("step " + DbgUtil.stepName(action) + " is up to date in the build cache" ); //$NON-NLS-1$ //$NON-NLS-2$
+							builder.skip(new SubProgressMonitor(fMonitor, builder.getNumCommands()));
+							return VISIT_CONTINUE;
+						}
+					}
+
+					int stepStatus = builder.build(fOut, fErr, new SubProgressMonitor(fMonitor, builder.getNumCommands()));
+					if(key != null){
+						// The step was executed, any previous entry no longer describes its outputs
+						if(digest != null && stepStatus == STATUS_OK)
+							fActionCache.put(key, digest);
+						else
+							fActionCache.remove(key);
+					}
+
+					switch(stepStatus){
 					case STATUS_OK:
 						break;
 					case STATUS_CANCELLED:
@@ -165,6 +190,15 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 
 			if(status == STATUS_OK)
 				status = visitor.fStatus;
+
+			if(fActionCache != null){
+				fActionCache.save();
+				printMessage(
+						ManagedMakeMessages.getFormattedString(BUILDER_CACHE_SUMMARY,
+								new String[] { Integer.toString(fActionCache.getHits()),
+										Integer.toString(fActionCache.getMisses()) }),
+						out);
+			}
 		} else {
 			printMessage(
 					ManagedMakeMessages.getFormattedString(BUILDER_NOTHING_TODO,
@@ -180,6 +214,17 @@ public class DescriptionBuilder implements IBuildModelBuilder {
 		return status;
 	}
 
+	/**
+	 * Sets the content hash database consulted before building a step that is
+	 * out of date. Steps whose inputs and commands did not change since their
+	 * last successful build are not executed.
+	 *
+	 * @param cache the database, or <code>null</code> to always build out of date steps
+	 */
+	public void setActionCache(BuildActionCache cache){
+		fActionCache = cache;
+	}
+
 	public int getNumCommands() {
 		if(fNumCommands == -1){
 			fNumCommands = 0;
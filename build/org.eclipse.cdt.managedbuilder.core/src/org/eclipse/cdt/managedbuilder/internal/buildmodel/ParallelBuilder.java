@@ -62,6 +62,7 @@ public class ParallelBuilder {
 	protected HashSet<BuildQueueElement> unsorted = new HashSet<BuildQueueElement>();
 	protected HashMap<IBuildStep, BuildQueueElement> queueHash = new HashMap<IBuildStep, BuildQueueElement>();
 	protected LinkedList<BuildQueueElement> queue = new LinkedList<BuildQueueElement>();
+	protected BuildActionCache actionCache;
 
 	/**
 	 * This class implements queue element
@@ -205,6 +206,17 @@ public class ParallelBuilder {
 	 *         ParallelBuilder#STATUS_INVALID}. *
 	 */
 	static public int build(IBuildDescription des, IPath cwd, GenDirInfo dirs, OutputStream out, OutputStream err, IProgressMonitor monitor, boolean resumeOnErrors, boolean buildIncrementally) {
+		return build(des, cwd, dirs, out, err, monitor, resumeOnErrors, buildIncrementally, null);
+	}
+
+	/**
+	 * Builds like {@link #build(IBuildDescription, IPath, GenDirInfo, OutputStream, OutputStream, IProgressMonitor, boolean, boolean)}
+	 * and removes the entries of the executed steps from the given content hash database,
+	 * such that a later sequential build does not skip them based on an outdated entry.
+	 * 
+	 * @param actionCache the database, or <code>null</code>
+	 */
+	static public int build(IBuildDescription des, IPath cwd, GenDirInfo dirs, OutputStream out, OutputStream err, IProgressMonitor monitor, boolean resumeOnErrors, boolean buildIncrementally, BuildActionCache actionCache) {
 		IConfiguration cfg = des.getConfiguration();
 		if(dirs == null) dirs = new GenDirInfo(cfg);
 		if(cwd == null)  cwd = des.getDefaultBuildDirLocation();
@@ -213,12 +225,15 @@ public class ParallelBuilder {
 			threads = ((Configuration)cfg).getParallelNumber();
 		}
 		ParallelBuilder builder = new ParallelBuilder(cwd, dirs, out, err, monitor, resumeOnErrors, buildIncrementally);
+		builder.actionCache = actionCache;
 		builder.enqueueAll(des);
 		builder.sortQueue();
 		monitor.beginTask("", builder.queue.size()); //$NON-NLS-1$
 		BuildProcessManager buildProcessManager = new BuildProcessManager(out, err, true, threads);
 		int status = builder.dispatch(buildProcessManager);
 		lastThreadsUsed = buildProcessManager.getThreadsUsed();
+		if (actionCache != null)
+			actionCache.save();
 		monitor.done();
 		return status;
 	}
@@ -416,6 +431,7 @@ public class ParallelBuilder {
 						// Remove element from the build queue and add it to the
 						// "active steps" list.
 						iter.remove();
+						invalidateActionCache(step);
 						for (int i = 0; i < maxProcesses; i++) {
 							if (i >= active.size()) {
 								// add new item
@@ -454,6 +470,17 @@ public class ParallelBuilder {
 		return status;
 	}
 	
+	/**
+	 * Removes the entry of a step that is executed from the content hash database
+	 */
+	protected void invalidateActionCache(IBuildStep step) {
+		if (actionCache != null) {
+			String key = actionCache.getKey(step);
+			if (key != null)
+				actionCache.remove(key);
+		}
+	}
+
 	/**
 	 * Prints output to the console 
 	 */
@@ -113,6 +113,37 @@ public class StepBuilder implements IBuildModelBuilder {
 		return status;
 	}
 
+	/**
+	 * Called instead of {@link #build(OutputStream, OutputStream, IProgressMonitor)}
+	 * when the step outputs are known to be up to date although the step is
+	 * considered out of date, e.g. on a build cache hit.
+	 * The outputs are touched so that they are no longer older than the step inputs.
+	 */
+	public void skip(IProgressMonitor monitor){
+		monitor.beginTask("", getNumCommands());	//$NON-NLS-1$
+		long now = System.currentTimeMillis();
+		IBuildResource rcs[] = fStep.getOutputResources();
+		for(int i = 0; i < rcs.length; i++){
+			IPath location = rcs[i].getLocation();
+			if(location != null)
+				location.toFile().setLastModified(now);
+		}
+		postProcess(STATUS_OK, new SubProgressMonitor(monitor, getNumCommands()));
+		monitor.done();
+	}
+
+	/**
+	 * @return the commands executed by this step builder
+	 */
+	public IBuildCommand[] getCommands(){
+		CommandBuilder bs[] = getCommandBuilders();
+		IBuildCommand cmds[] = new IBuildCommand[bs.length];
+		for(int i = 0; i < bs.length; i++){
+			cmds[i] = bs[i].getBuildCommand();
+		}
+		return cmds;
+	}
+
 	protected int postProcess(int status, IProgressMonitor monitor){
 		if(status != STATUS_ERROR_LAUNCH){
 			refreshOutputs(monitor);
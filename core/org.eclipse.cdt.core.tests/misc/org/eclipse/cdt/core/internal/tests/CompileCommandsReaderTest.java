@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.internal.tests;
+
+import java.io.StringReader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.cdt.core.build.ScannerInfoCache;
+import org.eclipse.cdt.internal.core.build.CompileCommandsReader;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class CompileCommandsReaderTest extends TestCase {
+	public static Test suite() {
+		return new TestSuite(CompileCommandsReaderTest.class);
+	}
+
+	private List<CompileCommandsReader.Entry> read(String json) throws Exception {
+		List<CompileCommandsReader.Entry> entries = new ArrayList<>();
+		try (CompileCommandsReader reader = new CompileCommandsReader(new StringReader(json))) {
+			for (CompileCommandsReader.Entry entry = reader.next(); entry != null; entry = reader.next()) {
+				entries.add(entry);
+			}
+		}
+		return entries;
+	}
+
+	private CompileCommandsReader.Entry readOne(String json) throws Exception {
+		List<CompileCommandsReader.Entry> entries = read(json);
+		assertEquals(1, entries.size());
+		return entries.get(0);
+	}
+
+	public void testArgumentsWithSpaces() throws Exception {
+		CompileCommandsReader.Entry entry = readOne("[{\"directory\": \"/build\", \"file\": \"a.c\", "
+				+ "\"arguments\": [\"gcc\", \"-DNAME=\\\"a b\\\"\", \"-I/path with spaces\", \"-c\", \"a.c\"]}]");
+		assertEquals(Arrays.asList("gcc", "-DNAME=\"a b\"", "-I/path with spaces", "-c", "a.c"),
+				entry.getArguments());
+	}
+
+	public void testQuotedCommand() throws Exception {
+		CompileCommandsReader.Entry entry = readOne("[{\"directory\": \"/build\", \"file\": \"a.c\", "
+				+ "\"command\": \"gcc \\\"-I/path with spaces\\\" -c a.c\"}]");
+		assertEquals(Arrays.asList("gcc", "-I/path with spaces", "-c", "a.c"), entry.getArguments());
+	}
+
+	public void testFilePath() throws Exception {
+		CompileCommandsReader.Entry entry = readOne(
+				"[{\"directory\": \"/build\", \"file\": \"../src/a.c\", \"command\": \"gcc -c ../src/a.c\"}]");
+		assertEquals(Paths.get("/src/a.c").toString(), entry.getFilePath());
+	}
+
+	public void testIncompleteEntries() throws Exception {
+		List<CompileCommandsReader.Entry> entries = read("[{\"directory\": \"/build\", \"command\": \"gcc -c a.c\"},"
+				+ "{\"directory\": \"/build\", \"file\": \"b.c\", \"command\": null},"
+				+ "{\"directory\": \"/build\", \"file\": \"c.c\", \"output\": \"c.o\", \"arguments\": [\"gcc\", \"-c\", \"c.c\"]}]");
+		assertEquals(1, entries.size());
+		assertEquals(Arrays.asList("gcc", "-c", "c.c"), entries.get(0).getArguments());
+		assertEquals(0, read("[]").size());
+	}
+
+	public void testHash() throws Exception {
+		String entry = "[{\"directory\": \"/build\", \"file\": \"a.c\", \"arguments\": [\"gcc\", %s, \"a.c\"]}]";
+		long hash = readOne(String.format(entry, "\"-DNAME=a b\"")).getHash();
+		assertEquals(hash, readOne(String.format(entry, "\"-DNAME=a b\"")).getHash());
+		assertTrue(hash != readOne(String.format(entry, "\"-DNAME=a\", \"b\"")).getHash());
+		assertTrue(hash != readOne(String.format(entry, "\"-DNAME=a c\"")).getHash());
+	}
+
+	public void testRetainEntryHashes() throws Exception {
+		ScannerInfoCache cache = new ScannerInfoCache();
+		cache.initCache();
+		assertTrue(cache.setEntryHash("a.c", 1));
+		assertTrue(cache.setEntryHash("b.c", 2));
+		assertFalse(cache.setEntryHash("b.c", 2));
+
+		assertTrue(cache.retainEntryHashes(Collections.singleton("a.c")));
+		assertFalse(cache.retainEntryHashes(Collections.singleton("a.c")));
+		assertFalse(cache.setEntryHash("a.c", 1));
+		assertTrue(cache.setEntryHash("b.c", 2));
+	}
+}
@@ -32,6 +32,7 @@ public class AllCProjectDescriptionTests {
 		suite.addTest(BackwardCompatibilityTests.suite());
 		suite.addTest(CProjectDescriptionBasicTests.suite());
 		suite.addTest(CProjectDescriptionStorageTests.suite());
+		suite.addTest(BinaryDocumentCacheTests.suite());
         return suite;
     }
 }
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.settings.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import junit.framework.TestSuite;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.settings.model.xml.BinaryDocumentCache;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * Tests for the binary cache of parsed settings documents
+ */
+public class BinaryDocumentCacheTests extends BaseTestCase {
+	private static final String CONTENT =
+			"<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>" +
+			"<?fileVersion 4.0.0?><cproject id=\"a\"><storageModule moduleId=\"b\">text</storageModule><!-- c --></cproject>";
+
+	private IProject fProject;
+	private IFile fFile;
+	private DocumentBuilder fBuilder;
+
+	public static TestSuite suite() {
+		return suite(BinaryDocumentCacheTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fProject = ResourcesPlugin.getWorkspace().getRoot().getProject("BinaryDocumentCache" + System.currentTimeMillis());
+		fProject.create(npm());
+		fProject.open(npm());
+		fFile = fProject.getFile("settings.xml");
+		fFile.create(new ByteArrayInputStream(CONTENT.getBytes("UTF-8")), true, npm());
+		fBuilder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (fProject.exists())
+			fProject.delete(IResource.FORCE | IResource.ALWAYS_DELETE_PROJECT_CONTENT, npm());
+		super.tearDown();
+	}
+
+	private Document parse(InputStream stream) throws Exception {
+		try {
+			return BinaryDocumentCache.parse(fFile, stream, fBuilder);
+		} finally {
+			stream.close();
+		}
+	}
+
+	private void setContents(String content) throws Exception {
+		long stamp = fFile.getLocalTimeStamp();
+		fFile.setContents(new ByteArrayInputStream(content.getBytes("UTF-8")), true, false, npm());
+		// The file system may not resolve the time between the two writes
+		fFile.setLocalTimeStamp(stamp + 10000);
+	}
+
+	private void assertContent(Document doc) {
+		assertEquals("fileVersion", doc.getFirstChild().getNodeName());
+		assertEquals("4.0.0", doc.getFirstChild().getNodeValue());
+		Element root = doc.getDocumentElement();
+		assertEquals("cproject", root.getNodeName());
+		assertEquals("a", root.getAttribute("id"));
+		Element module = (Element) root.getFirstChild();
+		assertEquals("b", module.getAttribute("moduleId"));
+		assertEquals("text", module.getTextContent());
+		assertEquals(" c ", root.getLastChild().getNodeValue());
+	}
+
+	private int countCacheFiles(IProject project) {
+		File dir = CCorePlugin.getDefault().getStateLocation().append("descriptionCache").toFile();
+		File[] files = dir.listFiles();
+		int count = 0;
+		if (files != null) {
+			for (File file : files) {
+				if (file.getName().startsWith(project.getName() + '.'))
+					count++;
+			}
+		}
+		return count;
+	}
+
+	public void testRoundTrip() throws Exception {
+		assertTrue(BinaryDocumentCache.isEnabled());
+		assertNull(BinaryDocumentCache.read(fFile, fBuilder));
+		assertContent(parse(fFile.getContents()));
+
+		Document cached = BinaryDocumentCache.read(fFile, fBuilder);
+		assertNotNull(cached);
+		assertContent(cached);
+	}
+
+	public void testModificationWithSameLength() throws Exception {
+		parse(fFile.getContents());
+		// Same length, different content
+		setContents(CONTENT.replace("id=\"a\"", "id=\"z\""));
+		assertNull(BinaryDocumentCache.read(fFile, fBuilder));
+
+		// The modified file is parsed and cached again
+		assertEquals("z", parse(fFile.getContents()).getDocumentElement().getAttribute("id"));
+		assertEquals("z", BinaryDocumentCache.read(fFile, fBuilder).getDocumentElement().getAttribute("id"));
+	}
+
+	public void testTouchedFile() throws Exception {
+		parse(fFile.getContents());
+		// A new time stamp with the same content keeps the entry, the new stamp is recorded
+		fFile.setLocalTimeStamp(fFile.getLocalTimeStamp() + 10000);
+		assertContent(BinaryDocumentCache.read(fFile, fBuilder));
+		assertContent(BinaryDocumentCache.read(fFile, fBuilder));
+	}
+
+	public void testModificationWhileParsing() throws Exception {
+		// The parsed content is older than the file, as if the file was written during the parse
+		String oldContent = CONTENT.replace("id=\"a\"", "id=\"z\"");
+		parse(new ByteArrayInputStream(oldContent.getBytes("UTF-8")));
+		fFile.setLocalTimeStamp(fFile.getLocalTimeStamp() + 10000);
+		assertNull(BinaryDocumentCache.read(fFile, fBuilder));
+	}
+
+	public void testRemove() throws Exception {
+		parse(fFile.getContents());
+		BinaryDocumentCache.remove(fFile);
+		assertNull(BinaryDocumentCache.read(fFile, fBuilder));
+	}
+
+	public void testDeletedProject() throws Exception {
+		parse(fFile.getContents());
+		assertEquals(1, countCacheFiles(fProject));
+
+		fProject.delete(IResource.FORCE | IResource.ALWAYS_DELETE_PROJECT_CONTENT, npm());
+		assertEquals(0, countCacheFiles(fProject));
+	}
+}
@@ -20,6 +20,7 @@ import org.eclipse.cdt.core.settings.model.util.CDataUtil;
 import org.eclipse.cdt.core.testplugin.CProjectHelper;
 import org.eclipse.cdt.core.testplugin.CTestPlugin;
 import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.settings.model.CConfigurationDescriptionCache;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IWorkspace;
 import org.eclipse.core.resources.IWorkspaceDescription;
@@ -295,6 +296,49 @@ public class CProjectDescriptionBasicTests  extends BaseTestCase{
 		}
 	}
 
+	public void testConfigurationLoadedOnFirstAccess() throws Exception {
+		ICProject p = CProjectHelper.createNewStyleCProject(PROJ_NAME_PREFIX + "lazy", IPDOMManager.ID_NO_INDEXER);
+		p3 = p.getProject();
+		final String STORAGE_ID = "test.storage_id";
+		final String ATTR = "testAttr";
+		final String ATTR_VALUE = "testAttrValue";
+		final String CFG_ID = "cfg.lazy.id";
+
+		ICProjectDescriptionManager mngr = CoreModel.getDefault().getProjectDescriptionManager();
+		ICProjectDescription des = mngr.getProjectDescription(p3);
+		ICConfigurationDescription baseCfg = des.getConfigurations()[0];
+		baseCfg.getStorage(STORAGE_ID, true).setAttribute(ATTR, ATTR_VALUE);
+		des.createConfiguration(CFG_ID, CFG_ID + ".name", baseCfg);
+		des.setActiveConfiguration(baseCfg);
+		des.setDefaultSettingConfiguration(baseCfg);
+		mngr.setProjectDescription(p3, des);
+
+		// Load the description from the .cproject file again
+		p3.close(null);
+		p3.open(null);
+
+		des = mngr.getProjectDescription(p3, false);
+		CConfigurationDescriptionCache active = (CConfigurationDescriptionCache) des.getActiveConfiguration();
+		CConfigurationDescriptionCache cfg = (CConfigurationDescriptionCache) des.getConfigurationById(CFG_ID);
+		assertFalse(active.isLoadPending());
+		assertTrue(cfg.isLoadPending());
+		assertEquals(CFG_ID + ".name", cfg.getName());
+		assertTrue(cfg.isLoadPending());
+
+		// The first access to the data loads the configuration
+		assertNotNull(cfg.getRootFolderDescription());
+		assertFalse(cfg.isLoadPending());
+		assertTrue(cfg.isReadOnly());
+		assertEquals(ATTR_VALUE, cfg.getStorage(STORAGE_ID, false).getAttribute(ATTR));
+		assertEquals(active.getSourceEntries().length, cfg.getSourceEntries().length);
+
+		// A writable copy of a description loads the configurations it copies
+		p3.close(null);
+		p3.open(null);
+		des = mngr.getProjectDescription(p3, true);
+		assertEquals(ATTR_VALUE, des.getConfigurationById(CFG_ID).getStorage(STORAGE_ID, false).getAttribute(ATTR));
+	}
+
 	@Override
 	protected void tearDown() throws Exception {
 		try {
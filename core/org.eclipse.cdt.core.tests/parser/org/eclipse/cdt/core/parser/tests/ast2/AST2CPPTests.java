@@ -68,6 +68,7 @@ import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTStandardFunctionDeclarator;
 import org.eclipse.cdt.core.dom.ast.IASTStatement;
+import org.eclipse.cdt.core.dom.ast.IASTSwitchStatement;
 import org.eclipse.cdt.core.dom.ast.IASTToken;
 import org.eclipse.cdt.core.dom.ast.IASTTokenList;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
@@ -139,8 +140,14 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPReferenceType;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPUsingDeclaration;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPVariable;
 import org.eclipse.cdt.core.dom.ast.cpp.SemanticQueries;
+import org.eclipse.cdt.core.dom.ast.gnu.cpp.GPPLanguage;
+import org.eclipse.cdt.core.model.ILanguage;
+import org.eclipse.cdt.core.parser.FileContent;
 import org.eclipse.cdt.core.parser.IProblem;
+import org.eclipse.cdt.core.parser.IncludeFileContentProvider;
+import org.eclipse.cdt.core.parser.NullLogService;
 import org.eclipse.cdt.core.parser.ParserLanguage;
+import org.eclipse.cdt.core.parser.ScannerInfo;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
 import org.eclipse.cdt.internal.core.dom.parser.SizeofCalculator;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTNameBase;
@@ -154,6 +161,7 @@ import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInternalBinding;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.OverloadableOperator;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ConversionCostCache;
 import org.eclipse.cdt.internal.core.index.IndexCPPSignatureUtil;
 import org.eclipse.cdt.internal.core.parser.ParserException;
 
@@ -12225,4 +12233,71 @@ public class AST2CPPTests extends AST2TestBase {
 		ICPPFunctionType logicalNotType = logicalNotOverload.getType();
 		isTypeEqual(logicalNotType, "bool (bool)");
 	}
+
+	//	int f(int x) {
+	//		switch (x) {
+	//		case 1:
+	//			return 0;
+	//		case 2 ? 3 : 4:
+	//			return (1 + 2) * 3;
+	//		default:
+	//			break;
+	//		}
+	//		;
+	//		-1;
+	//		return x;
+	//	}
+	//	constexpr int g() {
+	//		return 1;
+	//	}
+	//	auto h() {
+	//		auto l = [] { return 1; };
+	//		return l();
+	//	}
+	public void testSkipTrivialStatementsInFunctionBodies() throws Exception {
+		IASTTranslationUnit tu = GPPLanguage.getDefault().getASTTranslationUnit(
+				FileContent.create(TEST_CODE, getAboveComment().toCharArray()), new ScannerInfo(),
+				IncludeFileContentProvider.getEmptyFilesProvider(), null,
+				ILanguage.OPTION_SKIP_TRIVIAL_STATEMENTS_IN_FUNCTION_BODIES, new NullLogService());
+		assertTrue(tu.hasNodesOmitted());
+		IASTDeclaration[] declarations = tu.getDeclarations();
+
+		IASTStatement[] statements = ((IASTCompoundStatement) ((IASTFunctionDefinition) declarations[0]).getBody()).getStatements();
+		assertEquals(2, statements.length);
+		IASTSwitchStatement switchStatement = (IASTSwitchStatement) statements[0];
+		assertEquals(0, ((IASTCompoundStatement) switchStatement.getBody()).getStatements().length);
+		IASTReturnStatement returnStatement = (IASTReturnStatement) statements[1];
+		assertInstance(((IASTIdExpression) returnStatement.getReturnValue()).getName().resolveBinding(), ICPPParameter.class);
+
+		statements = ((IASTCompoundStatement) ((IASTFunctionDefinition) declarations[1]).getBody()).getStatements();
+		assertEquals(1, statements.length);
+		statements = ((IASTCompoundStatement) ((IASTFunctionDefinition) declarations[2]).getBody()).getStatements();
+		assertEquals(2, statements.length);
+	}
+
+	//	struct ostream {
+	//		ostream& put(bool);
+	//		ostream& put(int);
+	//		ostream& put(long);
+	//		ostream& put(double);
+	//		ostream& put(const void*);
+	//	};
+	//	void test(ostream& os, short s1, short s2, float f, const char* p) {
+	//		os.put(s1);
+	//		os.put(s2);
+	//		os.put(f);
+	//		os.put(p);
+	//	}
+	public void testConversionCostsAreCached() throws Exception {
+		long hits = ConversionCostCache.getHits();
+		BindingAssertionHelper bh = getAssertionHelper();
+		ICPPMethod putInt = bh.assertNonProblem("put(int)", 3);
+		ICPPMethod putDouble = bh.assertNonProblem("put(double)", 3);
+		ICPPMethod putPointer = bh.assertNonProblem("put(const void*)", 3);
+		assertSame(putInt, bh.assertNonProblem("put(s1);", 3));
+		assertSame(putInt, bh.assertNonProblem("put(s2);", 3));
+		assertSame(putDouble, bh.assertNonProblem("put(f);", 3));
+		assertSame(putPointer, bh.assertNonProblem("put(p);", 3));
+		assertTrue(ConversionCostCache.getHits() > hits);
+	}
 }
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.tests.ast2;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.IProblemBinding;
+import org.eclipse.cdt.core.parser.ParserLanguage;
+import org.eclipse.cdt.core.testplugin.CTestPlugin;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.Path;
+
+import junit.framework.TestSuite;
+
+/**
+ * Compares the bindings of the parallel resolution of function bodies with the ones of the
+ * sequential resolution.
+ */
+public class AST2ParallelResolutionTests extends AST2TestBase {
+
+	public static TestSuite suite() {
+		return suite(AST2ParallelResolutionTests.class);
+	}
+
+	private static class BindingCollector extends ASTVisitor {
+		final List<String> fBindings = new ArrayList<>();
+
+		BindingCollector() {
+			shouldVisitNames = true;
+			shouldVisitImplicitNames = true;
+		}
+
+		@Override
+		public int visit(IASTName name) {
+			IBinding binding = name.resolveBinding();
+			StringBuilder buf = new StringBuilder();
+			buf.append(name.getFileLocation() == null ? -1 : name.getFileLocation().getNodeOffset());
+			buf.append(' ').append(name);
+			if (binding instanceof IProblemBinding) {
+				buf.append(" problem ").append(((IProblemBinding) binding).getID());
+			} else if (binding != null) {
+				buf.append(' ').append(binding.getClass().getSimpleName()).append(' ').append(binding);
+			}
+			fBindings.add(buf.toString());
+			return PROCESS_CONTINUE;
+		}
+	}
+
+	private List<String> collectBindings(String code, boolean parallel) throws Exception {
+		boolean old = CPPASTTranslationUnit.PARALLEL_BODY_RESOLUTION;
+		CPPASTTranslationUnit.PARALLEL_BODY_RESOLUTION = parallel;
+		try {
+			IASTTranslationUnit tu = parse(code, ParserLanguage.CPP, true, false);
+			BindingCollector collector = new BindingCollector();
+			tu.accept(collector);
+			return collector.fBindings;
+		} finally {
+			CPPASTTranslationUnit.PARALLEL_BODY_RESOLUTION = old;
+		}
+	}
+
+	private void assertSameBindings(String code) throws Exception {
+		assertEquals(code, collectBindings(code, false), collectBindings(code, true));
+	}
+
+	/**
+	 * Returns the code in the comments preceding the test methods of the given test class.
+	 */
+	private List<String> getTestCode(Class<?> testClass) throws Exception {
+		String file = "parser/" + testClass.getName().replace('.', '/') + ".java";
+		List<String> result = new ArrayList<>();
+		StringBuilder code = new StringBuilder();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				FileLocator.openStream(CTestPlugin.getDefault().getBundle(), new Path(file), false)))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				line = line.trim();
+				if (line.startsWith("//")) {
+					code.append(line.substring(2)).append('\n');
+				} else if (!line.startsWith("@") && line.length() > 0) {
+					if (code.length() > 0 && line.contains(" void test"))
+						result.add(code.toString());
+					code.setLength(0);
+				}
+			}
+		}
+		return result;
+	}
+
+	private void assertSameBindingsForTestsOf(Class<?> testClass) throws Exception {
+		List<String> codes = getTestCode(testClass);
+		assertFalse(codes.isEmpty());
+		for (String code : codes) {
+			assertSameBindings(code);
+		}
+	}
+
+	// struct A { int m; A(int v = 1) : m(v) {} };
+	// namespace ns {
+	//   int g(int);
+	//   int g(double);
+	//   template<typename T> T max(T a, T b) { return a < b ? b : a; }
+	// }
+	// typedef int T;
+	// int x;
+	public void testManyFunctionBodies() throws Exception {
+		StringBuilder code = new StringBuilder(getAboveComment());
+		for (int i = 0; i < 200; i++) {
+			code.append("int f" + i + "(int p) {\n");
+			code.append("  T(x);\n");              // declaration
+			code.append("  T * p2;\n");            // declaration or multiplication
+			code.append("  A a(p);\n");
+			code.append("  auto l = [&](int q) { return q + a.m; };\n");
+			code.append("  return ns::g(p) + ns::g(1.0) + ns::max(p, l(" + i + ")) + f" + (i > 0 ? i - 1 : 0) + "(p);\n");
+			code.append("}\n");
+		}
+		assertSameBindings(code.toString());
+	}
+
+	public void testAST2CPPTests() throws Exception {
+		assertSameBindingsForTestsOf(AST2CPPTests.class);
+	}
+
+	public void testAST2TemplateTests() throws Exception {
+		assertSameBindingsForTestsOf(AST2TemplateTests.class);
+	}
+}
@@ -94,11 +94,18 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateTemplateParameter;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateTypeParameter;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPUsingDeclaration;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPVariable;
+import org.eclipse.cdt.core.dom.parser.cpp.ANSICPPParserExtensionConfiguration;
+import org.eclipse.cdt.core.parser.FileContent;
+import org.eclipse.cdt.core.parser.IScanner;
+import org.eclipse.cdt.core.parser.ParserMode;
+import org.eclipse.cdt.core.parser.tests.ASTComparer;
 import org.eclipse.cdt.internal.core.dom.parser.IntegralValue;
+import org.eclipse.cdt.internal.core.dom.parser.ParseFailureMemo;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTNameBase;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPBasicType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPReferenceType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ClassTypeHelper;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.GNUCPPSourceParser;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPDeferredClassInstance;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInternalUnknownScope;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPUnknownBinding;
@@ -10111,4 +10118,79 @@ public class AST2TemplateTests extends AST2TestBase {
 	public void testNoexceptSpecifierInTypeTemplateArgument_511186() throws Exception {
 		parseAndCheckBindings();
 	}
+
+	private GNUCPPSourceParser createParser(String code) {
+		IScanner scanner= createScanner(FileContent.create(TEST_CODE, code.toCharArray()), CPP,
+				ParserMode.COMPLETE_PARSE, createScannerInfo(false));
+		return new GNUCPPSourceParser(scanner, ParserMode.COMPLETE_PARSE, NULL_LOG,
+				new ANSICPPParserExtensionConfiguration(), null);
+	}
+
+	/**
+	 * Parses the code with and without memoizing rule failures, checks that the ASTs are the same
+	 * and returns the memo.
+	 */
+	private ParseFailureMemo parseWithAndWithoutFailureMemo(String code) throws Exception {
+		GNUCPPSourceParser parser= createParser(code);
+		IASTTranslationUnit tu= parser.parse();
+		GNUCPPSourceParser parserWithoutMemo= createParser(code);
+		parserWithoutMemo.disableParseFailureMemo();
+		IASTTranslationUnit tuWithoutMemo= parserWithoutMemo.parse();
+		assertNull(parserWithoutMemo.getParseFailureMemo());
+		assertEquals(parserWithoutMemo.encounteredError(), parser.encounteredError());
+		ASTComparer.assertCopy(tu, tuWithoutMemo);
+		return parser.getParseFailureMemo();
+	}
+
+	//	template <int I> struct A { A(int); };
+	//	template <typename T> struct B { B(int); };
+	//	int a, x;
+	//	void f() {
+	//		A<1>(x);
+	//		a < 1 > (x);
+	//		B<A<2> >(x);
+	//		A<sizeof(int) + 1>(x);
+	//	}
+	public void testParseFailureMemoWithAmbiguousTemplateIds() throws Exception {
+		ParseFailureMemo memo= parseWithAndWithoutFailureMemo(getAboveComment());
+		assertNotNull(memo);
+		// The statements are parsed as expressions and as declarations, the type-id for the
+		// non-type template arguments fails in both attempts.
+		assertTrue(memo.toString(), memo.getHits() > 0);
+	}
+
+	private String createFunctionWithAmbiguousStatements(int count) {
+		StringBuilder code= new StringBuilder();
+		code.append("template <int I> struct A { A(int); };\n");
+		code.append("int x;\n");
+		code.append("void f() {\n");
+		for (int i= 0; i < count; i++) {
+			code.append("A<").append(i).append(">(x);\n");
+		}
+		code.append("}\n");
+		return code.toString();
+	}
+
+	public void testParseFailureMemoIsClearedBetweenStatements() throws Exception {
+		ParseFailureMemo one= parseWithAndWithoutFailureMemo(createFunctionWithAmbiguousStatements(1));
+		ParseFailureMemo many= parseWithAndWithoutFailureMemo(createFunctionWithAmbiguousStatements(100));
+		assertTrue(one.toString(), one.getMaxSize() > 0);
+		// The failures of one statement do not keep the tokens of the function body alive.
+		assertEquals(one.getMaxSize(), many.getMaxSize());
+	}
+
+	//	struct T { T(int); };
+	//	int a, b;
+	//	void f() {
+	//		T (a);
+	//		T (b)(a);
+	//		T (*p)(T), (q)(int);
+	//		int (*r)(int (a));
+	//	}
+	public void testParseFailureMemoWithAmbiguousDeclarators() throws Exception {
+		ParseFailureMemo memo= parseWithAndWithoutFailureMemo(getAboveComment());
+		assertNotNull(memo);
+		// The declarators have been looked up in the memo.
+		assertTrue(memo.toString(), memo.getMisses() > 0);
+	}
 }
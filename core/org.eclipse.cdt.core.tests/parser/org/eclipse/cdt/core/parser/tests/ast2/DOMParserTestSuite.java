@@ -51,6 +51,7 @@ public class DOMParserTestSuite extends TestCase {
 		suite.addTest(TaskParserTest.suite());
 		suite.addTest(CompletionTestSuite.suite());
 		suite.addTestSuite(CharArrayMapTest.class);
+		suite.addTestSuite(TemplateInstanceCacheTest.class);
 		suite.addTest(FaultToleranceTests.suite());
 		suite.addTest(LanguageExtensionsTest.suite());
 		suite.addTest(ASTInactiveCodeTests.suite());
@@ -58,6 +59,7 @@ public class DOMParserTestSuite extends TestCase {
 		suite.addTest(VariableReadWriteFlagsTest.suite());
 		suite.addTest(AST2CPPAttributeTests.suite());
 		suite.addTest(AST2VariableTemplateTests.suite());
+		suite.addTest(AST2ParallelResolutionTests.suite());
 		return suite;
 	}
 }
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.tests.ast2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import junit.framework.TestCase;
+
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateArgument;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
+import org.eclipse.cdt.internal.core.dom.parser.IntegralValue;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPBasicType;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPTemplateNonTypeArgument;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPTemplateTypeArgument;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.TemplateInstanceCache;
+
+public class TemplateInstanceCacheTest extends TestCase {
+
+	private static ICPPTemplateInstance createInstance() {
+		return (ICPPTemplateInstance) Proxy.newProxyInstance(TemplateInstanceCacheTest.class.getClassLoader(),
+				new Class<?>[] { ICPPTemplateInstance.class }, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (method.getName().equals("equals"))
+							return proxy == args[0];
+						if (method.getName().equals("hashCode"))
+							return System.identityHashCode(proxy);
+						return null;
+					}
+				});
+	}
+
+	private static ICPPTemplateArgument[] args(int value) {
+		return new ICPPTemplateArgument[] {
+				new CPPTemplateTypeArgument(CPPBasicType.INT),
+				new CPPTemplateNonTypeArgument(IntegralValue.create(value), CPPBasicType.INT) };
+	}
+
+	public void testInstanceIsFoundForEqualArguments() {
+		TemplateInstanceCache cache = new TemplateInstanceCache();
+		assertNull(cache.getInstance(args(1)));
+		assertEquals(0, cache.getAllInstances().length);
+
+		ICPPTemplateInstance instance = createInstance();
+		cache.addInstance(args(1), instance);
+		assertSame(instance, cache.getInstance(args(1)));
+		assertNull(cache.getInstance(args(2)));
+		assertEquals(1, cache.getAllInstances().length);
+	}
+
+	// Dropping instances would create a second instance for the same arguments.
+	public void testManyInstancesKeepTheirIdentity() {
+		final int count = 20000;
+		TemplateInstanceCache cache = new TemplateInstanceCache();
+		ICPPTemplateInstance[] instances = new ICPPTemplateInstance[count];
+		for (int i = 0; i < count; i++) {
+			instances[i] = createInstance();
+			cache.addInstance(args(i), instances[i]);
+		}
+		for (int i = 0; i < count; i++) {
+			assertSame(instances[i], cache.getInstance(args(i)));
+		}
+		assertEquals(count, cache.getAllInstances().length);
+	}
+
+	public void testInstancesAreReturnedInInsertionOrder() {
+		TemplateInstanceCache cache = new TemplateInstanceCache();
+		ICPPTemplateInstance[] instances = new ICPPTemplateInstance[100];
+		for (int i = 0; i < instances.length; i++) {
+			instances[i] = createInstance();
+			// Descending values, the order must not depend on the keys
+			cache.addInstance(args(instances.length - i), instances[i]);
+		}
+		ICPPTemplateInstance[] all = cache.getAllInstances();
+		assertEquals(instances.length, all.length);
+		for (int i = 0; i < instances.length; i++) {
+			assertSame(instances[i], all[i]);
+		}
+	}
+
+	public void testConcurrentAdditions() throws Exception {
+		final int perThread = 2000;
+		final TemplateInstanceCache cache = new TemplateInstanceCache();
+		final ICPPTemplateInstance[] instances = new ICPPTemplateInstance[4 * perThread];
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			final int first = t * perThread;
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					for (int i = first; i < first + perThread; i++) {
+						instances[i] = createInstance();
+						cache.addInstance(args(i), instances[i]);
+						cache.getInstance(args(i - first));
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		for (int i = 0; i < instances.length; i++) {
+			assertSame(instances[i], cache.getInstance(args(i)));
+		}
+	}
+}
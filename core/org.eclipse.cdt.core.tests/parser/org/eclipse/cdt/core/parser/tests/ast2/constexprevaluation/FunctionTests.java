@@ -14,6 +14,7 @@ import org.eclipse.cdt.core.dom.ast.IASTInitializerClause;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPFunction;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPExecution;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ConstexprCallCache;
 
 import junit.framework.TestSuite;
 
@@ -50,6 +51,15 @@ public class FunctionTests extends TestBase {
 	public void testRecursion() throws Exception {
 		assertEvaluationEquals(55);
 	}
+
+	// constexpr int fib(int n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }
+
+	// constexpr int x = fib(25);
+	public void testMemoizedRecursion() throws Exception {
+		long hits = ConstexprCallCache.getHits();
+		assertEvaluationEquals(75025);
+		assertTrue(ConstexprCallCache.getHits() > hits);
+	}
 	
 	// constexpr int helper(int n) { 
 	//   int m = 5;
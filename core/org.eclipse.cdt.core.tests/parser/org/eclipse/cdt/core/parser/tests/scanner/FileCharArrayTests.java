@@ -63,6 +63,36 @@ public class FileCharArrayTests extends BaseTestCase {
 		testFile(false, LazyCharArray.CHUNK_SIZE*3+1);
 	}
 
+	public void testSmallASCIIFile() throws IOException {
+		testSmallFile(new byte[] { 'a', '\t', 'b', '\n', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k' },
+				"a\tb\ncdefghijk");
+	}
+
+	public void testSmallNonASCIIFile() throws IOException {
+		testSmallFile(new byte[] { (byte) 0xef, (byte) 0xbb, (byte) 0xbf, 'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i',
+				(byte) 0xc2, (byte) 0xa2, 'j' }, "abcdefghi\u00a2j");
+	}
+
+	private void testSmallFile(byte[] content, String expected) throws IOException {
+		fFile= File.createTempFile("data", ".txt");
+		OutputStream out= new FileOutputStream(fFile);
+		try {
+			out.write(content);
+		} finally {
+			out.close();
+		}
+
+		AbstractCharArray charArray;
+		final FileInputStream inputStream = new FileInputStream(fFile);
+		try {
+			charArray = FileCharArray.create(fFile.getPath(), "utf-8", inputStream);
+		} finally {
+			inputStream.close();
+		}
+		assertEquals(expected, charArray.toString());
+		assertEquals(expected.length(), charArray.getLength());
+	}
+
 	private void testFile(boolean aligned, int charSize) throws IOException {
 		createFile(aligned, charSize);
 		
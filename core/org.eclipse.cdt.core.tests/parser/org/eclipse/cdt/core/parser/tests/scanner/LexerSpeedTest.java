@@ -0,0 +1,73 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.core.parser.tests.scanner;
+
+import org.eclipse.cdt.core.parser.IToken;
+import org.eclipse.cdt.internal.core.parser.scanner.CharArray;
+import org.eclipse.cdt.internal.core.parser.scanner.ILexerLog;
+import org.eclipse.cdt.internal.core.parser.scanner.Lexer;
+import org.eclipse.cdt.internal.core.parser.scanner.Lexer.LexerOptions;
+
+/**
+ * Measures the time it takes to lex a large generated header.
+ */
+public class LexerSpeedTest {
+
+	public static void main(String[] args) {
+		try {
+			new LexerSpeedTest().runTest(args.length > 0 ? Integer.parseInt(args[0]) : 20);
+		} catch (Exception e) {
+			System.out.println(e);
+		}
+	}
+
+	public void test() throws Exception {
+		runTest(5);
+	}
+
+	private void runTest(int n) throws Exception {
+		char[] input= createHeader(20000).toCharArray();
+		long totalTime = 0;
+		for (int i = 0; i < n; ++i) {
+			long time = testLex(input);
+			if (i > 0)
+				totalTime += time;
+		}
+
+		if (n > 1) {
+			System.out.println("Average Time: " + (totalTime / (n - 1)) + " millisecs");
+		}
+	}
+
+	private long testLex(char[] input) throws Exception {
+		long startTime = System.currentTimeMillis();
+		Lexer lexer= new Lexer(new CharArray(input), new LexerOptions(), ILexerLog.NULL, null);
+		int count= 0;
+		while (lexer.nextToken().getType() != IToken.tEND_OF_INPUT) {
+			count++;
+		}
+		long totalTime = System.currentTimeMillis() - startTime;
+		System.out.println("Resulting scan took " + totalTime + " millisecs " + count + " tokens");
+		return totalTime;
+	}
+
+	private String createHeader(int declarations) {
+		StringBuilder buf= new StringBuilder();
+		buf.append("#ifndef GENERATED_HEADER_H\n#define GENERATED_HEADER_H\n");
+		for (int i = 0; i < declarations; i++) {
+			buf.append("/**\n * Documentation of the declaration number ").append(i).append(".\n */\n");
+			buf.append("namespace generated_namespace {\n");
+			buf.append("    struct generated_structure_").append(i).append(" {\n");
+			buf.append("        int   member_variable_").append(i).append(";   // trailing comment\n");
+			buf.append("        void  member_function_").append(i).append("(const char* parameter, int count);\n");
+			buf.append("    };\n}\n");
+		}
+		buf.append("#endif\n");
+		return buf.toString();
+	}
+}
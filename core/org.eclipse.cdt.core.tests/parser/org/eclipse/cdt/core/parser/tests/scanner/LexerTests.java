@@ -353,6 +353,35 @@ public class LexerTests extends BaseTestCase {
 		eof();
 	}
 
+	public void testBulkSkipping() throws Exception {
+		init("identifier_with_digits_0123\\\nand_more  \t  b");
+		id("identifier_with_digits_0123and_more");
+		ws();
+		id("b");
+		eof();
+
+		init("a   \\\n   b");
+		id("a");
+		ws();
+		id("b");
+		eof();
+
+		init("// comment ??/\ncontinued\na");
+		comment("// comment ??/\ncontinued");
+		nl();
+		id("a");
+		eof();
+
+		init("/* a ** b ***/a");
+		comment("/* a ** b ***/");
+		id("a");
+		eof();
+
+		init("/* unterminated *");
+		comment("/* unterminated *");
+		eof();
+	}
+
 	public void testSlashPercentComments() throws Exception {
 		init("// /%\na", SLASH_PERCENT);
 		comment("// /%");
@@ -337,6 +337,33 @@ public class LocationMapTests extends BaseTestCase {
 		checkComment(comments[2], "56789abcdef", true, FN, 5,11,1,1);
 	}
 
+	public void testCommentsCreatedOnDemand() {
+		init(DIGITS);
+		fLocationMap.encounteredComment(1, 3, true, fContent);
+		IASTComment[] comments= fLocationMap.getComments();
+		assertEquals(1, comments.length);
+		fLocationMap.encounteredComment(5, 16, false, fContent);
+		IASTComment[] comments2= fLocationMap.getComments();
+		assertEquals(2, comments2.length);
+		assertSame(comments[0], comments2[0]);
+		checkComment(comments2[0], "12", true, FN, 1, 2, 1, 1);
+		checkComment(comments2[1], "56789abcdef", false, FN, 5, 11, 1, 1);
+	}
+
+	public void testCommentFlagsWithLargeOffsets() {
+		init(DIGITS);
+		final int large= 1 << 30;
+		fLocationMap.encounteredComment(large, large + 10, true, fContent);
+		fLocationMap.encounteredComment(Integer.MAX_VALUE - 10, Integer.MAX_VALUE, false, fContent);
+		fLocationMap.encounteredComment(1, 3, true, fContent);
+		IASTComment[] comments= fLocationMap.getComments();
+		assertEquals(3, comments.length);
+		assertTrue(comments[0].isBlockComment());
+		assertFalse(comments[1].isBlockComment());
+		assertTrue(comments[2].isBlockComment());
+		checkComment(comments[2], "12", true, FN, 1, 2, 1, 1);
+	}
+
 	public void testProblems() {
 		init(DIGITS);
 		fLocationMap.encounterProblem(0, null, 0, 0);
@@ -1381,4 +1381,43 @@ public class PreprocessorTests extends PreprocessorTestsBase {
 		validateProblem(0, IProblem.SCANNER_CONSTANT_WITH_BAD_SUFFIX, "ASDF");
 		validateProblem(1, IProblem.SCANNER_CONSTANT_WITH_BAD_SUFFIX, "xU");
 	}
+
+	// #define INNER 1
+	// #define OUTER(x) INNER + x
+	// OUTER(a) OUTER(a)
+	// #undef INNER
+	// #define INNER 2
+	// OUTER(a) OUTER(b)
+	// #define TRAILING(x) OUTER
+	// TRAILING(a)(c) TRAILING(a)(d)
+	// #define COUNT(x) __COUNTER__ x
+	// COUNT(a) COUNT(a)
+	public void testReusedMacroExpansions() throws Exception {
+		initializeScanner();
+		fScanner.setComputeImageLocations(false);
+		validateInteger("1");
+		validateToken(IToken.tPLUS);
+		validateIdentifier("a");
+		validateInteger("1");
+		validateToken(IToken.tPLUS);
+		validateIdentifier("a");
+		validateInteger("2");
+		validateToken(IToken.tPLUS);
+		validateIdentifier("a");
+		validateInteger("2");
+		validateToken(IToken.tPLUS);
+		validateIdentifier("b");
+		validateInteger("2");
+		validateToken(IToken.tPLUS);
+		validateIdentifier("c");
+		validateInteger("2");
+		validateToken(IToken.tPLUS);
+		validateIdentifier("d");
+		validateInteger("0");
+		validateIdentifier("a");
+		validateInteger("1");
+		validateIdentifier("a");
+		validateEOF();
+		validateProblemCount(0);
+	}
 }
@@ -95,6 +95,17 @@ public class EmptyIndexFragment implements IIndexFragment {
 		return IIndexFragmentInclude.EMPTY_FRAGMENT_INCLUDES_ARRAY;
 	}
 
+	@Override
+	public IIndexFragmentInclude[] findIncludedBy(IIndexFragmentFile file, int depth)
+			throws CoreException {
+		return IIndexFragmentInclude.EMPTY_FRAGMENT_INCLUDES_ARRAY;
+	}
+
+	@Override
+	public IIndexFragmentName[] findSubclassDefinitions(IBinding binding) {
+		return IIndexFragmentName.EMPTY_NAME_ARRAY;
+	}
+
 	@Override
 	public IIndexFragmentName[] findNames(IBinding binding,	int flags) {
 		return IIndexFragmentName.EMPTY_NAME_ARRAY;
@@ -17,6 +17,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
@@ -85,6 +86,7 @@ import org.eclipse.cdt.core.testplugin.TestScannerProvider;
 import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
 import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNode;
+import org.eclipse.cdt.internal.core.index.ISubclassSearch;
 import org.eclipse.cdt.internal.core.pdom.CModelListener;
 import org.eclipse.cdt.internal.core.pdom.indexer.IndexerPreferences;
 import org.eclipse.core.resources.IContainer;
@@ -438,6 +440,36 @@ public class IndexBugsTests extends BaseTestCase {
 		}
     }
 
+	// struct A {};
+	// struct B : A {};
+	// typedef A TA;
+	// struct D : TA {};
+	// template<typename T> struct C {};
+	// template<> struct C<int> : A {};
+	public void testSubclassDefinitions() throws Exception {
+		waitForIndexer();
+		String content= getContentsForTest(1)[0];
+
+		IFile file= TestSourceReader.createFile(fCProject.getProject(), "testSubclassDefinitions.cpp", content);
+		TestSourceReader.waitUntilFileIsIndexed(fIndex, file, INDEXER_TIMEOUT_SEC * 1000);
+
+		fIndex.acquireReadLock();
+		try {
+			IBinding[] bindings= fIndex.findBindings("A".toCharArray(), IndexFilter.getFilter(ILinkage.CPP_LINKAGE_ID), npm());
+			assertEquals(1, bindings.length);
+			assertTrue(fIndex instanceof ISubclassSearch);
+			IIndexName[] defs= ((ISubclassSearch) fIndex).findSubclassDefinitions(bindings[0]);
+			Set<String> subclasses= new HashSet<>();
+			for (IIndexName def : defs) {
+				assertTrue(def.isDefinition());
+				subclasses.add(def.toString());
+			}
+			assertEquals(new HashSet<>(Arrays.asList("B", "D", "C")), subclasses);
+		} finally {
+			fIndex.releaseReadLock();
+		}
+	}
+
 	// enum {e20070206};
 	public void test156671() throws Exception {
 		waitForIndexer();
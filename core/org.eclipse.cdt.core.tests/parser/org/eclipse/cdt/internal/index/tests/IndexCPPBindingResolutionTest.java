@@ -50,6 +50,7 @@ import org.eclipse.cdt.core.index.IIndex;
 import org.eclipse.cdt.core.index.IIndexBinding;
 import org.eclipse.cdt.core.parser.IProblem;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ClassTypeHelper;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.LookupCache;
 import org.eclipse.core.runtime.CoreException;
 
 import junit.framework.TestSuite;
@@ -2460,4 +2461,20 @@ public class IndexCPPBindingResolutionTest extends IndexBindingResolutionTestBas
 	public void testSelfReferencingVariable_510484() throws Exception {
 		checkBindings();
 	}
+
+	//	namespace std {
+	//	    inline namespace __cxx11 {
+	//	        struct base { int value; };
+	//	    }
+	//	    struct derived1 : base {};
+	//	    struct derived2 : derived1 {};
+	//	}
+
+	//	std::derived2 a, b, c;
+	//	int sum = a.value + b.value + c.value;
+	public void testLookupInIndexScopesIsCached() throws Exception {
+		long hits = LookupCache.getHits();
+		checkBindings();
+		assertTrue(LookupCache.getHits() > hits);
+	}
 }
@@ -21,6 +21,7 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.IPDOMManager;
 import org.eclipse.cdt.core.dom.ast.DOMException;
 import org.eclipse.cdt.core.dom.ast.IBinding;
@@ -28,13 +29,18 @@ import org.eclipse.cdt.core.dom.ast.ICompositeType;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPMethod;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPNamespace;
 import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.index.IIndexFile;
+import org.eclipse.cdt.core.index.IIndexInclude;
 import org.eclipse.cdt.core.index.IIndexManager;
+import org.eclipse.cdt.core.index.IIndexName;
 import org.eclipse.cdt.core.index.IndexFilter;
+import org.eclipse.cdt.core.index.IndexLocationFactory;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.testplugin.CProjectHelper;
 import org.eclipse.cdt.core.testplugin.CTestPlugin;
 import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
 import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
+import org.eclipse.cdt.internal.core.index.CIndex;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
@@ -475,6 +481,69 @@ public class IndexCompositeTests extends BaseTestCase {
 		}
 	}
 
+	// class C1 {};
+	// namespace X { class C2 {}; }
+
+	// class B1 {};
+	// namespace X { class B2 {}; C1 c1; }
+
+	// #include "h2.h"
+	// namespace X { B1 b1; }
+
+	// namespace X { class A1 {}; }
+	public void testConcurrentQueriesMatchSerialQueries() throws Exception {
+		CharSequence[] contents = getContentsForTest(4);
+		ProjectBuilder pb = new ProjectBuilder("projC_" + getName(), true);
+		pb.addFile("h3.h", contents[0]);
+		ICProject cprojC = pb.create();
+
+		pb = new ProjectBuilder("projB_" + getName(), true);
+		pb.addFile("h2.h", contents[1]).addDependency(cprojC.getProject());
+		// Enough includers for findIncludedBy to query them concurrently.
+		for (int i = 0; i < 40; i++) {
+			pb.addFile("s" + i + ".cpp", contents[2]);
+		}
+		ICProject cprojB = pb.create();
+
+		pb = new ProjectBuilder("projA_" + getName(), true);
+		pb.addFile("h1.h", contents[3]).addDependency(cprojB.getProject());
+		ICProject cprojA = pb.create();
+
+		IFile header = cprojB.getProject().getFile("h2.h");
+		setIndex(cprojA, BOTH);
+		boolean concurrent = CIndex.CONCURRENT_QUERIES;
+		try {
+			CIndex.CONCURRENT_QUERIES = false;
+			List<String> serial = queryIndex(header);
+			CIndex.CONCURRENT_QUERIES = true;
+			List<String> parallel = queryIndex(header);
+			assertEquals(serial, parallel);
+		} finally {
+			CIndex.CONCURRENT_QUERIES = concurrent;
+		}
+	}
+
+	/**
+	 * Returns a description of the results of several queries on the index.
+	 */
+	private List<String> queryIndex(IFile header) throws CoreException {
+		List<String> result = new ArrayList<>();
+		for (IBinding binding : index.findBindings(Pattern.compile(".*"), false, FILTER, npm())) {
+			result.add(binding.getName());
+			for (IIndexName name : index.findNames(binding, IIndex.FIND_ALL_OCCURRENCES)) {
+				result.add(name.getFile().getLocation().getURI() + ":" + name.getNodeOffset());
+			}
+		}
+		IIndexFile[] files = index.getFiles(ILinkage.CPP_LINKAGE_ID, IndexLocationFactory.getWorkspaceIFL(header));
+		assertEquals(1, files.length);
+		IIndexInclude[] includedBy = index.findIncludedBy(files[0], IIndex.DEPTH_INFINITE);
+		assertEquals(40, includedBy.length);
+		for (IIndexInclude include : includedBy) {
+			result.add(include.getIncludedByLocation().getURI().toString());
+		}
+		return result;
+	}
+
 	/**
 	 * Asserts binding counts, and returns the index tested against
 	 * @param global the number of bindings expected to be found at global scope
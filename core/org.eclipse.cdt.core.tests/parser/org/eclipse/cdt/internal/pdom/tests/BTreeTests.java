@@ -25,6 +25,7 @@ import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
 import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.cdt.internal.core.pdom.dom.IRecordIterator;
 import org.eclipse.core.runtime.CoreException;
 
 import junit.framework.Test;
@@ -117,6 +118,110 @@ public class BTreeTests extends BaseTestCase {
 		}
 	}
 
+	/**
+	 * The record iterators must return the same records as a visit, in the same order.
+	 */
+	public void testRecordIterator() throws Exception {
+		for (int degree = 2; degree <= 8; degree += 3) {
+			init(degree);
+			try {
+				Random random = new Random(degree);
+				SortedSet<Integer> expected = new TreeSet<>();
+				for (int i = 0; i < 2000; i++) {
+					int value = random.nextInt(10000);
+					if (expected.add(value)) {
+						btree.insert(new BTMockRecord(db, value).getRecord());
+					}
+				}
+
+				List<Integer> all = new ArrayList<>();
+				IRecordIterator iterator = btree.recordIterator();
+				for (long record; (record = iterator.next()) != 0;) {
+					all.add(db.getInt(record));
+				}
+				assertEquals(new ArrayList<>(expected), all);
+
+				final int from = 2500;
+				final int to = 7500;
+				List<Integer> range = new ArrayList<>();
+				iterator = btree.recordIterator(record -> {
+					int value = db.getInt(record);
+					return value < from ? -1 : value >= to ? 1 : 0;
+				});
+				for (long record; (record = iterator.next()) != 0;) {
+					range.add(db.getInt(record));
+				}
+				assertEquals(new ArrayList<>(expected.subSet(from, to)), range);
+
+				iterator = btree.recordIterator(record -> Integer.compare(db.getInt(record), 10000));
+				assertEquals(0, iterator.next());
+			} finally {
+				finish();
+			}
+		}
+	}
+
+	/**
+	 * B-trees built bottom-up must satisfy the invariants and allow further modifications.
+	 */
+	public void testBulkInsert() throws Exception {
+		for (int degree = 2; degree <= 8; degree += 3) {
+			for (int count : new int[] { 1, 2 * degree - 1, 2 * degree, 1000 }) {
+				init(degree);
+				try {
+					SortedSet<Integer> expected = new TreeSet<>();
+					long[] records = new long[count];
+					for (int i = 0; i < count; i++) {
+						records[i] = new BTMockRecord(db, i * 2).getRecord();
+						expected.add(i * 2);
+					}
+					btree.bulkInsert(records, count);
+					assertBTreeInvariantsHold("[bulk insert " + degree + "/" + count + "]");
+					assertBTreeMatchesSortedSet("[bulk insert " + degree + "/" + count + "]", btree, expected);
+
+					for (int i = 0; i < count; i += 3) {
+						btree.insert(new BTMockRecord(db, i * 2 + 1).getRecord());
+						expected.add(i * 2 + 1);
+						btree.delete(records[i]);
+						expected.remove(i * 2);
+					}
+					assertBTreeInvariantsHold("[modified " + degree + "/" + count + "]");
+					assertBTreeMatchesSortedSet("[modified " + degree + "/" + count + "]", btree, expected);
+				} finally {
+					finish();
+				}
+			}
+		}
+	}
+
+	/**
+	 * The records of a buffer are sorted, equivalent and removed records are not inserted.
+	 */
+	public void testInsertBuffer() throws Exception {
+		init(8);
+		try {
+			SortedSet<Integer> expected = new TreeSet<>();
+			Random random = new Random(42);
+			BTree.Buffer buffer = new BTree.Buffer();
+			for (int i = 0; i < 1000; i++) {
+				int value = random.nextInt(500);
+				long record = new BTMockRecord(db, value).getRecord();
+				buffer.add(record);
+				if (i % 10 == 0 && !expected.contains(value)) {
+					assertTrue(buffer.remove(record));
+				} else {
+					expected.add(value);
+				}
+			}
+			assertFalse(buffer.remove(new BTMockRecord(db, 0).getRecord()));
+			btree.insert(buffer);
+			assertBTreeInvariantsHold("[buffer]");
+			assertBTreeMatchesSortedSet("[buffer]", btree, expected);
+		} finally {
+			finish();
+		}
+	}
+
 	/**
 	 * Insert/Delete a random number of records into/from the B-tree
 	 * @param seed the seed for obtaining the deterministic random testing
@@ -13,6 +13,9 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.pdom.tests;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.dom.IName;
@@ -32,6 +35,7 @@ import org.eclipse.cdt.core.index.IndexFilter;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.internal.core.CCoreInternals;
 import org.eclipse.cdt.internal.core.pdom.PDOM;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMName;
 
 import junit.framework.Test;
@@ -86,6 +90,50 @@ public class ClassTests extends PDOMTestBase {
 		return null;
 	}
 
+	public void testSubclassDefinitions() throws Exception {
+		IBinding[] bindings = pdom.findBindings(Pattern.compile("A"), true, IndexFilter.ALL_DECLARED, npm());
+		assertEquals(1, bindings.length);
+		IName[] defs = pdom.findSubclassDefinitions(bindings[0]);
+		Set<String> subclasses = new HashSet<>();
+		for (IName def : defs) {
+			assertTrue(def.isDefinition());
+			subclasses.add(def.toString());
+		}
+		assertEquals(new HashSet<>(Arrays.asList("B", "E")), subclasses);
+
+		bindings = pdom.findBindings(Pattern.compile("B"), true, IndexFilter.ALL_DECLARED, npm());
+		assertEquals(1, bindings.length);
+		assertEquals(0, pdom.findSubclassDefinitions(bindings[0]).length);
+	}
+
+	private Set<String> getSubclassDefinitions(String baseClass) throws Exception {
+		IBinding[] bindings = pdom.findBindings(Pattern.compile(baseClass), true, IndexFilter.ALL_DECLARED, npm());
+		assertEquals(1, bindings.length);
+		Set<String> subclasses = new HashSet<>();
+		for (IName def : pdom.findSubclassDefinitions(bindings[0])) {
+			subclasses.add(def.toString());
+		}
+		return subclasses;
+	}
+
+	public void testSubclassDefinitionsDuringBulkLoad() throws Exception {
+		// While the subtype index is incomplete, the subclasses are found via the base specifiers.
+		WritablePDOM wpdom = (WritablePDOM) pdom;
+		wpdom.acquireWriteLock(1, npm());
+		try {
+			wpdom.beginBulkLoad();
+			try {
+				assertEquals(new HashSet<>(Arrays.asList("B", "E")), getSubclassDefinitions("A"));
+				assertEquals(0, getSubclassDefinitions("B").size());
+			} finally {
+				wpdom.endBulkLoad();
+			}
+		} finally {
+			wpdom.releaseWriteLock(1, false);
+		}
+		assertEquals(new HashSet<>(Arrays.asList("B", "E")), getSubclassDefinitions("A"));
+	}
+
 	public void testNested() throws Exception {
 		IBinding[] bindings = pdom.findBindings(Pattern.compile("NestedA"), false, IndexFilter.ALL_DECLARED, npm());
 		assertEquals(1, bindings.length);
@@ -11,6 +11,12 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.pdom.tests;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import junit.framework.Test;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -20,6 +26,9 @@ import org.eclipse.cdt.core.index.IIndexFile;
 import org.eclipse.cdt.core.index.IIndexInclude;
 import org.eclipse.cdt.core.index.IndexLocationFactory;
 import org.eclipse.cdt.core.model.ICProject;
+import org.eclipse.cdt.internal.core.CCoreInternals;
+import org.eclipse.cdt.internal.core.index.IIndexFragmentFile;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
@@ -64,6 +73,73 @@ public class IncludesTests extends PDOMTestBase {
 		assertEquals(9, allIncludedBy.length); // i.e. all of them
 	}
 
+	public void testIncludedByDepth() throws Exception {
+		IResource loc = project.getProject().findMember("I2.h");
+		IIndexFile file = getIndexFile((IFile) loc);
+		for (int depth : new int[] { 0, 1, 2, -1 }) {
+			// Compare with a walk over the direct includers.
+			Set<String> expected = new HashSet<>();
+			List<IIndexFile> level = Collections.singletonList(file);
+			for (int i = 0; !level.isEmpty(); i++) {
+				List<IIndexFile> nextLevel = new ArrayList<>();
+				for (IIndexFile f : level) {
+					for (IIndexInclude include : index.findIncludedBy(f, 0)) {
+						IIndexFile includer = include.getIncludedBy();
+						if (expected.add(includer.getLocation().getFullPath()))
+							nextLevel.add(includer);
+					}
+				}
+				if (i == depth)
+					break;
+				level = nextLevel;
+			}
+			Set<String> actual = new HashSet<>();
+			for (IIndexInclude include : index.findIncludedBy(file, depth)) {
+				assertTrue(actual.add(include.getIncludedBy().getLocation().getFullPath()));
+			}
+			assertEquals("depth " + depth, expected, actual);
+		}
+	}
+
+	private Set<String> getTransitiveIncluders(IIndexFile file) throws CoreException {
+		Set<String> includers = new HashSet<>();
+		for (IIndexInclude include : index.findIncludedBy(file, -1)) {
+			includers.add(include.getIncludedBy().getLocation().getFullPath());
+		}
+		return includers;
+	}
+
+	private void setTimestamp(IIndexFile file, long timestamp) throws Exception {
+		WritablePDOM pdom = (WritablePDOM) CCoreInternals.getPDOMManager().getPDOM(project);
+		index.releaseReadLock();
+		pdom.acquireWriteLock(npm());
+		try {
+			((IIndexFragmentFile) file).setTimestamp(timestamp);
+		} finally {
+			pdom.releaseWriteLock();
+			index.acquireReadLock();
+		}
+	}
+
+	public void testIncludedByAfterChange() throws Exception {
+		IResource loc = project.getProject().findMember("I2.h");
+		IIndexFile file = getIndexFile((IFile) loc);
+		Set<String> includers = getTransitiveIncluders(file);
+		IIndexFile includer = index.findIncludedBy(file, 0)[0].getIncludedBy();
+		String includerPath = includer.getLocation().getFullPath();
+		assertTrue(includers.contains(includerPath));
+
+		// Includes of files that are not indexed are ignored.
+		long timestamp = includer.getTimestamp();
+		setTimestamp(includer, 0);
+		try {
+			assertFalse(getTransitiveIncluders(file).contains(includerPath));
+		} finally {
+			setTimestamp(includer, timestamp);
+		}
+		assertEquals(includers, getTransitiveIncluders(file));
+	}
+
 	public void testIncludes() throws Exception {
 		IResource loc = project.getProject().findMember("I1.cpp");
 		IIndexFile file = getIndexFile((IFile) loc);
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.tests;
+
+import java.util.List;
+
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.pdom.IndexerMetrics;
+import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
+import org.eclipse.cdt.internal.core.pdom.IndexerStatistics;
+import org.eclipse.cdt.internal.core.pdom.IndexerStatistics.FileTime;
+import org.eclipse.cdt.internal.core.pdom.LatencyHistogram;
+
+import junit.framework.Test;
+
+/**
+ * Tests for {@link IndexerMetrics} and the statistics it is built from.
+ */
+public class IndexerMetricsTests extends BaseTestCase {
+
+	public static Test suite() {
+		return suite(IndexerMetricsTests.class);
+	}
+
+	public void testLatencyHistogram() {
+		LatencyHistogram histogram= new LatencyHistogram();
+		histogram.record(0);
+		histogram.record(1);
+		histogram.record(3);
+		histogram.record(1000000);
+		long[] buckets= histogram.getBucketCounts();
+		assertEquals(1, buckets[0]);
+		assertEquals(1, buckets[1]);
+		assertEquals(1, buckets[2]);
+		assertEquals(1, buckets[LatencyHistogram.BUCKET_COUNT - 1]);
+		assertEquals(4, histogram.getCount());
+		assertEquals(1000004, histogram.getTotalTime());
+		assertEquals(1000000, histogram.getMaxTime());
+
+		LatencyHistogram snapshot= histogram.snapshot();
+		histogram.record(5);
+		assertEquals(4, snapshot.getCount());
+	}
+
+	public void testLatencyHistogramConcurrentRecording() throws Exception {
+		final LatencyHistogram histogram= new LatencyHistogram();
+		Thread[] threads= new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			final int max= i + 1;
+			threads[i]= new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						histogram.record(j % 2 == 0 ? 0 : max);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(40000, histogram.getCount());
+		assertEquals(5000 * (1 + 2 + 3 + 4), histogram.getTotalTime());
+		assertEquals(4, histogram.getMaxTime());
+		assertEquals(20000, histogram.getBucketCounts()[0]);
+	}
+
+	public void testSlowestFiles() {
+		IndexerStatistics statistics= new IndexerStatistics();
+		for (int i = 0; i < 3 * IndexerStatistics.SLOWEST_FILES_COUNT; i++) {
+			statistics.recordFileTime("f" + i, (i * 7) % 30);
+		}
+		List<FileTime> slowest= statistics.getSlowestFiles();
+		assertEquals(IndexerStatistics.SLOWEST_FILES_COUNT, slowest.size());
+		for (int i = 0; i < slowest.size(); i++) {
+			assertEquals(29 - i, slowest.get(i).fTime);
+		}
+	}
+
+	public void testJSON() {
+		IndexerStatistics statistics= new IndexerStatistics();
+		statistics.fParsingTime= 100;
+		statistics.recordFileTime("dir\\\"a\".cpp", 42);
+		IndexerProgress progress= new IndexerProgress();
+		progress.fCompletedSources= 3;
+		progress.fCompletedHeaders= 1;
+		IndexerMetrics metrics= new IndexerMetrics("p", 2000, progress, statistics, null);
+		assertEquals(2.0, metrics.getFilesPerSecond(), 0.0);
+		String json= metrics.toJSON();
+		assertTrue(json, json.startsWith("{\"project\":\"p\",\"elapsedMillis\":2000,"));
+		assertTrue(json, json.contains("\"filesPerSecond\":2.0,"));
+		assertTrue(json, json.contains("\"parseMillis\":100,"));
+		assertTrue(json, json.contains("\"slowestFiles\":[{\"path\":\"dir\\\\\\\"a\\\".cpp\",\"millis\":42}]"));
+	}
+}
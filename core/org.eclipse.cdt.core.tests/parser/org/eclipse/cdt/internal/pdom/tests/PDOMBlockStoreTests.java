@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.dom.IPDOMManager;
+import org.eclipse.cdt.core.index.IIndex;
+import org.eclipse.cdt.core.index.IIndexBinding;
+import org.eclipse.cdt.core.index.IIndexLocationConverter;
+import org.eclipse.cdt.core.index.IndexFilter;
+import org.eclipse.cdt.core.index.ResourceContainerRelativeLocationConverter;
+import org.eclipse.cdt.core.index.export.IExportProjectProvider;
+import org.eclipse.cdt.core.model.ICProject;
+import org.eclipse.cdt.core.testplugin.CProjectHelper;
+import org.eclipse.cdt.core.testplugin.CTestPlugin;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.core.testplugin.util.TestSourceReader;
+import org.eclipse.cdt.internal.core.pdom.PDOMBlockStore;
+import org.eclipse.cdt.internal.core.pdom.TeamPDOMExportOperation;
+import org.eclipse.cdt.internal.core.pdom.TeamPDOMImportOperation;
+import org.eclipse.cdt.internal.core.pdom.export.GeneratePDOM;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.CoreException;
+
+import junit.framework.Test;
+
+/**
+ * Tests for the {@link PDOMBlockStore} class.
+ */
+public class PDOMBlockStoreTests extends BaseTestCase {
+	private static final String SOURCE = "class RoundTrip {}; void roundTrip() {}";
+
+	private File fDir;
+	private ICProject fCProject;
+
+	public static Test suite() {
+		return suite(PDOMBlockStoreTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		fDir= CTestPlugin.getDefault().getStateLocation().append("tests/" + getName() + System.currentTimeMillis()).toFile();
+		fDir.mkdirs();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		if (fCProject != null) {
+			fCProject.getProject().delete(IResource.FORCE | IResource.ALWAYS_DELETE_PROJECT_CONTENT, npm());
+		}
+		delete(fDir);
+		super.tearDown();
+	}
+
+	private void delete(File file) {
+		File[] children= file.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private File writeFile(String name, byte[] content) throws IOException {
+		File file= new File(fDir, name);
+		Files.write(file.toPath(), content);
+		return file;
+	}
+
+	private byte[] randomContent(int length, long seed) {
+		byte[] content= new byte[length];
+		new Random(seed).nextBytes(content);
+		return content;
+	}
+
+	private ICProject createProject() throws Exception {
+		fCProject= CProjectHelper.createCCProject("PDOMBlockStoreTest" + System.currentTimeMillis(), "bin", IPDOMManager.ID_FAST_INDEXER);
+		TestSourceReader.createFile(fCProject.getProject(), "roundtrip.cpp", SOURCE);
+		CCorePlugin.getIndexManager().reindex(fCProject);
+		waitForIndexer(fCProject);
+		return fCProject;
+	}
+
+	public void testDeltaUpdates() throws Exception {
+		byte[] content= randomContent(2 * 1024 * 1024, 1);
+		byte[] checksums= { 1, 2, 3 };
+		File database= writeFile("export.pdom", content);
+		File checksumsFile= writeFile("checksums.dat", checksums);
+
+		PDOMBlockStore store= new PDOMBlockStore(new File(fDir, "shared/index" + PDOMBlockStore.MANIFEST_EXTENSION));
+		int blocks= store.write(database, checksumsFile, null) - 1;
+		assertTrue(blocks >= content.length / PDOMBlockStore.MAX_BLOCK_SIZE);
+		assertEquals(0, store.write(database, checksumsFile, null));
+
+		File imported= new File(fDir, "import.pdom");
+		assertEquals(blocks, store.read(imported, null));
+		assertTrue(Arrays.equals(content, Files.readAllBytes(imported.toPath())));
+		assertTrue(Arrays.equals(checksums, store.readChecksums()));
+
+		// A change in one block.
+		content[content.length / 2]++;
+		database= writeFile("export.pdom", content);
+		int written= store.write(database, null, null);
+		assertTrue(written >= 1 && written <= 2);
+		assertEquals(written, store.read(imported, null));
+		assertTrue(Arrays.equals(content, Files.readAllBytes(imported.toPath())));
+		assertNull(store.readChecksums());
+	}
+
+	public void testMovedContent() throws Exception {
+		byte[] content= randomContent(2 * 1024 * 1024, 2);
+		PDOMBlockStore store= new PDOMBlockStore(new File(fDir, "index" + PDOMBlockStore.MANIFEST_EXTENSION));
+		store.write(writeFile("export.pdom", content), null, null);
+
+		// Insert data at the start, the following content moves to different offsets.
+		byte[] moved= new byte[content.length + 100];
+		System.arraycopy(content, 0, moved, 100, content.length);
+		int written= store.write(writeFile("export.pdom", moved), null, null);
+		assertTrue(written >= 1 && written <= 2);
+
+		File imported= writeFile("import.pdom", content);
+		assertEquals(written, store.read(imported, null));
+		assertTrue(Arrays.equals(moved, Files.readAllBytes(imported.toPath())));
+	}
+
+	public void testPrune() throws Exception {
+		byte[] content1= randomContent(1024 * 1024, 3);
+		byte[] content2= randomContent(1024 * 1024, 4);
+		PDOMBlockStore store1= new PDOMBlockStore(new File(fDir, "index1" + PDOMBlockStore.MANIFEST_EXTENSION));
+		PDOMBlockStore store2= new PDOMBlockStore(new File(fDir, "index2" + PDOMBlockStore.MANIFEST_EXTENSION));
+		store1.write(writeFile("export.pdom", content1), null, null);
+		store2.write(writeFile("export.pdom", content2), null, null);
+
+		// Recently written blocks are kept.
+		content1[content1.length / 2]++;
+		int written= store1.write(writeFile("export.pdom", content1), null, null);
+		assertEquals(0, store1.prune(PDOMBlockStore.PRUNE_DELAY));
+
+		// The replaced blocks of the first index are removed, the ones of the second index are kept.
+		assertEquals(written, store1.prune(0));
+		assertEquals(0, store2.prune(0));
+		File imported= new File(fDir, "import.pdom");
+		store1.read(imported, null);
+		assertTrue(Arrays.equals(content1, Files.readAllBytes(imported.toPath())));
+		store2.read(imported, null);
+		assertTrue(Arrays.equals(content2, Files.readAllBytes(imported.toPath())));
+	}
+
+	private long export(ICProject cproject, File manifest) throws Exception {
+		TeamPDOMExportOperation export= new TeamPDOMExportOperation(cproject);
+		export.setTargetLocation(manifest.getAbsolutePath());
+		export.run(npm());
+		return new PDOMBlockStore(manifest).getLength();
+	}
+
+	private String getSource(int i, String extra) {
+		return "class Reuse" + i + " { int field" + i + "; void method" + i + "(); };\n"
+				+ "void Reuse" + i + "::method" + i + "() { field" + i + "++; }\n"
+				+ "int function" + i + "(Reuse" + i + "& r) { r.method" + i + "(); return 0; }\n" + extra;
+	}
+
+	/**
+	 * Measures the part of an exported index that an import can take from the previous export.
+	 */
+	public void testReuseAfterSourceChange() throws Exception {
+		final int files= 200;
+		fCProject= CProjectHelper.createCCProject("PDOMBlockStoreTest" + System.currentTimeMillis(), "bin", IPDOMManager.ID_FAST_INDEXER);
+		for (int i = 0; i < files; i++) {
+			TestSourceReader.createFile(fCProject.getProject(), "reuse" + i + ".cpp", getSource(i, ""));
+		}
+		CCorePlugin.getIndexManager().reindex(fCProject);
+		waitForIndexer(fCProject);
+		PDOMBlockStore before= new PDOMBlockStore(new File(fDir, "shared/before" + PDOMBlockStore.MANIFEST_EXTENSION));
+		export(fCProject, new File(fDir, "shared/before" + PDOMBlockStore.MANIFEST_EXTENSION));
+
+		// One file is changed and updated in the index.
+		TestSourceReader.createFile(fCProject.getProject(), "reuse0.cpp", getSource(0, "void added() {}\n"));
+		waitForIndexer(fCProject);
+		PDOMBlockStore updated= new PDOMBlockStore(new File(fDir, "shared/updated" + PDOMBlockStore.MANIFEST_EXTENSION));
+		long length= export(fCProject, new File(fDir, "shared/updated" + PDOMBlockStore.MANIFEST_EXTENSION));
+		long shared= updated.getSharedLength(before);
+		System.out.println("PDOMBlockStore: after an update of 1 of " + files + " files " + shared + " of " + length
+				+ " bytes are shared with the previous export");
+		assertTrue(shared > 0);
+
+		// The whole index is generated again.
+		CCorePlugin.getIndexManager().reindex(fCProject);
+		waitForIndexer(fCProject);
+		PDOMBlockStore regenerated= new PDOMBlockStore(new File(fDir, "shared/regenerated" + PDOMBlockStore.MANIFEST_EXTENSION));
+		length= export(fCProject, new File(fDir, "shared/regenerated" + PDOMBlockStore.MANIFEST_EXTENSION));
+		System.out.println("PDOMBlockStore: after indexing the project again " + regenerated.getSharedLength(updated)
+				+ " of " + length + " bytes are shared with the previous export");
+	}
+
+	public void testCorruptBlock() throws Exception {
+		byte[] content= randomContent(2 * PDOMBlockStore.MAX_BLOCK_SIZE, 5);
+		PDOMBlockStore store= new PDOMBlockStore(new File(fDir, "index" + PDOMBlockStore.MANIFEST_EXTENSION));
+		store.write(writeFile("export.pdom", content), null, null);
+		File[] dirs= new File(fDir, "blocks").listFiles();
+		delete(dirs[0]);
+		try {
+			store.read(new File(fDir, "import.pdom"), null);
+			fail("Missing block not detected");
+		} catch (CoreException e) {
+		}
+	}
+
+	public void testExportImportRoundTrip() throws Exception {
+		ICProject cproject= createProject();
+		File manifest= new File(fDir, "shared/index" + PDOMBlockStore.MANIFEST_EXTENSION);
+		TeamPDOMExportOperation export= new TeamPDOMExportOperation(cproject);
+		export.setTargetLocation(manifest.getAbsolutePath());
+		export.run(npm());
+		assertNotNull(new PDOMBlockStore(manifest).readChecksums());
+
+		// The unchanged file must survive the check of the imported index.
+		TeamPDOMImportOperation importOp= new TeamPDOMImportOperation(cproject);
+		importOp.run(npm());
+		assertTrue(importOp.wasSuccessful());
+		IIndex index= CCorePlugin.getIndexManager().getIndex(cproject);
+		index.acquireReadLock();
+		try {
+			IIndexBinding[] bindings= index.findBindings("RoundTrip".toCharArray(), IndexFilter.ALL, npm());
+			assertEquals(1, bindings.length);
+			assertEquals(1, index.findDefinitions(bindings[0]).length);
+		} finally {
+			index.releaseReadLock();
+		}
+	}
+
+	public void testGeneratedStoreContainsChecksums() throws Exception {
+		File manifest= new File(fDir, "generated" + PDOMBlockStore.MANIFEST_EXTENSION);
+		GeneratePDOM generate= new GeneratePDOM(new IExportProjectProvider() {
+			@Override
+			public void setApplicationArguments(String[] arguments) {
+			}
+
+			@Override
+			public ICProject createProject() throws CoreException {
+				try {
+					return PDOMBlockStoreTests.this.createProject();
+				} catch (Exception e) {
+					throw new CoreException(CCorePlugin.createStatus(e.getMessage(), e));
+				}
+			}
+
+			@Override
+			public IIndexLocationConverter getLocationConverter(ICProject cproject) {
+				return new ResourceContainerRelativeLocationConverter(cproject.getProject());
+			}
+
+			@Override
+			public Map<String, String> getExportProperties() {
+				return null;
+			}
+		}, new String[0], manifest, IPDOMManager.ID_FAST_INDEXER);
+		assertTrue(generate.run().isOK());
+
+		byte[] checksums= new PDOMBlockStore(manifest).readChecksums();
+		assertNotNull(checksums);
+		try (ObjectInputStream in= new ObjectInputStream(new ByteArrayInputStream(checksums))) {
+			Map<?, ?> map= (Map<?, ?>) in.readObject();
+			assertTrue(map.get("roundtrip.cpp") instanceof byte[]);
+		}
+	}
+}
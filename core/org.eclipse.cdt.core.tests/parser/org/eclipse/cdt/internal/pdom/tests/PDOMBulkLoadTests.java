@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.tests;
+
+import java.io.File;
+
+import org.eclipse.cdt.core.index.IIndexFileLocation;
+import org.eclipse.cdt.core.index.IIndexLocationConverter;
+import org.eclipse.cdt.core.model.LanguageManager;
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
+
+import junit.framework.Test;
+
+public class PDOMBulkLoadTests extends BaseTestCase {
+	private static final String PROPERTY_BULK_LOAD= "org.eclipse.cdt.internal.core.pdom.bulkLoad";
+
+	private File pdomFile;
+	private WritablePDOM pdom;
+
+	public static Test suite() {
+		return suite(PDOMBulkLoadTests.class);
+	}
+
+	private static class MockIndexLocationConverter implements IIndexLocationConverter {
+		@Override
+		public IIndexFileLocation fromInternalFormat(String raw) {
+			return null;
+		}
+
+		@Override
+		public String toInternalFormat(IIndexFileLocation location) {
+			return null;
+		}
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		pdomFile= File.createTempFile(getClass().getSimpleName(), null);
+		pdom= new WritablePDOM(pdomFile, new MockIndexLocationConverter(),
+				LanguageManager.getInstance().getPDOMLinkageFactoryMappings());
+		pdom.acquireWriteLock(null);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		pdom.releaseWriteLock();
+		pdom.close();
+		pdomFile.delete();
+		super.tearDown();
+	}
+
+	public void testBulkLoadMarksIndex() throws Exception {
+		pdom.beginBulkLoad();
+		assertTrue(pdom.isBulkLoading());
+		assertNotNull(pdom.getProperty(PROPERTY_BULK_LOAD));
+
+		pdom.endBulkLoad();
+		assertFalse(pdom.isBulkLoading());
+		assertNull(pdom.getProperty(PROPERTY_BULK_LOAD));
+	}
+
+	// Clearing the caches during a rebuild discards the deferred additions, ending the bulk
+	// load must still remove the mark.
+	public void testEndBulkLoadAfterClearingCaches() throws Exception {
+		pdom.beginBulkLoad();
+		pdom.clear();
+		pdom.setProperty(PROPERTY_BULK_LOAD, Boolean.TRUE.toString());
+		assertFalse(pdom.isBulkLoading());
+
+		pdom.endBulkLoad();
+		assertFalse(pdom.isBulkLoading());
+		assertNull(pdom.getProperty(PROPERTY_BULK_LOAD));
+	}
+}
@@ -13,6 +13,7 @@ package org.eclipse.cdt.internal.pdom.tests;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.regex.Pattern;
 
 import junit.framework.Test;
@@ -287,6 +288,59 @@ public class PDOMSearchTest extends PDOMTestBase {
 		assertEquals(offset("main.cpp", "int var;") + 4, loc.getNodeOffset()); // character offset
 	}
 
+	/**
+	 * Wildcard searches answered via the name trigram index must find the same bindings as a full scan.
+	 */
+	public void testWildcardSearches() throws Exception {
+		Pattern[] patterns = {
+				Pattern.compile(".*lass.*"),
+				Pattern.compile("Class."),
+				Pattern.compile(".*1.*"),
+				Pattern.compile("CLASS1.*", Pattern.CASE_INSENSITIVE),
+				Pattern.compile(".*xyz.*"),
+		};
+		int[] expectedMinimum = { 4, 3, 4, 2, 0 };
+		for (int i = 0; i < patterns.length; i++) {
+			IBinding[] viaIndex = pdom.findBindings(patterns[i], false, INDEX_FILTER, NULL_MONITOR);
+			IBinding[] viaScan;
+			PDOM.USE_NAME_TRIGRAM_INDEX = false;
+			try {
+				viaScan = pdom.findBindings(patterns[i], false, INDEX_FILTER, NULL_MONITOR);
+			} finally {
+				PDOM.USE_NAME_TRIGRAM_INDEX = true;
+			}
+			assertTrue(patterns[i].pattern(), viaIndex.length >= expectedMinimum[i]);
+			assertEquals(patterns[i].pattern(), new HashSet<>(Arrays.asList(viaScan)),
+					new HashSet<>(Arrays.asList(viaIndex)));
+		}
+	}
+
+	/**
+	 * Prefix lookups narrowed from the results of a shorter prefix must find the same bindings
+	 * as a search of the indexes.
+	 */
+	public void testPrefixLookups() throws Exception {
+		String[] prefixes = { "c", "cl", "Cla", "class1", "class1x", "clazz", "f", "foo", "" };
+		for (boolean filescope : new boolean[] { true, false }) {
+			for (String prefix : prefixes) {
+				char[] chars = prefix.toCharArray();
+				IBinding[] contentAssist = pdom.findBindingsForContentAssist(chars, filescope, INDEX_FILTER, NULL_MONITOR);
+				IBinding[] caseSensitive = pdom.findBindingsForPrefix(chars, filescope, true, INDEX_FILTER, NULL_MONITOR);
+				IBinding[] contentAssistViaScan;
+				IBinding[] caseSensitiveViaScan;
+				PDOM.USE_PREFIX_LOOKUP_CACHE = false;
+				try {
+					contentAssistViaScan = pdom.findBindingsForContentAssist(chars, filescope, INDEX_FILTER, NULL_MONITOR);
+					caseSensitiveViaScan = pdom.findBindingsForPrefix(chars, filescope, true, INDEX_FILTER, NULL_MONITOR);
+				} finally {
+					PDOM.USE_PREFIX_LOOKUP_CACHE = true;
+				}
+				assertEquals(prefix, Arrays.asList(contentAssistViaScan), Arrays.asList(contentAssist));
+				assertEquals(prefix, Arrays.asList(caseSensitiveViaScan), Arrays.asList(caseSensitive));
+			}
+		}
+	}
+
 	/**
 	 * Returns the fully qualified name for a given binding.
 	 */
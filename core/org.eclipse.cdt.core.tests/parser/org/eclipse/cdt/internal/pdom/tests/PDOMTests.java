@@ -39,7 +39,11 @@ public class PDOMTests extends TestSuite {
 		suite.addTest(OverloadsWithinSingleTUTests.suite());
 		suite.addTest(OverloadsWithinCommonHeaderTests.suite());
 		suite.addTest(BTreeTests.suite());
+		suite.addTest(PDOMBlockStoreTests.suite());
 		suite.addTest(PDOMStringSetTests.suite());
+		suite.addTest(TrigramIndexTests.suite());
+		suite.addTest(PDOMBulkLoadTests.suite());
+		suite.addTest(IndexerMetricsTests.suite());
 		suite.addTest(PDOMTagIndexTests.suite());
 		suite.addTest(FilesOnReindexTests.suite());
 		suite.addTest(GeneratePDOMApplicationTest.suite());
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.pdom.tests;
+
+import java.io.File;
+import java.util.Arrays;
+
+import junit.framework.Test;
+
+import org.eclipse.cdt.core.testplugin.util.BaseTestCase;
+import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.eclipse.cdt.internal.core.pdom.db.TrigramIndex;
+
+public class TrigramIndexTests extends BaseTestCase {
+	protected File dbFile;
+	protected Database db;
+	protected TrigramIndex index;
+
+	public static Test suite() {
+		return suite(TrigramIndexTests.class);
+	}
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		dbFile = File.createTempFile("trigramindextest", "db");
+		db = new Database(dbFile, new ChunkCache(), 0, false);
+		db.setExclusiveLock();
+		index = new TrigramIndex(db, Database.DATA_AREA);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		db.close();
+		dbFile.deleteOnExit();
+
+		super.tearDown();
+	}
+
+	private long[] find(String... literals) throws Exception {
+		char[][] chars = new char[literals.length][];
+		for (int i = 0; i < literals.length; i++) {
+			chars[i] = literals[i].toCharArray();
+		}
+		return index.findCandidates(chars);
+	}
+
+	public void testTrigrams() throws Exception {
+		assertEquals(0, TrigramIndex.getTrigrams("ab".toCharArray()).length);
+		assertEquals(1, TrigramIndex.getTrigrams("abc".toCharArray()).length);
+		// Duplicates and case are folded.
+		assertEquals(1, TrigramIndex.getTrigrams("aaaAAA".toCharArray()).length);
+		assertTrue(Arrays.equals(TrigramIndex.getTrigrams("FooBar".toCharArray()),
+				TrigramIndex.getTrigrams("foobar".toCharArray())));
+	}
+
+	// Records are pointers as returned by Database.malloc().
+	public void testCandidates() throws Exception {
+		index.insert("getFoo".toCharArray(), 10);
+		index.insert("setFoo".toCharArray(), 18);
+		index.insert("getBar".toCharArray(), 26);
+		index.insert("ab".toCharArray(), 34);
+
+		assertTrue(Arrays.equals(new long[] { 10, 18 }, find("foo")));
+		assertTrue(Arrays.equals(new long[] { 10, 26 }, find("GET")));
+		assertTrue(Arrays.equals(new long[] { 10 }, find("get", "foo")));
+		assertTrue(Arrays.equals(new long[] { 26 }, find("etBa")));
+		assertEquals(0, find("xyz").length);
+		assertEquals(0, find("getFooBar").length);
+		// Too short to use the index.
+		assertNull(find("ab"));
+		assertNull(find());
+	}
+
+	public void testManyRecords() throws Exception {
+		final int count = 5000;
+		for (int i = 1; i <= count; i++) {
+			index.insert(("name" + i).toCharArray(), i * 8 + 2);
+		}
+		long[] all = find("name");
+		assertEquals(count, all.length);
+		for (int i = 1; i < all.length; i++) {
+			assertTrue(all[i - 1] < all[i]);
+		}
+		assertTrue(Arrays.equals(new long[] { 4711 * 8 + 2 }, find("name4711")));
+	}
+
+	public void testBufferedInsert() throws Exception {
+		final int count = 5000;
+		TrigramIndex.Buffer buffer = new TrigramIndex.Buffer();
+		for (int i = 1; i <= count; i++) {
+			buffer.add(("name" + i).toCharArray(), i * 8 + 2);
+		}
+		index.insert(buffer);
+		assertEquals(count, find("name").length);
+		assertTrue(Arrays.equals(new long[] { 4711 * 8 + 2 }, find("name4711")));
+
+		// Buffers can be added to a non-empty index, as well as single records.
+		buffer = new TrigramIndex.Buffer();
+		buffer.add("otherName".toCharArray(), (count + 1) * 8 + 2);
+		index.insert(buffer);
+		index.insert("lastName".toCharArray(), (count + 2) * 8 + 2);
+		assertEquals(count + 2, find("name").length);
+		assertTrue(Arrays.equals(new long[] { (count + 1) * 8 + 2 }, find("other")));
+	}
+
+	// The candidates must contain every match, but only a small fraction of all names.
+	public void testCandidatesAreSelective() throws Exception {
+		String[] prefixes = { "get", "set", "find" };
+		String[] words = { "Buffer", "Node", "Index", "Scope", "Lock", "Task", "Cache", "Table", "Entry", "Event" };
+		String[] names = new String[prefixes.length * words.length * words.length];
+		int n = 0;
+		for (String prefix : prefixes) {
+			for (String word1 : words) {
+				for (String word2 : words) {
+					names[n] = prefix + word1 + word2;
+					index.insert(names[n].toCharArray(), ++n * 8 + 2);
+				}
+			}
+		}
+		long[] candidates = find("Lock", "Task");
+		int matches = 0;
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].contains("Lock") && names[i].contains("Task")) {
+				matches++;
+				assertTrue(names[i], Arrays.binarySearch(candidates, (i + 1) * 8 + 2) >= 0);
+			}
+		}
+		assertEquals(6, matches);
+		assertTrue(candidates.length < names.length / 10);
+	}
+}
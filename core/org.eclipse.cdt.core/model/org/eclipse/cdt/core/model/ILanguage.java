@@ -81,6 +81,15 @@ public interface ILanguage extends IAdaptable {
 	 */
 	public final static int OPTION_PARSE_INACTIVE_CODE= 0x20;
 
+	/**
+	 * Option for {@link #getASTTranslationUnit(FileContent, IScannerInfo, IncludeFileContentProvider, IIndex, int, IParserLogService)}
+	 * Allows the parser not to create ast nodes for simple statements (e.g. <code>break;</code>,
+	 * <code>return 0;</code>) within function bodies when they do not contain names. The bodies
+	 * of constexpr functions, lambdas and functions with deduced return types are not affected.
+	 * @since 6.3
+	 */
+	public final static int OPTION_SKIP_TRIVIAL_STATEMENTS_IN_FUNCTION_BODIES= 0x40;
+
 	/**
 	 * Return the language id for this language.
 	 * This is to differentiate languages from each other.
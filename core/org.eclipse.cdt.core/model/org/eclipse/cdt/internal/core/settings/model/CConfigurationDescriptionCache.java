@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.cdtvariables.ICdtVariable;
 import org.eclipse.cdt.core.cdtvariables.ICdtVariablesContributor;
 import org.eclipse.cdt.core.language.settings.providers.ILanguageSettingsProvider;
@@ -107,6 +108,9 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 	private StorableCdtVariables fMacros;
 	private boolean fDataLoadded;
 	private boolean fInitializing;
+	private volatile boolean fLoadPending;
+	private boolean fLoadingPendingData;
+	private boolean fInitializationPending;
 	private ICConfigurationDescription fBaseDescription;
 	private ICSourceEntry[] fResolvedSourceEntries;
 
@@ -126,6 +130,54 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 		return fInitializing;
 	}
 
+	/**
+	 * Defers loading the data of the configuration until it is first accessed.
+	 */
+	void deferLoadData() {
+		fLoadPending = true;
+	}
+
+	/**
+	 * @return whether the data of the configuration has not been loaded yet
+	 */
+	public boolean isLoadPending() {
+		return fLoadPending;
+	}
+
+	private void ensureLoaded() {
+		if (fLoadPending)
+			loadPendingData();
+	}
+
+	private synchronized void loadPendingData() {
+		// Accesses from the data provider while it loads the data see the partially loaded data,
+		// like they do for configurations that are loaded with the project description.
+		if (!fLoadPending || fLoadingPendingData)
+			return;
+
+		fLoadingPendingData = true;
+		try {
+			AbstractCProjectDescriptionStorage storage = CProjectDescriptionStorageManager.getInstance()
+					.getProjectDescriptionStorage(fParent.getProject());
+			ICProjectDescription oldDes = storage != null ? storage.setThreadLocalProjectDesc(fParent) : null;
+			try {
+				loadData();
+			} catch (CoreException e) {
+				CCorePlugin.log(e);
+			} finally {
+				if (storage != null)
+					storage.setThreadLocalProjectDesc(oldDes);
+			}
+			if (fInitializationPending) {
+				fInitializationPending = false;
+				completeInitialization();
+			}
+		} finally {
+			fLoadingPendingData = false;
+			fLoadPending = false;
+		}
+	}
+
 	void loadData() throws CoreException {
 		if(fDataLoadded)
 			return;
@@ -211,6 +263,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 	}
 
 	public StorableCdtVariables getCachedVariables(){
+		ensureLoaded();
 		return fMacros;
 	}
 
@@ -261,15 +314,18 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICResourceDescription getResourceDescription(IPath path, boolean exactPath) {
+		ensureLoaded();
 		return fRcHolder.getResourceDescription(path, exactPath);
 	}
 
 	public ICResourceDescription[] getResourceDescriptions(int kind) {
+		ensureLoaded();
 		return fRcHolder.getResourceDescriptions(kind);
 	}
 
 	@Override
 	public ICFolderDescription getRootFolderDescription() {
+		ensureLoaded();
 		return (ICFolderDescription)fRootFolderData;
 	}
 
@@ -318,6 +374,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICSettingObject[] getChildSettings() {
+		ensureLoaded();
 		return fChildList.toArray(new ICSettingObject[fChildList.size()]);
 	}
 
@@ -333,21 +390,25 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICResourceDescription[] getResourceDescriptions() {
+		ensureLoaded();
 		return fRcHolder.getResourceDescriptions();
 	}
 
 	@Override
 	public ICStorageElement getStorage(String id, boolean create) throws CoreException {
+		ensureLoaded();
 		return getSpecSettings().getStorage(id, create);
 	}
 
 	@Override
 	public void removeStorage(String id) throws CoreException {
+		ensureLoaded();
 		getSpecSettings().removeStorage(id);
 	}
 
 	@Override
 	public ICStorageElement importStorage(String id, ICStorageElement el) throws UnsupportedOperationException, CoreException {
+		ensureLoaded();
 		return getSpecSettings().importStorage(id, el);
 	}
 
@@ -363,6 +424,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public CConfigurationData getConfigurationData() {
+		ensureLoaded();
 		return fData;
 	}
 
@@ -381,6 +443,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 		if(write)
 			throw ExceptionFactory.createIsReadOnlyException();
 
+		ensureLoaded();
 		return this;
 	}
 
@@ -409,6 +472,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public boolean isReadOnly() {
+		ensureLoaded();
 		return !fInitializing;
 	}
 
@@ -418,6 +482,48 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 			throw ExceptionFactory.createIsReadOnlyException();
 	}
 
+	@Override
+	public String getDescription() {
+		ensureLoaded();
+		return super.getDescription();
+	}
+
+	@Override
+	public CResourceData[] getResourceDatas() {
+		ensureLoaded();
+		return super.getResourceDatas();
+	}
+
+	@Override
+	public CFolderData getRootFolderData() {
+		ensureLoaded();
+		return super.getRootFolderData();
+	}
+
+	@Override
+	public CResourceData getResourceData(IPath path) {
+		ensureLoaded();
+		return super.getResourceData(path);
+	}
+
+	@Override
+	public CTargetPlatformData getTargetPlatformData() {
+		ensureLoaded();
+		return super.getTargetPlatformData();
+	}
+
+	@Override
+	public CBuildData getBuildData() {
+		ensureLoaded();
+		return super.getBuildData();
+	}
+
+	@Override
+	public CConfigurationStatus getStatus() {
+		ensureLoaded();
+		return super.getStatus();
+	}
+
 	@Override
 	public ICTargetPlatformSetting getTargetPlatformSetting() {
 		return (ICTargetPlatformSetting)getTargetPlatformData();
@@ -430,11 +536,13 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICFileDescription[] getFileDescriptions() {
+		ensureLoaded();
 		return (ICFileDescription[])fRcHolder.getResourceDescriptions(ICSettingBase.SETTING_FILE);
 	}
 
 	@Override
 	public ICFolderDescription[] getFolderDescriptions() {
+		ensureLoaded();
 		return (ICFolderDescription[])fRcHolder.getResourceDescriptions(ICSettingBase.SETTING_FOLDER);
 	}
 
@@ -444,6 +552,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICSourceEntry[] getSourceEntries() {
+		ensureLoaded();
 		initSourceEntries();
 		return fProjSourceEntries.clone();
 	}
@@ -478,6 +587,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 	public ICExternalSetting createExternalSetting(String[] languageIDs,
 			String[] contentTypeIds, String[] extensions,
 			ICSettingEntry[] entries) {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 
@@ -491,6 +601,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public void removeExternalSetting(ICExternalSetting setting) {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 
@@ -499,6 +610,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public void removeExternalSettings() {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 
@@ -523,12 +635,14 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICdtVariablesContributor getBuildVariablesContributor() {
+		ensureLoaded();
 		return fData.getBuildVariablesContributor();
 	}
 
 	@Override
 	public ICConfigExtensionReference create(String extensionPoint,
 			String extension) throws CoreException {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 		return fSpecSettings.create(extensionPoint, extension);
@@ -536,11 +650,13 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICConfigExtensionReference[] get(String extensionPointID) {
+		ensureLoaded();
 		return fSpecSettings.get(extensionPointID);
 	}
 
 	@Override
 	public void remove(ICConfigExtensionReference ext) throws CoreException {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 		fSpecSettings.remove(ext);
@@ -548,6 +664,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public void remove(String extensionPoint) throws CoreException {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 		fSpecSettings.remove(extensionPoint);
@@ -559,6 +676,15 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 	}
 
 	void doneInitialization(){
+		if (fLoadPending) {
+			// Completed once the data is loaded
+			fInitializationPending = true;
+			return;
+		}
+		completeInitialization();
+	}
+
+	private void completeInitialization(){
 		CProjectDescriptionManager.getInstance().notifyCached(this, fData, null);
 		fInitializing = false;
 		fSpecSettings.doneInitialization();
@@ -566,6 +692,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public ICLanguageSetting getLanguageSettingForFile(IPath path, boolean ignoreExcludeStatus) {
+		ensureLoaded();
 		return CProjectDescriptionManager.getLanguageSettingForFile(this, path, ignoreExcludeStatus);
 	}
 
@@ -595,6 +722,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public void setExternalSettingsProviderIds(String[] ids) {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 		fSpecSettings.setExternalSettingsProviderIds(ids);
@@ -602,6 +730,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public void updateExternalSettingsProviders(String[] ids) {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 		fSpecSettings.updateExternalSettingsProviders(ids);
@@ -624,6 +753,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public void setLanguageSettingProviders(List<? extends ILanguageSettingsProvider> providers) {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 		fSpecSettings.setLanguageSettingProviders(providers);
@@ -631,11 +761,13 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public List<ILanguageSettingsProvider> getLanguageSettingProviders() {
+		ensureLoaded();
 		return fSpecSettings.getLanguageSettingProviders();
 	}
 
 	@Override
 	public void setDefaultLanguageSettingsProvidersIds(String[] ids) {
+		ensureLoaded();
 		if(!fInitializing)
 			throw ExceptionFactory.createIsReadOnlyException();
 		fSpecSettings.setDefaultLanguageSettingsProvidersIds(ids);
@@ -643,6 +775,7 @@ public class CConfigurationDescriptionCache extends CDefaultConfigurationData
 
 	@Override
 	public String[] getDefaultLanguageSettingsProvidersIds() {
+		ensureLoaded();
 		return fSpecSettings.getDefaultLanguageSettingsProvidersIds();
 	}
 }
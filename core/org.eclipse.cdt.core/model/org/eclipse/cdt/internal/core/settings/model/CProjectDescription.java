@@ -38,6 +38,11 @@ public class CProjectDescription implements ICProjectDescription, ICDataProxyCon
 	private static final QualifiedName ACTIVE_CFG_PROPERTY = new QualifiedName(CCorePlugin.PLUGIN_ID, ACTIVE_CFG);
 	private static final String SETTING_CFG = "settingConfiguration"; //$NON-NLS-1$
 	private static final QualifiedName SETTING_CFG_PROPERTY = new QualifiedName(CCorePlugin.PLUGIN_ID, SETTING_CFG);
+	/**
+	 * Whether a loaded description loads the data of all configurations up front, instead of
+	 * loading configurations other than the active and the setting one when they are first used.
+	 */
+	private static final boolean LOAD_ALL_CONFIGURATIONS = Boolean.getBoolean("org.eclipse.cdt.core.settings.loadAllConfigurations"); //$NON-NLS-1$
 
 	private CfgIdPair fActiveCfgInfo;
 	private CfgIdPair fSettingCfgInfo;
@@ -190,8 +195,18 @@ public class CProjectDescription implements ICProjectDescription, ICDataProxyCon
 		if (!fIsReadOnly || !fIsLoading)
 			return;
 
+		ICConfigurationDescription activeCfg = null;
+		ICConfigurationDescription settingCfg = null;
+		if (!LOAD_ALL_CONFIGURATIONS) {
+			activeCfg = fCfgMap.get(fActiveCfgInfo.getId());
+			settingCfg = fCfgMap.get(fSettingCfgInfo.getId());
+		}
 		for (Iterator<ICConfigurationDescription> iter = fCfgMap.values().iterator(); iter.hasNext();) {
 			CConfigurationDescriptionCache cache = (CConfigurationDescriptionCache) iter.next();
+			if (!LOAD_ALL_CONFIGURATIONS && cache != activeCfg && cache != settingCfg) {
+				cache.deferLoadData();
+				continue;
+			}
 			try {
 				cache.loadData();
 			} catch (CoreException e) {
@@ -32,6 +32,7 @@ import org.eclipse.cdt.core.settings.model.ICSourceEntry;
 import org.eclipse.cdt.core.settings.model.WriteAccessException;
 import org.eclipse.cdt.core.settings.model.util.CDataUtil;
 import org.eclipse.cdt.core.settings.model.util.ResourceChangeHandlerBase;
+import org.eclipse.cdt.internal.core.settings.model.xml.BinaryDocumentCache;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
@@ -131,6 +132,7 @@ public class ResourceChangeHandler extends ResourceChangeHandlerBase implements
 			case IResource.PROJECT:{
 				ICProjectDescription des = fMngr.projectMove(fromProject, toProject);
 				fRemovedProjects.add(fromProject);
+				BinaryDocumentCache.removeProject(fromProject);
 				if(des != null)
 					fProjDesMap.put(toProject, des);
 			}
@@ -173,6 +175,7 @@ public class ResourceChangeHandler extends ResourceChangeHandlerBase implements
 			case IResource.PROJECT:
 				fMngr.projectClosedRemove(project);
 				fRemovedProjects.add(project);
+				BinaryDocumentCache.removeProject(project);
 				proceed = false;
 				break;
 			case IResource.FOLDER:
@@ -0,0 +1,401 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.settings.model.xml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.parsers.DocumentBuilder;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IPath;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.w3c.dom.ProcessingInstruction;
+import org.xml.sax.SAXException;
+
+/**
+ * Binary cache of parsed project description documents (.cproject and the
+ * .csettings module files).
+ *
+ * The DOM of a parsed settings file is written to the plugin state area in a
+ * compact binary form which can be turned back into a Document much faster than
+ * re-parsing the Xml. A cache entry is used if the local time stamp and the length
+ * of the settings file are still the ones recorded before it was parsed. Only if the
+ * time stamp differs, e.g. because the file was touched or modified while it was
+ * parsed, the file is hashed and compared with the content hash of the parsed bytes.
+ */
+public class BinaryDocumentCache {
+	private static final String CACHE_FOLDER = "descriptionCache"; //$NON-NLS-1$
+	private static final int MAGIC = 0x43445443; // 'CDTC'
+	private static final int FORMAT_VERSION = 3;
+	/** Offset of the time stamp in a cache file, after the magic number and the version */
+	private static final int STAMP_OFFSET = 8;
+	private static final String CACHE_EXTENSION = ".bin"; //$NON-NLS-1$
+	private static final String DIGEST_ALGORITHM = "SHA-1"; //$NON-NLS-1$
+
+	private static final byte NODE_END = 0;
+	private static final byte NODE_ELEMENT = 1;
+	private static final byte NODE_TEXT = 2;
+	private static final byte NODE_CDATA = 3;
+	private static final byte NODE_COMMENT = 4;
+	private static final byte NODE_PI = 5;
+
+	private static final boolean ENABLED = !Boolean.getBoolean("org.eclipse.cdt.core.settings.noBinaryCache"); //$NON-NLS-1$
+
+	private BinaryDocumentCache() {
+	}
+
+	/**
+	 * @return whether the cache is used, it is disabled with
+	 *         -Dorg.eclipse.cdt.core.settings.noBinaryCache=true
+	 */
+	public static boolean isEnabled() {
+		return ENABLED;
+	}
+
+	/**
+	 * Return a document for the given settings file from the binary cache.
+	 *
+	 * @param file the settings file
+	 * @param builder builder used to create the empty document
+	 * @return the cached document, or <code>null</code> if there is no valid cache entry
+	 */
+	public static Document read(IFile file, DocumentBuilder builder) {
+		if (!ENABLED)
+			return null;
+		File cacheFile = getCacheFile(file);
+		File settingsFile = getLocalFile(file);
+		if (cacheFile == null || settingsFile == null || !cacheFile.isFile())
+			return null;
+
+		long stamp = file.getLocalTimeStamp();
+		boolean stampChanged;
+		Document doc;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+				return null;
+			stampChanged = in.readLong() != stamp;
+			if (in.readLong() != settingsFile.length())
+				return null;
+			byte[] hash = new byte[in.readInt()];
+			in.readFully(hash);
+			if (!file.getFullPath().toString().equals(in.readUTF()))
+				return null;
+			// Only a file with a new time stamp needs to be hashed, an unmodified one is not read
+			if (stampChanged && !Arrays.equals(hash, computeHash(Files.readAllBytes(settingsFile.toPath()))))
+				return null;
+
+			doc = builder.newDocument();
+			new Reader(in, doc).readChildren(doc);
+		} catch (IOException | RuntimeException e) {
+			// Corrupt or stale cache entry, the caller parses the Xml instead
+			cacheFile.delete();
+			return null;
+		}
+		if (stampChanged)
+			updateStamp(cacheFile, stamp);
+		return doc;
+	}
+
+	/**
+	 * Record the new time stamp of a file whose content is unchanged, so it isn't hashed again.
+	 */
+	private static void updateStamp(File cacheFile, long stamp) {
+		try (RandomAccessFile out = new RandomAccessFile(cacheFile, "rw")) { //$NON-NLS-1$
+			out.seek(STAMP_OFFSET);
+			out.writeLong(stamp);
+		} catch (IOException e) {
+			// The entry stays valid, the file is hashed again on the next read
+		}
+	}
+
+	/**
+	 * Parse the contents of the given settings file and store the document in the cache.
+	 *
+	 * @param file the settings file
+	 * @param stream the contents of the file, not closed by this method
+	 * @param builder builder used to parse the contents
+	 * @return the parsed document
+	 */
+	public static Document parse(IFile file, InputStream stream, DocumentBuilder builder) throws IOException, SAXException {
+		if (!ENABLED)
+			return builder.parse(stream);
+
+		// The stamp is taken before reading, a later modification of the file invalidates the entry
+		long stamp = file.getLocalTimeStamp();
+		byte[] content = readAll(stream);
+		Document doc = builder.parse(new ByteArrayInputStream(content));
+		write(file, doc, stamp, content);
+		return doc;
+	}
+
+	private static byte[] readAll(InputStream stream) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for (int n = stream.read(buffer); n >= 0; n = stream.read(buffer)) {
+			out.write(buffer, 0, n);
+		}
+		return out.toByteArray();
+	}
+
+	private static byte[] computeHash(byte[] content) throws IOException {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static void write(IFile file, Document doc, long stamp, byte[] content) {
+		File cacheFile = getCacheFile(file);
+		File settingsFile = getLocalFile(file);
+		if (cacheFile == null || settingsFile == null || !settingsFile.isFile())
+			return;
+
+		File dir = cacheFile.getParentFile();
+		if (!dir.isDirectory() && !dir.mkdirs())
+			return;
+
+		File tmpFile = new File(dir, cacheFile.getName() + ".tmp"); //$NON-NLS-1$
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT_VERSION);
+				out.writeLong(stamp);
+				out.writeLong(content.length);
+				byte[] hash = computeHash(content);
+				out.writeInt(hash.length);
+				out.write(hash);
+				out.writeUTF(file.getFullPath().toString());
+				new Writer(out).writeChildren(doc);
+			}
+			Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			tmpFile.delete();
+			CCorePlugin.log(e);
+		}
+	}
+
+	/**
+	 * Remove the cache entry of the given settings file
+	 */
+	public static void remove(IFile file) {
+		File cacheFile = getCacheFile(file);
+		if (cacheFile != null)
+			cacheFile.delete();
+	}
+
+	/**
+	 * Remove the cache entries of all settings files of the given project,
+	 * e.g. because the project is deleted.
+	 */
+	public static void removeProject(IProject project) {
+		File dir = getCacheFolder();
+		File[] cacheFiles = dir != null ? dir.listFiles() : null;
+		if (cacheFiles == null)
+			return;
+		for (File cacheFile : cacheFiles) {
+			if (project.getName().equals(getProjectName(cacheFile)))
+				cacheFile.delete();
+		}
+	}
+
+	/**
+	 * @return the name of the project a cache file belongs to, or <code>null</code>
+	 */
+	private static String getProjectName(File cacheFile) {
+		String name = cacheFile.getName();
+		if (!name.endsWith(CACHE_EXTENSION))
+			return null;
+		int idx = name.lastIndexOf('.', name.length() - CACHE_EXTENSION.length() - 1);
+		return idx > 0 ? name.substring(0, idx) : null;
+	}
+
+	private static File getLocalFile(IFile file) {
+		IPath location = file.getLocation();
+		return location != null ? location.toFile() : null;
+	}
+
+	private static File getCacheFolder() {
+		CCorePlugin plugin = CCorePlugin.getDefault();
+		if (plugin == null)
+			return null;
+		return plugin.getStateLocation().append(CACHE_FOLDER).toFile();
+	}
+
+	private static File getCacheFile(IFile file) {
+		File dir = getCacheFolder();
+		if (dir == null)
+			return null;
+		IPath fullPath = file.getFullPath();
+		String name = fullPath.segment(0) + '.' + Integer.toHexString(fullPath.toString().hashCode()) + CACHE_EXTENSION;
+		return new File(dir, name);
+	}
+
+	/**
+	 * Writes a DOM tree, names are written only once and later referenced by index.
+	 */
+	private static class Writer {
+		private final DataOutputStream fOut;
+		private final Map<String, Integer> fNames = new HashMap<String, Integer>();
+
+		Writer(DataOutputStream out) {
+			fOut = out;
+		}
+
+		void writeChildren(Node parent) throws IOException {
+			NodeList children = parent.getChildNodes();
+			for (int i = 0; i < children.getLength(); i++) {
+				writeNode(children.item(i));
+			}
+			fOut.writeByte(NODE_END);
+		}
+
+		private void writeNode(Node node) throws IOException {
+			switch (node.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				fOut.writeByte(NODE_ELEMENT);
+				writeName(node.getNodeName());
+				NamedNodeMap attrs = node.getAttributes();
+				fOut.writeInt(attrs.getLength());
+				for (int i = 0; i < attrs.getLength(); i++) {
+					Attr attr = (Attr) attrs.item(i);
+					writeName(attr.getName());
+					writeString(attr.getValue());
+				}
+				writeChildren(node);
+				break;
+			case Node.TEXT_NODE:
+				fOut.writeByte(NODE_TEXT);
+				writeString(node.getNodeValue());
+				break;
+			case Node.CDATA_SECTION_NODE:
+				fOut.writeByte(NODE_CDATA);
+				writeString(node.getNodeValue());
+				break;
+			case Node.COMMENT_NODE:
+				fOut.writeByte(NODE_COMMENT);
+				writeString(node.getNodeValue());
+				break;
+			case Node.PROCESSING_INSTRUCTION_NODE:
+				fOut.writeByte(NODE_PI);
+				writeString(((ProcessingInstruction) node).getTarget());
+				writeString(((ProcessingInstruction) node).getData());
+				break;
+			default:
+				// Document types, entity references etc. don't occur in settings files
+				break;
+			}
+		}
+
+		private void writeName(String name) throws IOException {
+			Integer index = fNames.get(name);
+			if (index != null) {
+				fOut.writeInt(index.intValue());
+			} else {
+				fOut.writeInt(-1);
+				writeString(name);
+				fNames.put(name, fNames.size());
+			}
+		}
+
+		private void writeString(String str) throws IOException {
+			byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+			fOut.writeInt(bytes.length);
+			fOut.write(bytes);
+		}
+	}
+
+	/**
+	 * Reads a DOM tree written by {@link Writer}.
+	 */
+	private static class Reader {
+		private final DataInputStream fIn;
+		private final Document fDoc;
+		private final List<String> fNames = new ArrayList<String>();
+
+		Reader(DataInputStream in, Document doc) {
+			fIn = in;
+			fDoc = doc;
+		}
+
+		void readChildren(Node parent) throws IOException {
+			for (byte type = fIn.readByte(); type != NODE_END; type = fIn.readByte()) {
+				switch (type) {
+				case NODE_ELEMENT:
+					Element element = fDoc.createElement(readName());
+					int attrCount = fIn.readInt();
+					for (int i = 0; i < attrCount; i++) {
+						String name = readName();
+						element.setAttribute(name, readString());
+					}
+					parent.appendChild(element);
+					readChildren(element);
+					break;
+				case NODE_TEXT:
+					parent.appendChild(fDoc.createTextNode(readString()));
+					break;
+				case NODE_CDATA:
+					parent.appendChild(fDoc.createCDATASection(readString()));
+					break;
+				case NODE_COMMENT:
+					parent.appendChild(fDoc.createComment(readString()));
+					break;
+				case NODE_PI:
+					String target = readString();
+					parent.appendChild(fDoc.createProcessingInstruction(target, readString()));
+					break;
+				default:
+					throw new IOException("Unknown node type " + type); //$NON-NLS-1$
+				}
+			}
+		}
+
+		private String readName() throws IOException {
+			int index = fIn.readInt();
+			if (index >= 0)
+				return fNames.get(index);
+			String name = readString();
+			fNames.add(name);
+			return name;
+		}
+
+		private String readString() throws IOException {
+			byte[] bytes = new byte[fIn.readInt()];
+			fIn.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -604,6 +604,8 @@ public class XmlProjectDescriptionStorage extends AbstractCProjectDescriptionSto
 				} else {
 					projectFile.create(new ByteArrayInputStream(utfString.getBytes("UTF-8")), IResource.FORCE, new NullProgressMonitor()); //$NON-NLS-1$
 				}
+				// The cached document is stale now, it's re-created the next time the file is parsed
+				BinaryDocumentCache.remove(projectFile);
 				return getModificationStamp(projectFile);
 			} finally {
 				Job.getJobManager().endRule(rule);
@@ -658,9 +660,19 @@ public class XmlProjectDescriptionStorage extends AbstractCProjectDescriptionSto
 			InputStream stream = null;
 			if(reCreate){
 				try{
-					stream = getSharedProperty(container, fileName);
-					if(stream != null){
-						doc = builder.parse(stream);
+					// Try the binary cache before parsing the Xml
+					IFile rscFile = container.getFile(new Path(fileName));
+					if (rscFile.exists())
+						doc = BinaryDocumentCache.read(rscFile, builder);
+					if (doc == null)
+						stream = getSharedProperty(container, fileName);
+					if(doc != null || stream != null){
+						if (doc == null) {
+							if (rscFile.exists())
+								doc = BinaryDocumentCache.parse(rscFile, stream, builder);
+							else
+								doc = builder.parse(stream);
+						}
 
 						// Get the first element in the project file
 						Node rootElement = doc.getFirstChild();
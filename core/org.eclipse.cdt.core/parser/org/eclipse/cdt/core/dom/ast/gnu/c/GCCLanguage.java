@@ -106,6 +106,9 @@ public class GCCLanguage extends AbstractCLikeLanguage {
 					parser.setMaximumTrivialExpressionsInAggregateInitializers(maximumTrivialExpressions);
 			}
 		}
+		if ((options & OPTION_SKIP_TRIVIAL_STATEMENTS_IN_FUNCTION_BODIES) != 0) {
+			parser.setSkipTrivialStatementsInFunctionBodies(true);
+		}
 		return parser;
 	}
 
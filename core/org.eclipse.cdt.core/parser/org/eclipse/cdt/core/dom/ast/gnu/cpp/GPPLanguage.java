@@ -121,6 +121,9 @@ public class GPPLanguage extends AbstractCLikeLanguage {
 					parser.setMaximumTrivialExpressionsInAggregateInitializers(maximumTrivialExpressions);
 			}
 		}
+		if ((options & OPTION_SKIP_TRIVIAL_STATEMENTS_IN_FUNCTION_BODIES) != 0) {
+			parser.setSkipTrivialStatementsInFunctionBodies(true);
+		}
 		return parser;
 	}
 
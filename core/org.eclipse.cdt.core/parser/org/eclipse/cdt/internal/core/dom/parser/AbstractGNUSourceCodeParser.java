@@ -196,6 +196,9 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 
     protected boolean functionCallCanBeLValue;
 	protected int maximumTrivialExpressionsInAggregateInitializers= Integer.MAX_VALUE;
+	protected boolean skipTrivialStatementsInFunctionBodies;
+	/** Whether trivial statements are omitted from the compound statements currently parsed. */
+	protected boolean omitTrivialStatements;
 
     /**
      *  Marks the beginning of the current declaration. It is important to clear the mark whenever we
@@ -210,6 +213,8 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 	protected boolean parsePassed = true;
     protected int backtrackCount = 0;
     protected BacktrackException backtrack = new BacktrackException();
+    /** Failures of expensive rules, {@code null} if the parser does not memoize failures. */
+    protected ParseFailureMemo failureMemo;
 
     protected ASTCompletionNode completionNode;
 
@@ -245,6 +250,15 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 		maximumTrivialExpressionsInAggregateInitializers= limit;
 	}
 
+	/**
+	 * Instructs the parser not to create AST nodes for simple statements within function bodies
+	 * when they do not contain names. Bodies that are needed to evaluate or to deduce the type of
+	 * a function are parsed completely.
+	 */
+	public void setSkipTrivialStatementsInFunctionBodies(boolean skip) {
+		skipTrivialStatementsInFunctionBodies= skip;
+	}
+
     private AbstractParserLogService wrapLogService(IParserLogService logService) {
 		if (logService instanceof AbstractParserLogService) {
 			return (AbstractParserLogService) logService;
@@ -658,6 +672,28 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         }
     }
 
+    /**
+     * Throws the backtrack of a failure recorded in the {@link #failureMemo}.
+     */
+    protected final void throwMemoizedBacktrack(int[] failure) throws BacktrackException {
+        backtrack.initialize(failure[0], failure[1]);
+        throw backtrack;
+    }
+
+    /**
+     * Returns the memo of rule failures, or {@code null} if failures are not memoized.
+     */
+    public final ParseFailureMemo getParseFailureMemo() {
+        return failureMemo;
+    }
+
+    /**
+     * Turns off memoizing rule failures, must be called before parsing.
+     */
+    public final void disableParseFailureMemo() {
+        failureMemo= null;
+    }
+
     protected final void throwBacktrack(IASTProblem problem, IASTNode node) throws BacktrackException {
         ++backtrackCount;
         backtrack.initialize(problem, node);
@@ -688,6 +724,9 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 	        String message = String.format("Parsed %s: %d ms %s. Ambiguity resolution: %d ms", //$NON-NLS-1$
 	        		name, t1 - t0, parsePassed ? "" : " - parse failure", System.currentTimeMillis() - t1); //$NON-NLS-1$//$NON-NLS-2$
 			log.traceLog(message);
+			if (failureMemo != null) {
+				log.traceLog("Memoized parse failures: " + failureMemo); //$NON-NLS-1$
+			}
         }
         nullifyTranslationUnit();
         ast.freeze(); // Make the AST immutable.
@@ -874,6 +913,9 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
             	final int nextOffset = next.getOffset();
         		declarationMark= next;
         		next= null; // Don't hold on to the token while parsing namespaces, class bodies, etc.
+        		// The failures are keyed by tokens, which reference all following tokens
+        		if (failureMemo != null)
+        			failureMemo.clear();
 
         		IASTStatement stmt;
         		if (stmtOffset == nextOffset) {
@@ -881,6 +923,14 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         			stmt= skipProblemStatement(stmtOffset);
             	} else {
             		stmtOffset= nextOffset;
+            		if (omitTrivialStatements) {
+            			final int skippedEndOffset= skipTrivialStatement();
+            			if (skippedEndOffset >= 0) {
+            				getTranslationUnit().setHasNodesOmitted(true);
+            				endOffset= skippedEndOffset;
+            				continue;
+            			}
+            		}
             		stmt= statement();
             	}
         		result.addStatement(stmt);
@@ -906,10 +956,119 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
             	declarationMark= null;
             }
         }
+        if (failureMemo != null)
+        	failureMemo.clear();
         ((ASTNode) result).setOffsetAndLength(offset, endOffset - offset);
         return result;
     }
 
+	/**
+	 * Consumes a statement that cannot contain names without creating nodes for it: a null, break,
+	 * continue or default statement, or a case, return or expression statement that consists of
+	 * plain literals and operators only. Returns the end offset of the statement, or {@code -1}
+	 * if the next statement needs to be parsed, in which case no tokens are consumed.
+	 */
+	private int skipTrivialStatement() throws EndOfFileException {
+		final IToken mark= mark();
+		switch (LT(1)) {
+		case IToken.tSEMI:
+			return consume().getEndOffset();
+		case IToken.t_break:
+		case IToken.t_continue:
+			consume();
+			if (LTcatchEOF(1) == IToken.tSEMI)
+				return consume().getEndOffset();
+			break;
+		case IToken.t_default:
+			consume();
+			if (LTcatchEOF(1) == IToken.tCOLON)
+				return consume().getEndOffset();
+			break;
+		case IToken.t_case:
+			consume();
+			if (LTcatchEOF(1) != IToken.tCOLON && skipLiteralsAndOperators(IToken.tCOLON))
+				return consume().getEndOffset();
+			break;
+		case IToken.t_return:
+			consume();
+			if (skipLiteralsAndOperators(IToken.tSEMI))
+				return consume().getEndOffset();
+			break;
+		default:
+			if (skipLiteralsAndOperators(IToken.tSEMI))
+				return consume().getEndOffset();
+			break;
+		}
+		backup(mark);
+		return -1;
+	}
+
+	/**
+	 * Consumes plain literals, operators and parentheses up to the given terminator, which is not
+	 * consumed. Returns {@code false} if another token is encountered first.
+	 */
+	private boolean skipLiteralsAndOperators(int terminator) throws EndOfFileException {
+		int parenDepth= 0;
+		int conditionals= 0;
+		while (true) {
+			final IToken t= LAcatchEOF(1);
+			if (t == null)
+				return false;
+			switch (t.getType()) {
+			case IToken.tSEMI:
+				return terminator == IToken.tSEMI && parenDepth == 0;
+			case IToken.tCOLON:
+				if (conditionals == 0)
+					return terminator == IToken.tCOLON && parenDepth == 0;
+				conditionals--;
+				break;
+			case IToken.tQUESTION:
+				conditionals++;
+				break;
+			case IToken.tLPAREN:
+				parenDepth++;
+				break;
+			case IToken.tRPAREN:
+				if (--parenDepth < 0)
+					return false;
+				break;
+			case IToken.tINTEGER:
+			case IToken.tFLOATINGPT:
+				// Numbers with a suffix of a user-defined literal reference the literal operator.
+				if (!isPlainNumber(t.getCharImage()))
+					return false;
+				break;
+			case IToken.tSTRING: case IToken.tLSTRING: case IToken.tUTF16STRING: case IToken.tUTF32STRING:
+			case IToken.tCHAR: case IToken.tLCHAR: case IToken.tUTF16CHAR: case IToken.tUTF32CHAR:
+			case IToken.t_true: case IToken.t_false: case IToken.t_nullptr:
+			case IToken.tPLUS: case IToken.tMINUS: case IToken.tSTAR: case IToken.tDIV: case IToken.tMOD:
+			case IToken.tAMPER: case IToken.tBITOR: case IToken.tXOR: case IToken.tBITCOMPLEMENT:
+			case IToken.tNOT: case IToken.tAND: case IToken.tOR: case IToken.tSHIFTL: case IToken.tSHIFTR:
+			case IToken.tLT: case IToken.tGT: case IToken.tLTEQUAL: case IToken.tGTEQUAL:
+			case IToken.tEQUAL: case IToken.tNOTEQUAL: case IToken.tCOMMA:
+				break;
+			default:
+				return false;
+			}
+			consume();
+		}
+	}
+
+	private static boolean isPlainNumber(char[] image) {
+		final boolean hex= image.length > 1 && image[0] == '0' && (image[1] == 'x' || image[1] == 'X');
+		for (int i= hex ? 2 : 0; i < image.length; i++) {
+			final char c= image[i];
+			if ((c >= '0' && c <= '9') || c == '.' || c == '\'' || c == 'u' || c == 'U' || c == 'l' || c == 'L'
+					|| c == '+' || c == '-')
+				continue;
+			if (hex ? (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F') || c == 'p' || c == 'P'
+					: c == 'e' || c == 'E' || c == 'f' || c == 'F')
+				continue;
+			return false;
+		}
+		return true;
+	}
+
 	private IASTProblemDeclaration buildProblemDeclaration(IASTProblem problem) {
 		IASTProblemDeclaration pd = nodeFactory.newProblemDeclaration(problem);
 		((ASTNode) pd).setOffsetAndLength(((ASTNode) problem));
@@ -940,7 +1099,14 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
                 skipOverCompoundStatement(true);
             }
         } else if (mode == ParserMode.COMPLETE_PARSE) {
-            compoundStatement = compoundStatement();
+        	// The last statement determines the value of the expression.
+        	final boolean omit= omitTrivialStatements;
+        	omitTrivialStatements= false;
+        	try {
+        		compoundStatement = compoundStatement();
+        	} finally {
+        		omitTrivialStatements= omit;
+        	}
         }
 
         int lastOffset = consume(IToken.tRPAREN).getEndOffset();
@@ -1385,6 +1551,8 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
 			final int offset = next.getOffset();
 			declarationMark= next;
 			next= null; // Don't hold on to the token while parsing namespaces, class bodies, etc.
+			if (failureMemo != null)
+				failureMemo.clear();
 			try {
 				IASTDeclaration declaration= declaration(options);
 				if (((ASTNode) declaration).getLength() == 0 && LTcatchEOF(1) != IToken.tEOC) {
@@ -1463,6 +1631,15 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
     }
 
     protected IASTStatement handleFunctionBody() throws BacktrackException, EndOfFileException {
+    	return handleFunctionBody(true);
+    }
+
+    /**
+     * @param canOmitTrivialStatements whether the statements of the body are irrelevant for the
+     *     type and the value of the function.
+     */
+    protected IASTStatement handleFunctionBody(boolean canOmitTrivialStatements)
+    		throws BacktrackException, EndOfFileException {
     	declarationMark= null;
         if (mode == ParserMode.QUICK_PARSE || mode == ParserMode.STRUCTURAL_PARSE || !isActiveCode()) {
             int offset = LA(1).getOffset();
@@ -1481,7 +1658,13 @@ public abstract class AbstractGNUSourceCodeParser implements ISourceCodeParser {
         }
 
         // full parse
-        return functionBody();
+        final boolean omit= omitTrivialStatements;
+        omitTrivialStatements= skipTrivialStatementsInFunctionBodies && canOmitTrivialStatements;
+        try {
+        	return functionBody();
+        } finally {
+        	omitTrivialStatements= omit;
+        }
     }
 
     /**
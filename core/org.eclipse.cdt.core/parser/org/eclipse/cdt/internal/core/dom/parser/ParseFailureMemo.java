@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser;
+
+import java.util.HashMap;
+
+import org.eclipse.cdt.core.parser.IToken;
+
+/**
+ * Remembers at which tokens a grammar rule failed to parse, such that alternatives tried
+ * by the parser after backtracking do not parse the same rule at the same token again.
+ * Failures are keyed by the identity of the first token, the rule and the options the rule
+ * was parsed with, the options must be shared, immutable objects.
+ * <p>
+ * Only plain failures without a problem node are memoized, the parser uses the problem
+ * nodes of other failures for error recovery.
+ */
+public final class ParseFailureMemo {
+	private static final class Key {
+		final IToken fToken;
+		final int fRule;
+		final Object fOptions;
+
+		Key(IToken token, int rule, Object options) {
+			fToken= token;
+			fRule= rule;
+			fOptions= options;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(fToken) * 31 + fRule * 7 + System.identityHashCode(fOptions);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other= (Key) obj;
+			return fToken == other.fToken && fRule == other.fRule && fOptions == other.fOptions;
+		}
+	}
+
+	private final String[] fRuleNames;
+	private final int[] fHits;
+	private final int[] fMisses;
+	private final HashMap<Key, int[]> fFailures= new HashMap<>();
+	private int fMaxSize;
+
+	/**
+	 * @param ruleNames the names of the memoized rules, indexed by rule
+	 */
+	public ParseFailureMemo(String... ruleNames) {
+		fRuleNames= ruleNames;
+		fHits= new int[ruleNames.length];
+		fMisses= new int[ruleNames.length];
+	}
+
+	/**
+	 * Returns the offset and the length of the backtrack of a previous failure of the rule
+	 * at the given token, or {@code null} if the rule has not failed there.
+	 */
+	public int[] getFailure(IToken token, int rule, Object options) {
+		int[] failure= fFailures.get(new Key(token, rule, options));
+		if (failure == null) {
+			fMisses[rule]++;
+		} else {
+			fHits[rule]++;
+		}
+		return failure;
+	}
+
+	/**
+	 * Records that the rule failed at the given token.
+	 */
+	public void putFailure(IToken token, int rule, Object options, BacktrackException bt) {
+		if (bt.getProblem() == null && bt.getNodeBeforeProblem() == null) {
+			fFailures.put(new Key(token, rule, options), new int[] { bt.getOffset(), bt.getLength() });
+			if (fFailures.size() > fMaxSize)
+				fMaxSize= fFailures.size();
+		}
+	}
+
+	/**
+	 * Forgets all failures, called between declarations and statements to release the tokens.
+	 */
+	public void clear() {
+		if (!fFailures.isEmpty())
+			fFailures.clear();
+	}
+
+	/**
+	 * Returns the largest number of failures that were remembered at the same time.
+	 */
+	public int getMaxSize() {
+		return fMaxSize;
+	}
+
+	public int getHits(int rule) {
+		return fHits[rule];
+	}
+
+	/**
+	 * Returns the number of hits for all rules.
+	 */
+	public int getHits() {
+		int hits= 0;
+		for (int h : fHits) {
+			hits+= h;
+		}
+		return hits;
+	}
+
+	public int getMisses(int rule) {
+		return fMisses[rule];
+	}
+
+	/**
+	 * Returns the number of misses for all rules.
+	 */
+	public int getMisses() {
+		int misses= 0;
+		for (int m : fMisses) {
+			misses+= m;
+		}
+		return misses;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder buf= new StringBuilder();
+		for (int i= 0; i < fRuleNames.length; i++) {
+			if (i > 0)
+				buf.append(", "); //$NON-NLS-1$
+			buf.append(fRuleNames[i]).append(": ").append(fHits[i]).append(" hits, ") //$NON-NLS-1$ //$NON-NLS-2$
+					.append(fMisses[i]).append(" misses"); //$NON-NLS-1$
+		}
+		return buf.toString();
+	}
+}
@@ -12,8 +12,11 @@
 package org.eclipse.cdt.internal.core.dom.parser.cpp;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Stack;
 
 import org.eclipse.cdt.core.dom.ast.ASTNodeProperty;
@@ -28,13 +31,17 @@ import org.eclipse.cdt.core.dom.ast.IASTInitializer;
 import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
 import org.eclipse.cdt.core.dom.ast.IASTParameterDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
 import org.eclipse.cdt.core.dom.ast.IASTTypeId;
 import org.eclipse.cdt.core.dom.ast.IScope;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTCompositeTypeSpecifier;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTElaboratedTypeSpecifier;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTFunctionDeclarator;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTLinkageSpecification;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTNamespaceDefinition;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTTemplateDeclaration;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTTemplateId;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTTemplateSpecialization;
@@ -69,8 +76,23 @@ final class CPPASTAmbiguityResolver extends ASTVisitor {
 	 */
 	private Stack<IASTFunctionDefinition> fProcessNow = new Stack<>();
 
+	/*
+	 * Function definitions at namespace scope whose bodies are not processed during the visit,
+	 * or null if all bodies are processed during the visit.
+	 */
+	private final List<IASTFunctionDefinition> fIndependentFunctions;
+
 	public CPPASTAmbiguityResolver() {
+		this(false);
+	}
+
+	/**
+	 * @param deferIndependentFunctions whether the bodies of the functions at namespace scope
+	 *     that are independent of each other are left for {@link #resolveFunction(IASTFunctionDefinition)}.
+	 */
+	public CPPASTAmbiguityResolver(boolean deferIndependentFunctions) {
 		super(false);
+		fIndependentFunctions= deferIndependentFunctions ? new ArrayList<IASTFunctionDefinition>() : null;
 		includeInactiveNodes= true;
 		shouldVisitAmbiguousNodes= true;
 		shouldVisitDeclarations= true;
@@ -170,6 +192,11 @@ final class CPPASTAmbiguityResolver extends ASTVisitor {
 				// the remaining parts of the method (notably the body) until the end of the
 				// class declaration has been reached.
 				fDeferredNodes.add(decl);
+			} else if (fIndependentFunctions != null && fProcessNow.isEmpty() && isIndependent(fdef)) {
+				// The body is processed after the rest of the translation unit. Calls of the
+				// function may need the default arguments, these are processed now.
+				fdecl.accept(this);
+				fIndependentFunctions.add(fdef);
 			} else {
 				// Otherwise, visit the remaining parts of the method now. To avoid duplicating
 				// code in CPPASTFunctionDefinition.accept(), call accept() on the entire
@@ -183,6 +210,48 @@ final class CPPASTAmbiguityResolver extends ASTVisitor {
 		return PROCESS_CONTINUE;
 	}
 
+	/**
+	 * Checks whether the body of a function definition can be processed independently of the other
+	 * function bodies. The bodies of constexpr functions and of functions with a deduced return type
+	 * are needed to resolve other names, member functions and templates are processed with the
+	 * class or template they belong to.
+	 */
+	private static boolean isIndependent(IASTFunctionDefinition fdef) {
+		IASTNode parent= fdef.getParent();
+		if (!(parent instanceof IASTTranslationUnit || parent instanceof ICPPASTNamespaceDefinition
+				|| parent instanceof ICPPASTLinkageSpecification)) {
+			return false;
+		}
+		IASTDeclSpecifier declSpec= fdef.getDeclSpecifier();
+		if (declSpec instanceof ICPPASTDeclSpecifier && ((ICPPASTDeclSpecifier) declSpec).isConstexpr())
+			return false;
+		if (declSpec instanceof IASTSimpleDeclSpecifier) {
+			int type= ((IASTSimpleDeclSpecifier) declSpec).getType();
+			if (type == IASTSimpleDeclSpecifier.t_auto || type == IASTSimpleDeclSpecifier.t_decltype_auto)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the function definitions at namespace scope whose bodies were left unprocessed
+	 * by the visit, in the order of the translation unit.
+	 */
+	public List<IASTFunctionDefinition> getIndependentFunctions() {
+		if (fIndependentFunctions == null)
+			return Collections.emptyList();
+		return fIndependentFunctions;
+	}
+
+	/**
+	 * Processes the body of a function definition that was left unprocessed by the visit.
+	 */
+	public void resolveFunction(IASTFunctionDefinition fdef) {
+		fProcessNow.push(fdef);
+		fdef.accept(this);
+		fProcessNow.pop();
+	}
+
 	@Override
 	public int leave(IASTDeclaration declaration) {
 		if (fRepopulate.remove(declaration)) {
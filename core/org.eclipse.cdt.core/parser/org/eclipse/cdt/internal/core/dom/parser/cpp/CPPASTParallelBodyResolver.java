@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+
+/**
+ * Resolves the ambiguities and the names of the function bodies that were left unprocessed by
+ * {@link CPPASTAmbiguityResolver}, on several threads. The names outside of these bodies are
+ * resolved on the calling thread first, such that the bindings and scopes shared by the bodies
+ * exist before the threads start.
+ */
+final class CPPASTParallelBodyResolver {
+	/** Minimum number of function bodies processed by one task. */
+	private static final int MIN_BODIES_PER_TASK = 8;
+	/** Number of tasks per thread, to even out bodies of different size. */
+	private static final int TASKS_PER_THREAD = 4;
+
+	private static final ThreadLocal<CPPASTAmbiguityResolver> sCurrentResolver = new ThreadLocal<>();
+
+	private static final ThreadFactory THREAD_FACTORY = new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "C++ function body resolution"); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		}
+	};
+
+	/**
+	 * Resolves the names of a translation unit, with the exception of the given function bodies.
+	 */
+	private static class OutsideOfBodies extends ASTVisitor {
+		private final Set<IASTFunctionDefinition> fFunctions;
+
+		OutsideOfBodies(List<IASTFunctionDefinition> functions) {
+			shouldVisitDeclarations = true;
+			shouldVisitNames = true;
+			fFunctions = Collections.newSetFromMap(new IdentityHashMap<IASTFunctionDefinition, Boolean>());
+			fFunctions.addAll(functions);
+		}
+
+		@Override
+		public int visit(IASTDeclaration declaration) {
+			if (declaration instanceof IASTFunctionDefinition && fFunctions.contains(declaration)) {
+				IASTFunctionDefinition fdef = (IASTFunctionDefinition) declaration;
+				fdef.getDeclSpecifier().accept(this);
+				fdef.getDeclarator().accept(this);
+				return PROCESS_SKIP;
+			}
+			return PROCESS_CONTINUE;
+		}
+
+		@Override
+		public int visit(IASTName name) {
+			name.resolveBinding();
+			return PROCESS_CONTINUE;
+		}
+	}
+
+	/**
+	 * Resolves all names it visits.
+	 */
+	private static class AllNames extends ASTVisitor {
+		AllNames() {
+			shouldVisitNames = true;
+		}
+
+		@Override
+		public int visit(IASTName name) {
+			name.resolveBinding();
+			return PROCESS_CONTINUE;
+		}
+	}
+
+	private CPPASTParallelBodyResolver() {
+	}
+
+	/**
+	 * Returns the ambiguity resolver processing function bodies on the current thread, or
+	 * {@code null} if the current thread is not one of the threads of this class.
+	 */
+	static CPPASTAmbiguityResolver getCurrentResolver() {
+		return sCurrentResolver.get();
+	}
+
+	/**
+	 * Resolves the given function bodies of the translation unit, after the names outside of
+	 * the bodies have been resolved.
+	 */
+	static void resolve(CPPASTTranslationUnit tu, List<IASTFunctionDefinition> functions) {
+		if (functions.isEmpty())
+			return;
+
+		tu.accept(new OutsideOfBodies(functions));
+
+		int n = functions.size();
+		int threads = Math.min(Runtime.getRuntime().availableProcessors(),
+				(n + MIN_BODIES_PER_TASK - 1) / MIN_BODIES_PER_TASK);
+		if (threads <= 1) {
+			resolveBodies(functions);
+			return;
+		}
+
+		int chunkSize = Math.max(MIN_BODIES_PER_TASK, (n + threads * TASKS_PER_THREAD - 1) / (threads * TASKS_PER_THREAD));
+		ExecutorService executor = Executors.newFixedThreadPool(threads, THREAD_FACTORY);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < n; i += chunkSize) {
+				final List<IASTFunctionDefinition> chunk = functions.subList(i, Math.min(n, i + chunkSize));
+				futures.add(executor.submit(new Runnable() {
+					@Override
+					public void run() {
+						resolveBodies(chunk);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				waitFor(future);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static void resolveBodies(List<IASTFunctionDefinition> functions) {
+		CPPASTAmbiguityResolver resolver = new CPPASTAmbiguityResolver();
+		AllNames names = new AllNames();
+		sCurrentResolver.set(resolver);
+		try {
+			for (IASTFunctionDefinition fdef : functions) {
+				resolver.resolveFunction(fdef);
+				fdef.accept(names);
+			}
+		} finally {
+			sCurrentResolver.remove();
+		}
+	}
+
+	/**
+	 * Waits for a task, the AST cannot be used before all tasks are done, so interrupts are
+	 * deferred until then.
+	 */
+	private static void waitFor(Future<?> future) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					future.get();
+					return;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException)
+						throw (RuntimeException) cause;
+					if (cause instanceof Error)
+						throw (Error) cause;
+					throw new IllegalStateException(cause);
+				}
+			}
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -12,10 +12,13 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.dom.parser.cpp;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.cdt.core.dom.ILinkage;
+import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
 import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTNode;
 import org.eclipse.cdt.core.dom.ast.IASTTypeId;
@@ -39,6 +42,9 @@ import org.eclipse.cdt.internal.core.dom.parser.ASTTranslationUnit;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguityParent;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPInheritance.FinalOverriderMap;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ConstexprCallCache;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.ConversionCostCache;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.LookupCache;
 import org.eclipse.cdt.internal.core.index.IIndexScope;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 
@@ -46,13 +52,23 @@ import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
  * C++-specific implementation of a translation-unit.
  */
 public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPASTTranslationUnit, IASTAmbiguityParent {
+	/**
+	 * Opt-in: resolve the bodies of non-member functions on several threads after the rest
+	 * of the translation unit has been resolved.
+	 */
+	public static boolean PARALLEL_BODY_RESOLUTION= Boolean.getBoolean("org.eclipse.cdt.core.parser.parallelBodyResolution"); //$NON-NLS-1$
+
     private CPPNamespaceScope fScope;
     private ICPPNamespace fBinding;
 	private final CPPScopeMapper fScopeMapper;
 	private CPPASTAmbiguityResolver fAmbiguityResolver;
 
 	// Caches.
-	private final Map<ICPPClassType, FinalOverriderMap> fFinalOverriderMapCache = new HashMap<>();
+	private final Map<ICPPClassType, FinalOverriderMap> fFinalOverriderMapCache =
+			Collections.synchronizedMap(new HashMap<ICPPClassType, FinalOverriderMap>());
+	private final ConstexprCallCache fConstexprCallCache = new ConstexprCallCache();
+	private final LookupCache fLookupCache = new LookupCache();
+	private final ConversionCostCache fConversionCostCache = new ConversionCostCache();
 
 	public CPPASTTranslationUnit() {
 		fScopeMapper= new CPPScopeMapper(this);
@@ -206,8 +222,12 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 
 	@Override
 	public void resolveAmbiguities() {
-		fAmbiguityResolver = new CPPASTAmbiguityResolver();
+		fAmbiguityResolver = new CPPASTAmbiguityResolver(PARALLEL_BODY_RESOLUTION);
 		accept(fAmbiguityResolver);
+		List<IASTFunctionDefinition> functions = fAmbiguityResolver.getIndependentFunctions();
+		if (!functions.isEmpty()) {
+			CPPASTParallelBodyResolver.resolve(this, functions);
+		}
 		fAmbiguityResolver = null;
 	}
 
@@ -218,7 +238,10 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 
 	@Override
 	public void resolvePendingAmbiguities(IASTNode node) {
-		if (fAmbiguityResolver != null) {
+		CPPASTAmbiguityResolver bodyResolver = CPPASTParallelBodyResolver.getCurrentResolver();
+		if (bodyResolver != null) {
+			bodyResolver.resolvePendingAmbiguities(node);
+		} else if (fAmbiguityResolver != null) {
 			fAmbiguityResolver.resolvePendingAmbiguities(node);
 		}
 	}
@@ -227,6 +250,18 @@ public class CPPASTTranslationUnit extends ASTTranslationUnit implements ICPPAST
 		return fFinalOverriderMapCache;
 	}
 
+	public ConstexprCallCache getConstexprCallCache() {
+		return fConstexprCallCache;
+	}
+
+	public LookupCache getLookupCache() {
+		return fLookupCache;
+	}
+
+	public ConversionCostCache getConversionCostCache() {
+		return fConversionCostCache;
+	}
+
 	public void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec,
 			ICPPClassTemplatePartialSpecialization astSpec) {
 		fScopeMapper.recordPartialSpecialization(indexSpec, astSpec);
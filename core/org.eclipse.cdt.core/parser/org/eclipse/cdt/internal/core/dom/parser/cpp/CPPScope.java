@@ -45,6 +45,7 @@ import org.eclipse.cdt.core.parser.util.ObjectSet;
 import org.eclipse.cdt.internal.core.dom.parser.ProblemBinding;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPSemantics;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.LookupCache;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.LookupData;
 import org.eclipse.cdt.internal.core.parser.util.ContentAssistMatcherFactory;
 import org.eclipse.core.runtime.CoreException;
@@ -190,41 +191,52 @@ abstract public class CPPScope implements ICPPASTInternalScope {
 		final IASTTranslationUnit tu = lookup.getTranslationUnit();
 		if (tu != null) {
 			IIndex index = tu.getIndex();
-			if (index != null) {
-				IIndexFileSet fileSet= lookup.getIncludedFiles();
-				if (physicalNode instanceof IASTTranslationUnit) {
-					try {
-						IndexFilter filter = IndexFilter.CPP_DECLARED_OR_IMPLICIT_NO_INSTANCE;
-						final char[] nchars = lookup.getLookupKey();
-						IBinding[] bindings = lookup.isPrefixLookup() ?
-								index.findBindingsForContentAssist(nchars, true, filter, null) :
-								index.findBindings(nchars, filter, null);
-						if (fileSet != null) {
-							bindings= fileSet.filterFileLocalBindings(bindings);
-						}
-						result = ArrayUtil.addAll(IBinding.class, result, bindings);
-					} catch (CoreException e) {
-						CCorePlugin.log(e);
-					}
-				} else if (physicalNode instanceof ICPPASTNamespaceDefinition) {
-					ICPPASTNamespaceDefinition ns = (ICPPASTNamespaceDefinition) physicalNode;
-					try {
-						IIndexBinding binding = index.findBinding(ns.getName());
-						if (binding instanceof ICPPNamespace) {
-							ICPPNamespaceScope indexNs = ((ICPPNamespace) binding).getNamespaceScope();
-							IBinding[] bindings = indexNs.getBindings(lookup);
-							result = ArrayUtil.addAll(IBinding.class, result, bindings);
-						}
-					} catch (CoreException e) {
-						CCorePlugin.log(e);
-					}
+			if (index != null && (physicalNode instanceof IASTTranslationUnit
+					|| physicalNode instanceof ICPPASTNamespaceDefinition)) {
+				// The contents of the index do not change while the AST is in use.
+				LookupCache cache = lookup.isPrefixLookup() ? null : LookupCache.get(tu);
+				Object key = cache == null ? null : LookupCache.createIndexContentKey(this, lookup.getLookupKey());
+				IBinding[] bindings = key == null ? null : cache.getBindings(key);
+				if (bindings == null) {
+					bindings = getBindingsInIndex(index, lookup);
+					if (key != null)
+						cache.putBindings(key, bindings);
 				}
+				result = ArrayUtil.addAll(IBinding.class, result, bindings);
 			}
 		}
 
 		return ArrayUtil.trim(IBinding.class, result);
 	}
 
+	private IBinding[] getBindingsInIndex(IIndex index, ScopeLookupData lookup) {
+		try {
+			if (physicalNode instanceof IASTTranslationUnit) {
+				IndexFilter filter = IndexFilter.CPP_DECLARED_OR_IMPLICIT_NO_INSTANCE;
+				final char[] nchars = lookup.getLookupKey();
+				IBinding[] bindings = lookup.isPrefixLookup() ?
+						index.findBindingsForContentAssist(nchars, true, filter, null) :
+						index.findBindings(nchars, filter, null);
+				IIndexFileSet fileSet= lookup.getIncludedFiles();
+				if (fileSet != null) {
+					bindings= fileSet.filterFileLocalBindings(bindings);
+				}
+				return bindings;
+			}
+			ICPPASTNamespaceDefinition ns = (ICPPASTNamespaceDefinition) physicalNode;
+			IIndexBinding binding = index.findBinding(ns.getName());
+			if (binding instanceof ICPPNamespace) {
+				ICPPNamespaceScope indexNs = ((ICPPNamespace) binding).getNamespaceScope();
+				IBinding[] bindings = indexNs.getBindings(lookup);
+				if (bindings != null)
+					return bindings;
+			}
+		} catch (CoreException e) {
+			CCorePlugin.log(e);
+		}
+		return IBinding.EMPTY_BINDING_ARRAY;
+	}
+
 	public IBinding[] getBindingsInAST(ScopeLookupData lookup) {
 		populateCache();
 	    final char[] c = lookup.getLookupKey();
@@ -292,7 +292,7 @@ public class CPPScopeMapper {
 	 * @param offset the global offset at which the using directives are provided
 	 * @param usingDirectives the list of additional directives.
 	 */
-	public void registerAdditionalDirectives(int offset, List<ICPPUsingDirective> usingDirectives) {
+	public synchronized void registerAdditionalDirectives(int offset, List<ICPPUsingDirective> usingDirectives) {
 		if (!usingDirectives.isEmpty()) {
 			for (ICPPUsingDirective ud : usingDirectives) {
 				IScope container= ud.getContainingScope();
@@ -313,7 +313,7 @@ public class CPPScopeMapper {
 	/**
 	 * Adds additional directives previously registered to the given scope.
 	 */
-	public void handleAdditionalDirectives(ICPPNamespaceScope scope) {
+	public synchronized void handleAdditionalDirectives(ICPPNamespaceScope scope) {
 		assert !(scope instanceof IIndexScope);
 		if (fPerName.isEmpty()) {
 			return;
@@ -355,7 +355,7 @@ public class CPPScopeMapper {
 	/**
 	 * Maps namespace scopes from the index back into the AST.
 	 */
-	public IScope mapToASTScope(IIndexScope scope) {
+	public synchronized IScope mapToASTScope(IIndexScope scope) {
 		if (scope.getKind() == EScopeKind.eGlobal) {
 			return fTu.getScope();
 		}
@@ -413,11 +413,7 @@ public class CPPScopeMapper {
 			return type;
 		}
 
-		if (fClasses == null) {
-			fClasses= new CharArrayMap<>();
-			fTu.accept(new Visitor());
-		}
-		IASTName[] names= fClasses.get(type.getNameCharArray());
+		IASTName[] names= getClassNames(type.getNameCharArray());
 		if (names != null) {
 			for (IASTName name : names) {
 				if (name == null)
@@ -434,12 +430,24 @@ public class CPPScopeMapper {
 		return type;
 	}
 
-	public void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec,
+	/**
+	 * Returns the names of the class definitions with the given name. The bindings are resolved
+	 * by the caller, outside of the lock.
+	 */
+	private synchronized IASTName[] getClassNames(char[] name) {
+		if (fClasses == null) {
+			fClasses= new CharArrayMap<>();
+			fTu.accept(new Visitor());
+		}
+		return fClasses.get(name);
+	}
+
+	public synchronized void recordPartialSpecialization(ICPPClassTemplatePartialSpecialization indexSpec,
 			ICPPClassTemplatePartialSpecialization astSpec) {
 		fPartialSpecs.put(indexSpec, astSpec);
 	}
 	
-	public ICPPClassTemplatePartialSpecialization mapToAST(ICPPClassTemplatePartialSpecialization indexSpec) {
+	public synchronized ICPPClassTemplatePartialSpecialization mapToAST(ICPPClassTemplatePartialSpecialization indexSpec) {
 		ICPPClassTemplatePartialSpecialization astSpec = fPartialSpecs.get(indexSpec);
 		if (astSpec != null) {
 			return astSpec;
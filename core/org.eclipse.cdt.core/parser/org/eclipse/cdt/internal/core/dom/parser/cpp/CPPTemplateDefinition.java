@@ -13,7 +13,6 @@ package org.eclipse.cdt.internal.core.dom.parser.cpp;
 
 import org.eclipse.cdt.core.dom.ILinkage;
 import org.eclipse.cdt.core.dom.ast.ASTNodeProperty;
-import org.eclipse.cdt.core.dom.ast.ASTTypeUtil;
 import org.eclipse.cdt.core.dom.ast.IASTCompositeTypeSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTElaboratedTypeSpecifier;
@@ -36,7 +35,6 @@ import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateParameter;
 import org.eclipse.cdt.core.index.IIndex;
 import org.eclipse.cdt.core.index.IIndexBinding;
 import org.eclipse.cdt.core.parser.util.ArrayUtil;
-import org.eclipse.cdt.core.parser.util.ObjectMap;
 import org.eclipse.cdt.internal.core.dom.Linkage;
 import org.eclipse.cdt.internal.core.dom.parser.ASTInternal;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNode;
@@ -61,7 +59,7 @@ public abstract class CPPTemplateDefinition extends PlatformObject implements IC
 	protected IASTName definition;
 
 	private ICPPTemplateParameter[] templateParameters;
-	private ObjectMap instances;
+	private final TemplateInstanceCache instances = new TemplateInstanceCache();
 
 	private ICPPClassTemplate indexBinding;
 	private boolean checkedIndex;
@@ -92,24 +90,18 @@ public abstract class CPPTemplateDefinition extends PlatformObject implements IC
 
 	@Override
 	public final void addInstance(ICPPTemplateArgument[] arguments, ICPPTemplateInstance instance) {
-		if (instances == null)
-			instances = new ObjectMap(2);
-		String key= ASTTypeUtil.getArgumentListString(arguments, true);
-		instances.put(key, instance);
+		instances.addInstance(arguments, instance);
 	}
 
 	@Override
 	public final ICPPTemplateInstance getInstance(ICPPTemplateArgument[] arguments) {
-		if (instances != null) {
-			String key= ASTTypeUtil.getArgumentListString(arguments, true);
-			ICPPTemplateInstance cand = (ICPPTemplateInstance) instances.get(key);
-			if (cand != null)
-				return cand;
-		}
+		ICPPTemplateInstance cand = instances.getInstance(arguments);
+		if (cand != null)
+			return cand;
 
 		final ICPPClassTemplate ib = getIndexBinding();
 		if (ib instanceof ICPPInstanceCache) {
-			ICPPTemplateInstance cand= ((ICPPInstanceCache) ib).getInstance(arguments);
+			cand= ((ICPPInstanceCache) ib).getInstance(arguments);
 			if (cand instanceof IIndexBinding) {
 				if (getTemplateName().getTranslationUnit().getIndexFileSet().containsDeclaration((IIndexBinding) cand)) {
 					return cand;
@@ -142,14 +134,7 @@ public abstract class CPPTemplateDefinition extends PlatformObject implements IC
 
 	@Override
 	public ICPPTemplateInstance[] getAllInstances() {
-		if (instances != null) {
-			ICPPTemplateInstance[] result= new ICPPTemplateInstance[instances.size()];
-			for (int i= 0; i < instances.size(); i++) {
-				result[i]= (ICPPTemplateInstance) instances.getAt(i);
-			}
-			return result;
-		}
-		return ICPPTemplateInstance.EMPTY_TEMPLATE_INSTANCE_ARRAY;
+		return instances.getAllInstances();
 	}
 
 	public IASTName getTemplateName() {
@@ -174,6 +174,7 @@ import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguityParent;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousDeclarator;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousExpression;
 import org.eclipse.cdt.internal.core.dom.parser.IASTAmbiguousStatement;
+import org.eclipse.cdt.internal.core.dom.parser.ParseFailureMemo;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.NameOrTemplateIDVariants.BranchPoint;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.NameOrTemplateIDVariants.Variant;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.CPPVisitor;
@@ -206,6 +207,11 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 
 	private TemplateIdStrategy fTemplateParameterListStrategy;
 
+	// Rules whose failures are memoized.
+	private static final int MEMO_DECLARATOR= 0;
+	private static final int MEMO_NESTED_DECLARATOR= 1;
+	private static final int MEMO_TYPE_ID= 2;
+
 	private Map<String, ContextSensitiveTokenType> fContextSensitiveTokens;
 
 	public GNUCPPSourceParser(IScanner scanner, ParserMode mode,
@@ -236,6 +242,10 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		scanner.setSplitShiftROperator(true);
 		fContextSensitiveTokens = createContextSensitiveTokenMap(config);
 		additionalNumericalSuffixes = scanner.getAdditionalNumericLiteralSuffixes();
+		if (mode != ParserMode.COMPLETION_PARSE) {
+			// Completion parses collect names while parsing, alternatives must not be skipped.
+			failureMemo= new ParseFailureMemo("declarator", "nested declarator", "type-id"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
 	}
 
 	@Override
@@ -2079,7 +2089,15 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 				return setRange(lambdaExpr, offset, calculateEndOffset(dtor));
 		}
 
-		IASTCompoundStatement body = functionBody();
+		// The body of a lambda may be needed to deduce its return type or to evaluate it.
+		final boolean omit= omitTrivialStatements;
+		omitTrivialStatements= false;
+		IASTCompoundStatement body;
+		try {
+			body = functionBody();
+		} finally {
+			omitTrivialStatements= omit;
+		}
 		lambdaExpr.setBody(body);
 		return setRange(lambdaExpr, offset, calculateEndOffset(body));
 	}
@@ -2911,7 +2929,7 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		}
 
 		try {
-			IASTStatement body= handleFunctionBody();
+			IASTStatement body= handleFunctionBody(!isBodyRelevantForSemantics(declSpec));
 			fdef.setBody(body);
 			setRange(fdef, firstOffset, calculateEndOffset(body));
 		} catch (BacktrackException bt) {
@@ -4143,6 +4161,23 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 
 	@Override
 	protected ICPPASTTypeId typeId(DeclarationOptions option) throws EndOfFileException, BacktrackException {
+		// While the template parameter list strategy is active, the outcome depends on its state.
+		if (failureMemo == null || fTemplateParameterListStrategy != null)
+			return parseTypeId(option);
+
+		final IToken start= LA(1);
+		int[] failure= failureMemo.getFailure(start, MEMO_TYPE_ID, option);
+		if (failure != null)
+			throwMemoizedBacktrack(failure);
+		try {
+			return parseTypeId(option);
+		} catch (BacktrackException e) {
+			failureMemo.putFailure(start, MEMO_TYPE_ID, option, e);
+			throw e;
+		}
+	}
+
+	private ICPPASTTypeId parseTypeId(DeclarationOptions option) throws EndOfFileException, BacktrackException {
 		if (!canBeTypeSpecifier()) {
 			throwBacktrack(LA(1));
 		}
@@ -4180,6 +4215,24 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 	 */
 	protected IASTDeclarator declarator(DtorStrategy strategy, DeclarationOptions option)
 			throws EndOfFileException, BacktrackException {
+		if (failureMemo == null || fTemplateParameterListStrategy != null)
+			return parseDeclarator(strategy, option);
+
+		final IToken start= LA(1);
+		final int rule= strategy == DtorStrategy.PREFER_FUNCTION ? MEMO_DECLARATOR : MEMO_NESTED_DECLARATOR;
+		int[] failure= failureMemo.getFailure(start, rule, option);
+		if (failure != null)
+			throwMemoizedBacktrack(failure);
+		try {
+			return parseDeclarator(strategy, option);
+		} catch (BacktrackException e) {
+			failureMemo.putFailure(start, rule, option, e);
+			throw e;
+		}
+	}
+
+	private IASTDeclarator parseDeclarator(DtorStrategy strategy, DeclarationOptions option)
+			throws EndOfFileException, BacktrackException {
 		final int startingOffset = LA(1).getOffset();
 		int endOffset = startingOffset;
 
@@ -4940,6 +4993,20 @@ public class GNUCPPSourceParser extends AbstractGNUSourceCodeParser {
 		return decl;
 	}
 
+	/**
+	 * Tests whether the body of a function with the given declaration specifier is needed
+	 * to evaluate the function or to deduce its return type.
+	 */
+	private static boolean isBodyRelevantForSemantics(IASTDeclSpecifier declSpec) {
+		if (declSpec instanceof ICPPASTDeclSpecifier && ((ICPPASTDeclSpecifier) declSpec).isConstexpr())
+			return true;
+		if (declSpec instanceof IASTSimpleDeclSpecifier) {
+			int type= ((IASTSimpleDeclSpecifier) declSpec).getType();
+			return type == IASTSimpleDeclSpecifier.t_auto || type == IASTSimpleDeclSpecifier.t_decltype_auto;
+		}
+		return false;
+	}
+
 	protected IASTStatement catchBlockCompoundStatement() throws BacktrackException, EndOfFileException {
 		if (mode == ParserMode.QUICK_PARSE || mode == ParserMode.STRUCTURAL_PARSE || !isActiveCode()) {
 			int offset = LA(1).getOffset();
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.dom.ast.ASTTypeUtil;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateArgument;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
+
+/**
+ * Thread-safe cache of the instances of an AST template, keyed by the normalized
+ * string representation of the template arguments. The cache is not bounded, instances
+ * must stay unique for their arguments as long as the AST is in use. The instances are
+ * returned in the order they were added.
+ */
+public final class TemplateInstanceCache {
+	private static final class LastKey {
+		final ICPPTemplateArgument[] fArguments;
+		final String fKey;
+
+		LastKey(ICPPTemplateArgument[] arguments, String key) {
+			fArguments = arguments.clone();
+			fKey = key;
+		}
+
+		boolean matches(ICPPTemplateArgument[] arguments) {
+			if (arguments.length != fArguments.length)
+				return false;
+			for (int i = 0; i < arguments.length; i++) {
+				if (arguments[i] != fArguments[i])
+					return false;
+			}
+			return true;
+		}
+	}
+
+	/** Created lazily, most templates are never instantiated. Guarded by this. */
+	private Map<String, ICPPTemplateInstance> fInstances;
+	/**
+	 * The most recently computed key. A lookup is usually followed by adding an instance
+	 * for the same arguments, which avoids computing the key twice. Guarded by this.
+	 */
+	private LastKey fLastKey;
+
+	private String getKey(ICPPTemplateArgument[] arguments) {
+		LastKey last = fLastKey;
+		if (last != null && last.matches(arguments))
+			return last.fKey;
+		String key = ASTTypeUtil.getArgumentListString(arguments, true);
+		fLastKey = new LastKey(arguments, key);
+		return key;
+	}
+
+	public synchronized void addInstance(ICPPTemplateArgument[] arguments, ICPPTemplateInstance instance) {
+		if (fInstances == null)
+			fInstances = new LinkedHashMap<>(4);
+		fInstances.put(getKey(arguments), instance);
+	}
+
+	public synchronized ICPPTemplateInstance getInstance(ICPPTemplateArgument[] arguments) {
+		if (fInstances == null || fInstances.isEmpty())
+			return null;
+		return fInstances.get(getKey(arguments));
+	}
+
+	public synchronized ICPPTemplateInstance[] getAllInstances() {
+		if (fInstances == null)
+			return ICPPTemplateInstance.EMPTY_TEMPLATE_INSTANCE_ARRAY;
+		return fInstances.values().toArray(ICPPTemplateInstance.EMPTY_TEMPLATE_INSTANCE_ARRAY);
+	}
+}
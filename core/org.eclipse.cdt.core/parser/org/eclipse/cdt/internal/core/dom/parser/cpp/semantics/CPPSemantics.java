@@ -1316,6 +1316,14 @@ public class CPPSemantics {
 	}
 
 	static IBinding[] getBindingsFromScope(ICPPScope scope, LookupData data) throws DOMException {
+		LookupCache cache= LookupCache.get(data.getTranslationUnit());
+		Object key= cache == null ? null : LookupCache.createKey(scope, data);
+		if (key != null) {
+			IBinding[] cached= cache.getBindings(key);
+			if (cached != null)
+				return cached;
+		}
+
 		IBinding[] bindings= scope.getBindings(data);
 
 		if (scope instanceof ICPPASTInternalScope && scope instanceof ICPPClassScope) {
@@ -1342,7 +1350,10 @@ public class CPPSemantics {
 			bindings = ArrayUtil.filter(bindings, new RecursionResolvingBindingFilter());
 		}
 
-		return expandUsingDeclarationsAndRemoveObjects(bindings, data);
+		IBinding[] result= expandUsingDeclarationsAndRemoveObjects(bindings, data);
+		if (key != null)
+			cache.putBindings(key, result);
+		return result;
 	}
 
 	private static class RecursionResolvingBindingFilter implements IUnaryPredicate<IBinding> {
@@ -2861,6 +2872,10 @@ public class CPPSemantics {
 				skipArg= 1;
 			}
 		}
+		if ((implicitParameterType == null || impliedObjectType != null) &&
+				hasArgumentOfIncompatibleKind(paramTypes, argTypes, skipArg, implicitParameterType)) {
+			return null;
+		}
 
 		int k= 0;
 		Cost cost;
@@ -2915,6 +2930,7 @@ public class CPPSemantics {
 			result.setCost(k++, cost, impliedObjectValueCategory);
 		}
 
+		ConversionCostCache costCache= null;
 		for (int j = 0; j < sourceLen; j++) {
 			final IType argType= SemanticUtil.getNestedType(argTypes[j + skipArg], TDEF | REF);
 			if (argType == null)
@@ -2950,8 +2966,20 @@ public class CPPSemantics {
 						}
 					}
 				}
-				cost = Conversions.checkImplicitConversionSequence(paramType, argType, argValueCategory,
-						udc, ctx, data.getLookupPoint());
+				String key= null;
+				if (ctx == Context.ORDINARY) {
+					if (costCache == null)
+						costCache= ConversionCostCache.get(data.getLookupPoint());
+					if (costCache != null)
+						key= ConversionCostCache.createKey(paramType, argType, argValueCategory, udc);
+				}
+				cost= key == null ? null : costCache.getCost(key);
+				if (cost == null) {
+					cost = Conversions.checkImplicitConversionSequence(paramType, argType, argValueCategory,
+							udc, ctx, data.getLookupPoint());
+					if (key != null)
+						costCache.putCost(key, cost);
+				}
 				if (data.fNoNarrowing && cost.isNarrowingConversion(data.getLookupPoint())) {
 					cost= Cost.NO_CONVERSION;
 				}
@@ -2964,6 +2992,42 @@ public class CPPSemantics {
 		return result;
 	}
 
+	/**
+	 * Checks whether one of the arguments is an arithmetic value and its parameter a pointer,
+	 * or vice versa, other than a null pointer constant or a conversion to bool. Such arguments
+	 * can never be converted, checking them up front avoids computing the costs of the preceding
+	 * arguments for candidates that are not viable, as they are common in large overload sets.
+	 * Returns {@code false} if the cost computation could find a dependent type first.
+	 */
+	private static boolean hasArgumentOfIncompatibleKind(IType[] paramTypes, IType[] argTypes, int skipArg,
+			IType implicitParameterType) {
+		final int len= Math.min(paramTypes.length, argTypes.length - skipArg);
+		for (int j = 0; j < len; j++) {
+			IType s= getNestedType(argTypes[j + skipArg], TDEF | REF | CVTYPE);
+			IType t= getNestedType(paramTypes[j], TDEF | REF | CVTYPE);
+			boolean incompatible;
+			if (s instanceof IBasicType) {
+				incompatible= t instanceof IPointerType && !Conversions.isNullPointerConstant(s);
+			} else if (s instanceof IPointerType) {
+				incompatible= t instanceof IBasicType && ((IBasicType) t).getKind() != Kind.eBoolean;
+			} else {
+				incompatible= false;
+			}
+			if (incompatible) {
+				if (implicitParameterType != null && (CPPTemplates.isDependentType(implicitParameterType)
+						|| CPPTemplates.isDependentType(argTypes[0]))) {
+					return false;
+				}
+				for (int i = 0; i <= j; i++) {
+					if (CPPTemplates.isDependentType(paramTypes[i]))
+						return false;
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
 	static IType getImplicitParameterType(ICPPMethod m)	{
 		IType implicitType;
 		ICPPClassType owner= m.getClassOwner();
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import static org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.SemanticUtil.TDEF;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.IPointerType;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.IValue;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPFunction;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPMethod;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPParameter;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPReferenceType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPSpecialization;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPEvaluation;
+
+/**
+ * Memoizes the results of calls to constexpr functions within a translation unit. Only calls
+ * to free functions and static methods whose arguments are all numeric constants passed by value
+ * are memoized, their results depend on nothing but the function and the argument values.
+ */
+public final class ConstexprCallCache {
+	private static final AtomicLong sHits = new AtomicLong();
+	private static final AtomicLong sMisses = new AtomicLong();
+	private static final AtomicLong sStepsSaved = new AtomicLong();
+
+	private final Map<Key, Entry> fResults = new HashMap<>();
+
+	private static final class Key {
+		final ICPPFunction fFunction;
+		final Number[] fArguments;
+		final int fHashCode;
+
+		Key(ICPPFunction function, Number[] arguments) {
+			fFunction = function;
+			fArguments = arguments;
+			fHashCode = 31 * function.hashCode() + Arrays.hashCode(arguments);
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return fHashCode == other.fHashCode && fFunction.equals(other.fFunction)
+					&& Arrays.equals(fArguments, other.fArguments);
+		}
+	}
+
+	private static final class Entry {
+		final ICPPEvaluation fResult;
+		final int fSteps;
+
+		Entry(ICPPEvaluation result, int steps) {
+			fResult = result;
+			fSteps = steps;
+		}
+	}
+
+	/**
+	 * Returns the cache of the translation unit containing the given point, or {@code null}.
+	 */
+	static ConstexprCallCache get(IASTNode point) {
+		if (point != null && point.getTranslationUnit() instanceof CPPASTTranslationUnit) {
+			return ((CPPASTTranslationUnit) point.getTranslationUnit()).getConstexprCallCache();
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the key for a call of the given function, or returns {@code null} if the call
+	 * cannot be memoized.
+	 *
+	 * @param arguments the arguments of the call, the first one is the function itself
+	 */
+	static Object createKey(ICPPFunction function, ICPPEvaluation[] arguments, IASTNode point) {
+		if (function instanceof ICPPMethod && !((ICPPMethod) function).isStatic())
+			return null;
+		ICPPParameter[] parameters = function.getParameters();
+		if (arguments.length - 1 > parameters.length)
+			return null;
+		for (ICPPParameter param : parameters) {
+			if (param.isParameterPack() || isIndirection(param.getType()))
+				return null;
+			if (param instanceof ICPPSpecialization) {
+				IBinding specialized = ((ICPPSpecialization) param).getSpecializedBinding();
+				if (specialized instanceof ICPPParameter && ((ICPPParameter) specialized).isParameterPack())
+					return null;
+			}
+		}
+		Number[] values = new Number[arguments.length - 1];
+		for (int i = 1; i < arguments.length; i++) {
+			Number value = arguments[i].getValue(point).numberValue();
+			if (value == null)
+				return null;
+			values[i - 1] = value;
+		}
+		return new Key(function, values);
+	}
+
+	private static boolean isIndirection(IType type) {
+		type = SemanticUtil.getNestedType(type, TDEF);
+		return type instanceof ICPPReferenceType || type instanceof IPointerType;
+	}
+
+	/**
+	 * Returns the memoized result for the given key, or {@code null}.
+	 */
+	synchronized ICPPEvaluation getResult(Object key) {
+		Entry entry = fResults.get(key);
+		if (entry == null) {
+			sMisses.incrementAndGet();
+			return null;
+		}
+		sHits.incrementAndGet();
+		sStepsSaved.addAndGet(entry.fSteps);
+		return entry.fResult;
+	}
+
+	/**
+	 * Stores the result of a call, if it is a numeric constant.
+	 *
+	 * @param steps the number of evaluation steps it took to compute the result
+	 */
+	synchronized void putResult(Object key, ICPPEvaluation result, int steps, IASTNode point) {
+		if (result instanceof EvalFixed) {
+			IValue value = result.getValue(point);
+			if (value.numberValue() != null)
+				fResults.put((Key) key, new Entry(result, steps));
+		}
+	}
+
+	/**
+	 * Returns the number of memoized results that were reused.
+	 */
+	public static long getHits() {
+		return sHits.get();
+	}
+
+	/**
+	 * Returns the number of memoizable calls that had to be evaluated.
+	 */
+	public static long getMisses() {
+		return sMisses.get();
+	}
+
+	/**
+	 * Returns the number of evaluation steps that were saved by reusing memoized results.
+	 */
+	public static long getStepsSaved() {
+		return sStepsSaved.get();
+	}
+
+	public static void resetCounters() {
+		sHits.set(0);
+		sMisses.set(0);
+		sStepsSaved.set(0);
+	}
+}
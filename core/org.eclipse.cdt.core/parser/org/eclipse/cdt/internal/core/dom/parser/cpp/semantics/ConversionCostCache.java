@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.cdt.core.dom.ast.IASTExpression.ValueCategory;
+import org.eclipse.cdt.core.dom.ast.IASTNode;
+import org.eclipse.cdt.core.dom.ast.IArrayType;
+import org.eclipse.cdt.core.dom.ast.IPointerType;
+import org.eclipse.cdt.core.dom.ast.IQualifierType;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.ITypedef;
+import org.eclipse.cdt.core.dom.ast.IValue;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPPointerToMemberType;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPReferenceType;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPBasicType;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.semantics.Conversions.UDCMode;
+
+/**
+ * Caches the costs of implicit conversion sequences computed for overload resolution within
+ * a translation unit. Only conversions between types composed of basic types, pointers, arrays,
+ * references and cv-qualifiers are cached, their costs depend on nothing but the structure of
+ * the types, the value category of the argument and, for constant arguments, its value. The key
+ * is a canonical string for the types, such that different objects for the same type share
+ * the entry.
+ */
+public final class ConversionCostCache {
+	/** Maximum number of costs cached per translation unit. */
+	public static final int MAX_ENTRIES = 10000;
+
+	private static final AtomicLong sHits = new AtomicLong();
+	private static final AtomicLong sMisses = new AtomicLong();
+
+	private final Map<String, Cost> fCosts = new HashMap<>();
+
+	/**
+	 * Returns the cache of the translation unit containing the given point, or {@code null}.
+	 */
+	static ConversionCostCache get(IASTNode point) {
+		if (point != null && point.getTranslationUnit() instanceof CPPASTTranslationUnit) {
+			return ((CPPASTTranslationUnit) point.getTranslationUnit()).getConversionCostCache();
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the key for an ordinary conversion of an argument to a parameter type, or returns
+	 * {@code null} if the cost of the conversion cannot be cached.
+	 */
+	static String createKey(IType target, IType source, ValueCategory valueCat, UDCMode udc) {
+		if (valueCat == null)
+			return null;
+		StringBuilder buf = new StringBuilder();
+		if (!appendType(buf, target))
+			return null;
+		buf.append(',');
+		if (!appendType(buf, source))
+			return null;
+		buf.append(',').append(valueCat.ordinal()).append(udc.ordinal());
+		return buf.toString();
+	}
+
+	private static boolean appendType(StringBuilder buf, IType type) {
+		while (true) {
+			if (type instanceof ITypedef) {
+				type = ((ITypedef) type).getType();
+			} else if (type instanceof IQualifierType) {
+				IQualifierType qt = (IQualifierType) type;
+				buf.append('q').append(qt.isConst() ? 'c' : '-').append(qt.isVolatile() ? 'v' : '-');
+				type = qt.getType();
+			} else if (type instanceof ICPPPointerToMemberType) {
+				return false;
+			} else if (type instanceof IPointerType) {
+				IPointerType pt = (IPointerType) type;
+				buf.append('p').append(pt.isConst() ? 'c' : '-').append(pt.isVolatile() ? 'v' : '-')
+						.append(pt.isRestrict() ? 'r' : '-');
+				type = pt.getType();
+			} else if (type instanceof ICPPReferenceType) {
+				buf.append(((ICPPReferenceType) type).isRValueReference() ? 'R' : 'r');
+				type = ((ICPPReferenceType) type).getType();
+			} else if (type instanceof IArrayType) {
+				IValue value = ((IArrayType) type).getSize();
+				Number size = value == null ? null : value.numberValue();
+				if (size == null)
+					return false;
+				buf.append('a').append(size.longValue()).append(':');
+				type = ((IArrayType) type).getType();
+			} else if (type instanceof CPPBasicType) {
+				CPPBasicType bt = (CPPBasicType) type;
+				buf.append('b').append(bt.getKind().ordinal()).append(':').append(bt.getModifiers());
+				if (bt.isFromStringLiteral())
+					buf.append('s');
+				Long value = bt.getAssociatedNumericalValue();
+				if (value != null)
+					buf.append('=').append(value.longValue());
+				return true;
+			} else {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Returns a copy of the cached cost for the given key, or {@code null}.
+	 */
+	synchronized Cost getCost(String key) {
+		Cost cost = fCosts.get(key);
+		if (cost == null) {
+			sMisses.incrementAndGet();
+			return null;
+		}
+		sHits.incrementAndGet();
+		return cost.copy();
+	}
+
+	/**
+	 * Stores the cost of a conversion.
+	 */
+	synchronized void putCost(String key, Cost cost) {
+		if (fCosts.size() < MAX_ENTRIES)
+			fCosts.put(key, cost.copy());
+	}
+
+	/**
+	 * Returns the number of conversion costs that were reused.
+	 */
+	public static long getHits() {
+		return sHits.get();
+	}
+
+	/**
+	 * Returns the number of cacheable conversion costs that had to be computed.
+	 */
+	public static long getMisses() {
+		return sMisses.get();
+	}
+
+	public static void resetCounters() {
+		sHits.set(0);
+		sMisses.set(0);
+	}
+}
@@ -112,6 +112,27 @@ public class Cost {
 		fReferenceBinding= ReferenceBinding.NO_REF;
 	}
 
+	/**
+	 * Returns a copy of this cost that can be modified independently.
+	 */
+	Cost copy() {
+		if (this == NO_CONVERSION)
+			return this;
+		Cost cost= new Cost(source, target, fRank);
+		cost.fSecondStandardConversionRank= fSecondStandardConversionRank;
+		cost.fAmbiguousUDC= fAmbiguousUDC;
+		cost.fDeferredUDC= fDeferredUDC;
+		cost.fQualificationAdjustments= fQualificationAdjustments;
+		cost.fInheritanceDistance= fInheritanceDistance;
+		cost.fImpliedObject= fImpliedObject;
+		cost.fUserDefinedConversion= fUserDefinedConversion;
+		cost.fReferenceBinding= fReferenceBinding;
+		cost.fCouldNarrow= fCouldNarrow;
+		cost.fListInitializationTarget= fListInitializationTarget;
+		cost.fSelectedFunction= fSelectedFunction;
+		return cost;
+	}
+
 	public final Rank getRank() {
 		return fRank;
 	}
@@ -295,6 +295,21 @@ public final class EvalFunctionCall extends CPPDependentEvaluation {
 		if (!function.isConstexpr())
 			return EvalFixed.INCOMPLETE;
 
+		ConstexprCallCache cache = ConstexprCallCache.get(context.getPoint());
+		Object key = cache == null ? null : ConstexprCallCache.createKey(function, fArguments, context.getPoint());
+		if (key == null)
+			return executeFunctionBody(function, context);
+
+		ICPPEvaluation result = cache.getResult(key);
+		if (result == null) {
+			int steps = context.getStepsPerformed();
+			result = executeFunctionBody(function, context);
+			cache.putResult(key, result, context.getStepsPerformed() - steps, context.getPoint());
+		}
+		return result;
+	}
+
+	private ICPPEvaluation executeFunctionBody(ICPPFunction function, ConstexprEvaluationContext context) {
 		ActivationRecord record = createActivationRecord(function.getParameters(), fArguments, 
 				getImplicitThis(), context.getPoint());
 		ICPPExecution bodyExec = CPPFunction.getFunctionBodyExecution(function, context.getPoint());
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.dom.parser.cpp.semantics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPASTConversionName;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPScope;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPASTTranslationUnit;
+import org.eclipse.cdt.internal.core.dom.parser.cpp.CPPClassScope;
+import org.eclipse.cdt.internal.core.index.IIndexScope;
+
+/**
+ * Caches the results of name lookups in a scope within a translation unit, keyed by the scope,
+ * the name and the options of the lookup that influence the result. Only the contents of the index
+ * are cached, either of an index scope or the part an AST namespace scope contributes from the
+ * index. These do not change while the AST is in use and do not depend on the point of declaration,
+ * the names of the AST scopes are not cached, their results change as the scopes get populated and
+ * as the names get resolved.
+ */
+public final class LookupCache {
+	private static final AtomicLong sHits = new AtomicLong();
+	private static final AtomicLong sMisses = new AtomicLong();
+
+	private static final int TYPES_ONLY = 0x1;
+	private static final int FOR_DECLARATION = 0x2;
+	private static final int CONSTRUCTORS = 0x4;
+	private static final int CONVERSION = 0x8;
+	private static final int INDEX_CONTENT = 0x10;
+
+	private final Map<Key, IBinding[]> fResults = new HashMap<>();
+
+	private static final class Key {
+		final ICPPScope fScope;
+		final char[] fName;
+		final int fOptions;
+		final int fHashCode;
+
+		Key(ICPPScope scope, char[] name, int options) {
+			fScope = scope;
+			fName = name;
+			fOptions = options;
+			fHashCode = (31 * scope.hashCode() + Arrays.hashCode(name)) * 31 + options;
+		}
+
+		@Override
+		public int hashCode() {
+			return fHashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return fHashCode == other.fHashCode && fOptions == other.fOptions
+					&& fScope.equals(other.fScope) && Arrays.equals(fName, other.fName);
+		}
+	}
+
+	/**
+	 * Returns the cache of the given translation unit, or {@code null}.
+	 */
+	public static LookupCache get(IASTTranslationUnit tu) {
+		if (tu instanceof CPPASTTranslationUnit) {
+			return ((CPPASTTranslationUnit) tu).getLookupCache();
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the key for looking up the name of the lookup data in the given scope, or returns
+	 * {@code null} if the result of the lookup cannot be cached.
+	 */
+	static Object createKey(ICPPScope scope, LookupData data) {
+		char[] name = data.getLookupKey();
+		if (name == null || !(scope instanceof IIndexScope) || data.isPrefixLookup() || data.contentAssist)
+			return null;
+		int options = 0;
+		if (data.typesOnly)
+			options |= TYPES_ONLY;
+		if (data.forDeclaration() != null)
+			options |= FOR_DECLARATION;
+		IASTName lookupName = data.getLookupName();
+		if (CPPClassScope.shallReturnConstructors(lookupName, false))
+			options |= CONSTRUCTORS;
+		if (lookupName instanceof ICPPASTConversionName)
+			options |= CONVERSION;
+		return new Key(scope, name, options);
+	}
+
+	/**
+	 * Creates the key for the bindings the index contributes to the given AST scope
+	 * for a name, which must not be a prefix.
+	 */
+	public static Object createIndexContentKey(ICPPScope astScope, char[] name) {
+		return new Key(astScope, name, INDEX_CONTENT);
+	}
+
+	/**
+	 * Returns the cached result for the given key, or {@code null}.
+	 */
+	public synchronized IBinding[] getBindings(Object key) {
+		IBinding[] bindings = fResults.get(key);
+		if (bindings == null) {
+			sMisses.incrementAndGet();
+			return null;
+		}
+		sHits.incrementAndGet();
+		// Callers are free to modify the result.
+		return bindings.length == 0 ? bindings : bindings.clone();
+	}
+
+	/**
+	 * Stores the result of a lookup.
+	 */
+	public synchronized void putBindings(Object key, IBinding[] bindings) {
+		fResults.put((Key) key, bindings.length == 0 ? IBinding.EMPTY_BINDING_ARRAY : bindings.clone());
+	}
+
+	/**
+	 * Returns the number of lookups that were answered from a cache.
+	 */
+	public static long getHits() {
+		return sHits.get();
+	}
+
+	/**
+	 * Returns the number of cacheable lookups that had to be performed.
+	 */
+	public static long getMisses() {
+		return sMisses.get();
+	}
+
+	public static void resetCounters() {
+		sHits.set(0);
+		sMisses.set(0);
+	}
+}
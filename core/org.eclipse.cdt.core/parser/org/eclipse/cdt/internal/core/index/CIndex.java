@@ -24,6 +24,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -53,13 +57,26 @@ import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.SubMonitor;
 
-public class CIndex implements IIndex {
+public class CIndex implements IIndex, ISubclassSearch {
 	/**
 	 * If this constant is set, for logical index objects with only
 	 * one fragment, composite binding wrappers will not be used.
 	 */
 	private static final boolean SPECIALCASE_SINGLES = true;
 
+	/**
+	 * If this flag is set, queries on indexes with multiple fragments run on the
+	 * fragments concurrently. The index filters passed to such queries must be
+	 * thread-safe.
+	 */
+	public static boolean CONCURRENT_QUERIES = Boolean.getBoolean("org.eclipse.cdt.core.index.concurrentQueries"); //$NON-NLS-1$
+
+	/**
+	 * Minimum number of files on one level of the include graph for {@link #findIncludedBy(IIndexFile, int)}
+	 * to query them concurrently. For fewer files dispatching the queries costs more than running them.
+	 */
+	private static final int MIN_CONCURRENT_INCLUDED_BY = 32;
+
 	private final IIndexFragment[] fFragments;
 	private int fReadLock;
 	private ICompositesFactory cppCF, cCF, fCF;
@@ -109,18 +126,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindings(patterns, isFullyQualified,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					final IndexFilter fragmentFilter = retargetFilter(linkage, filter);
+					IIndexFragmentBinding[][] fragmentBindings = queryBindings(
+							fragment -> fragment.findBindings(patterns, isFullyQualified, fragmentFilter, monitor), monitor);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -139,18 +147,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findMacroContainers(pattern,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					final IndexFilter fragmentFilter = retargetFilter(linkage, filter);
+					IIndexFragmentBinding[][] fragmentBindings = queryBindings(
+							fragment -> fragment.findMacroContainers(pattern, fragmentFilter, monitor), monitor);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -161,7 +160,6 @@ public class CIndex implements IIndex {
 
 	@Override
 	public IIndexName[] findNames(IBinding binding, int flags) throws CoreException {
-		ArrayList<IIndexFragmentName> result= new ArrayList<>();
 		if (binding instanceof ICPPUsingDeclaration) {
 			IBinding[] bindings= ((ICPPUsingDeclaration) binding).getDelegates();
 			if (bindings == null || bindings.length == 0) {
@@ -183,21 +181,30 @@ public class CIndex implements IIndex {
 		// Read only fragments can be superseded by what the indexer writes into
 		// a writable fragment. Therefore names from a read-only fragment are
 		// ignored if there is a match in a writable fragment.
+		final IBinding b= binding;
+		return mergeNames(queryFragments(fragment -> fragment.findNames(b, flags), null));
+	}
+
+	@Override
+	public IIndexName[] findSubclassDefinitions(IBinding binding) throws CoreException {
+		return mergeNames(queryFragments(fragment -> fragment.findSubclassDefinitions(binding), null));
+	}
+
+	private IIndexName[] mergeNames(List<IIndexFragmentName[]> fragmentNames) {
+		ArrayList<IIndexFragmentName> result= new ArrayList<>();
 		HashSet<NameKey> encounteredNames = new HashSet<>();
-		for (IIndexFragment fragment : fFragments) {
-			if (fragment instanceof IWritableIndexFragment) {
-				final IIndexFragmentName[] names = fragment.findNames(binding, flags);
-				for (IIndexFragmentName name : names) {
+		for (int i = 0; i < fFragments.length; i++) {
+			if (fFragments[i] instanceof IWritableIndexFragment) {
+				for (IIndexFragmentName name : fragmentNames.get(i)) {
 					if (encounteredNames.add(new NameKey(name, true))) {
 						result.add(name);
 					}
 				}
 			}
 		}
-		for (IIndexFragment fragment : fFragments) {
-			if (!(fragment instanceof IWritableIndexFragment)) {
-				final IIndexFragmentName[] names = fragment.findNames(binding, flags);
-				for (IIndexFragmentName name : names) {
+		for (int i = 0; i < fFragments.length; i++) {
+			if (!(fFragments[i] instanceof IWritableIndexFragment)) {
+				for (IIndexFragmentName name : fragmentNames.get(i)) {
 					if (encounteredNames.add(new NameKey(name, false))) {
 						result.add(name);
 					}
@@ -314,15 +321,29 @@ public class CIndex implements IIndex {
 
 	@Override
 	public IIndexInclude[] findIncludedBy(IIndexFile file, int depth) throws CoreException {
+		if (SPECIALCASE_SINGLES && fFragments.length == 1 && depth != 0) {
+			return fFragments[0].findIncludedBy((IIndexFragmentFile) file, depth);
+		}
 		List<IIndexInclude> result= new ArrayList<>();
 		Collection<IIndexFile> in = Collections.singletonList(file);
 		Set<FileContentKey> handled = new HashSet<>();
 		while (true) {
 			Collection<IIndexFile> nextLevel= depth != 0 ? new ArrayDeque<IIndexFile>() : null;
-			for (IIndexFile indexFile : in) {
-				IIndexFragmentFile file1 = (IIndexFragmentFile) indexFile;
-				for (IIndexFragment fragment : fFragments) {
-					IIndexInclude[] includedBy= fragment.findIncludedBy(file1);
+			List<List<IIndexInclude[]>> levelIncludes;
+			if (CONCURRENT_QUERIES && in.size() >= MIN_CONCURRENT_INCLUDED_BY) {
+				List<Callable<List<IIndexInclude[]>>> tasks= new ArrayList<>(in.size());
+				for (IIndexFile indexFile : in) {
+					tasks.add(() -> findIncludedByInFragments((IIndexFragmentFile) indexFile));
+				}
+				levelIncludes= invokeAll(tasks);
+			} else {
+				levelIncludes= new ArrayList<>(in.size());
+				for (IIndexFile indexFile : in) {
+					levelIncludes.add(findIncludedByInFragments((IIndexFragmentFile) indexFile));
+				}
+			}
+			for (List<IIndexInclude[]> fileIncludes : levelIncludes) {
+				for (IIndexInclude[] includedBy : fileIncludes) {
 					for (IIndexInclude include : includedBy) {
 						final IIndexFile includer = include.getIncludedBy();
 						FileContentKey key= new FileContentKey(file.getLinkageID(), includer.getLocation(), includer.getSignificantMacros());
@@ -346,6 +367,17 @@ public class CIndex implements IIndex {
 		return result.toArray(new IIndexInclude[result.size()]);
 	}
 
+	/**
+	 * Returns the includes of the given file in the order of the fragments.
+	 */
+	private List<IIndexInclude[]> findIncludedByInFragments(IIndexFragmentFile file) throws CoreException {
+		List<IIndexInclude[]> result= new ArrayList<>(fFragments.length);
+		for (IIndexFragment fragment : fFragments) {
+			result.add(fragment.findIncludedBy(file));
+		}
+		return result;
+	}
+
 	@Override
 	public IIndexInclude[] findIncludes(IIndexFile file) throws CoreException {
 		return findIncludes(file, 0);
@@ -508,6 +540,91 @@ public class CIndex implements IIndex {
 	 * Non-API
 	 */
 
+	/**
+	 * A query on a single fragment of the index.
+	 */
+	private interface FragmentQuery<T> {
+		T run(IIndexFragment fragment) throws CoreException;
+	}
+
+	/**
+	 * Runs the query on every fragment and returns the results in the order of the fragments.
+	 * <p>
+	 * With {@link #CONCURRENT_QUERIES} the fragments are queried in parallel on the common pool.
+	 * The method returns only when all queries have completed, such that they are covered by
+	 * the read lock held by the caller.
+	 *
+	 * @param monitor monitor checked for cancellation before a fragment is queried, may be <code>null</code>
+	 * @return the results, <code>null</code> for fragments not queried because of cancellation
+	 */
+	private <T> List<T> queryFragments(final FragmentQuery<T> query, final IProgressMonitor monitor)
+			throws CoreException {
+		List<T> result= new ArrayList<>(fFragments.length);
+		if (!CONCURRENT_QUERIES || fFragments.length < 2) {
+			for (IIndexFragment fragment : fFragments) {
+				result.add(monitor != null && monitor.isCanceled() ? null : query.run(fragment));
+			}
+			return result;
+		}
+
+		List<Callable<T>> tasks= new ArrayList<>(fFragments.length);
+		for (final IIndexFragment fragment : fFragments) {
+			tasks.add(() -> monitor != null && monitor.isCanceled() ? null : query.run(fragment));
+		}
+		return invokeAll(tasks);
+	}
+
+	/**
+	 * Runs the tasks on the common pool and returns their results in the order of the tasks.
+	 * The method returns only when all tasks have completed.
+	 */
+	private static <T> List<T> invokeAll(List<Callable<T>> tasks) throws CoreException {
+		List<T> result= new ArrayList<>(tasks.size());
+		for (Future<T> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+			try {
+				result.add(future.get());
+			} catch (InterruptedException e) {
+				// Cannot happen, all tasks are done.
+				Thread.currentThread().interrupt();
+				result.add(null);
+			} catch (ExecutionException e) {
+				Throwable cause= e.getCause();
+				if (cause instanceof CoreException)
+					throw (CoreException) cause;
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw new IllegalStateException(cause);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Runs a binding query on every fragment. Failing fragments are logged and contribute no bindings.
+	 */
+	private IIndexFragmentBinding[][] queryBindings(final FragmentQuery<IBinding[]> query,
+			IProgressMonitor monitor) throws CoreException {
+		List<IIndexFragmentBinding[]> parts= queryFragments(fragment -> {
+			try {
+				IBinding[] part = query.run(fragment);
+				IIndexFragmentBinding[] bindings = new IIndexFragmentBinding[part.length];
+				System.arraycopy(part, 0, bindings, 0, part.length);
+				return bindings;
+			} catch (CoreException e) {
+				CCorePlugin.log(e);
+				return IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
+			}
+		}, monitor);
+		IIndexFragmentBinding[][] result = new IIndexFragmentBinding[parts.size()][];
+		for (int i = 0; i < result.length; i++) {
+			IIndexFragmentBinding[] part = parts.get(i);
+			result[i] = part != null ? part : IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
+		}
+		return result;
+	}
+
 	private IIndexBinding[] flatten(List<IIndexBinding[]> bindingArrays) {
 		int size = 0;
 		for (int i = 0; i<bindingArrays.size(); i++) {
@@ -586,18 +703,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindingsForPrefix(prefix, filescope,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					final IndexFilter fragmentFilter = retargetFilter(linkage, filter);
+					IIndexFragmentBinding[][] fragmentBindings = queryBindings(
+							fragment -> fragment.findBindingsForPrefix(prefix, filescope, fragmentFilter, monitor), monitor);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -616,18 +724,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindingsForContentAssist(prefix,
-									filescope, retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					final IndexFilter fragmentFilter = retargetFilter(linkage, filter);
+					IIndexFragmentBinding[][] fragmentBindings = queryBindings(
+							fragment -> fragment.findBindingsForContentAssist(prefix, filescope, fragmentFilter, monitor), monitor);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
@@ -646,18 +745,9 @@ public class CIndex implements IIndex {
 			ILinkage[] linkages = Linkage.getIndexerLinkages();
 			for (ILinkage linkage : linkages) {
 				if (filter.acceptLinkage(linkage)) {
-					IIndexFragmentBinding[][] fragmentBindings = new IIndexFragmentBinding[fFragments.length][];
-					for (int i = 0; i < fFragments.length; i++) {
-						try {
-							IBinding[] part = fFragments[i].findBindings(name, filescope,
-									retargetFilter(linkage, filter), monitor);
-							fragmentBindings[i] = new IIndexFragmentBinding[part.length];
-							System.arraycopy(part, 0, fragmentBindings[i], 0, part.length);
-						} catch (CoreException e) {
-							CCorePlugin.log(e);
-							fragmentBindings[i] = IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
-						}
-					}
+					final IndexFilter fragmentFilter = retargetFilter(linkage, filter);
+					IIndexFragmentBinding[][] fragmentBindings = queryBindings(
+							fragment -> fragment.findBindings(name, filescope, fragmentFilter, monitor), monitor);
 					ICompositesFactory factory = getCompositesFactory(linkage.getLinkageID());
 					result.add(factory.getCompositeBindings(fragmentBindings));
 				}
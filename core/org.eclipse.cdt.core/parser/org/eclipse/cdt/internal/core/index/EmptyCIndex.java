@@ -32,7 +32,7 @@ import org.eclipse.cdt.core.parser.ISignificantMacros;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 
-final public class EmptyCIndex implements IIndex {
+final public class EmptyCIndex implements IIndex, ISubclassSearch {
 	public static IIndex INSTANCE= new EmptyCIndex();
 
 	private EmptyCIndex() {
@@ -58,6 +58,11 @@ final public class EmptyCIndex implements IIndex {
 		return IIndexFragmentName.EMPTY_NAME_ARRAY;
 	}
 
+	@Override
+	public IIndexName[] findSubclassDefinitions(IBinding binding) {
+		return IIndexFragmentName.EMPTY_NAME_ARRAY;
+	}
+
 	@Override
 	@Deprecated
 	public IIndexFile getFile(int linkageID, IIndexFileLocation location) {
@@ -148,6 +148,26 @@ public interface IIndexFragment {
 	 */
 	IIndexFragmentInclude[] findIncludedBy(IIndexFragmentFile file) throws CoreException;
 
+	/**
+	 * Returns the include directives that point to the given file or, up to the given depth, to
+	 * files including it. For every including file a single include directive is returned. All of
+	 * the include directives returned must belong to files managed by this fragment.
+	 * @param file a file to search for includes pointing to it
+	 * @param depth depth to which includes are followed, should be one of
+	 * {@link IIndex#DEPTH_ZERO} or {@link IIndex#DEPTH_INFINITE}
+	 * @return an array of include directives managed by this fragment
+	 * @throws CoreException
+	 */
+	IIndexFragmentInclude[] findIncludedBy(IIndexFragmentFile file, int depth) throws CoreException;
+
+	/**
+	 * Returns the names of the definitions of the classes directly derived from the given class.
+	 * @param binding a class type
+	 * @return an array of class definitions managed by this fragment
+	 * @throws CoreException
+	 */
+	IIndexFragmentName[] findSubclassDefinitions(IBinding binding) throws CoreException;
+
 	/**
 	 * Looks for a binding matching the given one. May return <code>null</code>, if no
 	 * such binding exists. The binding may belong to an AST or another index fragment.
@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.index;
+
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.index.IIndexName;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Implemented by indexes that can look up the subclasses of a class without searching through
+ * all references of the class.
+ */
+public interface ISubclassSearch {
+	/**
+	 * Returns the names of the definitions of the classes directly derived from the given class.
+	 * @param binding a class type
+	 * @return an array of class definitions
+	 * @throws CoreException
+	 */
+	IIndexName[] findSubclassDefinitions(IBinding binding) throws CoreException;
+}
@@ -313,6 +313,7 @@ public class CPreprocessor implements ILexerLog, IScanner, IAdaptable {
         fExpressionEvaluator= new ExpressionEvaluator(this);
         fMacroDefinitionParser= new MacroDefinitionParser();
         fMacroExpander= new MacroExpander(this, fMacroDictionary, fLocationMap, fLexOptions);
+        fMacroExpander.enableExpansionCache();
         fIncludeFileResolutionHeuristics= fFileContentProvider.getIncludeHeuristics();
 
         String contextPath= fFileContentProvider.getContextPath();
@@ -45,6 +45,8 @@ public abstract class LazyCharArray extends AbstractCharArray {
 	private long fHash64;
 	// Make a reference to the currently used char[], such that it is not collected.
 	private char[] fCurrentChars;
+	// The chunk of fCurrentChars, allows to access consecutive characters without a lookup.
+	private Chunk fCurrentChunk;
 
 	protected LazyCharArray() {
 		fHasher = new StreamHasher();
@@ -84,6 +86,10 @@ public abstract class LazyCharArray extends AbstractCharArray {
 
 	@Override
 	public final char get(int offset) {
+		final Chunk current= fCurrentChunk;
+		if (current != null && offset >= current.fCharOffset && offset < current.fCharEndOffset) {
+			return fCurrentChars[offset - current.fCharOffset];
+		}
 		Chunk chunk= getChunkForOffset(offset);
 		if (chunk != null) {
 			return getChunkData(chunk)[offset - chunk.fCharOffset];
@@ -166,7 +172,7 @@ public abstract class LazyCharArray extends AbstractCharArray {
 	 */
 	protected Chunk newChunk(long sourceOffset, long sourceEndOffset, int charOffset, char[] chars) {
 		fCurrentChars= chars;
-		return new Chunk(sourceOffset, sourceEndOffset, charOffset, chars);
+		return fCurrentChunk= new Chunk(sourceOffset, sourceEndOffset, charOffset, chars);
 	}
 
 	/**
@@ -181,6 +187,7 @@ public abstract class LazyCharArray extends AbstractCharArray {
 			rereadChunkData(chunk, data);
 			chunk.fCharsReference= new SoftReference<char[]>(data);
 		}
+		fCurrentChunk= chunk;
 		return fCurrentChars= data;
 	}
 
@@ -199,5 +206,6 @@ public abstract class LazyCharArray extends AbstractCharArray {
 		}
 		if (fCurrentChars != null)
 			fCurrentChars= null;
+		fCurrentChunk= null;
 	}
 }
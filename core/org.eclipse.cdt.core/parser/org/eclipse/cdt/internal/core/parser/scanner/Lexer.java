@@ -79,6 +79,8 @@ final public class Lexer implements ITokenSequence {
 	
 	// the input to the lexer
 	private final AbstractCharArray fInput;
+	// the characters of the input, if available as an array, allows for bulk skipping
+	private final char[] fInputChars;
 	private final int fStart;
 	private int fLimit;
 
@@ -117,6 +119,7 @@ final public class Lexer implements ITokenSequence {
 	
 	public Lexer(AbstractCharArray input, int start, int end, LexerOptions options, ILexerLog log, Object source) {
 		fInput= input;
+		fInputChars= input instanceof CharArray ? ((CharArray) input).getArray() : null;
 		fStart= fOffset= fEndOffset= start;
 		fLimit= end;
 		fOptions= options;
@@ -275,6 +278,9 @@ final public class Lexer implements ITokenSequence {
 			case 0xb:  // vertical tab
 			case '\f': 
 			case '\r':
+				if (d == ' ' || d == '\t') {
+					skipBlanks();
+				}
 				continue;
 
 			case 'L':
@@ -707,14 +713,12 @@ final public class Lexer implements ITokenSequence {
 	private void blockComment(final int start, final char trigger) {
 		// We can ignore line-splices, trigraphs and windows newlines when searching for the '*'
 		int pos= fEndOffset;
-		while (isValidOffset(pos)) {
-			if (fInput.get(pos++) == trigger) {
-				fEndOffset= pos;
-				if (nextCharPhase3() == '/') {
-					nextCharPhase3();
-					fLog.handleComment(true, start, fOffset, fInput);
-					return;
-				}
+		while (isValidOffset(pos= skipToChar(trigger, pos))) {
+			fEndOffset= ++pos;
+			if (nextCharPhase3() == '/') {
+				nextCharPhase3();
+				fLog.handleComment(true, start, fOffset, fInput);
+				return;
 			}
 		}
 		fCharPhase3= END_OF_INPUT;
@@ -731,9 +735,99 @@ final public class Lexer implements ITokenSequence {
 				fLog.handleComment(false, start, fOffset, fInput);
 				return;
 			}
+			skipLineCommentChars();
 			c= nextCharPhase3();
 		}
 	}
+
+	/**
+	 * Returns the limit for accessing {@link #fInputChars} directly.
+	 */
+	private int getArrayLimit() {
+		return fLimit < 0 ? fInputChars.length : Math.min(fLimit, fInputChars.length);
+	}
+
+	/**
+	 * Returns the first offset at or after the given one where the input contains the given
+	 * character, or the first invalid offset. Does not process phases 1-3.
+	 */
+	private int skipToChar(final char c, int pos) {
+		final char[] chars= fInputChars;
+		if (chars != null) {
+			final int limit= getArrayLimit();
+			while (pos < limit && chars[pos] != c) {
+				pos++;
+			}
+		} else {
+			while (isValidOffset(pos) && fInput.get(pos) != c) {
+				pos++;
+			}
+		}
+		return pos;
+	}
+
+	/**
+	 * Skips the spaces and tabs that follow the current character, which must be a space or
+	 * a tab, and advances to the first character after them.
+	 */
+	private void skipBlanks() {
+		final char[] chars= fInputChars;
+		if (chars != null) {
+			final int limit= getArrayLimit();
+			int pos= fEndOffset;
+			while (pos < limit && (chars[pos] == ' ' || chars[pos] == '\t')) {
+				pos++;
+			}
+			fEndOffset= pos;
+			nextCharPhase3();
+		}
+	}
+
+	/**
+	 * Advances the end offset over characters of a line comment that are not affected by
+	 * phases 1-3 and cannot end the comment.
+	 */
+	private void skipLineCommentChars() {
+		final char[] chars= fInputChars;
+		if (chars != null) {
+			final int limit= getArrayLimit();
+			int pos= fEndOffset;
+			loop: while (pos < limit) {
+				switch (chars[pos]) {
+				case '\n': case '\r': case '\\': case '?':
+					break loop;
+				}
+				pos++;
+			}
+			fEndOffset= pos;
+		}
+	}
+
+	/**
+	 * Consumes the current character and the characters following it as long as they are
+	 * letters, digits or underscores that are not affected by phases 1-3.
+	 * @return the number of characters consumed.
+	 */
+	private int skipIdentifierChars() {
+		final char[] chars= fInputChars;
+		if (chars == null || fEndOffset != fOffset + 1)
+			return 0;
+		final int limit= getArrayLimit();
+		int pos= fOffset;
+		while (pos < limit && isBasicIdentifierChar(chars[pos])) {
+			pos++;
+		}
+		final int count= pos - fOffset;
+		if (count > 0) {
+			fEndOffset= pos;
+			nextCharPhase3();
+		}
+		return count;
+	}
+
+	private static boolean isBasicIdentifierChar(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+	}
 	
 	private boolean isIdentifierStart(int c) {
 		return Character.isLetter((char)c) || 
@@ -906,6 +1000,11 @@ final public class Lexer implements ITokenSequence {
     	boolean isPartOfIdentifier= true;
     	int c= fCharPhase3;
         while (true) {
+        	final int skipped= skipIdentifierChars();
+        	if (skipped > 0) {
+        		length+= skipped;
+        		c= fCharPhase3;
+        	}
         	switch (c) {
             case 'a': case 'b': case 'c': case 'd': case 'e': case 'f': case 'g': case 'h': case 'i': 
             case 'j': case 'k': case 'l': case 'm': case 'n': case 'o': case 'p': case 'q': case 'r': 
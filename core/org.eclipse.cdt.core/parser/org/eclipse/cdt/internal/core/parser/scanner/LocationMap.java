@@ -13,6 +13,8 @@ package org.eclipse.cdt.internal.core.parser.scanner;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -39,6 +41,7 @@ import org.eclipse.cdt.core.parser.ISignificantMacros;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
 import org.eclipse.cdt.core.parser.util.CharArrayObjectMap;
 import org.eclipse.cdt.core.parser.util.CharArrayUtils;
+import org.eclipse.cdt.core.parser.util.IntArray;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNode;
 import org.eclipse.cdt.internal.core.dom.parser.ASTNodeSpecification;
 import org.eclipse.cdt.internal.core.dom.parser.ASTProblem;
@@ -56,7 +59,15 @@ public class LocationMap implements ILocationResolver {
 
     private ArrayList<ASTPreprocessorNode> fDirectives= new ArrayList<>();
     private ArrayList<ASTProblem> fProblems= new ArrayList<>();
-    private ArrayList<ASTComment> fComments= new ArrayList<>();
+    // Comments are stored as pairs of offset and end offset, the flags for block comments are kept
+    // by comment index. The nodes are created on demand, the indexer asks for them only after the
+    // names of the translation unit have been resolved.
+    private IntArray fCommentOffsets= new IntArray();
+    private BitSet fBlockComments= new BitSet();
+    // The indices of the first comments of runs of comments in the same file, and the files.
+    private IntArray fCommentFileStarts= new IntArray();
+    private ArrayList<String> fCommentFiles= new ArrayList<>();
+    private ASTComment[] fCommentNodes= {};
     private ArrayList<ASTMacroDefinition> fBuiltinMacros= new ArrayList<>();
 	private ArrayList<ASTPreprocessorName> fMacroReferences= new ArrayList<>();
 	
@@ -273,7 +284,6 @@ public class LocationMap implements ILocationResolver {
 	}
 
 	public void encounteredComment(int offset, int endOffset, boolean isBlockComment, AbstractCharArray input) {
-		ASTComment comment = new ASTComment(fTranslationUnit, getCurrentFilePath(), offset, endOffset, isBlockComment);
 		if (fLexerOptions.fIncludeExportPatterns != null && fCurrentContext instanceof LocationCtxFile) {
 			CharSequence text = getTrimmedCommentText(input.subSequence(offset, endOffset), isBlockComment);
 			IncludeExportPatterns patterns = fLexerOptions.fIncludeExportPatterns;
@@ -288,7 +298,17 @@ public class LocationMap implements ILocationResolver {
 				((LocationCtxFile) fCurrentContext).setInsideIncludeExportBlock(false);
 			}
 		}
-		fComments.add(comment);
+		final String filePath= getCurrentFilePath();
+		final int lastFile= fCommentFiles.size() - 1;
+		if (lastFile < 0 || fCommentFiles.get(lastFile) != filePath) {
+			fCommentFileStarts.add(fCommentOffsets.size() / 2);
+			fCommentFiles.add(filePath);
+		}
+		if (isBlockComment) {
+			fBlockComments.set(fCommentOffsets.size() / 2);
+		}
+		fCommentOffsets.add(offset);
+		fCommentOffsets.add(endOffset);
 	}
 
 	private CharSequence getTrimmedCommentText(CharSequence comment, boolean isBlockComment) {
@@ -762,7 +782,30 @@ public class LocationMap implements ILocationResolver {
 
 	@Override
 	public IASTComment[] getComments() {
-    	return fComments.toArray(new IASTComment[fComments.size()]);
+		final int count= fCommentOffsets.size() / 2;
+		int i= fCommentNodes.length;
+		if (i < count) {
+			fCommentNodes= Arrays.copyOf(fCommentNodes, count);
+			int file= findCommentFile(i);
+			for (; i < count; i++) {
+				if (file + 1 < fCommentFiles.size() && fCommentFileStarts.get(file + 1) == i) {
+					file++;
+				}
+				final int offset= fCommentOffsets.get(2 * i);
+				final int end= fCommentOffsets.get(2 * i + 1);
+				fCommentNodes[i]= new ASTComment(fTranslationUnit, fCommentFiles.get(file), offset, end,
+						fBlockComments.get(i));
+			}
+		}
+		return Arrays.copyOf(fCommentNodes, count, IASTComment[].class);
+	}
+
+	private int findCommentFile(int commentIndex) {
+		int file= fCommentFiles.size() - 1;
+		while (file > 0 && fCommentFileStarts.get(file) > commentIndex) {
+			file--;
+		}
+		return file;
 	}
 
     @Override
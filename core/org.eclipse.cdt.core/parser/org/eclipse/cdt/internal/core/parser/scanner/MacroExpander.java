@@ -13,6 +13,7 @@ package org.eclipse.cdt.internal.core.parser.scanner;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 
 import org.eclipse.cdt.core.dom.ast.IASTName;
@@ -36,6 +37,8 @@ public class MacroExpander {
 
 	private static final int ORIGIN = OffsetLimitReachedException.ORIGIN_MACRO_EXPANSION;
 	private static final TokenList EMPTY_TOKEN_LIST = new TokenList();
+	/** Maximum number of expansions kept in the expansion cache. */
+	private static final int MAX_CACHED_EXPANSIONS = 2000;
 
 	/**
 	 * Marks the beginning and the end of the scope of a macro expansion. Necessary to properly
@@ -71,11 +74,85 @@ public class MacroExpander {
 		}
 	}
 
+	/**
+	 * Identifies an expansion of a macro by the macro and the images of the tokens of
+	 * its arguments.
+	 */
+	private static final class ExpansionKey {
+		final PreprocessorMacro fMacro;
+		final String fArguments;
+
+		ExpansionKey(PreprocessorMacro macro, TokenSource[] argInputs) {
+			fMacro= macro;
+			if (argInputs == null) {
+				fArguments= ""; //$NON-NLS-1$
+			} else {
+				StringBuilder buf= new StringBuilder();
+				for (TokenSource argInput : argInputs) {
+					Token l= null;
+					for (Token t= argInput.first(); t != null; l= t, t= (Token) t.getNext()) {
+						// Spaces between the tokens matter for stringification.
+						if (hasImplicitSpace(l, t))
+							buf.append(' ');
+						final char[] image= t.getCharImage();
+						buf.append(t.getType()).append(':').append(image.length).append(':').append(image);
+					}
+					buf.append(',');
+				}
+				fArguments= buf.toString();
+			}
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(fMacro) * 31 + fArguments.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ExpansionKey))
+				return false;
+			ExpansionKey other= (ExpansionKey) obj;
+			return fMacro == other.fMacro && fArguments.equals(other.fArguments);
+		}
+	}
+
+	/**
+	 * The result of an expansion together with everything it depends on besides the macro and
+	 * its arguments, and the side effects that have to be repeated when the result is reused.
+	 */
+	private static final class CachedExpansion {
+		final ArrayList<char[]> fLookupNames= new ArrayList<>();
+		final ArrayList<PreprocessorMacro> fLookupResults= new ArrayList<>();
+		/** Significant macros, or the names of undefined significant macros. */
+		final ArrayList<Object> fSignificantMacros= new ArrayList<>();
+		final ArrayList<PreprocessorMacro> fImplicitExpansions= new ArrayList<>();
+		boolean fIsCacheable= true;
+		TokenList fTokens;
+
+		void addLookup(char[] name, PreprocessorMacro macro) {
+			fLookupNames.add(name);
+			fLookupResults.add(macro);
+		}
+
+		/**
+		 * Checks whether the macros looked up during the expansion are still the same.
+		 */
+		boolean isValid(CharArrayMap<PreprocessorMacro> dictionary) {
+			for (int i = 0; i < fLookupNames.size(); i++) {
+				if (dictionary.get(fLookupNames.get(i)) != fLookupResults.get(i))
+					return false;
+			}
+			return true;
+		}
+	}
+
 	/**
 	 * Combines a list of tokens with the preprocessor to form the input for macro expansion.
 	 */
 	private class TokenSource extends TokenList {
 		private final ITokenSequence fLexer;
+		private boolean fHasAccessedLexer;
 
 		public TokenSource(ITokenSequence lexer) {
 			fLexer= lexer;
@@ -85,6 +162,7 @@ public class MacroExpander {
 			Token t= removeFirst();
 			if (t == null && fLexer != null) {
 				t= fLexer.currentToken();
+				fHasAccessedLexer= true;
 				if (t.getType() != IToken.tEND_OF_INPUT) {
 					fEndOffset= t.getEndOffset();
 					fLexer.nextToken();
@@ -111,6 +189,7 @@ public class MacroExpander {
 			}
 
 			if (fLexer != null) {
+				fHasAccessedLexer= true;
 				t= fLexer.currentToken();
 				while (t.getType() == Lexer.tNEWLINE) {
 					t= fLexer.nextToken();
@@ -139,6 +218,10 @@ public class MacroExpander {
 	private ScannerContext fReportMacros;
 	private boolean fReportUndefined;
 
+	// for reusing the results of expansions
+	private HashMap<ExpansionKey, CachedExpansion> fExpansionCache;
+	private CachedExpansion fRecording;
+
 	public MacroExpander(ILexerLog log, CharArrayMap<PreprocessorMacro> macroDictionary,
 			LocationMap locationMap, LexerOptions lexOptions) {
 		fDictionary= macroDictionary;
@@ -148,6 +231,16 @@ public class MacroExpander {
 		fLog= log;
 	}
 
+	/**
+	 * Enables reusing the results of expansions of macros with the same arguments. The results are
+	 * reused only when no image locations are created and no content assist is performed.
+	 */
+	void enableExpansionCache() {
+		if (fExpansionCache == null) {
+			fExpansionCache= new HashMap<>();
+		}
+	}
+
 	/**
 	 * Expects that the identifier has been consumed, stores the result in the list provided.
 	 * @param scannerContext
@@ -174,6 +267,12 @@ public class MacroExpander {
 
 		// setup input sequence
 		TokenSource input= new TokenSource(lexer);
+		if (fExpansionCache != null && !completionMode && !protectIntrinsics && !macro.isDynamic()
+				&& !fLexOptions.fCreateImageLocations) {
+			TokenList result= expandWithCache(input, macro, forbidden);
+			fReportMacros= null;
+			return result;
+		}
 		TokenList firstExpansion= new TokenList();
 
 		TokenList result;
@@ -198,6 +297,78 @@ public class MacroExpander {
 		return result;
 	}
 
+	/**
+	 * Expands a macro that is not dynamic without creating image locations. The result of an earlier
+	 * expansion with the same arguments is reused, if the macros looked up during that expansion are
+	 * still the same. A result is stored only if it depends on nothing else: The expansion must not
+	 * access the input beyond the arguments, involve dynamic macros or cause problems.
+	 */
+	private TokenList expandWithCache(TokenSource input, PreprocessorMacro macro,
+			IdentityHashMap<PreprocessorMacro, PreprocessorMacro> forbidden) throws OffsetLimitReachedException {
+		reportSignificantMacro(macro);
+
+		TokenSource[] argInputs= null;
+		if (macro.isFunctionStyle()) {
+			argInputs= new TokenSource[macro.getParameterPlaceholderList().length];
+			try {
+				parseArguments(input, (FunctionStyleMacro) macro, forbidden, argInputs, null);
+			} catch (AbortMacroExpansionException e) {
+				// Ignore this macro expansion.
+				for (TokenSource argInput : argInputs) {
+					executeScopeMarkers(argInput, forbidden);
+				}
+				return new TokenList();
+			}
+		}
+
+		final ExpansionKey key= new ExpansionKey(macro, argInputs);
+		CachedExpansion cached= fExpansionCache.get(key);
+		if (cached != null && cached.isValid(fDictionary)) {
+			for (Object significant : cached.fSignificantMacros) {
+				if (significant instanceof PreprocessorMacro) {
+					reportSignificantMacro((PreprocessorMacro) significant);
+				} else {
+					reportSignificantMacroUndefined((char[]) significant);
+				}
+			}
+			if (fLocationMap != null) {
+				for (PreprocessorMacro implicit : cached.fImplicitExpansions) {
+					fImplicitMacroExpansions.add(fLocationMap.encounterImplicitMacroExpansion(implicit, null));
+				}
+			}
+			return cached.fTokens.cloneTokens();
+		}
+
+		final CachedExpansion recording= new CachedExpansion();
+		TokenList result;
+		fRecording= recording;
+		input.fHasAccessedLexer= false;
+		try {
+			TokenList firstExpansion= new TokenList();
+			firstExpansion.append(new ExpansionBoundary(macro, true));
+			if (argInputs != null) {
+				replaceFunctionStyleMacro(macro, forbidden, argInputs, firstExpansion, null);
+			} else {
+				objStyleTokenPaste(macro, firstExpansion);
+			}
+			firstExpansion.append(new ExpansionBoundary(macro, false));
+			input.prepend(firstExpansion);
+			result= expandAll(input, forbidden, false, null);
+		} finally {
+			fRecording= null;
+		}
+		postProcessTokens(result);
+
+		if (recording.fIsCacheable && !input.fHasAccessedLexer) {
+			if (fExpansionCache.size() >= MAX_CACHED_EXPANSIONS) {
+				fExpansionCache.clear();
+			}
+			recording.fTokens= result.cloneTokens();
+			fExpansionCache.put(key, recording);
+		}
+		return result;
+	}
+
 	/**
 	 * Method for tracking macro expansions.
 	 * @since 5.0
@@ -258,13 +429,14 @@ public class MacroExpander {
 			IdentityHashMap<PreprocessorMacro, PreprocessorMacro> forbidden, TokenSource input,
 			TokenList result, MacroExpansionTracker tracker)
 			throws OffsetLimitReachedException {
-		if (fReportMacros != null)
-			fReportMacros.significantMacro(macro);
+		reportSignificantMacro(macro);
+		if (fRecording != null && macro.isDynamic()) {
+			fRecording.fIsCacheable= false;
+		}
 
 		if (macro.isFunctionStyle()) {
 			final int paramCount = macro.getParameterPlaceholderList().length;
 			final TokenSource[] argInputs= new TokenSource[paramCount];
-			final BitSet paramUsage= getParamUsage(macro);
 			if (tracker != null) {
 				tracker.startFunctionStyleMacro(lastConsumed.clone());
 			}
@@ -288,41 +460,7 @@ public class MacroExpander {
 				}
 				return null;
 			}
-
-			TokenList[] clonedArgs= new TokenList[paramCount];
-			TokenList[] expandedArgs= new TokenList[paramCount];
-			for (int i = 0; i < paramCount; i++) {
-				final TokenSource argInput = argInputs[i];
-				final boolean needCopy= paramUsage.get(2 * i);
-				final boolean needExpansion = paramUsage.get(2 * i + 1);
-				clonedArgs[i]= needCopy ? argInput.cloneTokens() : EMPTY_TOKEN_LIST;
-				expandedArgs[i]= needExpansion ? expandAll(argInput, forbidden, false, tracker) : EMPTY_TOKEN_LIST;
-				if (!needExpansion) {
-					executeScopeMarkers(argInput, forbidden);
-				}
-
-				if (tracker != null) {
-					tracker.setExpandedMacroArgument(needExpansion ? expandedArgs[i] : null);
-					// make sure that the trailing arguments do not get expanded.
-					if (tracker.isDone()) {
-						paramUsage.clear();
-					}
-				}
-			}
-			if (tracker == null) {
-				replaceArgs(macro, clonedArgs, expandedArgs, result);
-			} else {
-				if (tracker.isRequestedStep()) {
-					TokenList replacement= new TokenList();
-					replaceArgs(macro, clonedArgs, expandedArgs, replacement);
-					tracker.storeFunctionStyleMacroReplacement(macro, replacement, result);
-				} else if (tracker.isDone()) {
-					tracker.appendFunctionStyleMacro(result);
-				} else {
-					replaceArgs(macro, clonedArgs, expandedArgs, result);
-				}
-				tracker.endFunctionStyleMacro();
-			}
+			replaceFunctionStyleMacro(macro, forbidden, argInputs, result, tracker);
 		} else {
 			if (tracker == null) {
 				objStyleTokenPaste(macro, result);
@@ -340,6 +478,51 @@ public class MacroExpander {
 		return lastConsumed;
 	}
 
+	/**
+	 * Replaces a function-style macro whose arguments have been parsed, stores the resulting tokens
+	 * in the result token list.
+	 */
+	private void replaceFunctionStyleMacro(PreprocessorMacro macro,
+			IdentityHashMap<PreprocessorMacro, PreprocessorMacro> forbidden, TokenSource[] argInputs,
+			TokenList result, MacroExpansionTracker tracker) throws OffsetLimitReachedException {
+		final int paramCount = argInputs.length;
+		final BitSet paramUsage= getParamUsage(macro);
+		TokenList[] clonedArgs= new TokenList[paramCount];
+		TokenList[] expandedArgs= new TokenList[paramCount];
+		for (int i = 0; i < paramCount; i++) {
+			final TokenSource argInput = argInputs[i];
+			final boolean needCopy= paramUsage.get(2 * i);
+			final boolean needExpansion = paramUsage.get(2 * i + 1);
+			clonedArgs[i]= needCopy ? argInput.cloneTokens() : EMPTY_TOKEN_LIST;
+			expandedArgs[i]= needExpansion ? expandAll(argInput, forbidden, false, tracker) : EMPTY_TOKEN_LIST;
+			if (!needExpansion) {
+				executeScopeMarkers(argInput, forbidden);
+			}
+
+			if (tracker != null) {
+				tracker.setExpandedMacroArgument(needExpansion ? expandedArgs[i] : null);
+				// make sure that the trailing arguments do not get expanded.
+				if (tracker.isDone()) {
+					paramUsage.clear();
+				}
+			}
+		}
+		if (tracker == null) {
+			replaceArgs(macro, clonedArgs, expandedArgs, result);
+		} else {
+			if (tracker.isRequestedStep()) {
+				TokenList replacement= new TokenList();
+				replaceArgs(macro, clonedArgs, expandedArgs, replacement);
+				tracker.storeFunctionStyleMacroReplacement(macro, replacement, result);
+			} else if (tracker.isDone()) {
+				tracker.appendFunctionStyleMacro(result);
+			} else {
+				replaceArgs(macro, clonedArgs, expandedArgs, result);
+			}
+			tracker.endFunctionStyleMacro();
+		}
+	}
+
 	private void executeScopeMarkers(TokenSource input, IdentityHashMap<PreprocessorMacro, PreprocessorMacro> forbidden) {
 		Token t= input.removeFirst();
 		while (t != null) {
@@ -364,6 +547,9 @@ public class MacroExpander {
 			case IToken.tIDENTIFIER:
 				final char[] image = t.getCharImage();
 				PreprocessorMacro macro= fDictionary.get(image);
+				if (fRecording != null) {
+					fRecording.addLookup(image, macro);
+				}
 				if (protect || (tracker != null && tracker.isDone())) {
 					result.append(t);
 				} else if (protectIntrinsics && Arrays.equals(image, Keywords.cDEFINED)) {
@@ -376,12 +562,10 @@ public class MacroExpander {
 					protect= true;
 				} else if (macro == null || (macro.isFunctionStyle() && !input.findLParenthesis())) {
 					// Tricky: Don't mark function-style macros if you don't find the left parenthesis
-					if (fReportMacros != null) {
-						if (macro != null) {
-							fReportMacros.significantMacro(macro);
-						} else if (fReportUndefined){
-							fReportMacros.significantMacroUndefined(image);
-						}
+					if (macro != null) {
+						reportSignificantMacro(macro);
+					} else {
+						reportSignificantMacroUndefined(image);
 					}
 					result.append(t);
 				} else if (forbidden.containsKey(macro)) {
@@ -395,6 +579,9 @@ public class MacroExpander {
 						}
 						fImplicitMacroExpansions.add(fLocationMap.encounterImplicitMacroExpansion(macro, info));
 					}
+					if (fRecording != null) {
+						fRecording.fImplicitExpansions.add(macro);
+					}
 					TokenList replacement= new TokenList();
 
 					addSpacemarker(l, t, replacement); // start expansion
@@ -594,7 +781,28 @@ public class MacroExpander {
         return lastToken;
 	}
 
+	private void reportSignificantMacro(PreprocessorMacro macro) {
+		if (fRecording != null) {
+			fRecording.fSignificantMacros.add(macro);
+		}
+		if (fReportMacros != null) {
+			fReportMacros.significantMacro(macro);
+		}
+	}
+
+	private void reportSignificantMacroUndefined(char[] name) {
+		if (fRecording != null) {
+			fRecording.fSignificantMacros.add(name);
+		}
+		if (fReportMacros != null && fReportUndefined) {
+			fReportMacros.significantMacroUndefined(name);
+		}
+	}
+
 	private void handleProblem(int problemID, char[] arg) {
+		if (fRecording != null) {
+			fRecording.fIsCacheable= false;
+		}
 		fLog.handleProblem(problemID, arg, fStartOffset, fEndOffset);
 	}
 
@@ -942,12 +1150,16 @@ public class MacroExpander {
 	}
 
 	public IASTName[] clearImplicitExpansions() {
+		if (fImplicitMacroExpansions.isEmpty())
+			return IASTName.EMPTY_NAME_ARRAY;
 		IASTName[] result= fImplicitMacroExpansions.toArray(new IASTName[fImplicitMacroExpansions.size()]);
 		fImplicitMacroExpansions.clear();
 		return result;
 	}
 
 	public ImageLocationInfo[] clearImageLocationInfos() {
+		if (fImageLocationInfos.isEmpty())
+			return ImageLocationInfo.NO_LOCATION_INFOS;
 		ImageLocationInfo[] result= fImageLocationInfos.toArray(new ImageLocationInfo[fImageLocationInfos.size()]);
 		fImageLocationInfos.clear();
 		return result;
@@ -526,7 +526,8 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 			fTodoTaskUpdater= createTodoTaskUpdater();
 
 			fASTOptions= ILanguage.OPTION_NO_IMAGE_LOCATIONS
-					| ILanguage.OPTION_SKIP_TRIVIAL_EXPRESSIONS_IN_AGGREGATE_INITIALIZERS;
+					| ILanguage.OPTION_SKIP_TRIVIAL_EXPRESSIONS_IN_AGGREGATE_INITIALIZERS
+					| ILanguage.OPTION_SKIP_TRIVIAL_STATEMENTS_IN_FUNCTION_BODIES;
 
 			if (getSkipReferences() == SKIP_ALL_REFERENCES) {
 				fASTOptions |= ILanguage.OPTION_SKIP_FUNCTION_BODIES;
@@ -1098,8 +1099,9 @@ public abstract class AbstractIndexerTask extends PDOMWriter {
 				writeToIndex(lang.getLinkageID(), ast, codeReader, ctx, progress.split(10));
 				resultCacheCleared = true;  // The cache was cleared while writing to the index.
 			}
+			long time = System.currentTimeMillis() - start;
+			fStatistics.recordFileTime(path.toString(), time);
 			if (fShowActivity) {
-				long time = System.currentTimeMillis() - start;
 				trace("Indexer: processed " + path.toOSString() + " [" + time + " ms]");  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			}
 		} catch (OperationCanceledException e) {
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMFile;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMInclude;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMLinkage;
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * In-memory snapshot of the include relation of a PDOM, used to compute transitive
+ * includers without walking the include records of the database level by level.
+ * <p>
+ * Files are numbered by the order of their records, for every file the includes of
+ * the files including it are kept in arrays in the order of the database. Only includes
+ * from files that are fully indexed are considered, like in
+ * {@link PDOM#findIncludedBy(org.eclipse.cdt.internal.core.index.IIndexFragmentFile)}.
+ * The snapshot must be discarded whenever the include relation changes, see
+ * {@link PDOM#includesChanged()}.
+ */
+final class IncludeGraph {
+	private static final long[] NO_RECORDS = {};
+
+	private final PDOM fPDOM;
+	/** Sorted records of all files */
+	private final long[] fFiles;
+	/** Linkage IDs of the files */
+	private final int[] fLinkageIDs;
+	/** Index into fIncluders and fIncludes of the first includer of each file */
+	private final int[] fFirstIncluder;
+	/** Ids of the includers of each file */
+	private final int[] fIncluders;
+	/** Records of the includes of each file */
+	private final long[] fIncludes;
+
+	private IncludeGraph(PDOM pdom, long[] files, int[] linkageIDs, int[] firstIncluder, int[] includers,
+			long[] includes) {
+		fPDOM= pdom;
+		fFiles= files;
+		fLinkageIDs= linkageIDs;
+		fFirstIncluder= firstIncluder;
+		fIncluders= includers;
+		fIncludes= includes;
+	}
+
+	/**
+	 * Creates the include graph of the given PDOM. The caller must hold a read lock.
+	 */
+	static IncludeGraph create(final PDOM pdom) throws CoreException {
+		final List<PDOMFile> fileList= new ArrayList<>();
+		pdom.getFileIndex().accept(new IBTreeVisitor() {
+			@Override
+			public int compare(long record) throws CoreException {
+				return 0;
+			}
+
+			@Override
+			public boolean visit(long record) throws CoreException {
+				fileList.add(PDOMFile.recreateFile(pdom, record));
+				return true;
+			}
+		});
+
+		final int fileCount= fileList.size();
+		long[] files= new long[fileCount];
+		for (int i = 0; i < fileCount; i++) {
+			files[i]= fileList.get(i).getRecord();
+		}
+		Arrays.sort(files);
+
+		int[] linkageIDs= new int[fileCount];
+		int[] firstIncluder= new int[fileCount + 1];
+		int[] includers= new int[fileCount];
+		long[] includes= new long[fileCount];
+		PDOMFile[] byId= new PDOMFile[fileCount];
+		for (PDOMFile file : fileList) {
+			final int id= Arrays.binarySearch(files, file.getRecord());
+			byId[id]= file;
+			linkageIDs[id]= file.getLinkageID();
+		}
+		// Collect the edges in the order of the file ids.
+		int edgeCount= 0;
+		for (int id = 0; id < fileCount; id++) {
+			firstIncluder[id]= edgeCount;
+			for (PDOMInclude include= byId[id].getFirstIncludedBy(); include != null;
+					include= include.getNextInIncludedBy()) {
+				PDOMFile includer= (PDOMFile) include.getIncludedBy();
+				if (includer == null || includer.getTimestamp() <= 0)
+					continue;
+				int includerID= Arrays.binarySearch(files, includer.getRecord());
+				if (includerID < 0)
+					continue;
+				if (edgeCount == includers.length) {
+					includers= Arrays.copyOf(includers, edgeCount * 2 + 1);
+					includes= Arrays.copyOf(includes, edgeCount * 2 + 1);
+				}
+				includers[edgeCount]= includerID;
+				includes[edgeCount]= include.getRecord();
+				edgeCount++;
+			}
+		}
+		firstIncluder[fileCount]= edgeCount;
+		return new IncludeGraph(pdom, files, linkageIDs, firstIncluder, includers, includes);
+	}
+
+	/**
+	 * Returns the includes of the files including the given file, directly or indirectly.
+	 * For every including file a single include is returned, the files are visited breadth
+	 * first.
+	 *
+	 * @param fileRecord the record of the included file
+	 * @param depth the maximum number of levels to follow, or a negative number for no limit
+	 */
+	PDOMInclude[] findIncludedBy(long fileRecord, int depth) throws CoreException {
+		final int start= Arrays.binarySearch(fFiles, fileRecord);
+		if (start < 0)
+			return new PDOMInclude[0];
+
+		final PDOMLinkage linkage= fPDOM.getLinkage(fLinkageIDs[start]);
+		final boolean[] handled= new boolean[fFiles.length];
+		long[] result= NO_RECORDS;
+		int resultCount= 0;
+		int[] queue= new int[] { start };
+		int levelStart= 0;
+		int levelEnd= 1;
+		int queueEnd= 1;
+		while (true) {
+			for (int i = levelStart; i < levelEnd; i++) {
+				final int file= queue[i];
+				for (int e = fFirstIncluder[file]; e < fFirstIncluder[file + 1]; e++) {
+					final int includer= fIncluders[e];
+					if (handled[includer])
+						continue;
+					handled[includer]= true;
+					if (resultCount == result.length) {
+						result= Arrays.copyOf(result, resultCount * 2 + 8);
+					}
+					result[resultCount++]= fIncludes[e];
+					if (depth != 0) {
+						if (queueEnd == queue.length) {
+							queue= Arrays.copyOf(queue, queueEnd * 2);
+						}
+						queue[queueEnd++]= includer;
+					}
+				}
+			}
+			if (queueEnd == levelEnd)
+				break;
+			if (depth > 0)
+				depth--;
+			levelStart= levelEnd;
+			levelEnd= queueEnd;
+		}
+
+		PDOMInclude[] includes= new PDOMInclude[resultCount];
+		for (int i = 0; i < resultCount; i++) {
+			includes[i]= new PDOMInclude(linkage, result[i]);
+		}
+		return includes;
+	}
+}
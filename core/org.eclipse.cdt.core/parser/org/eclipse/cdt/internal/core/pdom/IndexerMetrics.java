@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom;
+
+import java.util.List;
+
+import org.eclipse.cdt.internal.core.index.IWritableIndex;
+import org.eclipse.cdt.internal.core.index.IWritableIndexFragment;
+import org.eclipse.cdt.internal.core.pdom.IndexerStatistics.FileTime;
+
+/**
+ * Immutable snapshot of the progress, throughput and lock contention of an indexer task.
+ * The parsing time includes preprocessing, since the scanner is driven by the parser.
+ */
+public final class IndexerMetrics {
+	private final String fProject;
+	private final long fElapsedTime;
+	private final int fCompletedSources;
+	private final int fCompletedHeaders;
+	private final long fParsingTime;
+	private final long fResolutionTime;
+	private final long fAddToIndexTime;
+	private final long fWriteLockWaitTime;
+	private final int fDeclarationCount;
+	private final int fReferenceCount;
+	private final int fProblemBindingCount;
+	private final long fCacheHits;
+	private final long fCacheMisses;
+	private final LatencyHistogram fIndexerWriteLockWaits;
+	private final LatencyHistogram fReadLockWaits;
+	private final LatencyHistogram fWriteLockWaits;
+	private final FileTime[] fSlowestFiles;
+
+	public IndexerMetrics(String project, long elapsedTime, IndexerProgress progress,
+			IndexerStatistics statistics, IWritableIndex index) {
+		fProject= project;
+		fElapsedTime= elapsedTime;
+		fCompletedSources= progress.fCompletedSources;
+		fCompletedHeaders= progress.fCompletedHeaders;
+		fParsingTime= statistics.fParsingTime;
+		fResolutionTime= statistics.fResolutionTime;
+		fAddToIndexTime= statistics.fAddToIndexTime;
+		fWriteLockWaitTime= statistics.fWriteLockWaitTime;
+		fDeclarationCount= statistics.fDeclarationCount;
+		fReferenceCount= statistics.fReferenceCount;
+		fProblemBindingCount= statistics.fProblemBindingCount;
+		fIndexerWriteLockWaits= statistics.fWriteLockWaits.snapshot();
+		List<FileTime> slowest= statistics.getSlowestFiles();
+		fSlowestFiles= slowest.toArray(new FileTime[slowest.size()]);
+		IWritableIndexFragment fragment= index == null ? null : index.getWritableFragment();
+		if (fragment instanceof PDOM) {
+			fReadLockWaits= ((PDOM) fragment).getReadLockWaits();
+			fWriteLockWaits= ((PDOM) fragment).getWriteLockWaits();
+		} else {
+			fReadLockWaits= new LatencyHistogram();
+			fWriteLockWaits= new LatencyHistogram();
+		}
+		fCacheHits= index == null ? 0 : index.getCacheHits();
+		fCacheMisses= index == null ? 0 : index.getCacheMisses();
+	}
+
+	public String getProject() {
+		return fProject;
+	}
+
+	/** Wall clock time of the indexer task in milliseconds. */
+	public long getElapsedTime() {
+		return fElapsedTime;
+	}
+
+	public int getCompletedSources() {
+		return fCompletedSources;
+	}
+
+	public int getCompletedHeaders() {
+		return fCompletedHeaders;
+	}
+
+	/** Number of source and header files indexed per second of wall clock time. */
+	public double getFilesPerSecond() {
+		return fElapsedTime == 0 ? 0.0 : (fCompletedSources + fCompletedHeaders) * 1000.0 / fElapsedTime;
+	}
+
+	/** Time spent preprocessing and parsing in milliseconds. */
+	public long getParsingTime() {
+		return fParsingTime;
+	}
+
+	/** Time spent resolving names in milliseconds. */
+	public long getResolutionTime() {
+		return fResolutionTime;
+	}
+
+	/** Time spent writing to the index while holding the write lock, in milliseconds. */
+	public long getAddToIndexTime() {
+		return fAddToIndexTime;
+	}
+
+	/** Time the indexer spent waiting for the write lock, in milliseconds. */
+	public long getWriteLockWaitTime() {
+		return fWriteLockWaitTime;
+	}
+
+	public int getDeclarationCount() {
+		return fDeclarationCount;
+	}
+
+	public int getReferenceCount() {
+		return fReferenceCount;
+	}
+
+	public int getProblemBindingCount() {
+		return fProblemBindingCount;
+	}
+
+	public long getCacheHits() {
+		return fCacheHits;
+	}
+
+	public long getCacheMisses() {
+		return fCacheMisses;
+	}
+
+	public double getCacheHitRate() {
+		long tries= fCacheHits + fCacheMisses;
+		return tries == 0 ? 0.0 : (double) fCacheHits / tries;
+	}
+
+	/** Wait times of the write lock acquisitions made by the indexer task. */
+	public LatencyHistogram getIndexerWriteLockWaits() {
+		return fIndexerWriteLockWaits;
+	}
+
+	/** Wait times of all read lock acquisitions since the index was opened. */
+	public LatencyHistogram getReadLockWaits() {
+		return fReadLockWaits;
+	}
+
+	/** Wait times of all write lock acquisitions since the index was opened. */
+	public LatencyHistogram getWriteLockWaits() {
+		return fWriteLockWaits;
+	}
+
+	/** The slowest translation units, ordered by decreasing processing time. */
+	public FileTime[] getSlowestFiles() {
+		return fSlowestFiles.clone();
+	}
+
+	@SuppressWarnings("nls")
+	public String toJSON() {
+		StringBuilder buf= new StringBuilder();
+		buf.append("{\"project\":");
+		appendString(buf, fProject);
+		buf.append(",\"elapsedMillis\":").append(fElapsedTime);
+		buf.append(",\"completedSources\":").append(fCompletedSources);
+		buf.append(",\"completedHeaders\":").append(fCompletedHeaders);
+		buf.append(",\"filesPerSecond\":").append(Math.round(getFilesPerSecond() * 100) / 100.0);
+		buf.append(",\"phases\":{\"parseMillis\":").append(fParsingTime);
+		buf.append(",\"resolveMillis\":").append(fResolutionTime);
+		buf.append(",\"writeMillis\":").append(fAddToIndexTime);
+		buf.append(",\"writeLockWaitMillis\":").append(fWriteLockWaitTime);
+		buf.append("},\"names\":{\"declarations\":").append(fDeclarationCount);
+		buf.append(",\"references\":").append(fReferenceCount);
+		buf.append(",\"unresolved\":").append(fProblemBindingCount);
+		buf.append("},\"cache\":{\"hits\":").append(fCacheHits);
+		buf.append(",\"misses\":").append(fCacheMisses);
+		buf.append(",\"hitRate\":").append(Math.round(getCacheHitRate() * 10000) / 10000.0);
+		buf.append("},\"locks\":{\"indexerWriteWaits\":").append(fIndexerWriteLockWaits.toJSON());
+		buf.append(",\"readWaits\":").append(fReadLockWaits.toJSON());
+		buf.append(",\"writeWaits\":").append(fWriteLockWaits.toJSON());
+		buf.append("},\"slowestFiles\":[");
+		for (int i = 0; i < fSlowestFiles.length; i++) {
+			if (i > 0)
+				buf.append(',');
+			buf.append("{\"path\":");
+			appendString(buf, fSlowestFiles[i].fPath);
+			buf.append(",\"millis\":").append(fSlowestFiles[i].fTime).append('}');
+		}
+		buf.append("]}");
+		return buf.toString();
+	}
+
+	private static void appendString(StringBuilder buf, String str) {
+		buf.append('"');
+		for (int i = 0; i < str.length(); i++) {
+			char c= str.charAt(i);
+			switch (c) {
+			case '"':
+			case '\\':
+				buf.append('\\').append(c);
+				break;
+			case '\n':
+				buf.append("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				buf.append("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				buf.append("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				if (c < 0x20) {
+					buf.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+				} else {
+					buf.append(c);
+				}
+			}
+		}
+		buf.append('"');
+	}
+
+	@Override
+	public String toString() {
+		return toJSON();
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2007, 2014 Wind River Systems, Inc. and others.
+ * Copyright (c) 2007, 2017 Wind River Systems, Inc. and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -11,10 +11,17 @@
 
 package org.eclipse.cdt.internal.core.pdom;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class IndexerStatistics {
+	/** Number of translation units kept in the list of slowest ones. */
+	public static final int SLOWEST_FILES_COUNT = 10;
+
 	public int fResolutionTime;
 	public int fParsingTime;
 	public int fAddToIndexTime;
+	public int fWriteLockWaitTime;
 	public int fErrorCount;
 	public int fReferenceCount= 0;
 	public int fDeclarationCount= 0;
@@ -23,4 +30,38 @@ public class IndexerStatistics {
 	public int fPreprocessorProblemCount= 0;
 	public int fSyntaxProblemsCount= 0;
 	public int fTooManyTokensCount= 0;
+	public final LatencyHistogram fWriteLockWaits= new LatencyHistogram();
+
+	/** The slowest translation units, ordered by decreasing processing time. */
+	private final List<FileTime> fSlowestFiles= new ArrayList<>();
+
+	public static final class FileTime {
+		public final String fPath;
+		public final long fTime;
+
+		FileTime(String path, long time) {
+			fPath= path;
+			fTime= time;
+		}
+	}
+
+	/**
+	 * Records the time in milliseconds it took to parse a translation unit and add it to the index.
+	 */
+	public synchronized void recordFileTime(String path, long time) {
+		int size= fSlowestFiles.size();
+		if (size == SLOWEST_FILES_COUNT && fSlowestFiles.get(size - 1).fTime >= time)
+			return;
+		int i= size;
+		while (i > 0 && fSlowestFiles.get(i - 1).fTime < time) {
+			i--;
+		}
+		fSlowestFiles.add(i, new FileTime(path, time));
+		if (fSlowestFiles.size() > SLOWEST_FILES_COUNT)
+			fSlowestFiles.remove(SLOWEST_FILES_COUNT);
+	}
+
+	public synchronized List<FileTime> getSlowestFiles() {
+		return new ArrayList<>(fSlowestFiles);
+	}
 }
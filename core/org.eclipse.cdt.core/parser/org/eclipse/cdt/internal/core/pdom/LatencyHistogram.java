@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of wait times with power-of-two millisecond buckets. Bucket 0 counts waits shorter
+ * than one millisecond, bucket {@code i} counts waits in the range [2<sup>i-1</sup>, 2<sup>i</sup>)
+ * milliseconds. The last bucket also counts all longer waits.
+ * <p>
+ * Recording does not lock, such that it can be done on the hot path of acquiring a lock.
+ * A snapshot taken while waits are recorded may therefore be off by the waits in flight.
+ */
+public final class LatencyHistogram {
+	public static final int BUCKET_COUNT = 16;
+
+	private final AtomicLongArray fBuckets;
+	private final LongAdder fCount= new LongAdder();
+	private final LongAdder fTotalTime= new LongAdder();
+	private final AtomicLong fMaxTime= new AtomicLong();
+
+	public LatencyHistogram() {
+		fBuckets= new AtomicLongArray(BUCKET_COUNT);
+	}
+
+	private LatencyHistogram(LatencyHistogram other) {
+		fBuckets= new AtomicLongArray(other.getBucketCounts());
+		fCount.add(other.getCount());
+		fTotalTime.add(other.getTotalTime());
+		fMaxTime.set(other.getMaxTime());
+	}
+
+	/**
+	 * Records a wait of the given number of milliseconds.
+	 */
+	public void record(long millis) {
+		if (millis < 0)
+			millis= 0;
+		int bucket= 64 - Long.numberOfLeadingZeros(millis);
+		fBuckets.incrementAndGet(Math.min(bucket, BUCKET_COUNT - 1));
+		fCount.increment();
+		if (millis > 0) {
+			fTotalTime.add(millis);
+			long max;
+			while (millis > (max= fMaxTime.get()) && !fMaxTime.compareAndSet(max, millis)) {
+				// Retry
+			}
+		}
+	}
+
+	/**
+	 * Returns a copy of the current state of this histogram.
+	 */
+	public LatencyHistogram snapshot() {
+		return new LatencyHistogram(this);
+	}
+
+	/**
+	 * Returns the exclusive upper bound in milliseconds of the given bucket, or
+	 * {@link Long#MAX_VALUE} for the last bucket.
+	 */
+	public static long getBucketLimit(int bucket) {
+		return bucket >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << bucket;
+	}
+
+	public long[] getBucketCounts() {
+		long[] counts= new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i]= fBuckets.get(i);
+		}
+		return counts;
+	}
+
+	public long getCount() {
+		return fCount.sum();
+	}
+
+	public long getTotalTime() {
+		return fTotalTime.sum();
+	}
+
+	public long getMaxTime() {
+		return fMaxTime.get();
+	}
+
+	@SuppressWarnings("nls")
+	public String toJSON() {
+		StringBuilder buf= new StringBuilder();
+		buf.append("{\"count\":").append(getCount());
+		buf.append(",\"totalMillis\":").append(getTotalTime());
+		buf.append(",\"maxMillis\":").append(getMaxTime());
+		buf.append(",\"bucketLimitsMillis\":[");
+		for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+			if (i > 0)
+				buf.append(',');
+			buf.append(getBucketLimit(i));
+		}
+		buf.append("],\"bucketCounts\":[");
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			if (i > 0)
+				buf.append(',');
+			buf.append(fBuckets.get(i));
+		}
+		buf.append("]}");
+		return buf.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() + ", total=" + getTotalTime() + "ms, max=" + getMaxTime() + "ms, buckets=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				+ Arrays.toString(getBucketCounts());
+	}
+}
@@ -21,6 +21,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -70,6 +71,7 @@ import org.eclipse.cdt.internal.core.index.IIndexFragmentFileSet;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentInclude;
 import org.eclipse.cdt.internal.core.index.IIndexFragmentName;
 import org.eclipse.cdt.internal.core.index.IIndexScope;
+import org.eclipse.cdt.internal.core.parser.util.ContentAssistMatcherFactory;
 import org.eclipse.cdt.internal.core.pdom.db.BTree;
 import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
 import org.eclipse.cdt.internal.core.pdom.db.DBProperties;
@@ -111,6 +113,16 @@ public class PDOM extends PlatformObject implements IPDOM {
 	private static final int LONG_WRITE_LOCK_REPORT_THRESHOLD = 1000;
 	private static final int LONG_READ_LOCK_WAIT_REPORT_THRESHOLD = 1000;
 	static boolean sDEBUG_LOCKS; // Initialized in the PDOMManager, because IBM needs PDOM independent of runtime plugin.
+	/** Set to false to answer wildcard searches by visiting all bindings, e.g. to compare the performance. */
+	public static boolean USE_NAME_TRIGRAM_INDEX= !Boolean.getBoolean("org.eclipse.cdt.core.pdom.noTrigramIndex"); //$NON-NLS-1$
+	/** Set to false to search the indexes for every prefix lookup of content assist. */
+	public static boolean USE_PREFIX_LOOKUP_CACHE= !Boolean.getBoolean("org.eclipse.cdt.core.pdom.noPrefixLookupCache"); //$NON-NLS-1$
+	/**
+	 * Property that is present while a bulk load is in progress or after it has been interrupted,
+	 * the indexes deferred by the bulk load are incomplete in this case.
+	 * @see WritablePDOM#beginBulkLoad()
+	 */
+	static final String PROPERTY_BULK_LOAD= "org.eclipse.cdt.internal.core.pdom.bulkLoad"; //$NON-NLS-1$
 
 	/**
 	 * Identifier for PDOM format
@@ -283,10 +295,16 @@ public class PDOM extends PlatformObject implements IPDOM {
 	 *  
 	 *  CDT 9.3 development (versions not supported on the 9.2.x branch)
 	 *  207.0 - Store a caller record for macro reference names.
+	 *  208.0 - Trigram index of binding names for substring and wildcard searches.
+	 *  209.0 - Reference counts and reference tables ordered by file for bindings.
+	 *  210.0 - Subtype index of C++ base classes.
+	 *  211.0 - Count of C++ base classes missing from the subtype index.
+	 *  212.0 - C++ base classes missing from the subtype index are stored by name.
+	 *  213.0 - Reference counts and reference tables of bindings removed again.
 	 */
-	private static final int MIN_SUPPORTED_VERSION= version(207, 0);
-	private static final int MAX_SUPPORTED_VERSION= version(207, Short.MAX_VALUE);
-	private static final int DEFAULT_VERSION = version(207, 0);
+	private static final int MIN_SUPPORTED_VERSION= version(213, 0);
+	private static final int MAX_SUPPORTED_VERSION= version(213, Short.MAX_VALUE);
+	private static final int DEFAULT_VERSION = version(213, 0);
 
 	private static int version(int major, int minor) {
 		return (major << 16) + minor;
@@ -389,6 +407,8 @@ public class PDOM extends PlatformObject implements IPDOM {
 	private BTree indexOfDefectiveFiles;
 	private BTree indexOfFiledWithUnresolvedIncludes;
 	private final Map<Integer, PDOMLinkage> fLinkageIDCache = new HashMap<>();
+	private volatile IncludeGraph fIncludeGraph;
+	private final PrefixLookupCache fPrefixLookupCache= new PrefixLookupCache();
 	private File fPath;
 	private final IIndexLocationConverter locationConverter;
 	private final Map<String, IPDOMLinkageFactory> fPDOMLinkageFactoryCache;
@@ -474,7 +494,7 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return fLinkageIDCache.get(linkageID);
 	}
 
-	private Collection<PDOMLinkage> getLinkageList() {
+	Collection<PDOMLinkage> getLinkageList() {
 		return fLinkageIDCache.values();
 	}
 
@@ -789,6 +809,15 @@ public class PDOM extends PlatformObject implements IPDOM {
 			}
 		}
 
+		if (patterns.length == 1 && !isFullyQualified && USE_NAME_TRIGRAM_INDEX && areDeferredIndexesComplete()) {
+			char[][] literals= extractLiterals(patterns[0]);
+			if (literals != null) {
+				IIndexFragmentBinding[] result= findBindingsViaTrigramIndex(patterns[0], literals, filter, monitor);
+				if (result != null)
+					return result;
+			}
+		}
+
 		BindingFinder finder = new BindingFinder(patterns, isFullyQualified, filter, monitor);
 		for (PDOMLinkage linkage : getLinkageList()) {
 			if (filter.acceptLinkage(linkage)) {
@@ -804,6 +833,22 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return finder.getBindings();
 	}
 
+	/**
+	 * Returns whether the indexes deferred by a bulk load, the trigram index and the indexes of
+	 * bases, are complete.
+	 */
+	private boolean areDeferredIndexesComplete() throws CoreException {
+		return !fBulkLoading && getProperty(PROPERTY_BULK_LOAD) == null;
+	}
+
+	/**
+	 * Returns whether additions to secondary indexes are currently deferred, see
+	 * {@link WritablePDOM#beginBulkLoad()}.
+	 */
+	public boolean isBulkLoading() {
+		return fBulkLoading;
+	}
+
 	private Boolean getCaseSensitive(Pattern[] patterns) {
 		Boolean caseSensitive= null;
 		for (Pattern p : patterns) {
@@ -859,6 +904,71 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return null;
 	}
 
+	/**
+	 * Searches for the bindings matching the pattern among the candidates provided by the name trigram
+	 * index of the linkages.
+	 * @return the bindings found, or <code>null</code> if the index cannot narrow down the search.
+	 */
+	private IIndexFragmentBinding[] findBindingsViaTrigramIndex(Pattern pattern, char[][] literals,
+			IndexFilter filter, IProgressMonitor monitor) throws CoreException {
+		List<PDOMLinkage> linkages= new ArrayList<>();
+		List<long[]> candidates= new ArrayList<>();
+		for (PDOMLinkage linkage : getLinkageList()) {
+			if (filter.acceptLinkage(linkage)) {
+				long[] records= linkage.getNameTrigramIndex().findCandidates(literals);
+				if (records == null)
+					return null;
+				linkages.add(linkage);
+				candidates.add(records);
+			}
+		}
+
+		List<IIndexFragmentBinding> result= new ArrayList<>();
+		for (int i = 0; i < linkages.size(); i++) {
+			PDOMLinkage linkage= linkages.get(i);
+			for (long record : candidates.get(i)) {
+				if (monitor.isCanceled())
+					return IIndexFragmentBinding.EMPTY_INDEX_BINDING_ARRAY;
+				PDOMBinding binding= linkage.getBinding(record);
+				if (binding != null && pattern.matcher(new String(binding.getNameCharArray())).matches()
+						&& filter.acceptBinding(binding)) {
+					result.add(binding);
+				}
+			}
+		}
+		return result.toArray(new IIndexFragmentBinding[result.size()]);
+	}
+
+	/**
+	 * Returns the maximal runs of literal characters of a pattern made of identifier characters and
+	 * the wildcards <code>.</code> and <code>.*</code>. All runs are contained in every name matching
+	 * the pattern.
+	 * @return the literals, or <code>null</code> if the pattern has a different form.
+	 */
+	private char[][] extractLiterals(Pattern pattern) {
+		if ((pattern.flags() & ~Pattern.CASE_INSENSITIVE) != 0)
+			return null;
+
+		List<char[]> literals= new ArrayList<>();
+		String p= pattern.pattern();
+		int start= 0;
+		for (int i = 0; i < p.length(); i++) {
+			char c= p.charAt(i);
+			if (c == '.') {
+				if (i > start)
+					literals.add(p.substring(start, i).toCharArray());
+				if (i + 1 < p.length() && p.charAt(i + 1) == '*')
+					i++;
+				start= i + 1;
+			} else if (!Character.isLetterOrDigit(c) && c != '_') {
+				return null;
+			}
+		}
+		if (p.length() > start)
+			literals.add(p.substring(start).toCharArray());
+		return literals.toArray(new char[literals.size()][]);
+	}
+
 	@Override
 	public IIndexFragmentBinding[] findMacroContainers(Pattern pattern, IndexFilter filter,
 			IProgressMonitor monitor) throws CoreException {
@@ -972,22 +1082,31 @@ public class PDOM extends PlatformObject implements IPDOM {
 	// Writers conflict with readers, and everyone conflicts with writers.
 	private final Object mutex = new Object();
 	private int lockCount;
+	/** Whether additions to secondary indexes are deferred, requires the write lock to change. */
+	boolean fBulkLoading;
 	private int waitingReaders;
 	private long lastWriteAccess= 0;
 	private long lastReadAccess= 0;
 	private long timeWriteLockAcquired;
+	private final LatencyHistogram fReadLockWaits= new LatencyHistogram();
+	private final LatencyHistogram fWriteLockWaits= new LatencyHistogram();
 
 	@Override
 	public void acquireReadLock() throws InterruptedException {
 		long t = sDEBUG_LOCKS ? System.nanoTime() : 0;
 		synchronized (mutex) {
 			++waitingReaders;
+			long waitStart= 0;
 			try {
-				while (lockCount < 0)
+				while (lockCount < 0) {
+					if (waitStart == 0)
+						waitStart= System.nanoTime();
 					mutex.wait();
+				}
 			} finally {
 				--waitingReaders;
 			}
+			fReadLockWaits.record(waitStart == 0 ? 0 : (System.nanoTime() - waitStart) / 1000000);
 			++lockCount;
 			db.setLocked(true);
 
@@ -1058,8 +1177,11 @@ public class PDOM extends PlatformObject implements IPDOM {
 
 			// Let the readers go first
 			long start= sDEBUG_LOCKS ? System.currentTimeMillis() : 0;
+			long waitStart= 0;
 			int count = 0;
 			while (lockCount > giveupReadLocks || waitingReaders > 0) {
+				if (waitStart == 0)
+					waitStart= System.nanoTime();
 				mutex.wait(CANCELLATION_CHECK_INTERVAL);
 				if (monitor != null && monitor.isCanceled()) {
 					throw new OperationCanceledException();
@@ -1072,7 +1194,9 @@ public class PDOM extends PlatformObject implements IPDOM {
 					start = reportBlockedWriteLock(start, giveupReadLocks);
 				}
 			}
+			fWriteLockWaits.record(waitStart == 0 ? 0 : (System.nanoTime() - waitStart) / 1000000);
 			lockCount= -1;
+			fPrefixLookupCache.clear();
 			if (sDEBUG_LOCKS)
 				timeWriteLockAcquired = System.currentTimeMillis();
 			db.setExclusiveLock();
@@ -1222,6 +1346,37 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return names.toArray(new IIndexFragmentName[names.size()]);
 	}
 
+	@Override
+	public IIndexFragmentName[] findSubclassDefinitions(IBinding binding) throws CoreException {
+		IIndexFragmentBinding myBinding= adaptBinding(binding);
+		if (myBinding instanceof PDOMBinding) {
+			PDOMBinding pdomBinding= (PDOMBinding) myBinding;
+			ArrayList<IIndexFragmentName> names= new ArrayList<>();
+			if (!areDeferredIndexesComplete()) {
+				// The subtype index is incomplete, the subclasses are found via the base specifiers
+				// referencing the class.
+				ArrayList<IIndexFragmentName> references= new ArrayList<>();
+				findNamesForMyBinding(pdomBinding, FIND_REFERENCES | FIND_DEFINITIONS, references);
+				for (IIndexFragmentName reference : references) {
+					if (reference.isBaseSpecifier()) {
+						IIndexFragmentName classDefName= (IIndexFragmentName) reference.getEnclosingDefinition();
+						if (classDefName != null) {
+							names.add(classDefName);
+						}
+					}
+				}
+				return names.toArray(new IIndexFragmentName[names.size()]);
+			}
+			for (PDOMName name : pdomBinding.getLinkage().findSubclassDefinitions(pdomBinding)) {
+				if (isCommitted(name)) {
+					names.add(name);
+				}
+			}
+			return names.toArray(new IIndexFragmentName[names.size()]);
+		}
+		return IIndexFragmentName.EMPTY_NAME_ARRAY;
+	}
+
 	private void findNamesForMyBinding(PDOMBinding pdomBinding, int options, ArrayList<IIndexFragmentName> names)
 			throws CoreException {
 		PDOMName name;
@@ -1309,6 +1464,58 @@ public class PDOM extends PlatformObject implements IPDOM {
 		return new PDOMInclude[0];
 	}
 
+	/**
+	 * Discards the cached include graph. Must be called with the write lock whenever an include
+	 * is added, removed or moved, or a file changes between being indexed and not being indexed.
+	 */
+	public void includesChanged() {
+		fIncludeGraph= null;
+	}
+
+	@Override
+	public IIndexFragmentInclude[] findIncludedBy(IIndexFragmentFile file, int depth) throws CoreException {
+		PDOMFile pdomFile= adaptFile(file);
+		if (pdomFile == null)
+			return new PDOMInclude[0];
+
+		boolean writeLocked;
+		synchronized (mutex) {
+			writeLocked= lockCount < 0;
+		}
+		if (!writeLocked) {
+			// The include graph is discarded when the include relation changes.
+			IncludeGraph graph= fIncludeGraph;
+			if (graph == null) {
+				graph= IncludeGraph.create(this);
+				fIncludeGraph= graph;
+			}
+			return graph.findIncludedBy(pdomFile.getRecord(), depth);
+		}
+
+		// The database is being modified, walk the include records.
+		List<PDOMInclude> result= new ArrayList<>();
+		Set<Long> handled= new HashSet<>();
+		List<PDOMFile> level= Collections.singletonList(pdomFile);
+		while (true) {
+			List<PDOMFile> nextLevel= new ArrayList<>();
+			for (PDOMFile f : level) {
+				for (PDOMInclude i= f.getFirstIncludedBy(); i != null; i= i.getNextInIncludedBy()) {
+					PDOMFile includer= (PDOMFile) i.getIncludedBy();
+					if (includer.getTimestamp() > 0 && handled.add(includer.getRecord())) {
+						result.add(i);
+						nextLevel.add(includer);
+					}
+				}
+			}
+			if (depth == 0 || nextLevel.isEmpty())
+				break;
+			if (depth > 0)
+				depth--;
+			level= nextLevel;
+		}
+		return result.toArray(new PDOMInclude[result.size()]);
+	}
+
 	private PDOMFile adaptFile(IIndexFragmentFile file) throws CoreException {
 		if (file.getIndexFragment() == this && file instanceof PDOMFile) {
 			return (PDOMFile) file;
@@ -1349,11 +1556,31 @@ public class PDOM extends PlatformObject implements IPDOM {
 						new BindingCollector(linkage, prefix, filter, !isContentAssist, isContentAssist, caseSensitive);
 				visitor.setMonitor(monitor);
 				try {
-					linkage.accept(visitor);
-					if (!filescope) {
-						// Avoid adding unscoped enumerator items twice
-						visitor.setSkipGlobalEnumerators(true);
-						linkage.getNestedBindingsIndex().accept(visitor);
+					if (USE_PREFIX_LOOKUP_CACHE) {
+						// Match the nodes of the range of the prefix, they may have been found
+						// for a shorter prefix already.
+						char[] searchPrefix= isContentAssist ?
+								ContentAssistMatcherFactory.getInstance().createMatcher(prefix).getPrefixForBinarySearch() :
+								prefix;
+						PrefixLookupCache.Candidates candidates= fPrefixLookupCache.getCandidates(linkage,
+								searchPrefix, filescope, caseSensitive && !isContentAssist, monitor);
+						for (PDOMNamedNode node : candidates.fTopLevel) {
+							visitor.visit(node);
+						}
+						if (!filescope) {
+							// Avoid adding unscoped enumerator items twice
+							visitor.setSkipGlobalEnumerators(true);
+							for (PDOMNamedNode node : candidates.fNested) {
+								visitor.visit(node);
+							}
+						}
+					} else {
+						linkage.accept(visitor);
+						if (!filescope) {
+							// Avoid adding unscoped enumerator items twice
+							visitor.setSkipGlobalEnumerators(true);
+							linkage.getNestedBindingsIndex().accept(visitor);
+						}
 					}
 				} catch (OperationCanceledException e) {
 				}
@@ -1483,6 +1710,10 @@ public class PDOM extends PlatformObject implements IPDOM {
 		indexOfDefectiveFiles= null;
 		indexOfFiledWithUnresolvedIncludes= null;
 		fLinkageIDCache.clear();
+		// Additions deferred by the linkages are lost.
+		fBulkLoading= false;
+		fIncludeGraph= null;
+		fPrefixLookupCache.clear();
 		clearResultCache();
 	}
 
@@ -1508,6 +1739,20 @@ public class PDOM extends PlatformObject implements IPDOM {
 		db.resetCacheCounters();
 	}
 
+	/**
+	 * Returns a snapshot of the times spent waiting for the read lock since this PDOM was created.
+	 */
+	public LatencyHistogram getReadLockWaits() {
+		return fReadLockWaits.snapshot();
+	}
+
+	/**
+	 * Returns a snapshot of the times spent waiting for the write lock since this PDOM was created.
+	 */
+	public LatencyHistogram getWriteLockWaits() {
+		return fWriteLockWaits.snapshot();
+	}
+
 	protected void flush() throws CoreException {
 		db.flush();
 	}
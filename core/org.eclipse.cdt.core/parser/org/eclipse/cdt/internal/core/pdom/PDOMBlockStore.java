@@ -0,0 +1,522 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.osgi.util.NLS;
+
+/**
+ * Stores exported databases in a shared directory as blocks named by the hash of their content.
+ * A manifest lists the blocks a database is made of. Blocks that are already present in the
+ * directory are not written again, when a database is read only the blocks that differ from a
+ * previously read copy are taken from the directory. Like that an export can be updated by
+ * writing only the parts of the database that have changed, and importing the update copies
+ * only these parts.
+ * <p>
+ * The boundaries of the blocks are defined by their content rather than by their offset, a
+ * block ends where a rolling hash of the preceding bytes matches a pattern. Content that moves
+ * to a different offset in a regenerated database therefore still yields the same blocks.
+ * <p>
+ * Blocks are written to temporary files and renamed, the manifest is replaced last. A reader
+ * therefore sees either the old or the new version of the database. After writing, blocks
+ * referenced by none of the manifests in the directory are removed.
+ */
+public class PDOMBlockStore {
+	/** File extension of manifests, an import or export location with this extension uses a block store. */
+	public static final String MANIFEST_EXTENSION = ".pdomblocks"; //$NON-NLS-1$
+
+	/** Blocks are at least this large, unless they end the database. */
+	public static final int MIN_BLOCK_SIZE = 4 * Database.CHUNK_SIZE;
+	/** Blocks are at most this large. */
+	public static final int MAX_BLOCK_SIZE = 64 * Database.CHUNK_SIZE;
+	/** A block ends where the rolling hash has these bits cleared, which gives blocks of 64KB on average. */
+	private static final long BOUNDARY_MASK = (16 * Database.CHUNK_SIZE) - 1;
+	/** Blocks and temporary files younger than this are kept, they may belong to an ongoing export. */
+	public static final long PRUNE_DELAY = 60 * 60 * 1000;
+
+	private static final String FORMAT = "cdt-pdom-blocks 2"; //$NON-NLS-1$
+	private static final String KEY_ALGORITHM = "algorithm"; //$NON-NLS-1$
+	private static final String KEY_LENGTH = "length"; //$NON-NLS-1$
+	private static final String KEY_CHECKSUMS = "checksums"; //$NON-NLS-1$
+	private static final String KEY_BLOCK = "block"; //$NON-NLS-1$
+	private static final String BLOCKS_DIRECTORY = "blocks"; //$NON-NLS-1$
+	private static final String ALGORITHM = "SHA-1"; //$NON-NLS-1$
+	private static final String TMP_SUFFIX = ".tmp"; //$NON-NLS-1$
+
+	/** Random values for the bytes, part of the format as they determine the block boundaries. */
+	private static final long[] GEAR = new long[256];
+	static {
+		Random random= new Random(0x5bd1e995L);
+		for (int i = 0; i < GEAR.length; i++) {
+			GEAR[i]= random.nextLong();
+		}
+	}
+
+	private final File fManifest;
+	private final File fBlockDirectory;
+
+	public PDOMBlockStore(File manifest) {
+		fManifest= manifest;
+		fBlockDirectory= new File(manifest.getAbsoluteFile().getParentFile(), BLOCKS_DIRECTORY);
+	}
+
+	/**
+	 * Returns whether the given import or export location denotes a block store.
+	 */
+	public static boolean isManifest(File location) {
+		return location.getName().endsWith(MANIFEST_EXTENSION);
+	}
+
+	/**
+	 * Stores the given database and, optionally, the file with its checksums. Returns the number
+	 * of blocks that had to be written.
+	 */
+	public int write(File database, File checksums, IProgressMonitor monitor) throws IOException {
+		final MessageDigest md= getDigest();
+		int written= 0;
+		List<Block> blocks= new ArrayList<>();
+		long length= 0;
+		try (InputStream in= new FileInputStream(database)) {
+			Chunker chunker= new Chunker(in);
+			int size;
+			while ((size= chunker.next()) > 0) {
+				checkMonitor(monitor);
+				String hash= hash(md, chunker.fBuffer, size);
+				if (writeBlock(hash, chunker.fBuffer, size))
+					written++;
+				blocks.add(new Block(hash, size));
+				length+= size;
+			}
+		}
+		String checksumsHash= null;
+		if (checksums != null) {
+			byte[] content= readFully(checksums);
+			checksumsHash= hash(md, content, content.length);
+			if (writeBlock(checksumsHash, content, content.length))
+				written++;
+		}
+		writeManifest(blocks, length, checksumsHash);
+		try {
+			prune(PRUNE_DELAY);
+		} catch (CoreException e) {
+			// The manifest of another export could not be read, its blocks must be kept.
+			CCorePlugin.log(e);
+		}
+		return written;
+	}
+
+	/**
+	 * Updates the given file to the database of the store. The blocks already contained in the
+	 * file are not read from the store. Returns the number of blocks read from the store.
+	 */
+	public int read(File database, IProgressMonitor monitor) throws CoreException, IOException {
+		final Manifest manifest= readManifest();
+		final MessageDigest md= getDigest();
+		final byte[] buffer= new byte[MAX_BLOCK_SIZE];
+
+		// Index the blocks of the previous copy by their hash.
+		Map<String, Long> available= new HashMap<>();
+		if (database.isFile()) {
+			try (InputStream in= new FileInputStream(database)) {
+				Chunker chunker= new Chunker(in);
+				long offset= 0;
+				int size;
+				while ((size= chunker.next()) > 0) {
+					checkMonitor(monitor);
+					available.putIfAbsent(hash(md, chunker.fBuffer, size), offset);
+					offset+= size;
+				}
+			}
+		}
+
+		int fetched= 0;
+		File tmp= new File(database.getPath() + TMP_SUFFIX);
+		try (RandomAccessFile previous= database.isFile() ? new RandomAccessFile(database, "r") : null; //$NON-NLS-1$
+				OutputStream out= new FileOutputStream(tmp)) {
+			for (Block block : manifest.fBlocks) {
+				checkMonitor(monitor);
+				Long offset= available.get(block.fHash);
+				if (offset != null && previous != null) {
+					previous.seek(offset);
+					previous.readFully(buffer, 0, block.fSize);
+				} else {
+					readBlock(block.fHash, buffer, block.fSize, md);
+					fetched++;
+				}
+				out.write(buffer, 0, block.fSize);
+			}
+		} catch (IOException | CoreException e) {
+			tmp.delete();
+			throw e;
+		}
+		replace(tmp, database);
+		return fetched;
+	}
+
+	/**
+	 * Returns the content of the checksums file stored with the database, or <code>null</code>.
+	 */
+	public byte[] readChecksums() throws CoreException, IOException {
+		final Manifest manifest= readManifest();
+		if (manifest.fChecksums == null)
+			return null;
+		return readBlock(manifest.fChecksums, null, -1, getDigest());
+	}
+
+	/**
+	 * Returns the length of the database of the store.
+	 */
+	public long getLength() throws CoreException, IOException {
+		return readManifest().fLength;
+	}
+
+	/**
+	 * Returns the number of bytes of the database of this store that are in blocks of the other
+	 * store, i.e. the part of this database an import takes from a copy of the other database.
+	 */
+	public long getSharedLength(PDOMBlockStore other) throws CoreException, IOException {
+		Set<String> otherBlocks= new HashSet<>();
+		for (Block block : other.readManifest().fBlocks) {
+			otherBlocks.add(block.fHash);
+		}
+		long shared= 0;
+		for (Block block : readManifest().fBlocks) {
+			if (otherBlocks.contains(block.fHash))
+				shared+= block.fSize;
+		}
+		return shared;
+	}
+
+	/**
+	 * Removes the blocks that are referenced by none of the manifests stored next to the manifest
+	 * of this store, and temporary files left behind by interrupted exports. Files modified less
+	 * than the given number of milliseconds ago are kept. Returns the number of files removed.
+	 * @throws CoreException if one of the manifests cannot be read, nothing is removed then.
+	 */
+	public int prune(long minAge) throws CoreException, IOException {
+		Set<String> referenced= new HashSet<>();
+		File[] manifests= fBlockDirectory.getParentFile().listFiles();
+		if (manifests != null) {
+			for (File file : manifests) {
+				if (file.isFile() && isManifest(file)) {
+					Manifest manifest= new PDOMBlockStore(file).readManifest();
+					for (Block block : manifest.fBlocks) {
+						referenced.add(block.fHash);
+					}
+					if (manifest.fChecksums != null) {
+						referenced.add(manifest.fChecksums);
+					}
+				}
+			}
+		}
+		final long limit= System.currentTimeMillis() - minAge;
+		int removed= 0;
+		File[] dirs= fBlockDirectory.listFiles();
+		if (dirs != null) {
+			for (File dir : dirs) {
+				File[] files= dir.listFiles();
+				if (files == null)
+					continue;
+				for (File file : files) {
+					if (!referenced.contains(file.getName()) && file.lastModified() <= limit && file.delete()) {
+						removed++;
+					}
+				}
+				dir.delete(); // Succeeds only if the directory is empty.
+			}
+		}
+		return removed;
+	}
+
+	private static final class Block {
+		final String fHash;
+		final int fSize;
+
+		Block(String hash, int size) {
+			fHash= hash;
+			fSize= size;
+		}
+	}
+
+	private static final class Manifest {
+		long fLength;
+		String fChecksums;
+		final List<Block> fBlocks= new ArrayList<>();
+	}
+
+	/**
+	 * Splits a stream into blocks at the positions where the rolling hash of the content
+	 * matches the boundary pattern.
+	 */
+	private static final class Chunker {
+		final InputStream fIn;
+		final byte[] fBuffer= new byte[MAX_BLOCK_SIZE];
+		/** Number of valid bytes in the buffer. */
+		int fFilled;
+		/** Length of the block returned last, it is removed from the buffer on the next call. */
+		int fLast;
+		boolean fEOF;
+
+		Chunker(InputStream in) {
+			fIn= in;
+		}
+
+		/**
+		 * Moves the next block to the start of the buffer and returns its length, or 0 at the end
+		 * of the stream.
+		 */
+		int next() throws IOException {
+			fFilled-= fLast;
+			System.arraycopy(fBuffer, fLast, fBuffer, 0, fFilled);
+			while (!fEOF && fFilled < fBuffer.length) {
+				int read= fIn.read(fBuffer, fFilled, fBuffer.length - fFilled);
+				if (read < 0) {
+					fEOF= true;
+				} else {
+					fFilled+= read;
+				}
+			}
+			fLast= findBoundary(fBuffer, fFilled);
+			return fLast;
+		}
+
+		private static int findBoundary(byte[] buffer, int length) {
+			if (length <= MIN_BLOCK_SIZE)
+				return length;
+			long hash= 0;
+			for (int i = MIN_BLOCK_SIZE - 64; i < length; i++) {
+				hash= (hash << 1) + GEAR[buffer[i] & 0xff];
+				if (i >= MIN_BLOCK_SIZE && (hash & BOUNDARY_MASK) == 0)
+					return i + 1;
+			}
+			return length;
+		}
+	}
+
+	private void writeManifest(List<Block> blocks, long length, String checksums) throws IOException {
+		File tmp= new File(fManifest.getPath() + TMP_SUFFIX);
+		fManifest.getAbsoluteFile().getParentFile().mkdirs();
+		try (BufferedWriter out= new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+			out.write(FORMAT);
+			out.newLine();
+			writeEntry(out, KEY_ALGORITHM, ALGORITHM);
+			writeEntry(out, KEY_LENGTH, String.valueOf(length));
+			if (checksums != null) {
+				writeEntry(out, KEY_CHECKSUMS, checksums);
+			}
+			for (Block block : blocks) {
+				writeEntry(out, KEY_BLOCK, block.fHash + ' ' + block.fSize);
+			}
+		}
+		replace(tmp, fManifest);
+	}
+
+	private static void writeEntry(BufferedWriter out, String key, String value) throws IOException {
+		out.write(key);
+		out.write(' ');
+		out.write(value);
+		out.newLine();
+	}
+
+	private Manifest readManifest() throws CoreException, IOException {
+		Manifest manifest= new Manifest();
+		long length= 0;
+		try (BufferedReader in= new BufferedReader(
+				new InputStreamReader(new FileInputStream(fManifest), StandardCharsets.UTF_8))) {
+			if (!FORMAT.equals(in.readLine()))
+				throw invalidManifest();
+			String line;
+			while ((line= in.readLine()) != null) {
+				int space= line.indexOf(' ');
+				if (space < 0)
+					throw invalidManifest();
+				String key= line.substring(0, space);
+				String value= line.substring(space + 1);
+				switch (key) {
+				case KEY_ALGORITHM:
+					if (!ALGORITHM.equals(value))
+						throw invalidManifest();
+					break;
+				case KEY_LENGTH:
+					manifest.fLength= Long.parseLong(value);
+					break;
+				case KEY_CHECKSUMS:
+					manifest.fChecksums= value;
+					break;
+				case KEY_BLOCK:
+					space= value.indexOf(' ');
+					if (space < 0)
+						throw invalidManifest();
+					int size= Integer.parseInt(value.substring(space + 1));
+					if (size <= 0 || size > MAX_BLOCK_SIZE)
+						throw invalidManifest();
+					manifest.fBlocks.add(new Block(value.substring(0, space), size));
+					length+= size;
+					break;
+				default:
+					// Ignore unknown keys, they may be added by later versions.
+					break;
+				}
+			}
+		} catch (NumberFormatException e) {
+			throw invalidManifest();
+		}
+		if (length != manifest.fLength)
+			throw invalidManifest();
+		return manifest;
+	}
+
+	private CoreException invalidManifest() {
+		return new CoreException(CCorePlugin.createStatus(
+				NLS.bind(Messages.PDOMBlockStore_errorInvalidManifest, fManifest)));
+	}
+
+	private File getBlockFile(String hash) {
+		return new File(new File(fBlockDirectory, hash.substring(0, 2)), hash);
+	}
+
+	/**
+	 * Writes a block unless it is present already, returns whether it was written.
+	 */
+	private boolean writeBlock(String hash, byte[] content, int length) throws IOException {
+		File file= getBlockFile(hash);
+		if (file.isFile()) {
+			// Protect the block from being pruned by a concurrent export.
+			file.setLastModified(System.currentTimeMillis());
+			return false;
+		}
+		file.getParentFile().mkdirs();
+		File tmp= new File(file.getPath() + TMP_SUFFIX);
+		try (OutputStream out= new DeflaterOutputStream(new FileOutputStream(tmp))) {
+			out.write(content, 0, length);
+		}
+		replace(tmp, file);
+		return true;
+	}
+
+	/**
+	 * Reads a block into the buffer and verifies its hash. If the length is negative, the block
+	 * is returned in a new array.
+	 */
+	private byte[] readBlock(String hash, byte[] buffer, int length, MessageDigest md)
+			throws CoreException, IOException {
+		File file= getBlockFile(hash);
+		if (!file.isFile())
+			throw missingBlock(hash);
+		byte[] content;
+		int size;
+		try (InputStream in= new InflaterInputStream(new FileInputStream(file))) {
+			if (length < 0) {
+				content= readFully(in);
+				size= content.length;
+			} else {
+				content= buffer;
+				size= length;
+				new DataInputStream(in).readFully(content, 0, length);
+			}
+		} catch (EOFException e) {
+			throw missingBlock(hash);
+		}
+		if (!hash.equals(hash(md, content, size)))
+			throw missingBlock(hash);
+		return content;
+	}
+
+	private CoreException missingBlock(String hash) {
+		return new CoreException(CCorePlugin.createStatus(
+				NLS.bind(Messages.PDOMBlockStore_errorMissingBlock, getBlockFile(hash))));
+	}
+
+	private static MessageDigest getDigest() throws IOException {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static String hash(MessageDigest md, byte[] content, int length) {
+		md.reset();
+		md.update(content, 0, length);
+		byte[] digest= md.digest();
+		StringBuilder buf= new StringBuilder(digest.length * 2);
+		for (byte b : digest) {
+			buf.append(Character.forDigit((b >> 4) & 0xf, 16));
+			buf.append(Character.forDigit(b & 0xf, 16));
+		}
+		return buf.toString();
+	}
+
+	private static byte[] readFully(File file) throws IOException {
+		try (InputStream in= new FileInputStream(file)) {
+			return readFully(in);
+		}
+	}
+
+	private static byte[] readFully(InputStream in) throws IOException {
+		byte[] result= new byte[4096];
+		int length= 0;
+		int read;
+		while ((read= in.read(result, length, result.length - length)) >= 0) {
+			length+= read;
+			if (length == result.length) {
+				result= Arrays.copyOf(result, length * 2);
+			}
+		}
+		return Arrays.copyOf(result, length);
+	}
+
+	private static void replace(File tmp, File target) throws IOException {
+		if (!tmp.renameTo(target)) {
+			// On some platforms an existing file is not replaced by a rename.
+			target.delete();
+			if (!tmp.renameTo(target)) {
+				tmp.delete();
+				throw new IOException(NLS.bind(Messages.PDOMBlockStore_errorRename, target));
+			}
+		}
+	}
+
+	private static void checkMonitor(IProgressMonitor monitor) {
+		if (monitor != null && monitor.isCanceled()) {
+			throw new OperationCanceledException();
+		}
+	}
+}
@@ -192,6 +192,8 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 	private Map<IProject, PCL> fPrefListeners= new HashMap<>();
 	private List<IndexerSetupParticipant> fSetupParticipants= new ArrayList<>();
 	private Set<ICProject> fPostponedProjects= new HashSet<>();
+	/** Metrics of the last completed indexer task, keyed by project name. */
+	private Map<String, IndexerMetrics> fIndexerMetrics= new HashMap<>();
 	private int fLastNotifiedState= IndexerStateEvent.STATE_IDLE;
 	private boolean fInShutDown;
 
@@ -881,6 +883,7 @@ public class PDOMManager implements IWritableIndexManager, IListener {
         					finalpdom.close();
         					if (delete) {
         						finalpdom.getDB().getLocation().delete();
+        						TeamPDOMImportOperation.getImportCache(rproject).delete();
         					}
         				} catch (CoreException e) {
         					CCorePlugin.log(e);
@@ -907,6 +910,28 @@ public class PDOMManager implements IWritableIndexManager, IListener {
 			fProjectToPDOM.remove(rproject);
 			// don't remove the location, because it may not be reused when the project was deleted.
     	}
+		synchronized (fIndexerMetrics) {
+			fIndexerMetrics.remove(cproject.getElementName());
+		}
+	}
+
+	/**
+	 * Stores the metrics of an indexer task that has completed.
+	 */
+	public void setIndexerMetrics(IndexerMetrics metrics) {
+		synchronized (fIndexerMetrics) {
+			fIndexerMetrics.put(metrics.getProject(), metrics);
+		}
+	}
+
+	/**
+	 * Returns the metrics of the last indexer task that completed for the given project,
+	 * or {@code null} if no indexer task has completed since the project was opened.
+	 */
+	public IndexerMetrics getIndexerMetrics(ICProject project) {
+		synchronized (fIndexerMetrics) {
+			return fIndexerMetrics.get(project.getElementName());
+		}
 	}
 
 	private void stopIndexer(IPDOMIndexer indexer) {
@@ -142,6 +142,23 @@ public class PDOMProxy implements IPDOM {
 		return new IIndexFragmentInclude[0];
 	}
 
+	@Override
+	public synchronized IIndexFragmentInclude[] findIncludedBy(IIndexFragmentFile file, int depth)
+			throws CoreException {
+		if (fDelegate != null)
+			return fDelegate.findIncludedBy(file, depth);
+
+		return new IIndexFragmentInclude[0];
+	}
+
+	@Override
+	public synchronized IIndexFragmentName[] findSubclassDefinitions(IBinding binding) throws CoreException {
+		if (fDelegate != null)
+			return fDelegate.findSubclassDefinitions(binding);
+
+		return IIndexFragmentName.EMPTY_NAME_ARRAY;
+	}
+
 	@Override
 	public synchronized IIndexFragmentName[] findNames(IBinding binding, int flags)
 			throws CoreException {
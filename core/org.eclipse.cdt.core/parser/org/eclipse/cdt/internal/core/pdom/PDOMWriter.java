@@ -312,6 +312,7 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 				}
 				Throwable th= null;
 				YieldableIndexLock lock = new YieldableIndexLock(data.fIndex, false, progress.split(1));
+				lock.setWaitTimeHistogram(fStatistics.fWriteLockWaits);
 				lock.acquire();
 				try {
 					final boolean isReplacement= ctx != null && fileInAST.includeStatement == null;
@@ -350,6 +351,7 @@ public abstract class PDOMWriter implements IPDOMASTProcessor {
 							fileInAST.fileContentKey.getLocation().getURI().getPath()), th));
 				}
 				fStatistics.fAddToIndexTime += lock.getCumulativeLockTime();
+				fStatistics.fWriteLockWaitTime += lock.getCumulativeWaitTime();
 			}
 		}
 	}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.cdt.core.parser.util.CharArrayUtils;
+import org.eclipse.cdt.internal.core.pdom.dom.NamedNodeCollector;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMLinkage;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMNamedNode;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * Remembers the nodes found by the last prefix lookup of each kind, such that the lookups
+ * of content assist do not have to search the indexes again while the user types a longer
+ * identifier. The nodes of a longer prefix are a subset of the ones of a shorter prefix, they
+ * are obtained by matching the remembered nodes against the longer prefix.
+ * <p>
+ * The cached nodes are not filtered, so a cache entry can be used with any index filter. The
+ * cache must be cleared whenever the PDOM is modified.
+ */
+final class PrefixLookupCache {
+	/**
+	 * Lookups finding more nodes are not cached, their results would keep too much memory
+	 * alive for as long as the PDOM is not modified.
+	 */
+	private static final int MAX_CACHED_NODES = 20000;
+
+	private static final PDOMNamedNode[] NO_NODES = {};
+
+	/**
+	 * Nodes found for a prefix, from the index of top level bindings and from the index
+	 * of nested bindings.
+	 */
+	static final class Candidates {
+		final char[] fPrefix;
+		final PDOMNamedNode[] fTopLevel;
+		final PDOMNamedNode[] fNested;
+
+		Candidates(char[] prefix, PDOMNamedNode[] topLevel, PDOMNamedNode[] nested) {
+			fPrefix= prefix;
+			fTopLevel= topLevel;
+			fNested= nested;
+		}
+	}
+
+	private final Map<List<Object>, Candidates> fEntries= new HashMap<>();
+
+	/**
+	 * Returns the nodes of the given linkage whose names start with the given prefix.
+	 *
+	 * @param linkage the linkage to search
+	 * @param prefix the prefix to search for
+	 * @param filescope if <code>false</code> nested bindings are searched as well
+	 * @param caseSensitive whether the prefix is compared case sensitively
+	 * @param monitor a monitor to cancel the search, may be <code>null</code>
+	 */
+	Candidates getCandidates(PDOMLinkage linkage, char[] prefix, boolean filescope, boolean caseSensitive,
+			IProgressMonitor monitor) throws CoreException {
+		final List<Object> key= Arrays.<Object>asList(linkage.getLinkageID(), filescope, caseSensitive);
+		Candidates cached;
+		synchronized (fEntries) {
+			cached= fEntries.get(key);
+		}
+		if (cached != null && prefix.length >= cached.fPrefix.length
+				&& CharArrayUtils.equals(prefix, 0, cached.fPrefix.length, cached.fPrefix, !caseSensitive)) {
+			return cached;
+		}
+
+		NamedNodeCollector collector= new NamedNodeCollector(linkage, prefix, true, false, caseSensitive);
+		collector.setMonitor(monitor);
+		linkage.accept(collector);
+		PDOMNamedNode[] topLevel= collector.getNodes();
+		PDOMNamedNode[] nested= NO_NODES;
+		if (!filescope) {
+			collector= new NamedNodeCollector(linkage, prefix, true, false, caseSensitive);
+			collector.setMonitor(monitor);
+			linkage.getNestedBindingsIndex().accept(collector);
+			nested= collector.getNodes();
+		}
+
+		Candidates result= new Candidates(prefix.clone(), topLevel, nested);
+		if (topLevel.length + nested.length <= MAX_CACHED_NODES) {
+			synchronized (fEntries) {
+				fEntries.put(key, result);
+			}
+		}
+		return result;
+	}
+
+	void clear() {
+		synchronized (fEntries) {
+			fEntries.clear();
+		}
+	}
+}
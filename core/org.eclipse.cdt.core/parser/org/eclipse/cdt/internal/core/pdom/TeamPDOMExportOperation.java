@@ -38,6 +38,7 @@ import org.eclipse.cdt.internal.core.resources.ResourceLookup;
 import org.eclipse.core.filesystem.URIUtil;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IWorkspaceRoot;
 import org.eclipse.core.resources.IWorkspaceRunnable;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -112,20 +113,15 @@ public class TeamPDOMExportOperation implements IWorkspaceRunnable {
 			monitor.worked(5);
 			
 			// create checksums
-			PDOM pdom= new PDOM(tmpPDOM, converter, LanguageManager.getInstance().getPDOMLinkageFactoryMappings());
-			pdom.acquireReadLock();
-			try {
-				monitor.setTaskName(Messages.Checksums_taskComputeChecksums);
-				createChecksums(fProject, pdom, tmpChecksums, subMonitor(monitor, 94));
-				pdom.db.setExclusiveLock();	// The tmpPDOM is all ours.
-				pdom.close();
-			}
-			finally {
-				pdom.releaseReadLock();
-			}
+			monitor.setTaskName(Messages.Checksums_taskComputeChecksums);
+			createChecksums(fProject, tmpPDOM, converter, fMessageDigest, tmpChecksums, subMonitor(monitor, 94));
 			
 			// create archive
-			createArchive(tmpPDOM, tmpChecksums);
+			if (PDOMBlockStore.isManifest(fTargetLocationFile)) {
+				createBlocks(tmpPDOM, tmpChecksums, monitor);
+			} else {
+				createArchive(tmpPDOM, tmpChecksums);
+			}
 			
 			// store preferences
 			monitor.setTaskName(Messages.TeamPDOMExportOperation_taskExportIndex);
@@ -175,7 +171,26 @@ public class TeamPDOMExportOperation implements IWorkspaceRunnable {
 		}
 	}
 
-	private void createChecksums(ICProject cproject, PDOM pdom, File target, IProgressMonitor monitor) throws CoreException {
+	/**
+	 * Computes the checksums of the files contained in an exported index and writes them to the
+	 * target file, as they are needed to check the index when it is imported.
+	 */
+	public static void createChecksums(ICProject cproject, File exportedPDOM, IIndexLocationConverter converter,
+			MessageDigest md, File target, IProgressMonitor monitor) throws CoreException, InterruptedException {
+		PDOM pdom= new PDOM(exportedPDOM, converter, LanguageManager.getInstance().getPDOMLinkageFactoryMappings());
+		pdom.acquireReadLock();
+		try {
+			createChecksums(cproject, pdom, md, target, monitor);
+			pdom.db.setExclusiveLock();	// The exported PDOM is all ours.
+			pdom.close();
+		}
+		finally {
+			pdom.releaseReadLock();
+		}
+	}
+
+	private static void createChecksums(ICProject cproject, PDOM pdom, MessageDigest md, File target,
+			IProgressMonitor monitor) throws CoreException {
 		HashSet<String> fullPaths= new HashSet<String>();
 		try {
 			pdom.acquireReadLock();
@@ -200,11 +215,11 @@ public class TeamPDOMExportOperation implements IWorkspaceRunnable {
 		for (String fullPath : fullPaths) {
 			files[i++]= root.getFile(new Path(fullPath));
  		}
-		Map<String, Object> map= Checksums.createChecksumMap(files, fMessageDigest, monitor);
+		Map<String, Object> map= Checksums.createChecksumMap(files, md, monitor);
 		writeChecksums(map, target);
 	}
 
-	private void writeChecksums(Map<?, ?> map, File target) throws CoreException {
+	private static void writeChecksums(Map<?, ?> map, File target) throws CoreException {
 		ObjectOutputStream out= null;
 		try {
 			out= new ObjectOutputStream(new FileOutputStream(target));
@@ -217,7 +232,7 @@ public class TeamPDOMExportOperation implements IWorkspaceRunnable {
 		}
 	}
 
-	private void close(InputStream in) {
+	private static void close(InputStream in) {
 		try {
 			if (in != null) { 
 				in.close();
@@ -227,7 +242,7 @@ public class TeamPDOMExportOperation implements IWorkspaceRunnable {
 		}
 	} 
 
-	private void close(OutputStream out) {
+	private static void close(OutputStream out) {
 		try {
 			if (out != null) {
 				out.close();
@@ -259,6 +274,23 @@ public class TeamPDOMExportOperation implements IWorkspaceRunnable {
 		}
 	}
 
+	/**
+	 * Stores the index in the shared directory of the target manifest, only the parts of the
+	 * index that are not yet present in the directory are written.
+	 */
+	private void createBlocks(File tmpPDOM, File tmpChecksums, IProgressMonitor monitor) throws CoreException {
+		try {
+			new PDOMBlockStore(fTargetLocationFile).write(tmpPDOM, tmpChecksums, monitor);
+		} catch (IOException e) {
+			throw new CoreException(CCorePlugin.createStatus(Messages.TeamPDOMExportOperation_errorCreateArchive, e));
+		}
+		// The blocks are stored next to the manifest.
+		IFile[] wsResource= ResourceLookup.findFilesForLocation(new Path(fTargetLocationFile.getAbsolutePath()));
+		for (IFile file : wsResource) {
+			file.getParent().refreshLocal(IResource.DEPTH_INFINITE, new NullProgressMonitor());
+		}
+	}
+
 	private void writeEntry(ZipOutputStream out, String name, File input) throws IOException {
 		ZipEntry e= new ZipEntry(name);
 		out.putNextEntry(e);
@@ -10,7 +10,9 @@
  *******************************************************************************/ 
 package org.eclipse.cdt.internal.core.pdom;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
@@ -54,6 +56,7 @@ import org.eclipse.osgi.util.NLS;
 public class TeamPDOMImportOperation implements IWorkspaceRunnable {
 	static final String CHECKSUMS_NAME = "checksums.dat"; //$NON-NLS-1$
 	static final String INDEX_NAME = "cdt-index.pdom"; //$NON-NLS-1$
+	private static final String IMPORT_CACHE_EXTENSION = ".import"; //$NON-NLS-1$
 	private static final Pattern PROJECT_VAR_PATTERN= Pattern.compile("\\$\\{(project_[a-zA-Z0-9]*)\\}"); //$NON-NLS-1$
 	private static final String PROJECT_VAR_REPLACEMENT_BEGIN = "\\${$1:"; //$NON-NLS-1$
 	private static final String PROJECT_VAR_REPLACEMENT_END = "}"; //$NON-NLS-1$
@@ -90,7 +93,12 @@ public class TeamPDOMImportOperation implements IWorkspaceRunnable {
 		try {
 			File importFile= getImportLocation();
 			if (importFile.exists()) {
-				doImportIndex(importFile, pm);
+				if (PDOMBlockStore.isManifest(importFile)) {
+					doImportBlocks(importFile, pm);
+				} else {
+					getImportCache(fProject.getProject()).delete();
+					doImportIndex(importFile, pm);
+				}
 				fSuccess= true;
 			}
 		} catch (InterruptedException e) {
@@ -150,6 +158,37 @@ public class TeamPDOMImportOperation implements IWorkspaceRunnable {
 		checkIndex(checksums, monitor);
 	}
 
+	/**
+	 * Imports an index from a block store. The blocks of the previous import are kept in the state
+	 * location of the plug-in, only the blocks that have changed since are read from the store.
+	 */
+	private void doImportBlocks(File manifest, IProgressMonitor monitor) throws CoreException, InterruptedException, IOException {
+		PDOMBlockStore store= new PDOMBlockStore(manifest);
+		File previous= getImportCache(fProject.getProject());
+		int fetched= store.read(previous, monitor);
+		if (fShowActivity) {
+			System.out.println("Indexer: PDOMImporter read " + fetched + " blocks"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		try (InputStream stream= new FileInputStream(previous)) {
+			CCoreInternals.getPDOMManager().importProjectPDOM(fProject, stream, monitor);
+		}
+
+		// Without checksums none of the files can be verified, like for an archive they are all
+		// removed from the index and indexed again.
+		byte[] content= store.readChecksums();
+		Map<?, ?> checksums= content != null ?
+				readChecksums(new ByteArrayInputStream(content)) : Collections.EMPTY_MAP;
+		checkIndex(checksums, monitor);
+	}
+
+	/**
+	 * Returns the copy of the index last imported from a block store for the given project.
+	 */
+	static File getImportCache(IProject project) {
+		return CCorePlugin.getDefault().getStateLocation()
+				.append(project.getName() + IMPORT_CACHE_EXTENSION).toFile();
+	}
+
 	private void importIndex(ZipFile zip, IProgressMonitor monitor) throws CoreException, IOException {
 		ZipEntry indexEntry= zip.getEntry(INDEX_NAME);
 		if (indexEntry == null) {
@@ -164,22 +203,31 @@ public class TeamPDOMImportOperation implements IWorkspaceRunnable {
 		ZipEntry indexEntry= zip.getEntry(CHECKSUMS_NAME);
 		if (indexEntry != null) {
 			try {
-				ObjectInputStream input= new ObjectInputStream(zip.getInputStream(indexEntry));
-				try {
-					Object obj= input.readObject();
-					if (obj instanceof Map<?, ?>) {
-						return (Map<?,?>) obj;
-					}
-				} finally {
-					input.close();
-				}
-			} catch (Exception e) {
+				return readChecksums(zip.getInputStream(indexEntry));
+			} catch (IOException e) {
 				CCorePlugin.log(e);
 			}
 		}
 		return Collections.EMPTY_MAP;
 	}
 
+	private Map<?, ?> readChecksums(InputStream stream) {
+		try {
+			ObjectInputStream input= new ObjectInputStream(stream);
+			try {
+				Object obj= input.readObject();
+				if (obj instanceof Map<?, ?>) {
+					return (Map<?,?>) obj;
+				}
+			} finally {
+				input.close();
+			}
+		} catch (Exception e) {
+			CCorePlugin.log(e);
+		}
+		return Collections.EMPTY_MAP;
+	}
+
 	private void checkIndex(Map<?, ?> checksums, IProgressMonitor monitor) throws CoreException, InterruptedException {
 		IPDOM obj= CCoreInternals.getPDOMManager().getPDOM(fProject);
 		if (!(obj instanceof WritablePDOM)) {
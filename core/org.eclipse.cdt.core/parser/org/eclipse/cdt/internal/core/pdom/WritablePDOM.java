@@ -99,6 +99,7 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 			// New file, insert it into the index.
 			file = uncommittedFile;
 			getFileIndex().insert(file.getRecord());
+			includesChanged();
 		} else {
 			// Existing file.
 			if (fileBeingUpdated.getTimestamp() == 0)
@@ -191,6 +192,35 @@ public class WritablePDOM extends PDOM implements IWritableIndexFragment {
 		super.flush();
 	}
 
+	/**
+	 * Starts filling an empty index. Until {@link #endBulkLoad()} is called, additions to the
+	 * indexes that are not needed while writing are collected in memory and written in bulk.
+	 * A write lock must be held.
+	 */
+	public void beginBulkLoad() throws CoreException {
+		setProperty(PROPERTY_BULK_LOAD, Boolean.TRUE.toString());
+		fBulkLoading= true;
+	}
+
+	/**
+	 * Writes the additions deferred since {@link #beginBulkLoad()}. A write lock must be held.
+	 * The bulk load ends even if writing fails, such that the index does not stay in bulk-load
+	 * mode. Also ends a bulk load whose deferred additions have been discarded by clearing the
+	 * caches, the bindings added afterwards have been indexed directly.
+	 */
+	public void endBulkLoad() throws CoreException {
+		try {
+			if (fBulkLoading) {
+				for (PDOMLinkage linkage : getLinkageList()) {
+					linkage.flushDeferredIndexes();
+				}
+			}
+		} finally {
+			fBulkLoading= false;
+			new DBProperties(db, PROPERTIES).removeProperty(PROPERTY_BULK_LOAD);
+		}
+	}
+
 	@Override
 	public void setProperty(String propertyName, String value) throws CoreException {
 		if (IIndexFragment.PROPERTY_FRAGMENT_FORMAT_ID.equals(propertyName)
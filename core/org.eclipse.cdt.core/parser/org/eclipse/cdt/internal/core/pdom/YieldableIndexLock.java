@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2010, 2014 Google, Inc and others.
+ * Copyright (c) 2010, 2017 Google, Inc and others.
  * All rights reserved. This program and the accompanying materials
  * are made available under the terms of the Eclipse Public License v1.0
  * which accompanies this distribution, and is available at
@@ -24,6 +24,8 @@ public class YieldableIndexLock {
 	private final IProgressMonitor progressMonitor;
 	private long lastLockTime;
 	private long cumulativeLockTime;
+	private long cumulativeWaitTime;
+	private LatencyHistogram waitTimes;
 
 	public YieldableIndexLock(IWritableIndex index, boolean flushIndex, IProgressMonitor monitor) {
 		this.index = index;
@@ -37,8 +39,13 @@ public class YieldableIndexLock {
 	 * @throws InterruptedException
 	 */
 	public void acquire() throws InterruptedException {
+		long start = System.currentTimeMillis();
 		index.acquireWriteLock(progressMonitor);
 		lastLockTime = System.currentTimeMillis();
+		long waitTime = lastLockTime - start;
+		cumulativeWaitTime += waitTime;
+		if (waitTimes != null)
+			waitTimes.record(waitTime);
 	}
 
 	/**
@@ -72,4 +79,18 @@ public class YieldableIndexLock {
 	public long getCumulativeLockTime() {
 		return cumulativeLockTime;
 	}
+
+	/**
+	 * @return Total time spent waiting for the lock in milliseconds.
+	 */
+	public long getCumulativeWaitTime() {
+		return cumulativeWaitTime;
+	}
+
+	/**
+	 * Sets the histogram receiving the wait time of every acquisition of the lock.
+	 */
+	public void setWaitTimeHistogram(LatencyHistogram histogram) {
+		waitTimes = histogram;
+	}
 }
@@ -12,7 +12,11 @@
  *******************************************************************************/
 package org.eclipse.cdt.internal.core.pdom.db;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.internal.core.pdom.dom.IRecordIterator;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
@@ -199,6 +203,147 @@ public class BTree {
 		}
 	}
 
+	/**
+	 * Collects records in memory, such that they can be added in bulk by
+	 * {@link BTree#insert(Buffer)}.
+	 */
+	public static final class Buffer {
+		private long[] fRecords= new long[16];
+		private int fSize;
+
+		public void add(long record) {
+			if (fSize == fRecords.length) {
+				fRecords= Arrays.copyOf(fRecords, fSize * 2);
+			}
+			fRecords[fSize++]= record;
+		}
+
+		/**
+		 * Removes a record that has been added. Records added last are found first.
+		 * @return whether the record was found
+		 */
+		public boolean remove(long record) {
+			for (int i= fSize; --i >= 0;) {
+				if (fRecords[i] == record) {
+					fRecords[i]= fRecords[--fSize];
+					return true;
+				}
+			}
+			return false;
+		}
+
+		public int size() {
+			return fSize;
+		}
+	}
+
+	/**
+	 * Wraps the exception of a comparator while the records of a buffer are sorted.
+	 */
+	private static class ComparisonFailure extends RuntimeException {
+		ComparisonFailure(CoreException cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * Inserts the records collected in the buffer. The records are sorted by the comparator of
+	 * the B-tree and of equivalent records only the first one is inserted, like for
+	 * {@link #insert(long)}. An empty B-tree is built bottom-up, see {@link #bulkInsert(long[], int)}.
+	 */
+	public void insert(Buffer buffer) throws CoreException {
+		final int count= buffer.fSize;
+		Long[] sorted= new Long[count];
+		for (int i = 0; i < count; i++) {
+			sorted[i]= buffer.fRecords[i];
+		}
+		try {
+			Arrays.sort(sorted, new Comparator<Long>() {
+				@Override
+				public int compare(Long r1, Long r2) {
+					try {
+						return cmp.compare(r1, r2);
+					} catch (CoreException e) {
+						throw new ComparisonFailure(e);
+					}
+				}
+			});
+		} catch (ComparisonFailure e) {
+			throw (CoreException) e.getCause();
+		}
+		long[] records= new long[count];
+		int unique= 0;
+		for (int i = 0; i < count; i++) {
+			if (unique == 0 || cmp.compare(records[unique - 1], sorted[i]) != 0) {
+				records[unique++]= sorted[i];
+			}
+		}
+		bulkInsert(records, unique);
+	}
+
+	/**
+	 * Inserts the given records, which must be sorted according to the comparator of the B-tree
+	 * and must not contain equivalent records. If the B-tree is empty, it is built bottom-up with
+	 * nodes that are filled evenly, which is much faster than inserting the records one by one.
+	 * Otherwise the records are inserted one at a time.
+	 *
+	 * @param records the sorted records
+	 * @param count the number of records to insert from the start of the array
+	 */
+	public void bulkInsert(long[] records, int count) throws CoreException {
+		if (count == 0)
+			return;
+		if (getRoot() != 0) {
+			for (int i = 0; i < count; i++) {
+				insert(records[i]);
+			}
+			return;
+		}
+
+		// Find the lowest tree that can hold all records.
+		int height= 1;
+		long capacity= MAX_RECORDS;
+		while (capacity < count) {
+			capacity= (capacity + 1) * MAX_CHILDREN - 1;
+			height++;
+		}
+		db.putRecPtr(rootPointer, build(records, 0, count, height, capacity));
+	}
+
+	/**
+	 * Builds a subtree of the given height for the records in [start, end). The capacity is
+	 * the maximum number of records of a subtree of the given height.
+	 */
+	private long build(long[] records, int start, int end, int height, long capacity) throws CoreException {
+		final long node= allocateNode();
+		final int count= end - start;
+		if (height == 1) {
+			final Chunk chunk= db.getChunk(node);
+			for (int i = 0; i < count; i++) {
+				putRecord(chunk, node, i, records[start + i]);
+			}
+			return node;
+		}
+
+		// Use the smallest number of children, the records are distributed evenly among them.
+		// This keeps every child above the minimum fill of a B-tree node.
+		final long childCapacity= (capacity + 1) / MAX_CHILDREN - 1;
+		final int children= (int) ((count + 1 + childCapacity) / (childCapacity + 1));
+		final int childRecords= count - (children - 1);
+		int pos= start;
+		for (int i = 0; i < children; i++) {
+			int size= childRecords / children + (i < childRecords % children ? 1 : 0);
+			long child= build(records, pos, pos + size, height - 1, childCapacity);
+			pos+= size;
+			final Chunk chunk= db.getChunk(node);
+			putChild(chunk, node, i, child);
+			if (i < children - 1) {
+				putRecord(chunk, node, i, records[pos++]);
+			}
+		}
+		return node;
+	}
+
 	private void firstInsert(long record) throws CoreException {
 		// Create the node and save it as root.
 		long root = allocateNode();
@@ -589,6 +734,94 @@ public class BTree {
 		}
 	}
 
+	/**
+	 * Returns an iterator over all records of the B-tree in ascending order. In contrast to
+	 * {@link #accept(IBTreeVisitor)} the caller pulls the records, no objects are created per
+	 * record. The B-tree must not be modified while the iterator is in use.
+	 */
+	public IRecordIterator recordIterator() throws CoreException {
+		return new RecordIterator(null);
+	}
+
+	/**
+	 * Returns an iterator over the records of the given range in ascending order. The B-tree must
+	 * not be modified while the iterator is in use.
+	 */
+	public IRecordIterator recordIterator(IBTreeRange range) throws CoreException {
+		return new RecordIterator(range);
+	}
+
+	/**
+	 * In-order traversal of the B-tree with an explicit stack of node positions. An entry
+	 * (node, i) on the stack means that the subtrees left of record i of the node are done
+	 * and record i is to be returned next.
+	 */
+	private class RecordIterator implements IRecordIterator {
+		private final IBTreeRange fRange;
+		private long[] fNodes= new long[8];
+		private int[] fIndexes= new int[8];
+		private int fDepth;
+
+		RecordIterator(IBTreeRange range) throws CoreException {
+			fRange= range;
+			descend(getRoot(), range != null);
+		}
+
+		@Override
+		public long next() throws CoreException {
+			while (fDepth > 0) {
+				final long node= fNodes[fDepth - 1];
+				final int i= fIndexes[fDepth - 1];
+				final Chunk chunk= db.getChunk(node);
+				final long record= i < MAX_RECORDS ? getRecord(chunk, node, i) : 0;
+				if (record == 0) {
+					fDepth--;
+					continue;
+				}
+				if (fRange != null && fRange.compare(record) > 0) {
+					fDepth= 0;
+					break;
+				}
+				fIndexes[fDepth - 1]= i + 1;
+				// The records of the next subtree follow the one returned, no need to search.
+				descend(getChild(chunk, node, i + 1), false);
+				return record;
+			}
+			return 0;
+		}
+
+		/**
+		 * Pushes the path to the first record of the subtree, or to the first one that is not
+		 * before the range if {@code search} is {@code true}.
+		 */
+		private void descend(long node, boolean search) throws CoreException {
+			while (node != 0) {
+				final Chunk chunk= db.getChunk(node);
+				int lower= 0;
+				if (search) {
+					int upper= MAX_RECORDS;
+					while (lower < upper) {
+						int middle= (lower + upper) >>> 1;
+						long checkRec= getRecord(chunk, node, middle);
+						if (checkRec == 0 || fRange.compare(checkRec) >= 0) {
+							upper= middle;
+						} else {
+							lower= middle + 1;
+						}
+					}
+				}
+				if (fDepth == fNodes.length) {
+					fNodes= Arrays.copyOf(fNodes, fDepth * 2);
+					fIndexes= Arrays.copyOf(fIndexes, fDepth * 2);
+				}
+				fNodes[fDepth]= node;
+				fIndexes[fDepth]= lower;
+				fDepth++;
+				node= getChild(chunk, node, lower);
+			}
+		}
+	}
+
 	/**
 	 * Debugging method for checking B-tree invariants.
 	 *
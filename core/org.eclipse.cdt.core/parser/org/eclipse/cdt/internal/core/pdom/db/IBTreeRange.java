@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom.db;
+
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Describes a contiguous range of records of a B-tree, see {@link BTree#recordIterator(IBTreeRange)}.
+ */
+@FunctionalInterface
+public interface IBTreeRange {
+	/**
+	 * Compares the record against the range. The comparison must be compatible with the one used
+	 * for the B-tree.
+	 *
+	 * @param record the offset of the record to compare with the range
+	 * @return a negative number if the record is before the range, 0 if it is part of the range,
+	 *     a positive number if it is after the range
+	 */
+	public int compare(long record) throws CoreException;
+}
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.pdom.db;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.CoreException;
+
+/**
+ * Persistent index from the trigrams of names to the records carrying the names.
+ * <p>
+ * The index is used to narrow down substring and wildcard queries to a set of
+ * candidate records which then need to be checked against the actual query. The
+ * trigrams are case-folded, such that the same index serves case-sensitive and
+ * case-insensitive queries.
+ * <p>
+ * For every trigram a key record is stored in a B-tree. The key holds the total
+ * number of records for the trigram and a linked list of blocks with the record
+ * pointers. Blocks grow in size as the list gets longer, to keep the per-record
+ * overhead small for frequent trigrams.
+ */
+public class TrigramIndex {
+	private static final int KEY_TRIGRAM = 0;
+	private static final int KEY_COUNT = 4;
+	private static final int KEY_FIRST_BLOCK = 8;
+	private static final int KEY_SIZE = KEY_FIRST_BLOCK + Database.PTR_SIZE;
+
+	private static final int BLOCK_NEXT = 0;
+	private static final int BLOCK_USED = Database.PTR_SIZE;
+	private static final int BLOCK_CAPACITY = BLOCK_USED + 2;
+	private static final int BLOCK_DATA = BLOCK_CAPACITY + 2;
+	private static final int MIN_BLOCK_CAPACITY = 2;
+	private static final int MAX_BLOCK_CAPACITY = (Database.MAX_MALLOC_SIZE - BLOCK_DATA) / Database.PTR_SIZE;
+
+	private static final long[] NO_RECORDS = {};
+
+	private final Database db;
+	private final BTree btree;
+
+	/**
+	 * @param db the database
+	 * @param rootPointer the address of the pointer to the root of the B-tree
+	 */
+	public TrigramIndex(Database db, long rootPointer) {
+		this.db = db;
+		this.btree = new BTree(db, rootPointer, new IBTreeComparator() {
+			@Override
+			public int compare(long record1, long record2) throws CoreException {
+				return Integer.compare(getTrigram(record1), getTrigram(record2));
+			}
+		});
+	}
+
+	/**
+	 * Computes the distinct, case-folded trigrams of the given name.
+	 */
+	public static int[] getTrigrams(char[] name) {
+		if (name.length < 3)
+			return new int[0];
+
+		int[] result = new int[name.length - 2];
+		char c1 = Character.toLowerCase(name[0]);
+		char c2 = Character.toLowerCase(name[1]);
+		for (int i = 2; i < name.length; i++) {
+			char c3 = Character.toLowerCase(name[i]);
+			result[i - 2] = ((c1 & 0x3ff) << 20) | ((c2 & 0x3ff) << 10) | (c3 & 0x3ff);
+			c1 = c2;
+			c2 = c3;
+		}
+		Arrays.sort(result);
+		int count = 0;
+		for (int i = 0; i < result.length; i++) {
+			if (i == 0 || result[i] != result[i - 1])
+				result[count++] = result[i];
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Adds a record for the given name. Each record must be added only once.
+	 */
+	public void insert(char[] name, long record) throws CoreException {
+		for (int trigram : getTrigrams(name)) {
+			long key = findKey(trigram);
+			if (key == 0) {
+				key = db.malloc(KEY_SIZE);
+				db.putInt(key + KEY_TRIGRAM, trigram);
+				btree.insert(key);
+			}
+			addToKey(key, record);
+		}
+	}
+
+	/**
+	 * Collects additions to the index in memory, such that they can be added in bulk by
+	 * {@link TrigramIndex#insert(Buffer)}.
+	 */
+	public static final class Buffer {
+		private final Map<Integer, long[]> fRecords = new HashMap<>();
+		private int fSize;
+
+		/**
+		 * Adds a record for the given name. Each record must be added only once.
+		 */
+		public void add(char[] name, long record) {
+			for (int trigram : getTrigrams(name)) {
+				// The first element holds the number of records.
+				long[] records = fRecords.get(trigram);
+				if (records == null) {
+					records = new long[4];
+					fRecords.put(trigram, records);
+				} else if (records[0] == records.length - 1) {
+					records = Arrays.copyOf(records, records.length * 2);
+					fRecords.put(trigram, records);
+				}
+				records[(int) ++records[0]] = record;
+				fSize++;
+			}
+		}
+
+		/**
+		 * Returns the number of records added for all trigrams.
+		 */
+		public int size() {
+			return fSize;
+		}
+	}
+
+	/**
+	 * Adds the records collected in the buffer. The records of a trigram are stored in blocks
+	 * of the exact size, for an empty index the B-tree is built in one go.
+	 */
+	public void insert(Buffer buffer) throws CoreException {
+		int[] trigrams = new int[buffer.fRecords.size()];
+		int i = 0;
+		for (int trigram : buffer.fRecords.keySet()) {
+			trigrams[i++] = trigram;
+		}
+		Arrays.sort(trigrams);
+
+		long[] newKeys = new long[trigrams.length];
+		int newKeyCount = 0;
+		for (int trigram : trigrams) {
+			long key = findKey(trigram);
+			if (key == 0) {
+				key = db.malloc(KEY_SIZE);
+				db.putInt(key + KEY_TRIGRAM, trigram);
+				newKeys[newKeyCount++] = key;
+			}
+			long[] records = buffer.fRecords.get(trigram);
+			int count = (int) records[0];
+			for (int start = 1; start <= count; start += MAX_BLOCK_CAPACITY) {
+				int length = Math.min(MAX_BLOCK_CAPACITY, count + 1 - start);
+				long block = db.malloc(BLOCK_DATA + length * Database.PTR_SIZE);
+				db.putRecPtr(block + BLOCK_NEXT, db.getRecPtr(key + KEY_FIRST_BLOCK));
+				db.putShort(block + BLOCK_USED, (short) length);
+				db.putShort(block + BLOCK_CAPACITY, (short) length);
+				for (int j = 0; j < length; j++) {
+					db.putRecPtr(block + BLOCK_DATA + j * Database.PTR_SIZE, records[start + j]);
+				}
+				db.putRecPtr(key + KEY_FIRST_BLOCK, block);
+			}
+			db.putInt(key + KEY_COUNT, db.getInt(key + KEY_COUNT) + count);
+		}
+		// The new keys are sorted, because the trigrams are.
+		btree.bulkInsert(newKeys, newKeyCount);
+	}
+
+	private void addToKey(long key, long record) throws CoreException {
+		long block = db.getRecPtr(key + KEY_FIRST_BLOCK);
+		int used = 0;
+		int capacity = 0;
+		if (block != 0) {
+			used = db.getShort(block + BLOCK_USED);
+			capacity = db.getShort(block + BLOCK_CAPACITY);
+		}
+		if (used == capacity) {
+			int newCapacity = Math.min(Math.max(MIN_BLOCK_CAPACITY, capacity * 2), MAX_BLOCK_CAPACITY);
+			long newBlock = db.malloc(BLOCK_DATA + newCapacity * Database.PTR_SIZE);
+			db.putRecPtr(newBlock + BLOCK_NEXT, block);
+			db.putShort(newBlock + BLOCK_CAPACITY, (short) newCapacity);
+			db.putRecPtr(key + KEY_FIRST_BLOCK, newBlock);
+			block = newBlock;
+			used = 0;
+		}
+		db.putRecPtr(block + BLOCK_DATA + used * Database.PTR_SIZE, record);
+		db.putShort(block + BLOCK_USED, (short) (used + 1));
+		db.putInt(key + KEY_COUNT, db.getInt(key + KEY_COUNT) + 1);
+	}
+
+	/**
+	 * Returns the records of all names that may contain every one of the given
+	 * strings, ignoring case. The result is a superset of the matching records.
+	 *
+	 * @param literals strings that are all contained in the names searched for
+	 * @return the sorted candidate records, or <code>null</code> if the literals are too
+	 * short to narrow down the search
+	 */
+	public long[] findCandidates(char[][] literals) throws CoreException {
+		int[] trigrams = new int[0];
+		for (char[] literal : literals) {
+			int[] t = getTrigrams(literal);
+			int oldLength = trigrams.length;
+			trigrams = Arrays.copyOf(trigrams, oldLength + t.length);
+			System.arraycopy(t, 0, trigrams, oldLength, t.length);
+		}
+		if (trigrams.length == 0)
+			return null;
+
+		// Start with the least frequent trigram and intersect with the others.
+		long[] keys = new long[trigrams.length];
+		for (int i = 0; i < trigrams.length; i++) {
+			keys[i] = findKey(trigrams[i]);
+			if (keys[i] == 0)
+				return NO_RECORDS;
+		}
+		long[] counts = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			counts[i] = ((long) db.getInt(keys[i] + KEY_COUNT) << 32) | i;
+		}
+		Arrays.sort(counts);
+
+		long[] result = null;
+		for (long countAndIndex : counts) {
+			long key = keys[(int) countAndIndex];
+			long[] records = getRecords(key);
+			result = result == null ? records : intersect(result, records);
+			if (result.length == 0)
+				break;
+		}
+		return result;
+	}
+
+	private long[] getRecords(long key) throws CoreException {
+		long[] result = new long[db.getInt(key + KEY_COUNT)];
+		int count = 0;
+		for (long block = db.getRecPtr(key + KEY_FIRST_BLOCK); block != 0; block = db.getRecPtr(block + BLOCK_NEXT)) {
+			int used = db.getShort(block + BLOCK_USED);
+			for (int i = 0; i < used; i++) {
+				result[count++] = db.getRecPtr(block + BLOCK_DATA + i * Database.PTR_SIZE);
+			}
+		}
+		Arrays.sort(result, 0, count);
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	private static long[] intersect(long[] a, long[] b) {
+		long[] result = new long[Math.min(a.length, b.length)];
+		int count = 0;
+		for (int i = 0, j = 0; i < a.length && j < b.length;) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				result[count++] = a[i];
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(result, count);
+	}
+
+	private long findKey(final int trigram) throws CoreException {
+		return btree.recordIterator(record -> Integer.compare(getTrigram(record), trigram)).next();
+	}
+
+	private int getTrigram(long key) throws CoreException {
+		return db.getInt(key + KEY_TRIGRAM);
+	}
+}
@@ -118,7 +118,12 @@ public class NamedNodeCollector implements IBTreeVisitor, IPDOMVisitor {
 
 		if (record == 0)
 			return true;
-		
+
+		// Match the name of the record before loading the node, most records fail to match.
+		if (contentAssistMatcher != null
+				&& !contentAssistMatcher.match(PDOMNamedNode.getDBName(linkage.getDB(), record).getChars())) {
+			return true;
+		}
 		PDOMNode node= PDOMNode.load(linkage.getPDOM(), record);
 		if (node instanceof PDOMNamedNode) {
 			return addNode((PDOMNamedNode) node);
@@ -313,6 +313,10 @@ public class PDOMFile implements IIndexFragmentFile {
 	@Override
 	public void setTimestamp(long timestamp) throws CoreException {
 		Database db= fLinkage.getDB();
+		if ((db.getLong(record + TIME_STAMP) > 0) != (timestamp > 0)) {
+			// Only includes of indexed files are part of the include graph.
+			fLinkage.getPDOM().includesChanged();
+		}
 		db.putLong(record + TIME_STAMP, timestamp);
 	}
 
@@ -423,6 +427,7 @@ public class PDOMFile implements IIndexFragmentFile {
 	public void setFirstIncludedBy(PDOMInclude includedBy) throws CoreException {
 		long rec = includedBy != null ? includedBy.getRecord() : 0;
 		fLinkage.getDB().putRecPtr(record + FIRST_INCLUDED_BY, rec);
+		fLinkage.getPDOM().includesChanged();
 	}
 
 	public PDOMMacro getFirstMacro() throws CoreException {
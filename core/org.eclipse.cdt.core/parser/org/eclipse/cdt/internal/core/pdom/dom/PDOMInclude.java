@@ -123,6 +123,7 @@ public class PDOMInclude implements IIndexFragmentInclude {
 		}
 		// Delete our record
 		db.free(record);
+		linkage.getPDOM().includesChanged();
 	}
 
 	private void removeThisFromIncludedByChain() throws CoreException {
@@ -147,6 +148,7 @@ public class PDOMInclude implements IIndexFragmentInclude {
 	void setIncludes(PDOMFile includedFile) throws CoreException {
 		long rec = includedFile != null ? includedFile.getRecord() : 0;
 		linkage.getDB().putRecPtr(record + INCLUDED_FILE, rec);
+		linkage.getPDOM().includesChanged();
 	}
 
 	/**
@@ -178,6 +180,7 @@ public class PDOMInclude implements IIndexFragmentInclude {
 	void setIncludedBy(PDOMFile includedBy) throws CoreException {
 		long rec = includedBy != null ? includedBy.getRecord() : 0;
 		linkage.getDB().putRecPtr(record + INCLUDED_BY, rec);
+		linkage.getPDOM().includesChanged();
 	}
 
 	public PDOMInclude getNextInIncludes() throws CoreException {
@@ -198,6 +201,7 @@ public class PDOMInclude implements IIndexFragmentInclude {
 	public void setNextInIncludedBy(PDOMInclude include) throws CoreException {
 		long rec = include != null ? include.getRecord() : 0;
 		linkage.getDB().putRecPtr(record + INCLUDED_BY_NEXT, rec);
+		linkage.getPDOM().includesChanged();
 	}
 
 	public PDOMInclude getPrevInIncludedBy() throws CoreException {
@@ -212,6 +216,7 @@ public class PDOMInclude implements IIndexFragmentInclude {
 	public void setPrevInIncludedBy(PDOMInclude include) throws CoreException {
 		long rec = include != null ? include.getRecord() : 0;
 		linkage.getDB().putRecPtr(record + INCLUDED_BY_PREV, rec);
+		linkage.getPDOM().includesChanged();
 	}
 
 	@Override
@@ -309,6 +314,7 @@ public class PDOMInclude implements IIndexFragmentInclude {
 				setFlag((byte) (flag & ~FLAG_DEDUCIBLE_NAME));
 			}
 			db.putRecPtr(record + INCLUDED_FILE, 0);
+			linkage.getPDOM().includesChanged();
 		}
 	}
 
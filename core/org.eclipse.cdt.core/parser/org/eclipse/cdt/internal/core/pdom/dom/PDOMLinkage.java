@@ -51,6 +51,7 @@ import org.eclipse.cdt.internal.core.pdom.db.BTree;
 import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeVisitor;
+import org.eclipse.cdt.internal.core.pdom.db.TrigramIndex;
 import org.eclipse.cdt.internal.core.pdom.db.IString;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -68,12 +69,17 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 	private static final int INDEX_OFFSET = PDOMNamedNode.RECORD_SIZE + 8;
 	private static final int NESTED_BINDINGS_INDEX = PDOMNamedNode.RECORD_SIZE + 12;
 	private static final int MACRO_BTREE = PDOMNamedNode.RECORD_SIZE + 16;
+	private static final int NAME_TRIGRAM_INDEX = PDOMNamedNode.RECORD_SIZE + 20;
 
 	@SuppressWarnings("hiding")
-	protected static final int RECORD_SIZE = PDOMNamedNode.RECORD_SIZE + 20;
+	protected static final int RECORD_SIZE = PDOMNamedNode.RECORD_SIZE + 24;
 	protected static final long[] FILE_LOCAL_REC_DUMMY = new long[] { 0 };
 
+	/** Number of deferred additions to the trigram index that are kept in memory at most. */
+	private static final int MAX_DEFERRED_TRIGRAMS = 1 << 22;
+
 	private BTree fMacroIndex= null;  // No need for volatile, all fields of BTree are final.
+	private TrigramIndex.Buffer fDeferredTrigrams;  // Accessed with the write lock only.
 	private final PDOM fPDOM;
 	private final Database fDatabase;
 
@@ -218,6 +224,14 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 
 	public abstract PDOMBinding adaptBinding(IBinding binding, boolean includeLocal) throws CoreException;
 
+	/**
+	 * Returns the names of the definitions of the classes directly derived from the given class.
+	 * The default implementation is for linkages without inheritance.
+	 */
+	public PDOMName[] findSubclassDefinitions(PDOMBinding baseClass) throws CoreException {
+		return new PDOMName[0];
+	}
+
 	public abstract PDOMBinding addBinding(IASTName name) throws CoreException;
 
 	final protected long getLocalToFileRec(PDOMNode parent, IBinding binding, PDOMBinding glob) throws CoreException {
@@ -323,6 +337,51 @@ public abstract class PDOMLinkage extends PDOMNamedNode implements IIndexLinkage
 		}
 	}
 
+	/**
+	 * Returns the index of the trigrams of the names of all bindings of this linkage,
+	 * i.e. the bindings in {@link #getIndex()} and {@link #getNestedBindingsIndex()}.
+	 */
+	public TrigramIndex getNameTrigramIndex() {
+		return new TrigramIndex(fDatabase, record + NAME_TRIGRAM_INDEX);
+	}
+
+	/**
+	 * Callback informing the linkage that a binding has been added. Used to index the binding name
+	 * for substring and wildcard searches.
+	 * @param pdomBinding
+	 * @throws CoreException
+	 */
+	protected final void insertIntoNameTrigramIndex(PDOMBinding pdomBinding) throws CoreException {
+		if (fPDOM.isBulkLoading()) {
+			if (fDeferredTrigrams == null) {
+				fDeferredTrigrams= new TrigramIndex.Buffer();
+			}
+			fDeferredTrigrams.add(pdomBinding.getNameCharArray(), pdomBinding.getRecord());
+			if (fDeferredTrigrams.size() >= MAX_DEFERRED_TRIGRAMS) {
+				flushNameTrigramIndex();
+			}
+		} else {
+			getNameTrigramIndex().insert(pdomBinding.getNameCharArray(), pdomBinding.getRecord());
+		}
+	}
+
+	/**
+	 * Writes the additions to the indexes that have been deferred during a bulk load.
+	 */
+	public void flushDeferredIndexes() throws CoreException {
+		flushNameTrigramIndex();
+	}
+
+	/**
+	 * Writes the additions to the trigram index that have been deferred during a bulk load.
+	 */
+	public void flushNameTrigramIndex() throws CoreException {
+		if (fDeferredTrigrams != null) {
+			getNameTrigramIndex().insert(fDeferredTrigrams);
+			fDeferredTrigrams= null;
+		}
+	}
+
 	/**
 	 * Call-back informing the linkage that a binding is about to be removed. Used to index nested bindings.
 	 * @param pdomBinding
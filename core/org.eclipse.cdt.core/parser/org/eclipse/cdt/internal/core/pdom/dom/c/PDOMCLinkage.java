@@ -170,6 +170,7 @@ class PDOMCLinkage extends PDOMLinkage implements IIndexCBindingConstants {
 			if (parent != this && insertIntoIndex != this) {
 				insertIntoNestedBindingsIndex(pdomBinding);
 			}
+			insertIntoNameTrigramIndex(pdomBinding);
 		}
 		return pdomBinding;
 	}
@@ -20,9 +20,12 @@ import org.eclipse.cdt.core.dom.ast.IBinding;
 import org.eclipse.cdt.core.dom.ast.ISemanticProblem;
 import org.eclipse.cdt.core.dom.ast.IType;
 import org.eclipse.cdt.core.dom.ast.cpp.ICPPBase;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateInstance;
+import org.eclipse.cdt.core.dom.ast.cpp.ICPPTemplateParameter;
 import org.eclipse.cdt.internal.core.dom.parser.ProblemType;
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ICPPInternalBase;
 import org.eclipse.cdt.internal.core.pdom.db.Database;
+import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMLinkage;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMName;
 import org.eclipse.core.runtime.CoreException;
@@ -34,7 +37,9 @@ class PDOMCPPBase implements ICPPBase, ICPPInternalBase {
 	static final int CLASS_DEFINITION = 0;
 	private static final int BASECLASS_TYPE = CLASS_DEFINITION + Database.PTR_SIZE;
 	private static final int NEXTBASE = BASECLASS_TYPE + Database.TYPE_SIZE;
-	private static final int FLAGS = NEXTBASE + Database.PTR_SIZE;
+	private static final int BASECLASS_BINDING = NEXTBASE + Database.PTR_SIZE;
+	private static final int BASECLASS_NAME = BASECLASS_BINDING + Database.PTR_SIZE;
+	private static final int FLAGS = BASECLASS_NAME + Database.PTR_SIZE;
 	
 	protected static final int RECORD_SIZE = FLAGS + 1;
 	
@@ -52,6 +57,11 @@ class PDOMCPPBase implements ICPPBase, ICPPInternalBase {
 		this.record = record;
 	}
 	
+	/**
+	 * Stores a base of a class and records it in the subtype index of the linkage. When the base
+	 * class cannot be adapted to the linkage, the base is recorded by the name of the base class,
+	 * instead.
+	 */
 	public PDOMCPPBase(PDOMLinkage linkage, ICPPBase base, PDOMName classDefName) throws CoreException {
 		Database db = linkage.getDB();
 		this.linkage = linkage;
@@ -61,7 +71,47 @@ class PDOMCPPBase implements ICPPBase, ICPPInternalBase {
 		
 		byte flags = (byte) (base.getVisibility() | (base.isVirtual() ? FLAGS_VIRTUAL : 0)
 				| (base.isInheritedConstructorsSource() ? FLAGS_INHERITED_CONSTRUCTORS_SOURCE : 0));
+
 		db.putByte(record + FLAGS, flags);
+
+		PDOMCPPLinkage cppLinkage = (PDOMCPPLinkage) linkage;
+		IBinding key = getSubtypeIndexKey(base.getBaseClassType());
+		PDOMBinding baseClass = linkage.adaptBinding(key);
+		if (baseClass != null) {
+			db.putRecPtr(record + BASECLASS_BINDING, baseClass.getRecord());
+			cppLinkage.insertIntoSubtypeIndex(record);
+		} else if (key != null && !(key instanceof ICPPTemplateParameter)) {
+			db.putRecPtr(record + BASECLASS_NAME, db.newString(key.getNameCharArray()).getRecord());
+			cppLinkage.insertIntoUnindexedBases(record);
+		}
+	}
+
+	/**
+	 * Returns the binding under which a base class is stored in the subtype index. Typedefs are
+	 * resolved and template instances are stored with their template.
+	 */
+	static IBinding getSubtypeIndexKey(IType baseClassType) {
+		IType type = getNestedType(baseClassType, TDEF);
+		if (type instanceof ICPPTemplateInstance) {
+			return ((ICPPTemplateInstance) type).getTemplateDefinition();
+		}
+		return type instanceof IBinding ? (IBinding) type : null;
+	}
+
+	/**
+	 * Returns the record of the binding of the base class stored with the given base record,
+	 * or 0 if the base class is not part of the subtype index.
+	 */
+	static long getBaseClassBindingRecord(Database db, long baseRecord) throws CoreException {
+		return db.getRecPtr(baseRecord + BASECLASS_BINDING);
+	}
+
+	/**
+	 * Returns the record of the name of the base class stored with the given base record, or 0
+	 * if the base is part of the subtype index.
+	 */
+	static long getBaseClassNameRecord(Database db, long baseRecord) throws CoreException {
+		return db.getRecPtr(baseRecord + BASECLASS_NAME);
 	}
 
 	private Database getDB() {
@@ -151,7 +201,17 @@ class PDOMCPPBase implements ICPPBase, ICPPInternalBase {
 	}
 
 	public void delete() throws CoreException {
-		getDB().free(record);
+		Database db = getDB();
+		if (getBaseClassBindingRecord(db, record) != 0) {
+			((PDOMCPPLinkage) linkage).deleteFromSubtypeIndex(record);
+		} else {
+			long nameRec = getBaseClassNameRecord(db, record);
+			if (nameRec != 0) {
+				((PDOMCPPLinkage) linkage).deleteFromUnindexedBases(record);
+				db.getString(nameRec).delete();
+			}
+		}
+		db.free(record);
 	}
 	
 	@Override
@@ -162,7 +162,9 @@ import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
 import org.eclipse.cdt.internal.core.pdom.db.BTree;
 import org.eclipse.cdt.internal.core.pdom.db.Database;
 import org.eclipse.cdt.internal.core.pdom.db.IBTreeComparator;
+import org.eclipse.cdt.internal.core.pdom.db.IString;
 import org.eclipse.cdt.internal.core.pdom.dom.IPDOMMemberOwner;
+import org.eclipse.cdt.internal.core.pdom.dom.IRecordIterator;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMASTAdapter;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMBinding;
 import org.eclipse.cdt.internal.core.pdom.dom.PDOMFile;
@@ -183,9 +185,11 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 	public final static int CACHE_INSTANCE_SCOPE= 3;
 
 	private final static int FIRST_NAMESPACE_CHILD_OFFSET= PDOMLinkage.RECORD_SIZE;
+	private final static int SUBTYPE_INDEX= FIRST_NAMESPACE_CHILD_OFFSET + Database.PTR_SIZE;
+	private final static int UNINDEXED_BASES= SUBTYPE_INDEX + Database.PTR_SIZE;
 
 	@SuppressWarnings("hiding")
-	private final static int RECORD_SIZE= FIRST_NAMESPACE_CHILD_OFFSET + Database.PTR_SIZE;
+	private final static int RECORD_SIZE= UNINDEXED_BASES + Database.PTR_SIZE;
 
 	// Only used when writing to database, which is single-threaded
 	private final LinkedList<Runnable> postProcesses = new LinkedList<Runnable>();
@@ -197,6 +201,10 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 	// (which is a lot of functions).
 	private IASTName pointOfInstantiation = null;  
 
+	// Additions to the indexes of bases deferred during a bulk load, accessed with the write lock only.
+	private BTree.Buffer fDeferredSubtypes;
+	private BTree.Buffer fDeferredUnindexedBases;
+
 	public PDOMCPPLinkage(PDOM pdom, long record) {
 		super(pdom, record);
 	}
@@ -794,6 +802,7 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 			if (parent != this && parent2 != this) {
 				insertIntoNestedBindingsIndex(pdomBinding);
 			}
+			insertIntoNameTrigramIndex(pdomBinding);
 		}
 
 		return pdomBinding;
@@ -1428,6 +1437,125 @@ class PDOMCPPLinkage extends PDOMLinkage implements IIndexCPPBindingConstants {
 		}
 	}
 
+	/**
+	 * Returns the index of base class records, ordered by the record of the base class.
+	 */
+	BTree getSubtypeIndex() {
+		final Database db= getDB();
+		return new BTree(db, record + SUBTYPE_INDEX, new IBTreeComparator() {
+			@Override
+			public int compare(long base1, long base2) throws CoreException {
+				int cmp= Long.compare(PDOMCPPBase.getBaseClassBindingRecord(db, base1),
+						PDOMCPPBase.getBaseClassBindingRecord(db, base2));
+				return cmp != 0 ? cmp : Long.compare(base1, base2);
+			}
+		});
+	}
+
+	void insertIntoSubtypeIndex(long base) throws CoreException {
+		if (getPDOM().isBulkLoading()) {
+			if (fDeferredSubtypes == null) {
+				fDeferredSubtypes= new BTree.Buffer();
+			}
+			fDeferredSubtypes.add(base);
+		} else {
+			getSubtypeIndex().insert(base);
+		}
+	}
+
+	void deleteFromSubtypeIndex(long base) throws CoreException {
+		if (fDeferredSubtypes == null || !fDeferredSubtypes.remove(base)) {
+			getSubtypeIndex().delete(base);
+		}
+	}
+
+	/**
+	 * Returns the names of the definitions of the classes directly derived from the given class.
+	 * Bases specified via typedefs are included, for a class template the definitions of classes
+	 * derived from its instances are returned.
+	 */
+	@Override
+	public PDOMName[] findSubclassDefinitions(PDOMBinding baseClass) throws CoreException {
+		final Database db= getDB();
+		final long baseClassRec= baseClass.getRecord();
+		final List<PDOMName> result= new ArrayList<>();
+		IRecordIterator iterator= getSubtypeIndex().recordIterator(
+				base -> Long.compare(PDOMCPPBase.getBaseClassBindingRecord(db, base), baseClassRec));
+		for (long base; (base= iterator.next()) != 0;) {
+			PDOMName classDefName= new PDOMCPPBase(this, base).getClassDefinitionName();
+			if (classDefName != null) {
+				result.add(classDefName);
+			}
+		}
+		// Bases with a class that could not be adapted when they were stored, are found by the
+		// name of the base class.
+		final char[] name= baseClass.getNameCharArray();
+		iterator= getUnindexedBases().recordIterator(
+				base -> db.getString(PDOMCPPBase.getBaseClassNameRecord(db, base)).compare(name, true));
+		for (long base; (base= iterator.next()) != 0;) {
+			PDOMCPPBase pdomBase= new PDOMCPPBase(this, base);
+			PDOMBinding adapted= adaptBinding(PDOMCPPBase.getSubtypeIndexKey(pdomBase.getBaseClassType()));
+			if (adapted != null && adapted.getRecord() == baseClassRec) {
+				PDOMName classDefName= pdomBase.getClassDefinitionName();
+				if (classDefName != null) {
+					result.add(classDefName);
+				}
+			}
+		}
+		return result.toArray(new PDOMName[result.size()]);
+	}
+
+	/**
+	 * Returns the index of the base class records that are not part of the subtype index, ordered
+	 * by the name of the base class.
+	 */
+	BTree getUnindexedBases() {
+		final Database db= getDB();
+		return new BTree(db, record + UNINDEXED_BASES, new IBTreeComparator() {
+			@Override
+			public int compare(long base1, long base2) throws CoreException {
+				IString name1= db.getString(PDOMCPPBase.getBaseClassNameRecord(db, base1));
+				IString name2= db.getString(PDOMCPPBase.getBaseClassNameRecord(db, base2));
+				int cmp= name1.compare(name2, true);
+				return cmp != 0 ? cmp : Long.compare(base1, base2);
+			}
+		});
+	}
+
+	void insertIntoUnindexedBases(long base) throws CoreException {
+		if (getPDOM().isBulkLoading()) {
+			if (fDeferredUnindexedBases == null) {
+				fDeferredUnindexedBases= new BTree.Buffer();
+			}
+			fDeferredUnindexedBases.add(base);
+		} else {
+			getUnindexedBases().insert(base);
+		}
+	}
+
+	void deleteFromUnindexedBases(long base) throws CoreException {
+		if (fDeferredUnindexedBases == null || !fDeferredUnindexedBases.remove(base)) {
+			getUnindexedBases().delete(base);
+		}
+	}
+
+	/**
+	 * Writes the indexes of bases in one go, the B-trees are empty after the index has been
+	 * cleared and are built bottom-up.
+	 */
+	@Override
+	public void flushDeferredIndexes() throws CoreException {
+		super.flushDeferredIndexes();
+		if (fDeferredSubtypes != null) {
+			getSubtypeIndex().insert(fDeferredSubtypes);
+			fDeferredSubtypes= null;
+		}
+		if (fDeferredUnindexedBases != null) {
+			getUnindexedBases().insert(fDeferredUnindexedBases);
+			fDeferredUnindexedBases= null;
+		}
+	}
+
 	@Override
 	public ICPPUsingDirective[] getUsingDirectives(PDOMFile file) throws CoreException {
 		long rec= file.getLastUsingDirectiveRec();
@@ -13,6 +13,8 @@
 package org.eclipse.cdt.internal.core.pdom.export;
 
 import java.io.File;
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 
 import org.eclipse.cdt.core.CCorePlugin;
@@ -22,6 +24,9 @@ import org.eclipse.cdt.core.index.export.IExportProjectProvider;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.LanguageManager;
 import org.eclipse.cdt.internal.core.CCoreInternals;
+import org.eclipse.cdt.internal.core.pdom.Checksums;
+import org.eclipse.cdt.internal.core.pdom.PDOMBlockStore;
+import org.eclipse.cdt.internal.core.pdom.TeamPDOMExportOperation;
 import org.eclipse.cdt.internal.core.pdom.WritablePDOM;
 import org.eclipse.cdt.internal.core.pdom.indexer.IndexerPreferences;
 import org.eclipse.core.runtime.CoreException;
@@ -101,6 +106,8 @@ public class GeneratePDOM {
 		// Index the project
 		IndexerPreferences.set(cproject.getProject(), IndexerPreferences.KEY_INDEXER_ID, indexerID);
 		
+		File exportFile= null;
+		File checksumsFile= null;
 		try {
 			final IIndexManager manager = CCorePlugin.getIndexManager();
 			for (int i = 0; i < 20; i++) {
@@ -126,11 +133,13 @@ public class GeneratePDOM {
 					return m;	
 				}
 			}
-			// Export a .pdom file
-			CCoreInternals.getPDOMManager().exportProjectPDOM(cproject, targetLocation, converter, null);
+			// Export a .pdom file, or a temporary one to be added to a block store.
+			final boolean blocks= PDOMBlockStore.isManifest(targetLocation);
+			exportFile= blocks ? File.createTempFile("export", ".pdom") : targetLocation; //$NON-NLS-1$ //$NON-NLS-2$
+			CCoreInternals.getPDOMManager().exportProjectPDOM(cproject, exportFile, converter, null);
 
 			// Write properties to exported PDOM
-			WritablePDOM exportedPDOM= new WritablePDOM(targetLocation, converter,
+			WritablePDOM exportedPDOM= new WritablePDOM(exportFile, converter,
 					LanguageManager.getInstance().getPDOMLinkageFactoryMappings());
 			exportedPDOM.acquireWriteLock(0, null);
 			try {
@@ -144,10 +153,28 @@ public class GeneratePDOM {
 			} finally {
 				exportedPDOM.releaseWriteLock();
 			}
+
+			// Only the blocks not yet present in the store are written, such that a store can be
+			// updated incrementally. The checksums allow the import to keep the up-to-date files.
+			if (blocks) {
+				checksumsFile= File.createTempFile("checksums", ".dat"); //$NON-NLS-1$ //$NON-NLS-2$
+				TeamPDOMExportOperation.createChecksums(cproject, exportFile, converter,
+						Checksums.getDefaultAlgorithm(), checksumsFile, new NullProgressMonitor());
+				new PDOMBlockStore(targetLocation).write(exportFile, checksumsFile, null);
+			}
 		} catch (InterruptedException ie) {
 			String msg= MessageFormat.format(Messages.GeneratePDOM_GenericGenerationFailed, new Object[] {ie.getMessage()});
 			throw new CoreException(CCorePlugin.createStatus(msg, ie));
+		} catch (IOException | NoSuchAlgorithmException e) {
+			String msg= MessageFormat.format(Messages.GeneratePDOM_GenericGenerationFailed, new Object[] {e.getMessage()});
+			throw new CoreException(CCorePlugin.createStatus(msg, e));
 		} finally {
+			if (exportFile != null && exportFile != targetLocation) {
+				exportFile.delete();
+			}
+			if (checksumsFile != null) {
+				checksumsFile.delete();
+			}
 			if (deleteOnExit) {
 				cproject.getProject().delete(true, new NullProgressMonitor());
 			}
@@ -29,11 +29,13 @@ import org.eclipse.cdt.core.index.IIndexManager;
 import org.eclipse.cdt.core.model.ICProject;
 import org.eclipse.cdt.core.model.ITranslationUnit;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
+import org.eclipse.cdt.internal.core.CCoreInternals;
 import org.eclipse.cdt.internal.core.index.IWritableIndex;
 import org.eclipse.cdt.internal.core.index.IWritableIndexManager;
 import org.eclipse.cdt.internal.core.model.CProject;
 import org.eclipse.cdt.internal.core.pdom.AbstractIndexerTask;
 import org.eclipse.cdt.internal.core.pdom.ITodoTaskUpdater;
+import org.eclipse.cdt.internal.core.pdom.IndexerMetrics;
 import org.eclipse.cdt.internal.core.pdom.IndexerProgress;
 import org.eclipse.cdt.internal.core.pdom.db.ChunkCache;
 import org.eclipse.core.resources.IResource;
@@ -54,6 +56,7 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 
 	private AbstractPDOMIndexer fIndexer;
 	private boolean fWriteInfoToLog;
+	private volatile long fStartTime;
 
 	protected PDOMIndexerTask(ITranslationUnit[] forceFiles, ITranslationUnit[] updateFiles,
 			ITranslationUnit[] removeFiles, AbstractPDOMIndexer indexer, boolean isFastIndexer) {
@@ -158,10 +161,22 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 	@Override
 	public final void run(IProgressMonitor monitor) throws InterruptedException {
 		long start = System.currentTimeMillis();
+		fStartTime = start;
 		runTask(monitor);
 		traceEnd(start, fIndex, monitor.isCanceled());
 	}
 
+	/**
+	 * Returns a snapshot of the progress, throughput and lock contention of this task,
+	 * or {@code null} if the task has not been started.
+	 */
+	public IndexerMetrics getMetrics() {
+		if (fStartTime == 0)
+			return null;
+		return new IndexerMetrics(getCProject().getElementName(), System.currentTimeMillis() - fStartTime,
+				getProgressInformation(), fStatistics, fIndex);
+	}
+
 	/**
 	 * Checks whether a given debug option is enabled. See {@link IPDOMIndexerTask}
 	 * for valid values.
@@ -227,6 +242,13 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 	}
 
 	protected void traceEnd(long start, IWritableIndex index, boolean wasCancelled) {
+		IndexerMetrics metrics= null;
+		if (!wasCancelled && index != null) {
+			metrics= new IndexerMetrics(getCProject().getElementName(), System.currentTimeMillis() - start,
+					getProgressInformation(), fStatistics, index);
+			CCoreInternals.getPDOMManager().setIndexerMetrics(metrics);
+		}
+
 		// log entry
 		if (fWriteInfoToLog && !wasCancelled && index != null) {
 			final long totalTime = System.currentTimeMillis() - start;
@@ -319,6 +341,8 @@ public abstract class PDOMIndexerTask extends AbstractIndexerTask implements IPD
 					+ ChunkCache.getSharedInstance().getMaxSize() / 1024 / 1024 + "MB]: " +    //$NON-NLS-1$
 					+ hits + " hits, "      //$NON-NLS-1$
 					+ misses + "(" + nfPercent.format(missPct) + ") misses.");      //$NON-NLS-1$ //$NON-NLS-2$
+			if (metrics != null)
+				System.out.println(indent + " Metrics: " + metrics.toJSON()); //$NON-NLS-1$
 
 			if (Boolean.parseBoolean(System.getProperty("SHOW_COMPRESSED_INDEXER_INFO"))) {    //$NON-NLS-1$
 				Calendar cal = Calendar.getInstance();
@@ -43,6 +43,7 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 	private final IndexerProgress fProgress;
 	private volatile IPDOMIndexerTask fDelegate;
 	private IProgressMonitor fProgressMonitor;
+	private boolean fBulkLoading;
 
 	public PDOMRebuildTask(IPDOMIndexer indexer) {
 		fIndexer= indexer;
@@ -86,13 +87,38 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 				}
 			}
 			
-			if (fDelegate != null) {
-				fDelegate.run(monitor);
+			try {
+				if (fDelegate != null) {
+					fDelegate.run(monitor);
+				}
+			} finally {
+				if (fBulkLoading) {
+					endBulkLoad(cproject);
+				}
 			}
 		} finally {
 			fProgressMonitor = null;
 		}
 	}
+
+	/**
+	 * Writes the additions to the index that were deferred while the index was filled.
+	 */
+	private void endBulkLoad(ICProject project) throws InterruptedException {
+		try {
+			IWritableIndex index= ((IWritableIndexManager) CCorePlugin.getIndexManager()).getWritableIndex(project);
+			if (index != null && index.getWritableFragment() instanceof WritablePDOM) {
+				index.acquireWriteLock(null);
+				try {
+					((WritablePDOM) index.getWritableFragment()).endBulkLoad();
+				} finally {
+					index.releaseWriteLock();
+				}
+			}
+		} catch (CoreException e) {
+			CCorePlugin.log(e);
+		}
+	}
 	
 	private void clearIndex(ICProject project, IWritableIndex index) throws CoreException, InterruptedException {
 		// First clear the pdom
@@ -102,6 +128,10 @@ public class PDOMRebuildTask implements IPDOMIndexerTask {
 			IWritableIndexFragment wf= index.getWritableFragment();
 			if (wf instanceof WritablePDOM) {
 				PDOMManager.writeProjectPDOMProperties((WritablePDOM) wf, project.getProject());
+				if (!IPDOMManager.ID_NO_INDEXER.equals(fIndexer.getID())) {
+					((WritablePDOM) wf).beginBulkLoad();
+					fBulkLoading= true;
+				}
 			}
 		} finally {
 			index.releaseWriteLock();
@@ -18,6 +18,7 @@ import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -26,10 +27,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.IConsoleParser;
@@ -49,6 +52,7 @@ import org.eclipse.cdt.core.parser.IScannerInfo;
 import org.eclipse.cdt.core.parser.IScannerInfoChangeListener;
 import org.eclipse.cdt.core.parser.IncludeExportPatterns;
 import org.eclipse.cdt.core.resources.IConsole;
+import org.eclipse.cdt.internal.core.build.CompileCommandsReader;
 import org.eclipse.cdt.internal.core.build.Messages;
 import org.eclipse.cdt.internal.core.model.BinaryRunner;
 import org.eclipse.cdt.internal.core.model.CModelManager;
@@ -606,7 +610,20 @@ public abstract class CBuildConfiguration extends PlatformObject
 	@Override
 	public boolean processLine(String line) {
 		// TODO smarter line parsing to deal with quoted arguments
-		List<String> command = Arrays.asList(line.split("\\s+")); //$NON-NLS-1$
+		return processCommand(Arrays.asList(line.split("\\s+"))); //$NON-NLS-1$
+	}
+
+	/**
+	 * Process a command line that is already split into arguments and update
+	 * the scanner info of the resources it compiles.
+	 * 
+	 * @param arguments
+	 *            the command line, one element per argument
+	 * @return whether the command is a compile command
+	 * @since 6.3
+	 */
+	protected boolean processCommand(List<String> arguments) {
+		List<String> command = new ArrayList<>(arguments);
 
 		// Make sure it's a compile command
 		String[] compileCommands = toolChain.getCompileCommands();
@@ -666,6 +683,63 @@ public abstract class CBuildConfiguration extends PlatformObject
 		}
 	}
 
+	/**
+	 * Process a compile_commands.json compilation database and update the
+	 * scanner info cache from it. The file is streamed one entry at a time so
+	 * it never needs to be held in memory as a whole. Entries whose directory,
+	 * file and command are unchanged since the last time the database was
+	 * processed are skipped, and command lines that are identical across files
+	 * share a single scanner info record in the cache.
+	 * 
+	 * @param commandsFile
+	 *            the compile_commands.json file
+	 * @param monitor
+	 *            progress monitor
+	 * @since 6.3
+	 */
+	protected void processCompileCommandsFile(Path commandsFile, IProgressMonitor monitor) throws CoreException {
+		if (!Files.exists(commandsFile)) {
+			return;
+		}
+
+		monitor.setTaskName(Messages.CBuildConfiguration_ProcCompJson);
+		loadScannerInfoCache();
+		boolean hashesChanged = false;
+		try (CompileCommandsReader reader = new CompileCommandsReader(
+				Files.newBufferedReader(commandsFile, StandardCharsets.UTF_8))) {
+			Set<String> filePaths = new HashSet<>();
+			boolean canceled = false;
+			for (CompileCommandsReader.Entry entry = reader.next(); entry != null; entry = reader.next()) {
+				if (monitor.isCanceled()) {
+					canceled = true;
+					break;
+				}
+
+				String filePath = entry.getFilePath();
+				filePaths.add(filePath);
+				if (scannerInfoCache.isEntryUnchanged(filePath, entry.getHash())) {
+					continue;
+				}
+
+				processCommand(entry.getArguments());
+				hashesChanged |= scannerInfoCache.setEntryHash(filePath, entry.getHash());
+			}
+
+			// Forget the entries that were removed from the database
+			if (!canceled) {
+				hashesChanged |= scannerInfoCache.retainEntryHashes(filePaths);
+			}
+		} catch (IOException | IllegalStateException e) {
+			throw new CoreException(new Status(IStatus.ERROR, CCorePlugin.PLUGIN_ID,
+					String.format(Messages.CBuildConfiguration_ProcCompCmds, getProject().getName()), e));
+		}
+
+		if (hashesChanged && !infoChanged) {
+			saveScannerInfoCache();
+		}
+		shutdown();
+	}
+
 	@Override
 	public void subscribe(IResource resource, IScannerInfoChangeListener listener) {
 		List<IScannerInfoChangeListener> listeners = scannerInfoListeners.get(resource);
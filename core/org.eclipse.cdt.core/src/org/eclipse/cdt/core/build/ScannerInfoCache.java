@@ -8,6 +8,7 @@
 package org.eclipse.cdt.core.build;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,7 @@ public class ScannerInfoCache {
 	}
 
 	private List<Command> commands;
+	private Map<String, Long> entryHashes;
 
 	private transient Map<List<String>, Command> commandMap = new HashMap<>();
 	private transient Map<String, Command> resourceMap = new HashMap<>();
@@ -41,6 +43,9 @@ public class ScannerInfoCache {
 		if (commands == null) {
 			commands = new ArrayList<>();
 		}
+		if (entryHashes == null) {
+			entryHashes = new HashMap<>();
+		}
 
 		for (Command command : commands) {
 			commandMap.put(command.command, command);
@@ -65,6 +70,40 @@ public class ScannerInfoCache {
 		return commandMap.get(commandStrings) != null;
 	}
 
+	/**
+	 * Checks whether the compile database entry for the given file has the
+	 * same hash as the last time it was processed and the file still has
+	 * scanner info in this cache.
+	 * 
+	 * @since 6.3
+	 */
+	public boolean isEntryUnchanged(String filePath, long entryHash) {
+		Long oldHash = entryHashes.get(filePath);
+		return oldHash != null && oldHash.longValue() == entryHash && resourceMap.containsKey(filePath);
+	}
+
+	/**
+	 * Remember the hash of the compile database entry for the given file.
+	 * 
+	 * @return true if the hash differs from the one previously stored
+	 * @since 6.3
+	 */
+	public boolean setEntryHash(String filePath, long entryHash) {
+		Long oldHash = entryHashes.put(filePath, entryHash);
+		return oldHash == null || oldHash.longValue() != entryHash;
+	}
+
+	/**
+	 * Forget the compile database entries of all files but the given ones,
+	 * e.g. because the other entries were removed from the database.
+	 * 
+	 * @return true if the hash of any entry was removed
+	 * @since 6.3
+	 */
+	public boolean retainEntryHashes(Collection<String> filePaths) {
+		return entryHashes.keySet().retainAll(filePaths);
+	}
+
 	public void addScannerInfo(List<String> commandStrings, IExtendedScannerInfo info, IResource resource) {
 		// Do I need to remove the resource from an existing command?
 		String resourcePath = resource.getLocation().toOSString();
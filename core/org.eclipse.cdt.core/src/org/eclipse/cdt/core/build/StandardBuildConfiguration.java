@@ -98,6 +98,9 @@ public class StandardBuildConfiguration extends CBuildConfiguration {
 
 			project.refreshLocal(IResource.DEPTH_INFINITE, monitor);
 
+			// Pick up a compilation database if the build produced one
+			processCompileCommandsFile(buildDir.resolve("compile_commands.json"), monitor); //$NON-NLS-1$
+
 			return new IProject[] { project };
 		} catch (IOException e) {
 			throw new CoreException(
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Eclipse CDT and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.cdt.internal.core.build;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.cdt.utils.CommandLineUtil;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads a compile_commands.json compilation database one entry at a time, so
+ * the database never needs to be held in memory as a whole.
+ */
+public class CompileCommandsReader implements Closeable {
+
+	/**
+	 * An entry of the compilation database.
+	 */
+	public static class Entry {
+		private final String filePath;
+		private final List<String> arguments;
+		private final long hash;
+
+		Entry(String filePath, List<String> arguments, long hash) {
+			this.filePath = filePath;
+			this.arguments = arguments;
+			this.hash = hash;
+		}
+
+		/**
+		 * @return the file of the entry, resolved against its directory
+		 */
+		public String getFilePath() {
+			return filePath;
+		}
+
+		/**
+		 * @return the command line, one element per argument
+		 */
+		public List<String> getArguments() {
+			return arguments;
+		}
+
+		/**
+		 * @return the 64-bit FNV-1a hash of the directory, file and command of
+		 *         the entry
+		 */
+		public long getHash() {
+			return hash;
+		}
+	}
+
+	private final JsonReader reader;
+	private boolean started;
+
+	public CompileCommandsReader(Reader reader) {
+		this.reader = new JsonReader(reader);
+	}
+
+	/**
+	 * Read the next entry that has a file and a command. The "arguments" of an
+	 * entry are used as they are, a "command" is split like a shell would.
+	 *
+	 * @return the entry, or <code>null</code> at the end of the database
+	 */
+	public Entry next() throws IOException {
+		if (!started) {
+			reader.beginArray();
+			started = true;
+		}
+
+		while (reader.hasNext()) {
+			String directory = null;
+			String file = null;
+			String command = null;
+			List<String> arguments = null;
+
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String key = reader.nextName();
+				if (reader.peek() == JsonToken.NULL) {
+					reader.nextNull();
+					continue;
+				}
+				switch (key) {
+				case "directory": //$NON-NLS-1$
+					directory = reader.nextString();
+					break;
+				case "file": //$NON-NLS-1$
+					file = reader.nextString();
+					break;
+				case "command": //$NON-NLS-1$
+					command = reader.nextString();
+					break;
+				case "arguments": //$NON-NLS-1$
+					arguments = new ArrayList<>();
+					reader.beginArray();
+					while (reader.hasNext()) {
+						arguments.add(reader.nextString());
+					}
+					reader.endArray();
+					break;
+				default:
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+
+			if (file == null) {
+				continue;
+			}
+
+			List<String> parts = new ArrayList<>();
+			parts.add(directory);
+			parts.add(file);
+			if (arguments != null && !arguments.isEmpty()) {
+				parts.add("arguments"); //$NON-NLS-1$
+				parts.addAll(arguments);
+			} else if (command != null) {
+				parts.add("command"); //$NON-NLS-1$
+				parts.add(command);
+				arguments = new ArrayList<>(Arrays.asList(CommandLineUtil.argumentsToArray(command)));
+			}
+			if (arguments == null || arguments.isEmpty()) {
+				continue;
+			}
+
+			String filePath = file;
+			if (directory != null) {
+				try {
+					filePath = Paths.get(directory).resolve(file).normalize().toString();
+				} catch (IllegalArgumentException e) {
+					// Leave the path as it is in the database
+				}
+			}
+			return new Entry(filePath, arguments, hash(parts));
+		}
+
+		reader.endArray();
+		return null;
+	}
+
+	/**
+	 * 64-bit FNV-1a hash of a list of strings.
+	 */
+	private static long hash(List<String> parts) {
+		long hash = 0xcbf29ce484222325L;
+		for (String part : parts) {
+			if (part != null) {
+				for (int i = 0; i < part.length(); i++) {
+					hash ^= part.charAt(i);
+					hash *= 0x100000001b3L;
+				}
+			}
+			// separator so that ("ab", "c") and ("a", "bc") differ
+			hash ^= 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
@@ -49,7 +49,11 @@ public class THContentProvider implements ITreeContentProvider {
     @Override
 	public Object[] getChildren(Object element) {
     	if (element instanceof THNode) {
-    		return ((THNode) element).getChildren();
+    		THNode node= (THNode) element;
+    		if (node.isChildrenPending() && fModel != null) {
+    			return fModel.computeChildren(node);
+    		}
+    		return node.getChildren();
     	}
     	return NO_CHILDREN;
     }
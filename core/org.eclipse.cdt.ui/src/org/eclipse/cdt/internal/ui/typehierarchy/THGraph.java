@@ -11,6 +11,7 @@
 package org.eclipse.cdt.internal.ui.typehierarchy;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -33,6 +34,7 @@ import org.eclipse.cdt.core.model.ICElement;
 import org.eclipse.cdt.ui.CUIPlugin;
 
 import org.eclipse.cdt.internal.core.dom.parser.cpp.ClassTypeHelper;
+import org.eclipse.cdt.internal.core.index.ISubclassSearch;
 import org.eclipse.cdt.internal.core.model.ext.ICElementHandle;
 
 import org.eclipse.cdt.internal.ui.viewsupport.IndexUI;
@@ -200,54 +202,79 @@ class THGraph {
 		}
 	}
 
+	/**
+	 * Adds the direct sub classes of the input node. The sub classes of the nodes added are
+	 * searched on demand, see {@link #addSubClasses(IIndex, THGraphNode, IProgressMonitor)}.
+	 */
 	public void addSubClasses(IIndex index, IProgressMonitor monitor) {
 		if (fInputNode == null) {
 			return;
 		}
-		HashSet<ICElement> handled= new HashSet<>();
-		ArrayList<ICElement> stack= new ArrayList<>();
-		ICElement element = fInputNode.getElement();
-		stack.add(element);
-		handled.add(element);
-		while (!stack.isEmpty()) {
-			if (monitor.isCanceled()) {
-				return;
-			}
-			ICElement elem= stack.remove(stack.size() - 1);
-			THGraphNode graphNode= addNode(elem);
-			try {
-				IBinding binding = IndexUI.elementToBinding(index, elem);
-				if (binding != null) {
-					// TODO(nathanridge): Also find subclasses referenced via decltype-specifiers rather than names.
-					IIndexName[] names= index.findNames(binding, IIndex.FIND_REFERENCES | IIndex.FIND_DEFINITIONS);
-					for (IIndexName indexName : names) {
-						if (monitor.isCanceled()) {
-							return;
-						}
-						if (indexName.isBaseSpecifier()) {
-							IIndexName subClassDef= indexName.getEnclosingDefinition();
-							if (subClassDef != null) {
-								IBinding subClass= index.findBinding(subClassDef);
-								ICElementHandle[] subClassElems= IndexUI.findRepresentative(index, subClass);
-								if (subClassElems.length > 0) {
-									ICElementHandle subClassElem= subClassElems[0];
-									THGraphNode subGraphNode= addNode(subClassElem);
-									addMembers(index, subGraphNode, subClass);							
-									addEdge(subGraphNode, graphNode);
-									if (handled.add(subClassElem)) {
-										stack.add(subClassElem);
-									}
-								}
-							}
+		fInputNode.setSubClassesPending(true);
+		addSubClasses(index, fInputNode, monitor);
+	}
+
+	/**
+	 * Adds the direct sub classes of a node that was found as a sub class, the nodes added are
+	 * marked such that their own sub classes are searched when they are needed.
+	 */
+	public void addSubClasses(IIndex index, THGraphNode graphNode, IProgressMonitor monitor) {
+		if (!graphNode.isSubClassesPending()) {
+			return;
+		}
+		try {
+			IBinding binding = IndexUI.elementToBinding(index, graphNode.getElement());
+			if (binding != null) {
+				for (IIndexName subClassDef : findSubClassDefinitions(index, binding, monitor)) {
+					if (monitor.isCanceled()) {
+						return;
+					}
+					IBinding subClass= index.findBinding(subClassDef);
+					ICElementHandle[] subClassElems= IndexUI.findRepresentative(index, subClass);
+					if (subClassElems.length > 0) {
+						ICElementHandle subClassElem= subClassElems[0];
+						boolean isNew= getNode(subClassElem) == null;
+						THGraphNode subGraphNode= addNode(subClassElem);
+						addMembers(index, subGraphNode, subClass);							
+						if (addEdge(subGraphNode, graphNode) != null && isNew) {
+							subGraphNode.setSubClassesPending(true);
 						}
 					}
 				}
-			} catch (CoreException e) {
-				CUIPlugin.log(e);
 			}
+		} catch (CoreException e) {
+			CUIPlugin.log(e);
 		}
+		graphNode.setSubClassesPending(false);
 	}
 	
+	/**
+	 * Returns the definitions of the classes directly derived from the given binding. The subtype
+	 * index of the index is used where available, such that the references of classes with many
+	 * uses don't have to be searched for base specifiers.
+	 */
+	private static List<IIndexName> findSubClassDefinitions(IIndex index, IBinding binding,
+			IProgressMonitor monitor) throws CoreException {
+		if (index instanceof ISubclassSearch) {
+			return Arrays.asList(((ISubclassSearch) index).findSubclassDefinitions(binding));
+		}
+		List<IIndexName> result= new ArrayList<>();
+		// TODO(nathanridge): Also find subclasses referenced via decltype-specifiers rather than names.
+		IIndexName[] names= index.findNames(binding, IIndex.FIND_REFERENCES | IIndex.FIND_DEFINITIONS);
+		for (IIndexName indexName : names) {
+			if (monitor.isCanceled()) {
+				break;
+			}
+			if (indexName.isBaseSpecifier()) {
+				IIndexName subClassDef= indexName.getEnclosingDefinition();
+				if (subClassDef != null) {
+					result.add(subClassDef);
+				}
+			}
+		}
+		return result;
+	}
+
 	private void addMembers(IIndex index, THGraphNode graphNode, IBinding binding) throws CoreException {
 		if (graphNode.getMembers(false) == null) {
 			ArrayList<ICElement> memberList= new ArrayList<>();
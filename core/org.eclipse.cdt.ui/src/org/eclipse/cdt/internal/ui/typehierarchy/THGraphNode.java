@@ -22,6 +22,7 @@ class THGraphNode {
 	private List<THGraphEdge> fIncoming= Collections.emptyList();
 	private ICElement fElement;
 	private ICElement[] fMembers;
+	private boolean fSubClassesPending;
 	
 	THGraphNode(ICElement element) {
 		fElement= element;
@@ -60,6 +61,18 @@ class THGraphNode {
 		return fIncoming;
 	}
 
+	/**
+	 * Returns whether the node was found as a sub class and its own sub classes have not been
+	 * searched, yet.
+	 */
+	boolean isSubClassesPending() {
+		return fSubClassesPending;
+	}
+
+	void setSubClassesPending(boolean val) {
+		fSubClassesPending= val;
+	}
+
 	public void setMembers(ICElement[] array) {
 		fMembers= array;
 	}
@@ -18,6 +18,7 @@ import java.util.List;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.core.runtime.jobs.Job;
@@ -148,8 +149,7 @@ class THHierarchyModel {
 	protected IStatus onComputeGraph(Job job, IProgressMonitor monitor) {
 		THGraph graph= new THGraph();
 		try {
-			ICProject[] scope= CoreModel.getDefault().getCModel().getCProjects();
-			IIndex index= CCorePlugin.getIndexManager().getIndex(scope, IIndexManager.ADD_EXTENSION_FRAGMENTS_TYPE_HIERARCHY);
+			IIndex index= getIndex();
 			index.acquireReadLock();
 			try {
 				if (monitor.isCanceled()) 
@@ -174,6 +174,47 @@ class THHierarchyModel {
 		return Status.OK_STATUS;
 	}
 	
+	private static IIndex getIndex() throws CoreException {
+		ICProject[] scope= CoreModel.getDefault().getCModel().getCProjects();
+		return CCorePlugin.getIndexManager().getIndex(scope, IIndexManager.ADD_EXTENSION_FRAGMENTS_TYPE_HIERARCHY);
+	}
+
+	/**
+	 * Searches the sub classes of a node that were not computed together with the graph, the
+	 * sub classes are searched one level at a time, when a node is expanded.
+	 */
+	public THNode[] computeChildren(THNode node) {
+		node.setIsChildrenPending(false);
+		THGraphNode gnode= fGraph != null ? fGraph.getNode(node.getElement()) : null;
+		if (gnode == null) {
+			return node.getChildren();
+		}
+		if (gnode.isSubClassesPending()) {
+			try {
+				IIndex index= getIndex();
+				index.acquireReadLock();
+				try {
+					fGraph.addSubClasses(index, gnode, new NullProgressMonitor());
+				} finally {
+					index.releaseReadLock();
+				}
+			} catch (CoreException e) {
+				CUIPlugin.log(e);
+			} catch (InterruptedException e) {
+				return node.getChildren();
+			}
+		}
+		THGraphNode inputNode= fGraph.getInputNode();
+		for (THGraphEdge edge : gnode.getIncoming()) {
+			node.addChild(createNode(node, edge.getStartNode(), inputNode));
+		}
+		node.removeFilteredLeaves();
+		updateImplementors(node);
+		if (fHideNonImplementorLeaves && fSelectedMember != null && fMemberSignatureToSelect != null) 
+			node.removeNonImplementorLeaves();
+		return node.getChildren();
+	}
+
 	protected void computeNodes() {
 		if (fGraph == null) {
 			return;
@@ -207,7 +248,9 @@ class THHierarchyModel {
 			THNode node= stack.remove(stack.size() - 1);
 			THGraphNode gnode= fGraph.getNode(node.getElement());
 			List<THGraphEdge> edges= fwd ? gnode.getOutgoing() : gnode.getIncoming();
-			if (edges.isEmpty()) {
+			if (!fwd && gnode.isSubClassesPending()) {
+				node.setIsChildrenPending(true);
+			} else if (edges.isEmpty()) {
 				leafs.add(node);
 			} else {
 				for (THGraphEdge edge : edges) {
@@ -28,6 +28,7 @@ public class THNode implements IAdaptable {
     private int fHashCode;
     private boolean fIsFiltered;
     private boolean fIsImplementor;
+    private boolean fChildrenPending;
 
     /**
      * Creates a new node for the type hierarchy browser.
@@ -93,7 +94,18 @@ public class THNode implements IAdaptable {
 	}
 
 	public boolean hasChildren() {
-		return !fChildren.isEmpty();
+		return fChildrenPending || !fChildren.isEmpty();
+	}
+
+	/**
+	 * Returns whether the children of this node are computed when they are first requested.
+	 */
+	public boolean isChildrenPending() {
+		return fChildrenPending;
+	}
+
+	public void setIsChildrenPending(boolean val) {
+		fChildrenPending= val;
 	}
 
 	public THNode[] getChildren() {